@@ -0,0 +1,148 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.AvailabilityCache;
+import com.quintor.worqplace.application.LocationService;
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.application.ReservationOccurrenceService;
+import com.quintor.worqplace.application.RoomService;
+import com.quintor.worqplace.application.util.ReservationSlot;
+import com.quintor.worqplace.data.LocationRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.data.RoomRepository;
+import com.quintor.worqplace.domain.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Synthetic data for the benchmarks: a single {@link Location} with the requested amount of
+ * {@link Room rooms} and {@link Reservation reservations}, spread over half a year before and after today.
+ */
+public final class BenchmarkData {
+	public static final long LOCATION_ID = 1L;
+	public static final LocalDate TODAY = LocalDate.now();
+
+	private static final long SEED = 42L;
+	private static final int ROOM_CAPACITY = 24;
+	private static final int DAYS = 180;
+	private static final RecurrencePattern[] RECURRING_PATTERNS = {
+			RecurrencePattern.DAILY, RecurrencePattern.WEEKLY, RecurrencePattern.BIWEEKLY, RecurrencePattern.MONTHLY
+	};
+
+	/**
+	 * The share of recurring reservations in the generated data.
+	 */
+	public enum RecurrenceMix {
+		/**
+		 * Only one-off reservations.
+		 */
+		ONE_OFF(0),
+		/**
+		 * One in ten reservations recurs, with a random pattern.
+		 */
+		MIXED(10),
+		/**
+		 * Every reservation recurs, with a random pattern.
+		 */
+		RECURRING(100);
+
+		private final int recurringPercentage;
+
+		RecurrenceMix(int recurringPercentage) {
+			this.recurringPercentage = recurringPercentage;
+		}
+	}
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Function that generates a location, the same arguments always give the same data.
+	 *
+	 * @param roomCount        amount of rooms.
+	 * @param reservationCount amount of reservations, divided over the rooms.
+	 * @param mix              share of recurring reservations.
+	 * @return the generated {@link Location}.
+	 */
+	public static Location location(int roomCount, int reservationCount, RecurrenceMix mix) {
+		var random = new Random(SEED);
+		var location = new Location(LOCATION_ID, "Quintor Benchmark",
+				new Address(LOCATION_ID, 1, "", "Benchmarkstraat", "1234 AB", "Utrecht"), new ArrayList<>());
+		var reservations = new ArrayList<List<Reservation>>();
+
+		for (long id = 1; id <= roomCount; id++) {
+			location.getRooms().add(new Room(id, (int) id % 5, location, ROOM_CAPACITY, List.of()));
+			reservations.add(new ArrayList<>());
+		}
+
+		for (long id = 1; id <= reservationCount; id++) {
+			int roomIndex = random.nextInt(roomCount);
+			var room = location.getRooms().get(roomIndex);
+			reservations.get(roomIndex).add(reservation(random, id, room, mix));
+		}
+
+		for (int i = 0; i < roomCount; i++)
+			location.getRooms().get(i).setReservations(reservations.get(i));
+		return location;
+	}
+
+	/**
+	 * Function that creates a {@link RoomService} on top of repositories that return the given location
+	 * and the {@link ReservationSlot slots} of its reservations.
+	 *
+	 * @param location the {@link Location} returned by the repositories.
+	 * @return the {@link RoomService}.
+	 */
+	public static RoomService roomService(Location location) {
+		var locationRepository = mock(LocationRepository.class);
+		var reservationRepository = mock(ReservationRepository.class);
+		var slots = location.getRooms().stream()
+				.flatMap(room -> room.getReservations().stream()
+						.map(reservation -> new ReservationSlot(reservation.getId(), room.getId(),
+								reservation.getDate(), reservation.getStartTime(), reservation.getEndTime(),
+								reservation.getWorkplaceAmount(), reservation.getRecurrence().isActive(),
+								reservation.getRecurrence().getRecurrencePattern())))
+				.toList();
+
+		when(locationRepository.findById(location.getId())).thenReturn(Optional.of(location));
+		when(reservationRepository.findSlotsByLocationBetween(anyLong(), any(), any())).thenAnswer(invocation -> {
+			LocalDate from = invocation.getArgument(1);
+			LocalDate to = invocation.getArgument(2);
+			return slots.stream()
+					.filter(slot -> !slot.date().isAfter(to) && (!slot.date().isBefore(from) || slot.recurrenceActive()))
+					.toList();
+		});
+
+		// The availability is calculated on every call, without occurrences or the cache
+		var availabilityCache = mock(AvailabilityCache.class);
+		when(availabilityCache.get(any(), any())).thenAnswer(invocation ->
+				invocation.<Supplier<List<?>>>getArgument(1).get());
+
+		return new RoomService(mock(RoomRepository.class), reservationRepository,
+				new LocationService(locationRepository), mock(ReservationOccurrenceService.class), availabilityCache,
+				new MetricsRegistry());
+	}
+
+	private static Reservation reservation(Random random, long id, Room room, RecurrenceMix mix) {
+		var date = TODAY.plusDays(random.nextInt(2 * DAYS) - (long) DAYS);
+		var start = LocalTime.of(7 + random.nextInt(10), 15 * random.nextInt(4));
+		var end = start.plusMinutes(15L + 15L * random.nextInt(16));
+
+		var pattern = RecurrencePattern.NONE;
+		if (random.nextInt(100) < mix.recurringPercentage)
+			pattern = RECURRING_PATTERNS[random.nextInt(RECURRING_PATTERNS.length)];
+
+		return new Reservation(id, date, start, end, null, room, 1 + random.nextInt(3),
+				new Recurrence(pattern != RecurrencePattern.NONE, pattern), true);
+	}
+}
@@ -0,0 +1,66 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.BookingLockManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contention benchmark of the {@link BookingLockManager}. Every thread books a random room out of
+ * a pool of rooms, where the work inside the lock stands in for a booking transaction. A single
+ * global lock is measured as the baseline of serializing every booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class BookingLockBenchmark {
+	private static final long BOOKING_WORK = 1000;
+
+	@Param({"1", "16", "1024"})
+	private int rooms;
+
+	private BookingLockManager lockManager;
+	private ReentrantLock globalLock;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.lockManager = new BookingLockManager(1024);
+		this.globalLock = new ReentrantLock();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		var statistics = lockManager.getStatistics();
+		System.out.printf("%nrooms=%d acquisitions=%d contended=%d average wait=%dns max wait=%dns%n",
+				rooms, statistics.acquisitions(), statistics.contendedAcquisitions(),
+				statistics.averageWaitNanos(), statistics.maxWaitNanos());
+	}
+
+	@Benchmark
+	public long stripedLock() {
+		long roomId = ThreadLocalRandom.current().nextLong(rooms) + 1;
+		return lockManager.withRoomLocks(() -> {
+			Blackhole.consumeCPU(BOOKING_WORK);
+			return roomId;
+		}, roomId);
+	}
+
+	@Benchmark
+	public long globalLock() {
+		long roomId = ThreadLocalRandom.current().nextLong(rooms) + 1;
+		globalLock.lock();
+		try {
+			Blackhole.consumeCPU(BOOKING_WORK);
+			return roomId;
+		} finally {
+			globalLock.unlock();
+		}
+	}
+}
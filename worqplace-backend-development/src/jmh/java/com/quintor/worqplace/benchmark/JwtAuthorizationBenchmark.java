@@ -0,0 +1,87 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.security.data.UserProfile;
+import com.quintor.worqplace.security.filter.JwtAuthorizationFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the {@link JwtAuthorizationFilter}, where a polling client sends one of a handful of
+ * tokens with every request. The uncached verification the filter used to do, building a parser and
+ * verifying the HS512 signature on every request, is measured as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtAuthorizationBenchmark {
+	private static final String SECRET = "this-is-a-512-bit-key-used-for-signing-jwt-tokens-that-should-be-changed-in-production";
+
+	@Param({"1", "16", "1024"})
+	private int tokens;
+
+	private String[] headers;
+	private JwtAuthorizationFilter filter;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.headers = new String[tokens];
+		for (int i = 0; i < tokens; i++)
+			headers[i] = "Bearer " + Jwts.builder()
+					.signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+					.setHeaderParam("type", "JWT")
+					.setIssuer("quintor-worqplace-api")
+					.setAudience("quintor-worqplace")
+					.setSubject(String.valueOf(i + 1))
+					.setExpiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()))
+					.claim("role", List.of("ROLE_USER"))
+					.compact();
+
+		this.filter = new JwtAuthorizationFilter(SECRET, 10_000, Duration.ofHours(1), authentication -> authentication,
+				new MetricsRegistry());
+	}
+
+	@Benchmark
+	public Authentication cachedFilter() {
+		return filter.getAuthentication(randomHeader());
+	}
+
+	@Benchmark
+	public Authentication uncachedParse() {
+		var token = randomHeader();
+		Jws<Claims> parsedToken = Jwts.parserBuilder()
+				.setSigningKey(SECRET.getBytes())
+				.build()
+				.parseClaimsJws(token.replace("Bearer ", ""));
+
+		var authorities = ((List<?>) parsedToken.getBody().get("role"))
+				.stream()
+				.map(authority -> new SimpleGrantedAuthority((String) authority))
+				.toList();
+
+		var subject = parsedToken.getBody().getSubject();
+		return new UsernamePasswordAuthenticationToken(new UserProfile(subject, Long.valueOf(subject)), null,
+				authorities);
+	}
+
+	private String randomHeader() {
+		return headers[ThreadLocalRandom.current().nextInt(tokens)];
+	}
+}
@@ -0,0 +1,67 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.util.DateTimeUtils;
+import com.quintor.worqplace.domain.OccupancyIndex;
+import com.quintor.worqplace.domain.Reservation;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the ways to calculate the reserved workplaces of a single room during a timeslot:
+ * checking every reservation with {@link DateTimeUtils#timeslotsOverlap}, querying the
+ * {@link OccupancyIndex} and reading the peak from a cached {@link com.quintor.worqplace.domain.SlotOccupancy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OverlapBenchmark {
+	private static final LocalTime START_TIME = LocalTime.of(9, 0);
+	private static final LocalTime END_TIME = LocalTime.of(10, 0);
+
+	@Param({"1000", "100000", "1000000"})
+	private int reservations;
+
+	@Param({"ONE_OFF", "MIXED", "RECURRING"})
+	private BenchmarkData.RecurrenceMix mix;
+
+	private List<Reservation> reservationList;
+	private OccupancyIndex index;
+	private LocalDate date;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		var room = BenchmarkData.location(1, reservations, mix).getRooms().get(0);
+		this.reservationList = room.getReservations();
+		this.index = room.getOccupancyIndex();
+		this.date = BenchmarkData.TODAY.plusDays(7);
+	}
+
+	@Benchmark
+	public int timeslotsOverlap() {
+		int total = 0;
+		for (var reservation : reservationList) {
+			if (reservation.isReservationActive(date) && !date.isBefore(reservation.getDate())
+					&& DateTimeUtils.timeslotsOverlap(reservation.getDate(), reservation.getStartTime(),
+					reservation.getEndTime(), reservation.getRecurrence(), date, START_TIME, END_TIME))
+				total += reservation.getWorkplaceAmount();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int occupancyIndex() {
+		return index.countReservedWorkplaces(date, START_TIME, END_TIME, null);
+	}
+
+	@Benchmark
+	public int slotOccupancy() {
+		return index.getSlotOccupancy(date).peak(START_TIME, END_TIME);
+	}
+}
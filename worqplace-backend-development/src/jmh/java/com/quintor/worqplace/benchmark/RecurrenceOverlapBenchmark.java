@@ -0,0 +1,105 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.util.DateTimeUtils;
+import com.quintor.worqplace.application.util.RecurrenceKey;
+import com.quintor.worqplace.domain.Recurrence;
+import com.quintor.worqplace.domain.Reservation;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.WeekFields;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the innermost overlap check of the availability queries. Compares the check as it was,
+ * with a {@link WeekFields} lookup and week-of-year calculation per comparison, with
+ * {@link DateTimeUtils#timeslotsOverlap(LocalDate, LocalTime, LocalTime, Recurrence, LocalDate, LocalTime, LocalTime)
+ * comparing dates} and with {@link DateTimeUtils#timeslotsOverlap(Reservation, RecurrenceKey, LocalTime, LocalTime)
+ * comparing cached recurrence keys}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceOverlapBenchmark {
+	private static final LocalTime START_TIME = LocalTime.of(9, 0);
+	private static final LocalTime END_TIME = LocalTime.of(10, 0);
+
+	@Param({"ONE_OFF", "MIXED", "RECURRING"})
+	private BenchmarkData.RecurrenceMix mix;
+
+	private List<Reservation> reservations;
+	private LocalDate date;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.reservations = BenchmarkData.location(1, 10_000, mix).getRooms().get(0).getReservations();
+		this.date = BenchmarkData.TODAY.plusDays(7);
+		reservations.forEach(Reservation::getRecurrenceKey);
+	}
+
+	@Benchmark
+	public int weekFields() {
+		int overlapping = 0;
+		for (var reservation : reservations) {
+			if (weekFieldsTimeslotsOverlap(reservation.getDate(), reservation.getStartTime(), reservation.getEndTime(),
+					reservation.getRecurrence(), date, START_TIME, END_TIME))
+				overlapping++;
+		}
+		return overlapping;
+	}
+
+	@Benchmark
+	public int localDates() {
+		int overlapping = 0;
+		for (var reservation : reservations) {
+			if (DateTimeUtils.timeslotsOverlap(reservation.getDate(), reservation.getStartTime(),
+					reservation.getEndTime(), reservation.getRecurrence(), date, START_TIME, END_TIME))
+				overlapping++;
+		}
+		return overlapping;
+	}
+
+	@Benchmark
+	public int recurrenceKeys() {
+		var key = RecurrenceKey.of(date);
+		int overlapping = 0;
+		for (var reservation : reservations) {
+			if (DateTimeUtils.timeslotsOverlap(reservation, key, START_TIME, END_TIME))
+				overlapping++;
+		}
+		return overlapping;
+	}
+
+	/**
+	 * The overlap check before the recurrence keys, kept as the baseline.
+	 */
+	private static boolean weekFieldsTimeslotsOverlap(LocalDate existingDate, LocalTime existingStartTime,
+	                                                  LocalTime existingEndTime, Recurrence recurrence,
+	                                                  LocalDate newDate, LocalTime newStartTime,
+	                                                  LocalTime newEndTime) {
+		boolean datesOverlap;
+		if (!recurrence.isActive()) {
+			datesOverlap = existingDate.equals(newDate);
+		} else {
+			datesOverlap = switch (recurrence.getRecurrencePattern()) {
+				case WEEKLY -> existingDate.getDayOfWeek().equals(newDate.getDayOfWeek());
+				case BIWEEKLY -> {
+					var weekFields = WeekFields.of(Locale.getDefault());
+					int oldWeekNumber = existingDate.get(weekFields.weekOfWeekBasedYear());
+					int newWeekNumber = newDate.get(weekFields.weekOfWeekBasedYear());
+					yield (newWeekNumber - oldWeekNumber) % 2 <= 0
+							&& existingDate.getDayOfWeek().equals(newDate.getDayOfWeek());
+				}
+				case MONTHLY -> existingDate.getDayOfMonth() == newDate.getDayOfMonth();
+				default -> true;
+			};
+		}
+		return datesOverlap && !newStartTime.isAfter(existingEndTime) && !newEndTime.isBefore(existingStartTime);
+	}
+}
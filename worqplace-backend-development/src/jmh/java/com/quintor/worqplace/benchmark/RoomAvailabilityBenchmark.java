@@ -0,0 +1,96 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.RoomService;
+import com.quintor.worqplace.application.util.RoomRangeAvailability;
+import com.quintor.worqplace.domain.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the availability hot paths of {@link Room} and {@link RoomService}, on a location
+ * with 10 to 1000 rooms and 1k to 1M reservations. Run with <code>./mvnw -Pjmh -DskipTests verify</code>,
+ * or add <code>-Djmh.args="RoomAvailabilityBenchmark -p rooms=100 -rf json"</code> to run a subset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RoomAvailabilityBenchmark {
+	private static final LocalTime START_TIME = LocalTime.of(9, 0);
+	private static final LocalTime END_TIME = LocalTime.of(10, 0);
+
+	@Param({"10", "100", "1000"})
+	private int rooms;
+
+	@Param({"1000", "100000", "1000000"})
+	private int reservations;
+
+	@Param({"ONE_OFF", "MIXED", "RECURRING"})
+	private BenchmarkData.RecurrenceMix mix;
+
+	private List<Room> roomList;
+	private RoomService roomService;
+	private LocalDate date;
+	private LocalDate monday;
+	private Reservation recurringRequest;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		var location = BenchmarkData.location(rooms, reservations, mix);
+		this.roomList = location.getRooms();
+		this.roomService = BenchmarkData.roomService(location);
+		this.date = BenchmarkData.TODAY.plusDays(7);
+		this.monday = date.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+		this.recurringRequest = new Reservation(date, START_TIME, END_TIME, null, null, 1,
+				new Recurrence(true, RecurrencePattern.WEEKLY));
+	}
+
+	@Benchmark
+	public int countReservedWorkplaces() {
+		return nextRoom().countReservedWorkplaces(date, START_TIME, END_TIME);
+	}
+
+	@Benchmark
+	public boolean isWorkplaceRecurrentlyAvailable() {
+		return nextRoom().isWorkplaceRecurrentlyAvailable(recurringRequest);
+	}
+
+	@Benchmark
+	public List<Room> getRoomsWithWorkplacesAvailableAtDateTime() {
+		return roomService.getRoomsWithWorkplacesAvailableAtDateTime(BenchmarkData.LOCATION_ID, date,
+				START_TIME, END_TIME, 1, RecurrencePattern.NONE);
+	}
+
+	/**
+	 * Baseline of a Monday to Friday booking: the single-day query repeated for every day.
+	 */
+	@Benchmark
+	public List<List<Room>> workWeekPerDay() {
+		var result = new ArrayList<List<Room>>();
+		for (var day = monday; day.isBefore(monday.plusDays(5)); day = day.plusDays(1))
+			result.add(roomService.getRoomsWithWorkplacesAvailableAtDateTime(BenchmarkData.LOCATION_ID, day,
+					START_TIME, END_TIME, 1, RecurrencePattern.NONE));
+		return result;
+	}
+
+	@Benchmark
+	public List<RoomRangeAvailability> workWeekRange() {
+		return roomService.getWorkplaceAvailabilityBetween(BenchmarkData.LOCATION_ID, monday, monday.plusDays(4),
+				START_TIME, END_TIME, null);
+	}
+
+	private Room nextRoom() {
+		next = next + 1 == roomList.size() ? 0 : next + 1;
+		return roomList.get(next);
+	}
+}
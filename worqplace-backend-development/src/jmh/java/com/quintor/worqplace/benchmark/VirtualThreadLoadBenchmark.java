@@ -0,0 +1,65 @@
+package com.quintor.worqplace.benchmark;
+
+import com.quintor.worqplace.application.RoomService;
+import com.quintor.worqplace.domain.RecurrencePattern;
+import com.quintor.worqplace.domain.Room;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load benchmark of the room availability requests, where every benchmark thread is a client waiting for
+ * its request and the executor stands in for the servlet container. A request waits for the database
+ * before the availability is calculated. The sampled latency gives the p99 of a Tomcat pool of 200
+ * platform threads against a virtual thread per request, the latter requires Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(800)
+public class VirtualThreadLoadBenchmark {
+	private static final int TOMCAT_MAX_THREADS = 200;
+	private static final long DATABASE_MILLIS = 5;
+	private static final LocalTime START_TIME = LocalTime.of(9, 0);
+	private static final LocalTime END_TIME = LocalTime.of(10, 0);
+
+	@Param({"PLATFORM", "VIRTUAL"})
+	private String executor;
+
+	private ExecutorService executorService;
+	private RoomService roomService;
+	private LocalDate date;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ReflectiveOperationException {
+		var location = BenchmarkData.location(100, 10_000, BenchmarkData.RecurrenceMix.MIXED);
+		this.roomService = BenchmarkData.roomService(location);
+		this.date = BenchmarkData.TODAY.plusDays(7);
+		this.executorService = executor.equals("PLATFORM")
+				? Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)
+				: (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	@Benchmark
+	public List<Room> roomsAvailability() throws InterruptedException, ExecutionException {
+		return executorService.submit(() -> {
+			Thread.sleep(DATABASE_MILLIS);
+			return roomService.getRoomsWithWorkplacesAvailableAtDateTime(BenchmarkData.LOCATION_ID, date,
+					START_TIME, END_TIME, 1, RecurrencePattern.NONE);
+		}).get();
+	}
+}
@@ -0,0 +1,132 @@
+package com.quintor.worqplace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the <code>virtual-threads</code> profile, which runs every request of the servlet
+ * container and every <code>@Async</code> task on its own virtual thread, so a request that waits on the
+ * database no longer occupies one of the 200 Tomcat threads. Virtual threads are available from Java 21,
+ * the application fails to start with this profile on an older Java version.
+ * <p>
+ * MySQL Connector/J 8.0 and Hibernate wait on the database inside <code>synchronized</code> blocks, which
+ * pins the virtual thread to its carrier thread. The connection pool therefore has to be smaller than the
+ * amount of carrier threads, so requests that do not need the database always find a free carrier. Without
+ * an explicit <code>-Djdk.virtualThreadScheduler.parallelism</code> the amount of carrier threads is raised
+ * above the pool size at startup, an explicit parallelism that the pool can fill stops the application.
+ */
+@Configuration
+@Profile("virtual-threads")
+@EnableAsync
+public class VirtualThreadConfiguration {
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+	/**
+	 * System property with the amount of carrier threads of the virtual threads.
+	 */
+	static final String PARALLELISM_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+
+	/**
+	 * Highest amount of carrier threads, the limit of the {@link java.util.concurrent.ForkJoinPool} they run in.
+	 */
+	static final int MAX_PARALLELISM = 0x7fff;
+
+	/**
+	 * Constructor of the {@link VirtualThreadConfiguration} class, which sets the amount of carrier threads
+	 * before the first virtual thread is started.
+	 *
+	 * @param maximumPoolSize maximum amount of database connections.
+	 * @throws IllegalStateException when the connection pool can pin every carrier thread.
+	 */
+	public VirtualThreadConfiguration(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+		configureCarrierThreads(System.getProperties(), maximumPoolSize, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Function that creates the executor that starts a virtual thread per task, used for the requests,
+	 * <code>@Async</code> tasks and asynchronous responses.
+	 *
+	 * @return the {@link AsyncTaskExecutor}.
+	 */
+	@Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(newVirtualThreadExecutor());
+	}
+
+	/**
+	 * Function that lets Tomcat handle the requests with the entered executor instead of its own thread pool.
+	 *
+	 * @param applicationTaskExecutor the executor of the requests.
+	 * @return the {@link TomcatProtocolHandlerCustomizer}.
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(Executor applicationTaskExecutor) {
+		return protocolHandler -> protocolHandler.setExecutor(applicationTaskExecutor);
+	}
+
+	/**
+	 * Function that creates an executor that starts a virtual thread per task. Looked up at runtime, as the
+	 * application is compiled for Java 17.
+	 *
+	 * @return the {@link ExecutorService}.
+	 * @throws IllegalStateException when the Java version has no virtual threads.
+	 */
+	static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("The virtual-threads profile requires Java 21 or newer, this is Java "
+					+ Runtime.version().feature() + ".", e);
+		}
+	}
+
+	/**
+	 * Function that makes sure the pinned threads of the connection pool cannot occupy every carrier thread.
+	 * Without a configured parallelism it is set to the amount of processors, or one more than the pool size
+	 * when that is higher. The scheduler of the virtual threads reads it when the first virtual thread starts.
+	 *
+	 * @param properties          the system properties.
+	 * @param maximumPoolSize     maximum amount of database connections.
+	 * @param availableProcessors amount of processors, the default parallelism.
+	 * @return the amount of carrier threads.
+	 * @throws IllegalStateException when the configured parallelism is not above the pool size, or the pool is
+	 *                               larger than the carrier threads can be.
+	 */
+	static int configureCarrierThreads(Properties properties, int maximumPoolSize, int availableProcessors) {
+		var configured = properties.getProperty(PARALLELISM_PROPERTY);
+		if (configured != null) {
+			int parallelism = Integer.parseInt(configured.trim());
+			if (maximumPoolSize >= parallelism)
+				throw new IllegalStateException("The connection pool of " + maximumPoolSize + " connections can pin "
+						+ "all " + parallelism + " carrier threads, raise -D" + PARALLELISM_PROPERTY + " above the "
+						+ "pool size or lower spring.datasource.hikari.maximum-pool-size.");
+			return parallelism;
+		}
+
+		if (maximumPoolSize >= MAX_PARALLELISM)
+			throw new IllegalStateException("The connection pool of " + maximumPoolSize + " connections can pin "
+					+ "all carrier threads, lower spring.datasource.hikari.maximum-pool-size below "
+					+ MAX_PARALLELISM + ".");
+
+		int parallelism = Math.max(availableProcessors, maximumPoolSize + 1);
+		properties.setProperty(PARALLELISM_PROPERTY, String.valueOf(parallelism));
+		if (parallelism > availableProcessors)
+			log.info("Raised the carrier threads of the virtual threads to {} above the connection pool of {} "
+					+ "connections.", parallelism, maximumPoolSize);
+		return parallelism;
+	}
+}
@@ -0,0 +1,28 @@
+package com.quintor.worqplace;
+
+import com.quintor.worqplace.presentation.QueryBudgetInterceptor;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of Spring MVC, which registers the {@link QueryBudgetInterceptor} for every controller and
+ * for the asynchronous callables that produce their responses.
+ */
+@Configuration
+@AllArgsConstructor
+public class WebMvcConfiguration implements WebMvcConfigurer {
+	private final QueryBudgetInterceptor queryBudgetInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(queryBudgetInterceptor);
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.registerCallableInterceptors(queryBudgetInterceptor);
+	}
+}
@@ -0,0 +1,219 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.AvailabilityCacheStatistics;
+import com.quintor.worqplace.application.util.AvailabilityChange;
+import com.quintor.worqplace.application.util.AvailabilityKey;
+import com.quintor.worqplace.application.util.BoundedCache;
+import com.quintor.worqplace.domain.Reservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the availability queries of the {@link RoomService}, bounded by a
+ * {@link BoundedCache} with W-TinyLFU eviction.
+ * <p>
+ * When a {@link Reservation} is stored or deleted, only the cached queries whose result it can change
+ * are removed, once its transaction has committed. The keys of the cached queries are indexed per
+ * location and date, so an invalidation only looks at the queries of its own location that it can
+ * reach, and only locks that location. Every invalidation also moves the generation of the location
+ * forward, so a query that was calculated while the reservation was being committed is not cached with
+ * the outdated result. Entries expire after a short time, which bounds how long bookings made by other
+ * instances can go unnoticed.
+ *
+ * @see RoomService
+ * @see ReservationService
+ * @see AvailabilityChange
+ */
+@Component
+public class AvailabilityCache {
+	private final BoundedCache<AvailabilityKey, List<?>> cache;
+	private final Map<Long, LocationKeys> locations = new ConcurrentHashMap<>();
+	private final AtomicLong globalGeneration = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	/**
+	 * Constructor of the {@link AvailabilityCache} class.
+	 *
+	 * @param maximumSize             maximum amount of cached queries.
+	 * @param expireAfterWriteSeconds amount of seconds a query is cached.
+	 */
+	public AvailabilityCache(@Value("${availability.cache.maximum-size:10000}") int maximumSize,
+	                         @Value("${availability.cache.expire-after-write-seconds:60}") long expireAfterWriteSeconds) {
+		this.cache = new BoundedCache<>(maximumSize, Duration.ofSeconds(expireAfterWriteSeconds),
+				key -> locationKeysOf(key.locationId()).remove(key));
+	}
+
+	/**
+	 * Function that gets the result of a query from the cache, or calculates and caches it.
+	 *
+	 * @param key    the {@link AvailabilityKey} of the query.
+	 * @param loader calculates the result when it is not cached.
+	 * @param <T>    type of the elements of the result.
+	 * @return the unmodifiable result of the query.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> get(AvailabilityKey key, Supplier<List<T>> loader) {
+		var cached = (List<T>) cache.get(key);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+		var location = locationKeysOf(key.locationId());
+		long generation = location.generation(globalGeneration.get());
+		var result = List.copyOf(loader.get());
+
+		synchronized (location) {
+			if (location.generation(globalGeneration.get()) == generation) {
+				cache.put(key, result);
+				location.add(key);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Function that removes the cached queries the stored or deleted {@link Reservation} can change, once
+	 * the current transaction has committed. Without a transaction they are removed right away.
+	 *
+	 * @param reservation the stored or deleted {@link Reservation}.
+	 */
+	public void invalidateAfterCommit(Reservation reservation) {
+		var change = AvailabilityChange.of(reservation);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidate(change);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				invalidate(change);
+			}
+		});
+	}
+
+	/**
+	 * Function that removes the cached queries the given change can affect. A change of an unknown
+	 * location affects every location.
+	 *
+	 * @param change the {@link AvailabilityChange}.
+	 */
+	public void invalidate(AvailabilityChange change) {
+		if (change.locationId() != null) {
+			invalidate(locationKeysOf(change.locationId()), change);
+			return;
+		}
+
+		globalGeneration.incrementAndGet();
+		locations.values().forEach(location -> invalidate(location, change));
+	}
+
+	/**
+	 * @return a snapshot of the cache statistics since startup.
+	 */
+	public AvailabilityCacheStatistics getStatistics() {
+		return new AvailabilityCacheStatistics(hits.sum(), misses.sum(), cache.evictionCount(),
+				invalidations.sum(), cache.size());
+	}
+
+	private void invalidate(LocationKeys location, AvailabilityChange change) {
+		synchronized (location) {
+			location.generation++;
+			for (var key : location.removeAffected(change))
+				if (cache.remove(key)) invalidations.increment();
+		}
+	}
+
+	private LocationKeys locationKeysOf(Long locationId) {
+		return locations.computeIfAbsent(locationId, id -> new LocationKeys());
+	}
+
+	/**
+	 * The keys of the cached queries of one location. The recurring queries are kept apart, as they can
+	 * be changed by a reservation on any date, the other queries are grouped by their date.
+	 * <p>
+	 * The generation is guarded by the instance, the keys are kept in concurrent collections because
+	 * the removal listener of the cache changes them without taking that lock.
+	 */
+	private static final class LocationKeys {
+		private final Map<LocalDate, Set<AvailabilityKey>> byDate = new ConcurrentHashMap<>();
+		private final Set<AvailabilityKey> recurring = ConcurrentHashMap.newKeySet();
+		private long generation;
+
+		private synchronized long generation(long globalGeneration) {
+			return globalGeneration + generation;
+		}
+
+		private void add(AvailabilityKey key) {
+			if (key.isRecurring()) {
+				recurring.add(key);
+				return;
+			}
+
+			byDate.compute(key.date(), (date, keys) -> {
+				var dateKeys = keys == null ? ConcurrentHashMap.<AvailabilityKey>newKeySet() : keys;
+				dateKeys.add(key);
+				return dateKeys;
+			});
+		}
+
+		private void remove(AvailabilityKey key) {
+			if (key.isRecurring()) {
+				recurring.remove(key);
+				return;
+			}
+
+			byDate.computeIfPresent(key.date(), (date, keys) -> {
+				keys.remove(key);
+				return keys.isEmpty() ? null : keys;
+			});
+		}
+
+		/**
+		 * Function that removes and returns the keys of the queries the change can affect. A one-off
+		 * reservation only reaches the queries of its own date, a recurring one those of its date and later.
+		 *
+		 * @param change the {@link AvailabilityChange}.
+		 * @return the removed keys.
+		 */
+		private List<AvailabilityKey> removeAffected(AvailabilityChange change) {
+			var affected = new ArrayList<AvailabilityKey>();
+			collectAffected(recurring, change, affected);
+
+			if (change.recurrence() == null || !change.recurrence().isActive()) {
+				var keys = byDate.get(change.date());
+				if (keys != null) collectAffected(keys, change, affected);
+			} else {
+				byDate.forEach((date, keys) -> {
+					if (!date.isBefore(change.date())) collectAffected(keys, change, affected);
+				});
+			}
+
+			affected.forEach(this::remove);
+			return affected;
+		}
+
+		private static void collectAffected(Set<AvailabilityKey> keys, AvailabilityChange change,
+		                                    List<AvailabilityKey> affected) {
+			for (var key : keys)
+				if (change.affects(key)) affected.add(key);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.exceptions.BookingConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Executes bookings with optimistic concurrency. Every attempt runs in its own transaction,
+ * in which the booked {@link com.quintor.worqplace.domain.Room room} is loaded with
+ * {@link com.quintor.worqplace.data.RoomRepository#findForBookingById(Long) findForBookingById},
+ * so its version is incremented on commit. When a concurrent booking of the same room committed
+ * first, the attempt fails and is retried with a randomized exponential backoff, which rereads
+ * the reservations of the room.
+ *
+ * @see ReservationService
+ * @see BookingConflictException
+ */
+@Component
+public class BookingExecutor {
+	private final TransactionOperations transactionOperations;
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+
+	/**
+	 * Constructor of the {@link BookingExecutor} class.
+	 *
+	 * @param transactionOperations transaction in which every attempt runs.
+	 * @param maxAttempts           maximum amount of attempts per booking.
+	 * @param initialBackoffMillis  maximum backoff after the first failed attempt, doubles after every attempt.
+	 * @param maxBackoffMillis      maximum backoff between two attempts.
+	 */
+	public BookingExecutor(TransactionOperations transactionOperations,
+	                       @Value("${booking.retry.max-attempts:10}") int maxAttempts,
+	                       @Value("${booking.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+	                       @Value("${booking.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+		this.transactionOperations = transactionOperations;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMillis = initialBackoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	/**
+	 * Function that executes a booking, retrying it when it conflicts with a concurrent booking.
+	 * Any other exception is thrown to the caller right away.
+	 *
+	 * @param booking the booking, is executed once per attempt.
+	 * @param <T>     type of the result of the booking.
+	 * @return the result of the successful attempt.
+	 * @throws BookingConflictException when every attempt conflicted.
+	 */
+	public <T> T execute(Supplier<T> booking) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return transactionOperations.execute(status -> booking.get());
+			} catch (ConcurrencyFailureException | OptimisticLockException e) {
+				if (attempt >= maxAttempts)
+					throw new BookingConflictException(attempt);
+				backOff(attempt);
+			}
+		}
+	}
+
+	/**
+	 * Function that waits a random time up to the exponential backoff of the attempt, so conflicting
+	 * bookings do not retry at the same moment again.
+	 *
+	 * @param attempt the attempt that failed, starting at 1.
+	 */
+	private void backOff(int attempt) {
+		long bound = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+		if (bound <= 0) return;
+
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BookingConflictException(attempt);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.BookingLockStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks on {@link com.quintor.worqplace.domain.Room rooms}. Every room id is hashed
+ * onto one of a fixed amount of stripes, so bookings of the same room wait for each other before they
+ * start a transaction, while bookings of different rooms almost always proceed in parallel.
+ * <p>
+ * The locks only serialize bookings within this instance. The optimistic version check of the
+ * {@link BookingExecutor} still guards against bookings made by other instances.
+ *
+ * @see ReservationService
+ * @see BookingExecutor
+ */
+@Component
+public class BookingLockManager {
+	private final ReentrantLock[] stripes;
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder contendedAcquisitions = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	/**
+	 * Constructor of the {@link BookingLockManager} class.
+	 *
+	 * @param stripes amount of locks the room ids are divided over.
+	 */
+	public BookingLockManager(@Value("${booking.locks.stripes:1024}") int stripes) {
+		if (stripes < 1)
+			throw new IllegalArgumentException("The amount of stripes must be positive.");
+
+		this.stripes = new ReentrantLock[stripes];
+		Arrays.setAll(this.stripes, i -> new ReentrantLock());
+	}
+
+	/**
+	 * Function that executes a booking while holding the locks of the given rooms. The locks are
+	 * taken in stripe order, so bookings that lock the same rooms in a different order cannot
+	 * deadlock.
+	 *
+	 * @param booking the booking to execute.
+	 * @param roomIds ids of the {@link com.quintor.worqplace.domain.Room rooms} the booking changes.
+	 * @param <T>     type of the result of the booking.
+	 * @return the result of the booking.
+	 */
+	public <T> T withRoomLocks(Supplier<T> booking, Long... roomIds) {
+		var locked = Arrays.stream(roomIds)
+				.mapToInt(this::stripeOf)
+				.sorted()
+				.distinct()
+				.toArray();
+
+		int acquired = 0;
+		try {
+			for (int stripe : locked) {
+				lock(stripes[stripe]);
+				acquired++;
+			}
+			return booking.get();
+		} finally {
+			for (int i = acquired - 1; i >= 0; i--)
+				stripes[locked[i]].unlock();
+		}
+	}
+
+	/**
+	 * @return a snapshot of the lock-wait statistics since startup.
+	 */
+	public BookingLockStatistics getStatistics() {
+		return new BookingLockStatistics(acquisitions.sum(), contendedAcquisitions.sum(),
+				totalWaitNanos.sum(), maxWaitNanos.get());
+	}
+
+	/**
+	 * Function that gets the stripe of a room. The id is mixed first, so rooms with consecutive
+	 * ids spread over the stripes even when the amount of stripes is not a power of two.
+	 *
+	 * @param roomId id of the room, may be null for a room that does not exist.
+	 * @return the index of the stripe.
+	 */
+	int stripeOf(Long roomId) {
+		long hash = roomId == null ? 0 : roomId * 0x9E3779B97F4A7C15L;
+		return Math.floorMod(hash ^ (hash >>> 32), stripes.length);
+	}
+
+	private void lock(ReentrantLock lock) {
+		acquisitions.increment();
+		if (lock.tryLock()) return;
+
+		long start = System.nanoTime();
+		lock.lock();
+		long wait = System.nanoTime() - start;
+
+		contendedAcquisitions.increment();
+		totalWaitNanos.add(wait);
+		maxWaitNanos.accumulateAndGet(wait, Math::max);
+	}
+}
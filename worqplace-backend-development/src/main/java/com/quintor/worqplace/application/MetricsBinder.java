@@ -0,0 +1,76 @@
+package com.quintor.worqplace.application;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Binds the statistics the application already keeps to the {@link MetricsRegistry}: those of the
+ * {@link AvailabilityCache}, the room locks of the {@link BookingLockManager} and the Hibernate
+ * statistics, which count the executed queries and prepared JDBC statements.
+ *
+ * @see MetricsRegistry
+ */
+@Component
+public class MetricsBinder {
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double MILLIS_PER_SECOND = 1e3;
+
+	/**
+	 * Constructor of the {@link MetricsBinder} class, which registers the gauges and function counters.
+	 *
+	 * @param metricsRegistry      registry the statistics are bound to.
+	 * @param availabilityCache    cache of the availability queries.
+	 * @param bookingLockManager   manager of the room locks.
+	 * @param entityManagerFactory factory whose Hibernate statistics are bound.
+	 */
+	public MetricsBinder(MetricsRegistry metricsRegistry, AvailabilityCache availabilityCache,
+	                     BookingLockManager bookingLockManager, EntityManagerFactory entityManagerFactory) {
+		bindAvailabilityCache(metricsRegistry, availabilityCache);
+		bindBookingLocks(metricsRegistry, bookingLockManager);
+		bindHibernate(metricsRegistry, entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+	}
+
+	private static void bindAvailabilityCache(MetricsRegistry registry, AvailabilityCache cache) {
+		registry.describe("worqplace.availability.cache.requests", "Availability queries by cache result.");
+		registry.functionCounter("worqplace.availability.cache.requests",
+				() -> cache.getStatistics().hits(), "result", "hit");
+		registry.functionCounter("worqplace.availability.cache.requests",
+				() -> cache.getStatistics().misses(), "result", "miss");
+		registry.functionCounter("worqplace.availability.cache.evictions",
+				() -> cache.getStatistics().evictions());
+		registry.functionCounter("worqplace.availability.cache.invalidations",
+				() -> cache.getStatistics().invalidations());
+		registry.gauge("worqplace.availability.cache.size", () -> cache.getStatistics().size());
+	}
+
+	private static void bindBookingLocks(MetricsRegistry registry, BookingLockManager lockManager) {
+		registry.functionCounter("worqplace.booking.lock.acquisitions",
+				() -> lockManager.getStatistics().acquisitions(), "contended", "false");
+		registry.functionCounter("worqplace.booking.lock.acquisitions",
+				() -> lockManager.getStatistics().contendedAcquisitions(), "contended", "true");
+		registry.functionCounter("worqplace.booking.lock.wait.seconds",
+				() -> lockManager.getStatistics().totalWaitNanos() / NANOS_PER_SECOND);
+		registry.gauge("worqplace.booking.lock.wait.max.seconds",
+				() -> lockManager.getStatistics().maxWaitNanos() / NANOS_PER_SECOND);
+	}
+
+	private static void bindHibernate(MetricsRegistry registry, Statistics statistics) {
+		registry.describe("hibernate.statements", "JDBC statements prepared by Hibernate.");
+		registry.functionCounter("hibernate.statements", statistics::getPrepareStatementCount);
+		registry.describe("hibernate.queries", "JPQL, criteria and native queries executed by Hibernate.");
+		registry.functionCounter("hibernate.queries", statistics::getQueryExecutionCount);
+		registry.gauge("hibernate.query.max.seconds",
+				() -> statistics.getQueryExecutionMaxTime() / MILLIS_PER_SECOND);
+		registry.functionCounter("hibernate.entities.loaded", statistics::getEntityLoadCount);
+		registry.functionCounter("hibernate.second.level.cache.requests",
+				statistics::getSecondLevelCacheHitCount, "result", "hit");
+		registry.functionCounter("hibernate.second.level.cache.requests",
+				statistics::getSecondLevelCacheMissCount, "result", "miss");
+		registry.functionCounter("hibernate.transactions", statistics::getSuccessfulTransactionCount,
+				"result", "success");
+		registry.functionCounter("hibernate.optimistic.failures", statistics::getOptimisticFailureCount);
+	}
+}
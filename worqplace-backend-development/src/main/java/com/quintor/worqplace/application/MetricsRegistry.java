@@ -0,0 +1,278 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.LatencyHistogram;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the timers, counters and gauges of the application, which renders them in the Prometheus
+ * text format for the {@link com.quintor.worqplace.presentation.MetricsController MetricsController}.
+ * <p>
+ * Meters are identified by their name and tags, which are given as alternating keys and values. Timers
+ * record into a {@link LatencyHistogram} and are rendered as a summary in seconds with the 50th, 95th
+ * and 99th percentile, plus the longest duration as a separate gauge. Gauges and function counters read
+ * their value from statistics kept elsewhere whenever the metrics are scraped.
+ *
+ * @see MetricsBinder
+ * @see LatencyHistogram
+ */
+@Component
+public class MetricsRegistry {
+	/**
+	 * Outcome tag of an action that completed without an exception.
+	 */
+	public static final String ACCEPTED = "accepted";
+	/**
+	 * Key of the tag {@link #time(String, Supplier, String...)} adds.
+	 */
+	public static final String OUTCOME = "outcome";
+
+	private static final String TIMER = "summary";
+	private static final String COUNTER = "counter";
+	private static final String GAUGE = "gauge";
+
+	private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final ConcurrentMap<MeterId, Meter> meters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, String> types = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, String> descriptions = new ConcurrentHashMap<>();
+
+	/**
+	 * Function that gets the timer with the given name and tags, which is created when it does not exist.
+	 *
+	 * @param name name of the timer, dots are rendered as underscores.
+	 * @param tags alternating tag keys and values.
+	 * @return the {@link LatencyHistogram} of the timer.
+	 * @throws IllegalArgumentException when a key has no value or the name is used by another type of meter.
+	 */
+	public LatencyHistogram timer(String name, String... tags) {
+		return meter(name, TIMER, tags, TimerMeter.class, () -> new TimerMeter(new LatencyHistogram())).histogram();
+	}
+
+	/**
+	 * Function that times an action, tagging it with its outcome: {@link #ACCEPTED} when it completed,
+	 * otherwise the simple name of the exception it threw.
+	 *
+	 * @param name   name of the timer.
+	 * @param action the timed action.
+	 * @param tags   alternating tag keys and values, without the outcome.
+	 * @param <T>    type of the result of the action.
+	 * @return the result of the action.
+	 */
+	public <T> T time(String name, Supplier<T> action, String... tags) {
+		long start = System.nanoTime();
+		var outcome = ACCEPTED;
+		try {
+			return action.get();
+		} catch (RuntimeException e) {
+			outcome = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			timer(name, withOutcome(tags, outcome)).record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Function that times an action without a result, tagging it with its outcome.
+	 *
+	 * @param name   name of the timer.
+	 * @param action the timed action.
+	 * @param tags   alternating tag keys and values, without the outcome.
+	 * @see #time(String, Supplier, String...)
+	 */
+	public void time(String name, Runnable action, String... tags) {
+		time(name, () -> {
+			action.run();
+			return null;
+		}, tags);
+	}
+
+	/**
+	 * Function that increments the counter with the given name and tags.
+	 *
+	 * @param name name of the counter, rendered with a _total suffix.
+	 * @param tags alternating tag keys and values.
+	 */
+	public void increment(String name, String... tags) {
+		meter(name, COUNTER, tags, CounterMeter.class, () -> new CounterMeter(new LongAdder())).adder().increment();
+	}
+
+	/**
+	 * Function that registers a gauge, whose value is read every time the metrics are scraped.
+	 *
+	 * @param name  name of the gauge.
+	 * @param value reads the current value.
+	 * @param tags  alternating tag keys and values.
+	 */
+	public void gauge(String name, DoubleSupplier value, String... tags) {
+		meter(name, GAUGE, tags, FunctionMeter.class, () -> new FunctionMeter(value));
+	}
+
+	/**
+	 * Function that registers a counter that is kept elsewhere, whose value is read every time the
+	 * metrics are scraped.
+	 *
+	 * @param name  name of the counter, rendered with a _total suffix.
+	 * @param value reads the current value, which may only increase.
+	 * @param tags  alternating tag keys and values.
+	 */
+	public void functionCounter(String name, DoubleSupplier value, String... tags) {
+		meter(name, COUNTER, tags, FunctionMeter.class, () -> new FunctionMeter(value));
+	}
+
+	/**
+	 * Function that sets the help text of the meters with the given name.
+	 *
+	 * @param name        name of the meters.
+	 * @param description the help text.
+	 */
+	public void describe(String name, String description) {
+		descriptions.put(name, description);
+	}
+
+	/**
+	 * Function that renders every meter in the Prometheus text format, version 0.0.4, ordered by name.
+	 *
+	 * @return the rendered meters.
+	 */
+	public String scrape() {
+		var families = new TreeMap<String, List<Map.Entry<MeterId, Meter>>>();
+		meters.entrySet().forEach(entry -> families.computeIfAbsent(entry.getKey().name(),
+				name -> new ArrayList<>()).add(entry));
+
+		var output = new StringBuilder();
+		families.forEach((name, family) -> {
+			family.sort(Comparator.comparing(entry -> entry.getKey().tags().toString()));
+			var type = types.get(name);
+			if (TIMER.equals(type)) {
+				writeTimers(output, name, family);
+			} else {
+				var metric = sanitize(name) + (COUNTER.equals(type) ? "_total" : "");
+				writeHeader(output, name, metric, type);
+				for (var entry : family)
+					writeSample(output, metric, entry.getKey().tags(), entry.getValue().value());
+			}
+		});
+		return output.toString();
+	}
+
+	private void writeTimers(StringBuilder output, String name, List<Map.Entry<MeterId, Meter>> family) {
+		var metric = sanitize(name) + "_seconds";
+		writeHeader(output, name, metric, TIMER);
+		for (var entry : family) {
+			var histogram = ((TimerMeter) entry.getValue()).histogram();
+			var tags = entry.getKey().tags();
+			for (double quantile : QUANTILES)
+				writeSample(output, metric, withTag(tags, "quantile", Double.toString(quantile)),
+						histogram.percentile(quantile) / NANOS_PER_SECOND);
+			writeSample(output, metric + "_count", tags, histogram.count());
+			writeSample(output, metric + "_sum", tags, histogram.sum() / NANOS_PER_SECOND);
+		}
+
+		writeHeader(output, name, metric + "_max", GAUGE);
+		for (var entry : family)
+			writeSample(output, metric + "_max", entry.getKey().tags(),
+					((TimerMeter) entry.getValue()).histogram().max() / NANOS_PER_SECOND);
+	}
+
+	private void writeHeader(StringBuilder output, String name, String metric, String type) {
+		var description = descriptions.get(name);
+		if (description != null)
+			output.append("# HELP ").append(metric).append(' ').append(escape(description, false)).append('\n');
+		output.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+	}
+
+	private static void writeSample(StringBuilder output, String metric, List<String> tags, double value) {
+		output.append(metric);
+		if (!tags.isEmpty()) {
+			output.append('{');
+			for (int i = 0; i < tags.size(); i += 2) {
+				if (i > 0) output.append(',');
+				output.append(sanitize(tags.get(i))).append("=\"").append(escape(tags.get(i + 1), true)).append('"');
+			}
+			output.append('}');
+		}
+		output.append(' ').append(format(value)).append('\n');
+	}
+
+	private static String format(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15)
+			return Long.toString((long) value);
+		return Double.toString(value);
+	}
+
+	private static String sanitize(String name) {
+		return name.replaceAll("[^a-zA-Z0-9_]", "_");
+	}
+
+	private static String escape(String value, boolean quoted) {
+		var escaped = value.replace("\\", "\\\\").replace("\n", "\\n");
+		return quoted ? escaped.replace("\"", "\\\"") : escaped;
+	}
+
+	private <M extends Meter> M meter(String name, String kind, String[] tags, Class<M> type, Supplier<M> factory) {
+		if (tags.length % 2 != 0)
+			throw new IllegalArgumentException("Every tag key needs a value.");
+		if (!kind.equals(types.computeIfAbsent(name, key -> kind)))
+			throw new IllegalArgumentException("The meter " + name + " is registered with another type.");
+
+		var meter = meters.computeIfAbsent(new MeterId(name, List.of(tags)), id -> factory.get());
+		if (!type.isInstance(meter))
+			throw new IllegalArgumentException("The meter " + name + " is registered with another type.");
+		return type.cast(meter);
+	}
+
+	private static String[] withOutcome(String[] tags, String outcome) {
+		var tagged = Arrays.copyOf(tags, tags.length + 2);
+		tagged[tags.length] = OUTCOME;
+		tagged[tags.length + 1] = outcome;
+		return tagged;
+	}
+
+	private static List<String> withTag(List<String> tags, String key, String value) {
+		var tagged = new ArrayList<>(tags);
+		tagged.add(key);
+		tagged.add(value);
+		return tagged;
+	}
+
+	private record MeterId(String name, List<String> tags) {
+	}
+
+	private sealed interface Meter permits TimerMeter, CounterMeter, FunctionMeter {
+		double value();
+	}
+
+	private record TimerMeter(LatencyHistogram histogram) implements Meter {
+		@Override
+		public double value() {
+			return histogram.count();
+		}
+	}
+
+	private record CounterMeter(LongAdder adder) implements Meter {
+		@Override
+		public double value() {
+			return adder.sum();
+		}
+	}
+
+	private record FunctionMeter(DoubleSupplier supplier) implements Meter {
+		@Override
+		public double value() {
+			return supplier.getAsDouble();
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.OccupancyDelta;
+import com.quintor.worqplace.domain.RecurrencePattern;
+import com.quintor.worqplace.domain.Reservation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Fan-out publisher of the occupancy changes of every location to the clients that follow them over
+ * Server-Sent Events, so the booking screens no longer have to poll the availability.
+ * <p>
+ * Changes are published once the transaction of the {@link Reservation} has committed. Every client
+ * collects its pending changes per timeslot, so a burst of bookings of the same timeslot is sent as one
+ * {@link OccupancyDelta} and a booking that is undone before the next flush is not sent at all. A client
+ * only gets a new event when the previous one has been written, so a slow client cannot hold up the
+ * others. When more than the maximum amount of changes is pending, they are replaced by a single
+ * <code>resync</code> event, after which the client loads the availability again. A new client also
+ * starts with a <code>resync</code> event.
+ *
+ * @see ReservationService
+ * @see com.quintor.worqplace.presentation.LocationController LocationController
+ */
+@Component
+public class OccupancyPublisher {
+	/**
+	 * Name of the events with a list of {@link OccupancyDelta deltas}.
+	 */
+	public static final String OCCUPANCY_EVENT = "occupancy";
+
+	/**
+	 * Name of the events that tell the client to load the availability again.
+	 */
+	public static final String RESYNC_EVENT = "resync";
+
+	private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	private final Executor executor;
+	private final int maxPendingChanges;
+	private final long timeoutMs;
+
+	/**
+	 * Constructor of the {@link OccupancyPublisher} class.
+	 *
+	 * @param executor          executor that writes the events to the clients.
+	 * @param maxPendingChanges maximum amount of changed timeslots kept per client before it has to resync.
+	 * @param timeoutMs         amount of milliseconds after which a client has to reconnect.
+	 */
+	public OccupancyPublisher(@Qualifier("applicationTaskExecutor") Executor executor,
+	                          @Value("${occupancy.stream.max-pending-changes:500}") int maxPendingChanges,
+	                          @Value("${occupancy.stream.timeout-ms:1800000}") long timeoutMs) {
+		this.executor = executor;
+		this.maxPendingChanges = maxPendingChanges;
+		this.timeoutMs = timeoutMs;
+	}
+
+	/**
+	 * Function that lets a new client follow the occupancy changes of a location.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @return the {@link SseEmitter} the events are sent to.
+	 */
+	public SseEmitter subscribe(Long locationId) {
+		return subscribe(locationId, new SseEmitter(timeoutMs));
+	}
+
+	/**
+	 * Function that lets a client follow the occupancy changes of a location with the given emitter.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param emitter    the {@link SseEmitter} the events are sent to.
+	 * @return the {@link SseEmitter}.
+	 */
+	SseEmitter subscribe(Long locationId, SseEmitter emitter) {
+		var subscriber = new Subscriber(locationId, emitter);
+		subscribers.computeIfAbsent(locationId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+		emitter.onCompletion(() -> closed(subscriber));
+		emitter.onTimeout(() -> closed(subscriber));
+		emitter.onError(error -> closed(subscriber));
+		return emitter;
+	}
+
+	/**
+	 * Function that publishes the workplaces a stored {@link Reservation} occupies, once the current
+	 * transaction has committed. Without a transaction they are published right away.
+	 *
+	 * @param reservation the stored {@link Reservation}.
+	 */
+	public void reservedAfterCommit(Reservation reservation) {
+		publishAfterCommit(reservation, reservation.getWorkplaceAmount());
+	}
+
+	/**
+	 * Function that publishes the workplaces a deleted {@link Reservation} released, once the current
+	 * transaction has committed. Without a transaction they are published right away.
+	 *
+	 * @param reservation the deleted {@link Reservation}.
+	 */
+	public void releasedAfterCommit(Reservation reservation) {
+		publishAfterCommit(reservation, -reservation.getWorkplaceAmount());
+	}
+
+	/**
+	 * Function that sends the pending changes to every client that is not still writing its previous event.
+	 */
+	@Scheduled(fixedDelayString = "${occupancy.stream.flush-interval-ms:250}")
+	public void flush() {
+		for (var locationSubscribers : subscribers.values())
+			for (var subscriber : locationSubscribers) {
+				var event = subscriber.takeEvent();
+				if (event != null)
+					executor.execute(() -> send(subscriber, event));
+			}
+	}
+
+	/**
+	 * @return the amount of clients following a location.
+	 */
+	public int getSubscriberCount() {
+		return subscribers.values().stream().mapToInt(Set::size).sum();
+	}
+
+	private void publishAfterCommit(Reservation reservation, int workplaces) {
+		var location = reservation.getRoom().getLocation();
+		if (location == null) return;
+
+		var locationId = location.getId();
+		var delta = new OccupancyDelta(reservation.getRoom().getId(), reservation.getDate(),
+				reservation.getStartTime(), reservation.getEndTime(),
+				reservation.getRecurrence().isActive()
+						? reservation.getRecurrence().getRecurrencePattern()
+						: RecurrencePattern.NONE,
+				workplaces);
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			publish(locationId, delta);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				publish(locationId, delta);
+			}
+		});
+	}
+
+	private void publish(Long locationId, OccupancyDelta delta) {
+		for (var subscriber : subscribers.getOrDefault(locationId, Set.of()))
+			subscriber.add(delta, maxPendingChanges);
+	}
+
+	private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+		try {
+			subscriber.emitter.send(event);
+		} catch (IOException | IllegalStateException e) {
+			// The container completes the request of a client that went away itself; completing it here as
+			// well could dispatch a response that is already recycled for another request.
+			unsubscribe(subscriber);
+		} finally {
+			subscriber.sent();
+		}
+	}
+
+	/**
+	 * Function that drops a client whose request has ended. The emitter is locked like it is while an event is
+	 * sent, so the container does not recycle the response before an event that is being written has been
+	 * written.
+	 *
+	 * @param subscriber the client whose request has ended.
+	 */
+	private void closed(Subscriber subscriber) {
+		synchronized (subscriber.emitter) {
+			unsubscribe(subscriber);
+		}
+	}
+
+	private void unsubscribe(Subscriber subscriber) {
+		subscribers.computeIfPresent(subscriber.locationId, (id, locationSubscribers) -> {
+			locationSubscribers.remove(subscriber);
+			return locationSubscribers.isEmpty() ? null : locationSubscribers;
+		});
+	}
+
+	/**
+	 * A client of a location with the changes that have not been sent to it yet.
+	 */
+	private static final class Subscriber {
+		private final Long locationId;
+		private final SseEmitter emitter;
+		private final Map<Slot, Integer> pending = new LinkedHashMap<>();
+		private boolean resync = true;
+		private boolean sending;
+
+		private Subscriber(Long locationId, SseEmitter emitter) {
+			this.locationId = locationId;
+			this.emitter = emitter;
+		}
+
+		private synchronized void add(OccupancyDelta delta, int maxPendingChanges) {
+			if (resync) return;
+
+			var slot = new Slot(delta.roomId(), delta.date(), delta.startTime(), delta.endTime(),
+					delta.recurrencePattern());
+			if (pending.merge(slot, delta.workplaces(), Integer::sum) == 0)
+				pending.remove(slot);
+
+			if (pending.size() > maxPendingChanges) {
+				pending.clear();
+				resync = true;
+			}
+		}
+
+		/**
+		 * Function that takes the pending changes as an event, unless the previous event is still being sent.
+		 *
+		 * @return the event, or null when there is nothing to send yet.
+		 */
+		private synchronized SseEmitter.SseEventBuilder takeEvent() {
+			if (sending || (!resync && pending.isEmpty())) return null;
+
+			SseEmitter.SseEventBuilder event;
+			if (resync) {
+				event = SseEmitter.event().name(RESYNC_EVENT).data("", MediaType.TEXT_PLAIN);
+			} else {
+				var deltas = new ArrayList<OccupancyDelta>(pending.size());
+				pending.forEach((slot, workplaces) -> deltas.add(slot.toDelta(workplaces)));
+				event = SseEmitter.event().name(OCCUPANCY_EVENT).data(deltas, MediaType.APPLICATION_JSON);
+			}
+
+			pending.clear();
+			resync = false;
+			sending = true;
+			return event;
+		}
+
+		private synchronized void sent() {
+			sending = false;
+		}
+	}
+
+	private record Slot(Long roomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+	                    RecurrencePattern recurrencePattern) {
+		private OccupancyDelta toDelta(int workplaces) {
+			return new OccupancyDelta(roomId, date, startTime, endTime, recurrencePattern, workplaces);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.data.ArchivedReservationRepository;
+import com.quintor.worqplace.data.ReservationOccurrenceRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.domain.ArchivedReservation;
+import com.quintor.worqplace.domain.Reservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+
+/**
+ * Scheduled job that moves finished, non-recurring {@link Reservation reservations} to the
+ * {@link ArchivedReservation archive}. Such reservations can no longer affect the availability
+ * of a {@link com.quintor.worqplace.domain.Room room}, so the reservation table only keeps the
+ * ones that can.
+ * <p>
+ * The reservations are deleted with a bulk delete, which bypasses the cascades of Hibernate. Their
+ * {@link com.quintor.worqplace.domain.ReservationOccurrence occurrences} are therefore deleted first.
+ *
+ * @see ArchivedReservation
+ * @see ReservationService#getAllReservations(boolean)
+ */
+@Component
+public class ReservationArchiveJob {
+	private final ReservationRepository reservationRepository;
+	private final ReservationOccurrenceRepository reservationOccurrenceRepository;
+	private final ArchivedReservationRepository archivedReservationRepository;
+	private final int archiveAfterDays;
+
+	/**
+	 * Constructor of the {@link ReservationArchiveJob} class.
+	 *
+	 * @param reservationRepository           repository of the live reservations.
+	 * @param reservationOccurrenceRepository repository of the occurrences of the live reservations.
+	 * @param archivedReservationRepository   repository of the archived reservations.
+	 * @param archiveAfterDays                amount of days after its date a reservation is archived.
+	 */
+	public ReservationArchiveJob(ReservationRepository reservationRepository,
+	                             ReservationOccurrenceRepository reservationOccurrenceRepository,
+	                             ArchivedReservationRepository archivedReservationRepository,
+	                             @Value("${reservation.archive.after-days:30}") int archiveAfterDays) {
+		this.reservationRepository = reservationRepository;
+		this.reservationOccurrenceRepository = reservationOccurrenceRepository;
+		this.archivedReservationRepository = archivedReservationRepository;
+		this.archiveAfterDays = archiveAfterDays;
+	}
+
+	/**
+	 * Function that archives the non-recurring {@link Reservation reservations} that are older
+	 * than the configured amount of days. Copying and deleting happen in one transaction, so a
+	 * reservation is never in both tables or in neither.
+	 *
+	 * @return the amount of archived reservations.
+	 */
+	@Scheduled(cron = "${reservation.archive.cron:0 30 3 * * *}")
+	@Transactional
+	public int archiveFinishedReservations() {
+		var before = LocalDate.now().minusDays(archiveAfterDays);
+		int copied = archivedReservationRepository.copyFinishedBefore(before);
+		reservationOccurrenceRepository.deleteOfFinishedBefore(before);
+		int deleted = reservationRepository.deleteFinishedBefore(before);
+
+		if (copied != deleted)
+			throw new IllegalStateException("Copied " + copied + " reservations to the archive but deleted "
+					+ deleted + ".");
+		return deleted;
+	}
+}
@@ -0,0 +1,149 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.LastOccurrence;
+import com.quintor.worqplace.application.util.ReservationSlot;
+import com.quintor.worqplace.data.ReservationOccurrenceRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.domain.CapacitySweep;
+import com.quintor.worqplace.domain.Reservation;
+import com.quintor.worqplace.domain.ReservationOccurrence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service class that materializes the {@link ReservationOccurrence occurrences} of the
+ * {@link Reservation reservations} up to a rolling horizon. New reservations are materialized when
+ * they are booked and a scheduled job extends the horizon every night. Availability between today and
+ * the horizon can then be read from the occurrences instead of expanding every recurrence.
+ *
+ * @see ReservationOccurrence
+ * @see ReservationService
+ * @see RoomService
+ */
+@Service
+@Transactional
+public class ReservationOccurrenceService {
+	private final ReservationOccurrenceRepository reservationOccurrenceRepository;
+	private final ReservationRepository reservationRepository;
+	private final int horizonWeeks;
+	private volatile LocalDate materializedUntil;
+
+	/**
+	 * Constructor of the {@link ReservationOccurrenceService} class.
+	 *
+	 * @param reservationOccurrenceRepository repository of the occurrences.
+	 * @param reservationRepository           repository of the reservations.
+	 * @param horizonWeeks                    amount of weeks after today the occurrences are materialized.
+	 */
+	public ReservationOccurrenceService(ReservationOccurrenceRepository reservationOccurrenceRepository,
+	                                    ReservationRepository reservationRepository,
+	                                    @Value("${reservation.occurrence.horizon-weeks:26}") int horizonWeeks) {
+		this.reservationOccurrenceRepository = reservationOccurrenceRepository;
+		this.reservationRepository = reservationRepository;
+		this.horizonWeeks = horizonWeeks;
+	}
+
+	/**
+	 * Function that materializes the occurrences of a new {@link Reservation} from today up to the
+	 * horizon, in the transaction that stores the reservation.
+	 *
+	 * @param reservation the stored {@link Reservation}.
+	 */
+	public void materialize(Reservation reservation) {
+		materializeAll(List.of(reservation));
+	}
+
+	/**
+	 * Function that materializes the occurrences of new {@link Reservation reservations} from today up
+	 * to the horizon, in the transaction that stores the reservations.
+	 *
+	 * @param reservations the stored {@link Reservation reservations}.
+	 */
+	public void materializeAll(List<Reservation> reservations) {
+		var today = LocalDate.now();
+		var until = today.plusWeeks(horizonWeeks);
+		var occurrences = new ArrayList<ReservationOccurrence>();
+
+		for (var reservation : reservations)
+			addOccurrences(occurrences, reservation, today, until);
+		reservationOccurrenceRepository.insertAll(occurrences);
+	}
+
+	/**
+	 * Function that moves the horizon to the configured amount of weeks after today. Occurrences
+	 * before today are deleted and every reservation is materialized from the day after its last
+	 * occurrence, so reservations without occurrences are materialized completely. Runs when the
+	 * application has started and every night.
+	 *
+	 * @return the amount of materialized occurrences.
+	 */
+	@Scheduled(cron = "${reservation.occurrence.cron:0 0 2 * * *}")
+	public int extendHorizon() {
+		var today = LocalDate.now();
+		var until = today.plusWeeks(horizonWeeks);
+		reservationOccurrenceRepository.deleteBefore(today);
+
+		var lastDates = reservationOccurrenceRepository.findLastOccurrences().stream()
+				.collect(Collectors.toMap(LastOccurrence::reservationId, LastOccurrence::date));
+		var occurrences = new ArrayList<ReservationOccurrence>();
+
+		for (var reservation : reservationRepository.findAllOccurringBetween(today, until)) {
+			var last = lastDates.get(reservation.getId());
+			addOccurrences(occurrences, reservation, last == null ? today : last.plusDays(1), until);
+		}
+		reservationOccurrenceRepository.insertAll(occurrences);
+
+		this.materializedUntil = until;
+		return occurrences.size();
+	}
+
+	/**
+	 * Function that materializes the occurrences once the application has started, as the
+	 * horizon is unknown until then.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		extendHorizon();
+	}
+
+	/**
+	 * Function that checks if every occurrence between the two dates has been materialized.
+	 *
+	 * @param from first date, inclusive.
+	 * @param to   last date, inclusive.
+	 * @return whether the availability between the dates can be read from the occurrences.
+	 */
+	public boolean isMaterialized(LocalDate from, LocalDate to) {
+		var until = this.materializedUntil;
+		return until != null && !from.isBefore(LocalDate.now()) && !to.isAfter(until);
+	}
+
+	/**
+	 * Function that retrieves the occurrences at a {@link com.quintor.worqplace.domain.Location location}
+	 * between the two dates, which should be {@link #isMaterialized(LocalDate, LocalDate) materialized}.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return a list of non-recurring {@link ReservationSlot slots}, one per occurrence.
+	 * @see ReservationOccurrenceRepository#findSlotsByLocationBetween(Long, LocalDate, LocalDate)
+	 */
+	public List<ReservationSlot> findSlotsByLocationBetween(Long locationId, LocalDate from, LocalDate to) {
+		return reservationOccurrenceRepository.findSlotsByLocationBetween(locationId, from, to);
+	}
+
+	private static void addOccurrences(List<ReservationOccurrence> occurrences, Reservation reservation,
+	                                   LocalDate from, LocalDate until) {
+		for (var date : CapacitySweep.occurrences(reservation, from, until))
+			occurrences.add(new ReservationOccurrence(reservation, date));
+	}
+}
@@ -1,21 +1,34 @@
 package com.quintor.worqplace.application;
 
-import com.quintor.worqplace.application.exceptions.ReservationNotFoundException;
-import com.quintor.worqplace.application.exceptions.WorkplacesNotAvailableException;
+import com.quintor.worqplace.application.exceptions.*;
+import com.quintor.worqplace.application.util.BatchMode;
+import com.quintor.worqplace.application.util.BatchReservationResult;
+import com.quintor.worqplace.application.util.ReservationSummary;
+import com.quintor.worqplace.data.ArchivedReservationRepository;
 import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.domain.ArchivedReservation;
 import com.quintor.worqplace.domain.Employee;
 import com.quintor.worqplace.domain.Location;
 import com.quintor.worqplace.domain.Reservation;
 import com.quintor.worqplace.domain.Room;
+import com.quintor.worqplace.domain.exceptions.RoomNotAvailableException;
 import com.quintor.worqplace.presentation.dto.reservation.ReservationDTO;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
 import javax.transaction.Transactional;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -30,26 +43,83 @@ import java.util.stream.Collectors;
  * @see RoomService
  * @see Employee
  * @see EmployeeService
+ * @see BookingExecutor
+ * @see BookingLockManager
+ * @see ReservationOccurrenceService
+ * @see AvailabilityCache
+ * @see UtilizationService
  */
 @Service
 @Transactional
 @AllArgsConstructor
 public class ReservationService {
+	/**
+	 * Maximum amount of reservations in a single batch.
+	 */
+	public static final int MAX_BATCH_SIZE = 500;
+
+	/**
+	 * Maximum amount of reservations in a single page.
+	 */
+	public static final int MAX_PAGE_SIZE = 1000;
+
+	/**
+	 * Amount of streamed reservations after which the persistence context is cleared.
+	 */
+	public static final int STREAM_CLEAR_INTERVAL = 500;
+
+	/**
+	 * Name of the timer of the bookings, tagged by operation and outcome.
+	 */
+	public static final String BOOKING_TIMER = "worqplace.reservation.booking";
+
+	/**
+	 * Name of the timer of the capacity checks of the {@link Room rooms} during a booking, tagged by
+	 * location, operation and outcome.
+	 */
+	public static final String ROOM_TIMER = "worqplace.room.reservations";
+
+	/**
+	 * Maximum amount of times an update is started again because the reservation moved to another
+	 * {@link Room} before the locks were taken.
+	 */
+	private static final int MAX_ROOM_CHANGES = 3;
+
+	private static final String BATCH_REJECTED = "Not created because another reservation in the batch was rejected.";
+
 	private final EmployeeService employeeService;
 	private final RoomService roomService;
 	private final ReservationRepository reservationRepository;
+	private final BookingExecutor bookingExecutor;
+	private final BookingLockManager bookingLockManager;
+	private final EntityManager entityManager;
+	private final ArchivedReservationRepository archivedReservationRepository;
+	private final ReservationOccurrenceService reservationOccurrenceService;
+	private final AvailabilityCache availabilityCache;
+	private final OccupancyPublisher occupancyPublisher;
+	private final UtilizationService utilizationService;
+	private final MetricsRegistry metricsRegistry;
 
 	/**
-	 * Function that gets all {@link Reservation reservations} from the database.
+	 * Function that gets all {@link Reservation reservations} from the database. Old reservations
+	 * include the ones that have been moved to the {@link ArchivedReservation archive}.
 	 *
+	 * @param includeOld whether reservations that are no longer active are included.
 	 * @return a list containing all {@link Reservation reservations}.
 	 * @see Reservation
 	 * @see ReservationRepository
+	 * @see ReservationArchiveJob
 	 */
 	public List<Reservation> getAllReservations(boolean includeOld) {
-		return reservationRepository.findAll().stream()
+		var reservations = reservationRepository.findAll().stream()
 				.filter(reservation -> includeOld || reservation.isReservationActive(LocalDate.now()))
 				.collect(Collectors.toList());
+
+		if (includeOld)
+			archivedReservationRepository.findAll().stream()
+					.map(ArchivedReservation::toReservation)
+					.forEach(reservations::add);
+		return reservations;
 	}
 
 	/**
@@ -72,27 +142,38 @@ public class ReservationService {
 	/**
 	 * Function that reserves workplaces by calculating the reserved workplaces
 	 * and seeing if the {@link Room room's} capacity allows for more
-	 * {@link Reservation reservations}.
+	 * {@link Reservation reservations}. Holds the lock of the {@link Room} and runs in
+	 * its own transactions through the {@link BookingExecutor}, which retries the booking
+	 * when a concurrent booking of the same room was saved first.
 	 *
 	 * @param reservationDTO the input reservation.
 	 * @return the created {@link Reservation} object.
 	 * @throws WorkplacesNotAvailableException when the requested amount of workplaces
 	 *                                         is not available, this exception is thrown.
+	 * @throws BookingConflictException        when the booking kept conflicting with
+	 *                                         concurrent bookings.
 	 * @see ReservationDTO
 	 * @see Reservation
 	 * @see Room
 	 */
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public Reservation reserveWorkplaces(ReservationDTO reservationDTO) {
-		var reservation = this.toReservation(reservationDTO);
-		var room = reservation.getRoom();
+		return book("reserve_workplaces", () -> {
+			var reservation = this.toReservation(reservationDTO);
+			var room = reservation.getRoom();
 
-		room.addReservation(reservation);
-		reservationRepository.save(reservation);
-		return reservation;
+			addReservation(room, reservation);
+			reservationRepository.save(reservation);
+			reservationOccurrenceService.materialize(reservation);
+			availabilityCache.invalidateAfterCommit(reservation);
+			occupancyPublisher.reservedAfterCommit(reservation);
+			return reservation;
+		}, reservationDTO.getRoomId());
 	}
 
 	/**
-	 * Function that translates a {@link ReservationDTO} to a {@link Reservation}.
+	 * Function that translates a {@link ReservationDTO} to a {@link Reservation}. The
+	 * {@link Room} is loaded for booking, so its version is incremented on commit.
 	 *
 	 * @param reservationDTO the input {@link ReservationDTO}
 	 * @return the generated {@link Reservation} object based on the input data.
@@ -103,7 +184,7 @@ public class ReservationService {
 	 */
 	public Reservation toReservation(ReservationDTO reservationDTO) {
 		var employee = employeeService.getEmployeeById(reservationDTO.getEmployeeId());
-		var room = roomService.findRoomById(reservationDTO.getRoomId());
+		var room = roomService.findRoomForBooking(reservationDTO.getRoomId());
 		var workplaceAmount = Math.max(reservationDTO.getWorkplaceAmount(), 1);
 
 		return new Reservation(reservationDTO.getDate(),
@@ -114,68 +195,209 @@ public class ReservationService {
 
 	/**
 	 * Function that reserves a whole {@link Room} by checking if it's available
-	 * and saving the {@link Reservation} object if so.
+	 * and saving the {@link Reservation} object if so. Retried the same way as
+	 * {@link #reserveWorkplaces(ReservationDTO)}.
 	 *
 	 * @param reservationDTO DTO input for creating a reservation.
 	 * @return the generated {@link Reservation} object.
+	 * @throws BookingConflictException when the booking kept conflicting with
+	 *                                  concurrent bookings.
 	 * @see ReservationDTO
 	 * @see Reservation
 	 * @see ReservationRepository
 	 * @see RoomService
 	 */
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public Reservation reserveRoom(ReservationDTO reservationDTO) {
-		var reservation = this.toReservation(reservationDTO);
-		var room = reservation.getRoom();
+		return book("reserve_room", () -> {
+			var reservation = this.toReservation(reservationDTO);
+			var room = reservation.getRoom();
 
-		reservation.setWorkplaceAmount(room.getCapacity());
-		room.addReservation(reservation);
-		return reservationRepository.save(reservation);
+			reservation.setWorkplaceAmount(room.getCapacity());
+			addReservation(room, reservation);
+			var saved = reservationRepository.save(reservation);
+			reservationOccurrenceService.materialize(reservation);
+			availabilityCache.invalidateAfterCommit(reservation);
+			occupancyPublisher.reservedAfterCommit(reservation);
+			return saved;
+		}, reservationDTO.getRoomId());
+	}
+
+	/**
+	 * Function that reserves workplaces for a batch of {@link Reservation reservations}, for example
+	 * for a whole team or a series of dates. Every {@link Employee} and {@link Room} is looked up
+	 * once and every reservation is checked against the reservations of its room including the ones
+	 * accepted earlier in the batch. The accepted reservations are stored with a single JDBC batch.
+	 *
+	 * @param reservationDTOs the input reservations.
+	 * @param mode            whether the whole batch is rejected when one of the reservations is.
+	 * @return the outcome of every reservation, in the order of the batch.
+	 * @throws InvalidBatchSizeException when the batch is empty or larger than {@link #MAX_BATCH_SIZE}.
+	 * @throws BookingConflictException  when the batch kept conflicting with concurrent bookings.
+	 * @see BatchMode
+	 * @see BatchReservationResult
+	 * @see ReservationRepository#insertAll(List)
+	 */
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public List<BatchReservationResult> reserveBatch(List<ReservationDTO> reservationDTOs, BatchMode mode) {
+		if (reservationDTOs.isEmpty() || reservationDTOs.size() > MAX_BATCH_SIZE)
+			throw new InvalidBatchSizeException(reservationDTOs.size(), MAX_BATCH_SIZE);
+
+		var roomIds = reservationDTOs.stream()
+				.map(ReservationDTO::getRoomId)
+				.distinct()
+				.toArray(Long[]::new);
+
+		return bookingLockManager.withRoomLocks(() -> bookingExecutor.execute(() -> {
+			var results = validateBatch(reservationDTOs);
+			var accepted = results.stream()
+					.filter(BatchReservationResult::isCreated)
+					.map(BatchReservationResult::reservation)
+					.toList();
+
+			if (mode == BatchMode.ALL_OR_NOTHING && accepted.size() < results.size())
+				return results.stream()
+						.map(result -> result.isCreated()
+								? new BatchReservationResult(result.index(), null, BATCH_REJECTED)
+								: result)
+						.toList();
+
+			reservationRepository.insertAll(accepted);
+			reservationOccurrenceService.materializeAll(accepted);
+			accepted.forEach(availabilityCache::invalidateAfterCommit);
+			accepted.forEach(occupancyPublisher::reservedAfterCommit);
+			return results;
+		}), roomIds);
+	}
+
+	/**
+	 * Function that checks every reservation of a batch and adds the accepted ones to their
+	 * {@link Room}, so the following reservations of the batch are checked against them.
+	 *
+	 * @param reservationDTOs the input reservations.
+	 * @return the outcome of every reservation, in the order of the batch.
+	 */
+	private List<BatchReservationResult> validateBatch(List<ReservationDTO> reservationDTOs) {
+		var employees = new HashMap<Long, Employee>();
+		var rooms = new HashMap<Long, Room>();
+		var results = new ArrayList<BatchReservationResult>(reservationDTOs.size());
+
+		for (int i = 0; i < reservationDTOs.size(); i++) {
+			var reservationDTO = reservationDTOs.get(i);
+			try {
+				var employee = employees.computeIfAbsent(reservationDTO.getEmployeeId(),
+						this::findEmployeeForBatch);
+				var room = rooms.computeIfAbsent(reservationDTO.getRoomId(), this::findRoomForBatch);
+				var reservation = new Reservation(reservationDTO.getDate(),
+						reservationDTO.getStartTime(), reservationDTO.getEndTime(),
+						employee, room, Math.max(reservationDTO.getWorkplaceAmount(), 1),
+						reservationDTO.getRecurrence());
+
+				addReservation(room, reservation);
+				results.add(new BatchReservationResult(i, reservation, null));
+			} catch (EmployeeNotFoundException | RoomNotFoundException | WorkplacesNotAvailableException |
+					RoomNotAvailableException | InvalidStartAndEndTimeException | InvalidDayException e) {
+				results.add(new BatchReservationResult(i, null, e.getMessage()));
+			}
+		}
+		return results;
+	}
+
+	private Employee findEmployeeForBatch(Long employeeId) {
+		if (employeeId == null) throw new EmployeeNotFoundException(null);
+		return employeeService.getEmployeeById(employeeId);
+	}
+
+	private Room findRoomForBatch(Long roomId) {
+		if (roomId == null) throw new RoomNotFoundException(null);
+		return roomService.findRoomForBooking(roomId);
 	}
 
 	/**
 	 * Function that gets all {@link Reservation reservations} made by
-	 * the entered {@link Employee}.
+	 * the entered {@link Employee} that are on or after the entered date or are recurring.
 	 *
-	 * @param id id of the wanted {@link Employee}.
-	 * @return a list of {@link Reservation reservations} made by
-	 * the selected {@link Employee}
+	 * @param id         id of the wanted {@link Employee}.
+	 * @param locationId id of the {@link Location} to filter on, null for all locations.
+	 * @param date       first date of the one-off reservations, null for today.
+	 * @return a list of {@link ReservationSummary summaries} of the {@link Reservation reservations}
+	 * made by the selected {@link Employee}, ordered by date and start time.
 	 * @see Employee
 	 * @see Reservation
-	 * @see ReservationRepository
+	 * @see ReservationRepository#findSummariesByEmployee(Long, Long, LocalDate)
 	 */
-	public List<Reservation> getAllMyReservations(Long id, Long locationId, LocalDate date) {
+	public List<ReservationSummary> getAllMyReservations(Long id, Long locationId, LocalDate date) {
 		LocalDate finalDate = date == null ? LocalDate.now() : date;
-		return reservationRepository.findAllByEmployeeId(id).stream()
-				.filter(reservation ->
-						(locationId == null ||
-								Objects.equals(reservation.getRoom().getLocation().getId(), locationId))
-								&& (reservation.getDate().compareTo(finalDate) >= 0 ||
-								reservation.getRecurrence().isActive())).toList();
+		return reservationRepository.findSummariesByEmployee(id, locationId, finalDate);
 	}
 
 	/**
 	 * Function that gets all {@link Reservation reservations} made for
-	 * the entered {@link Location}.
+	 * the entered {@link Location}, together with their employee and room in one query.
 	 *
-	 * @param id id of the wanted {@link Employee}.
+	 * @param id id of the wanted {@link Location}.
 	 * @return a list of {@link Reservation reservations} made for
-	 * the selected {@link Location}
+	 * the selected {@link Location}, empty if the location does not exist.
 	 * @see Location
 	 * @see Reservation
-	 * @see ReservationRepository
+	 * @see ReservationRepository#findAllByLocationId(Long)
 	 */
 	public List<Reservation> getAllByLocation(Long id) {
-		var reservations = new ArrayList<Reservation>();
-		var rooms = roomService.findRoomsByLocationId(id);
+		return reservationRepository.findAllByLocationId(id);
+	}
 
-		rooms.forEach(room -> reservations.addAll(room.getReservations()));
+	/**
+	 * Function that gets a page of the {@link Reservation reservations} made for the entered
+	 * {@link Location}, ordered by id. The next page starts after the id of the last
+	 * {@link Reservation} of this page.
+	 *
+	 * @param id      id of the wanted {@link Location}.
+	 * @param afterId id of the last {@link Reservation} of the previous page, null for the first page.
+	 * @param size    maximum amount of {@link Reservation reservations} in the page, is limited
+	 *                to {@link #MAX_PAGE_SIZE}.
+	 * @return a list of at most size {@link Reservation reservations}.
+	 * @see ReservationRepository#findPageByLocationId(Long, Long, Pageable)
+	 */
+	public List<Reservation> getPageByLocation(Long id, Long afterId, int size) {
+		return reservationRepository.findPageByLocationId(id, afterId == null ? 0L : afterId,
+				PageRequest.of(0, pageSizeOf(size)));
+	}
 
-		return reservations;
+	/**
+	 * Function that limits a requested page size to the range of 1 to {@link #MAX_PAGE_SIZE}.
+	 *
+	 * @param size the requested page size.
+	 * @return the page size that is used.
+	 */
+	public static int pageSizeOf(int size) {
+		return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+	}
+
+	/**
+	 * Function that passes all {@link Reservation reservations} made for the entered {@link Location}
+	 * to the consumer, ordered by id, without keeping them all in memory. The persistence context is
+	 * cleared every {@link #STREAM_CLEAR_INTERVAL} reservations, so the consumer must not hold on to
+	 * the reservations it received.
+	 *
+	 * @param id       id of the wanted {@link Location}.
+	 * @param consumer consumer receiving the {@link Reservation reservations}.
+	 * @see ReservationRepository#streamAllByLocationId(Long)
+	 */
+	public void streamAllByLocation(Long id, Consumer<Reservation> consumer) {
+		try (var reservations = reservationRepository.streamAllByLocationId(id)) {
+			var iterator = reservations.iterator();
+			for (int count = 1; iterator.hasNext(); count++) {
+				consumer.accept(iterator.next());
+				if (count % STREAM_CLEAR_INTERVAL == 0) entityManager.clear();
+			}
+		}
 	}
 
 	/**
 	 * Function that deletes a single {@link Reservation reservation} made by
-	 * the entered {@link Employee}.
+	 * the entered {@link Employee}. The cached availability it changes is
+	 * invalidated once the deletion is committed, past dates it occurred on
+	 * are rolled up again by the {@link UtilizationRollupJob}.
 	 *
 	 * @param id id of the wanted {@link Employee}.
 	 * @see Employee
@@ -183,7 +405,12 @@ public class ReservationService {
 	 * @see ReservationRepository
 	 */
 	public void deleteReservation(Long id) {
-		reservationRepository.deleteById(id);
+		reservationRepository.findById(id).ifPresent(reservation -> {
+			reservationRepository.delete(reservation);
+			availabilityCache.invalidateAfterCommit(reservation);
+			occupancyPublisher.releasedAfterCommit(reservation);
+			utilizationService.markChanged(reservation);
+		});
 	}
 
 	/**
@@ -205,15 +432,104 @@ public class ReservationService {
 		return Objects.equals(reservation.getEmployee().getId(), employeeId);
 	}
 
+	/**
+	 * Function that replaces a {@link Reservation} by the updated one if the {@link Room} has
+	 * room for it. Locks both the old and the new {@link Room} and is retried the same way
+	 * as {@link #reserveWorkplaces(ReservationDTO)}. The reservation is read again once the locks
+	 * are held, when a concurrent update moved it to another room in the meantime, the update
+	 * starts again with the locks of that room.
+	 *
+	 * @param reservationDTO DTO input containing the id of the reservation and its new values.
+	 * @return the updated {@link Reservation} object.
+	 * @throws BookingConflictException     when the booking kept conflicting with
+	 *                                      concurrent bookings.
+	 * @throws ReservationNotFoundException when the reservation does not exist (anymore).
+	 * @see ReservationDTO
+	 * @see Room#updateReservation(Reservation, Reservation)
+	 */
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public Reservation updateReservation(ReservationDTO reservationDTO) {
+		for (int attempt = 1; ; attempt++) {
+			var lockedRoomId = findRoomIdOfReservation(reservationDTO.getId());
+			var updated = book("update", () -> updateReservationInRoom(reservationDTO, lockedRoomId),
+					lockedRoomId, reservationDTO.getRoomId());
+
+			if (updated.isPresent()) return updated.get();
+			if (attempt >= MAX_ROOM_CHANGES) throw new BookingConflictException(attempt);
+		}
+	}
+
+	/**
+	 * Function that updates a {@link Reservation} while the locks of its {@link Room} are held. The
+	 * reservation is refreshed first, as the persistence context of the request can still hold the
+	 * version that was read before the locks were taken.
+	 *
+	 * @param reservationDTO DTO input containing the id of the reservation and its new values.
+	 * @param lockedRoomId   id of the {@link Room} of the reservation of which the lock is held.
+	 * @return the updated {@link Reservation}, empty when the reservation is no longer in the locked room.
+	 */
+	private Optional<Reservation> updateReservationInRoom(ReservationDTO reservationDTO, Long lockedRoomId) {
 		var oldReservation = getReservationById(reservationDTO.getId());
-		var newReservation = toReservation(reservationDTO);
+		try {
+			entityManager.refresh(oldReservation);
+		} catch (EntityNotFoundException e) {
+			throw new ReservationNotFoundException(reservationDTO.getId());
+		}
+		if (!oldReservation.getRoom().getId().equals(lockedRoomId)) return Optional.empty();
 
-		var room = oldReservation.getRoom();
+		var newReservation = toReservation(reservationDTO);
+		var room = roomService.findRoomForBooking(lockedRoomId);
 
-		room.updateReservation(oldReservation, newReservation);
+		metricsRegistry.time(ROOM_TIMER, () -> room.updateReservation(oldReservation, newReservation),
+				"location", locationOf(room), "operation", "update");
 		reservationRepository.delete(oldReservation);
 		reservationRepository.save(newReservation);
-		return newReservation;
+		reservationOccurrenceService.materialize(newReservation);
+		availabilityCache.invalidateAfterCommit(oldReservation);
+		availabilityCache.invalidateAfterCommit(newReservation);
+		occupancyPublisher.releasedAfterCommit(oldReservation);
+		occupancyPublisher.reservedAfterCommit(newReservation);
+		utilizationService.markChanged(oldReservation);
+		return Optional.of(newReservation);
+	}
+
+	private Long findRoomIdOfReservation(Long id) {
+		return reservationRepository.findRoomIdById(id).orElseThrow(() -> new ReservationNotFoundException(id));
+	}
+
+	/**
+	 * Function that executes a booking while holding the locks of the given {@link Room rooms},
+	 * retrying it through the {@link BookingExecutor} when it conflicts with a booking of another
+	 * instance. The whole booking, including the time spent waiting for the locks and retrying, is
+	 * recorded by the {@link #BOOKING_TIMER}.
+	 *
+	 * @param operation the kind of booking, used as tag of the timer.
+	 * @param booking   the booking, is executed once per attempt.
+	 * @param roomIds   ids of the {@link Room rooms} the booking changes.
+	 * @param <T>       type of the result of the booking.
+	 * @return the result of the booking.
+	 * @see BookingLockManager#withRoomLocks(Supplier, Long...)
+	 */
+	private <T> T book(String operation, Supplier<T> booking, Long... roomIds) {
+		return metricsRegistry.time(BOOKING_TIMER,
+				() -> bookingLockManager.withRoomLocks(() -> bookingExecutor.execute(booking), roomIds),
+				"operation", operation);
+	}
+
+	/**
+	 * Function that adds a {@link Reservation} to a {@link Room}, recording the capacity check with
+	 * the {@link #ROOM_TIMER}.
+	 *
+	 * @param room        the room.
+	 * @param reservation the reservation.
+	 * @see Room#addReservation(Reservation)
+	 */
+	private void addReservation(Room room, Reservation reservation) {
+		metricsRegistry.time(ROOM_TIMER, () -> room.addReservation(reservation),
+				"location", locationOf(room), "operation", "add");
+	}
+
+	private static String locationOf(Room room) {
+		return String.valueOf(room.getLocation().getId());
 	}
 }
@@ -1,42 +1,125 @@
 package com.quintor.worqplace.application;
 
+import com.quintor.worqplace.application.exceptions.InvalidDateRangeException;
+import com.quintor.worqplace.application.exceptions.InvalidGranularityException;
+import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
 import com.quintor.worqplace.application.exceptions.RoomNotFoundException;
+import com.quintor.worqplace.application.util.AvailabilityHeatmap;
+import com.quintor.worqplace.application.util.AvailabilityKey;
 import com.quintor.worqplace.application.util.DateTimeUtils;
+import com.quintor.worqplace.application.util.RecurrenceKey;
+import com.quintor.worqplace.application.util.ReservationSlot;
 import com.quintor.worqplace.application.util.RoomAvailability;
+import com.quintor.worqplace.application.util.RoomRangeAvailability;
+import com.quintor.worqplace.application.util.RoomSuggestion;
+import com.quintor.worqplace.data.ReservationRepository;
 import com.quintor.worqplace.data.RoomRepository;
 import com.quintor.worqplace.domain.*;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.quintor.worqplace.application.util.DateTimeUtils.checkReservationDateTime;
 
 /**
  * Service class that handles the communication between the
  * {@link com.quintor.worqplace.presentation.RoomController controller},
- * the domain and the {@link RoomRepository repository}.
+ * the domain and the {@link RoomRepository repository}. Availability is calculated from the
+ * {@link ReservationSlot slots} that can overlap the requested dates, which are queried from the
+ * {@link ReservationRepository} instead of loading every reservation of every room.
  *
  * @see Room
  * @see com.quintor.worqplace.presentation.RoomController RoomController
  * @see RoomRepository
+ * @see ReservationRepository
  * @see Location
  * @see LocationService
+ * @see AvailabilityCache
  */
 @Service
 @Transactional
 public class RoomService {
+	/**
+	 * Maximum amount of time buckets in a heatmap, a month of fifteen minute buckets.
+	 */
+	public static final int MAX_HEATMAP_BUCKETS = 31 * 96;
+
+	/**
+	 * Maximum amount of days in a date range, about three months.
+	 */
+	public static final int MAX_RANGE_DAYS = 92;
+
+	/**
+	 * Maximum amount of alternatives {@link #suggestAlternatives} returns.
+	 */
+	public static final int MAX_SUGGESTIONS = 5;
+
+	/**
+	 * Time {@link #suggestAlternatives} may spend on searching other locations.
+	 */
+	public static final Duration SUGGESTION_BUDGET = Duration.ofMillis(200);
+
+	/**
+	 * Last date the occupancy of a recurring suggestion is loaded up to, the last date MySQL can store.
+	 */
+	private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+
+	private static final int FLOOR_PENALTY_MINUTES = 15;
+	private static final int LOCATION_PENALTY_MINUTES = 60;
+
+	/**
+	 * Shifts of the requested timeslot in minutes, closest first: 0, -15, 15, -30, 30 up to two hours.
+	 */
+	private static final int[] SHIFTS_MINUTES = IntStream.rangeClosed(0, 16)
+			.map(i -> (i + 1) / 2 * (i % 2 == 1 ? -15 : 15))
+			.toArray();
+
+	private static final Comparator<RoomSuggestion> SUGGESTION_ORDER = Comparator
+			.comparingInt(RoomSuggestion::score)
+			.thenComparing(Comparator.comparingInt(RoomSuggestion::available).reversed())
+			.thenComparing(RoomSuggestion::locationId)
+			.thenComparing(RoomSuggestion::roomId);
+
+	/**
+	 * Name of the timer of the availability queries, tagged by location, query and outcome.
+	 */
+	public static final String AVAILABILITY_TIMER = "worqplace.room.availability";
+
 	private final RoomRepository roomRepository;
+	private final ReservationRepository reservationRepository;
 	private final LocationService locationService;
+	private final ReservationOccurrenceService reservationOccurrenceService;
+	private final AvailabilityCache availabilityCache;
+	private final MetricsRegistry metricsRegistry;
 
 	@Lazy // The locationService also depends on this service, if not lazy it can never start.
-	public RoomService(RoomRepository roomRepository, LocationService locationService) {
+	public RoomService(RoomRepository roomRepository, ReservationRepository reservationRepository,
+	                   LocationService locationService, ReservationOccurrenceService reservationOccurrenceService,
+	                   AvailabilityCache availabilityCache, MetricsRegistry metricsRegistry) {
 		this.roomRepository = roomRepository;
+		this.reservationRepository = reservationRepository;
 		this.locationService = locationService;
+		this.reservationOccurrenceService = reservationOccurrenceService;
+		this.availabilityCache = availabilityCache;
+		this.metricsRegistry = metricsRegistry;
 	}
 
 	/**
@@ -48,18 +131,196 @@ public class RoomService {
 	 * @param startTime  start time
 	 * @param endTime    end time
 	 * @param recurrencePattern the pattern of {@link Recurrence} for which to check
-	 * @return a {@link List} of {@link RoomAvailability}.
+	 * @return a {@link List} of {@link RoomAvailability}, which may come from the {@link AvailabilityCache}.
 	 * @see RoomAvailability
+	 * @see #AVAILABILITY_TIMER
 	 */
 	public List<RoomAvailability> getRoomsAvailabilityAtDateTime(Long locationId, LocalDate date,
 	                                                             LocalTime startTime, LocalTime endTime,
 	                                                             RecurrencePattern recurrencePattern) {
+		return metricsRegistry.time(AVAILABILITY_TIMER, () -> {
+			checkReservationDateTime(date, startTime, endTime);
+			var key = new AvailabilityKey(AvailabilityKey.Query.ROOMS, locationId, date, startTime, endTime,
+					recurrencePattern, null);
+			return availabilityCache.get(key, () ->
+					calculateRoomsAvailability(locationId, date, startTime, endTime, recurrencePattern));
+		}, "location", String.valueOf(locationId), "query", "availability");
+	}
+
+	private List<RoomAvailability> calculateRoomsAvailability(Long locationId, LocalDate date,
+	                                                          LocalTime startTime, LocalTime endTime,
+	                                                          RecurrencePattern recurrencePattern) {
 		var recurrence = new Recurrence(recurrencePattern != RecurrencePattern.NONE, recurrencePattern);
-		var rooms = getRoomsAvailableAtDateTime(locationId, date, startTime, endTime);
+		var indexes = findOccupancyIndexes(locationId, date, date);
+		var rooms = filterAvailableRooms(findRoomsByLocationId(locationId), indexes, date, startTime, endTime);
 		rooms = rooms.stream().filter(room -> !recurrence.isActive() || room.isWorkplaceRecurrentlyAvailable(
 						new Reservation(date, startTime, endTime, null, room, room.getCapacity(), recurrence)))
 				.collect(Collectors.toList());
-		return mapToRoomAvailability(date, startTime, endTime, rooms);
+		return mapToRoomAvailability(indexes, date, startTime, endTime, rooms);
+	}
+
+	/**
+	 * Method that retrieves the available workplaces of every {@link Room} at the given {@link Location}
+	 * during the given timeslot, for every day between the two dates that falls on one of the weekdays.
+	 * The reservations that can occur in the whole range are queried once, after which the
+	 * {@link OccupancyIndex} of each room only visits the reservations of a day's date, weekday and
+	 * day of the month, instead of repeating the single-day query for every day.
+	 *
+	 * @param locationId id of the {@link Location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @param startTime  start time of the timeslot on every day.
+	 * @param endTime    end time of the timeslot on every day.
+	 * @param weekdays   the days of the week to include, all days if null or empty.
+	 * @return a {@link List} of {@link RoomRangeAvailability}, with the days in order.
+	 * @throws InvalidDateRangeException when to is before from or the range exceeds {@link #MAX_RANGE_DAYS}.
+	 * @see RoomRangeAvailability
+	 */
+	public List<RoomRangeAvailability> getWorkplaceAvailabilityBetween(Long locationId, LocalDate from,
+	                                                                   LocalDate to, LocalTime startTime,
+	                                                                   LocalTime endTime, Set<DayOfWeek> weekdays) {
+		checkReservationDateTime(from, startTime, endTime);
+		if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS)
+			throw new InvalidDateRangeException();
+
+		var dates = from.datesUntil(to.plusDays(1))
+				.filter(date -> weekdays == null || weekdays.isEmpty() || weekdays.contains(date.getDayOfWeek()))
+				.toList();
+		var indexes = dates.isEmpty() ? Map.<Long, OccupancyIndex>of()
+				: findOccupancyIndexes(locationId, dates.get(0), dates.get(dates.size() - 1));
+		return findRoomsByLocationId(locationId).stream()
+				.map(room -> new RoomRangeAvailability(room.getId(), room.getFloor(), room.getCapacity(),
+						dates.stream()
+								.map(date -> new RoomRangeAvailability.DayAvailability(date,
+										calculateAvailable(indexes, date, startTime, endTime, room)))
+								.toList()))
+				.toList();
+	}
+
+	/**
+	 * Method that builds a heatmap of the free workplaces of every {@link Room} at the given
+	 * {@link Location}, per time bucket between the given date-times. A bucket has the same
+	 * amount of free workplaces as {@link Room#countReservedWorkplaces} would leave for
+	 * its timeslot, but the whole heatmap is built in a single pass over the reservations
+	 * of each room per date.
+	 *
+	 * @param locationId  id of the {@link Location}.
+	 * @param from        start of the first bucket.
+	 * @param to          end of the last bucket.
+	 * @param granularity length of a bucket.
+	 * @return the {@link AvailabilityHeatmap}.
+	 * @throws InvalidStartAndEndTimeException when from is not before to.
+	 * @throws InvalidGranularityException     when the heatmap would exceed {@link #MAX_HEATMAP_BUCKETS}.
+	 */
+	public AvailabilityHeatmap getAvailabilityHeatmap(Long locationId, LocalDateTime from, LocalDateTime to,
+	                                                  Duration granularity) {
+		if (!from.isBefore(to))
+			throw new InvalidStartAndEndTimeException();
+
+		var bucketStarts = new ArrayList<LocalDateTime>();
+		for (var start = from; start.isBefore(to); start = start.plus(granularity)) {
+			if (bucketStarts.size() == MAX_HEATMAP_BUCKETS)
+				throw new InvalidGranularityException(granularity.toString());
+			bucketStarts.add(start);
+		}
+
+		var lastDate = bucketStarts.get(bucketStarts.size() - 1).toLocalDate();
+		var indexes = findOccupancyIndexes(locationId, from.toLocalDate(), lastDate);
+		var rooms = findRoomsByLocationId(locationId).stream()
+				.map(room -> new AvailabilityHeatmap.RoomHeatmap(room.getId(), room.getFloor(), room.getCapacity(),
+						calculateFreePerBucket(room, indexOf(indexes, room), bucketStarts, granularity, to)))
+				.toList();
+
+		return new AvailabilityHeatmap(from, to, granularity.toMinutes(), rooms);
+	}
+
+	/**
+	 * Helper method that calculates the free workplaces of a {@link Room} per bucket. The buckets of one
+	 * date are handled together: every reservation occurring that date adds its workplaces to the range
+	 * of buckets it overlaps in a difference array, which is summed afterwards.
+	 *
+	 * @param room         the {@link Room}.
+	 * @param index        {@link OccupancyIndex} of the reservations of the room.
+	 * @param bucketStarts start of every bucket, in order.
+	 * @param granularity  length of a bucket.
+	 * @param to           end of the last bucket.
+	 * @return the free workplaces per bucket.
+	 */
+	private int[] calculateFreePerBucket(Room room, OccupancyIndex index, List<LocalDateTime> bucketStarts,
+	                                     Duration granularity, LocalDateTime to) {
+		int bucketCount = bucketStarts.size();
+		var starts = new long[bucketCount];
+		var ends = new long[bucketCount];
+		for (int i = 0; i < bucketCount; i++) {
+			var start = bucketStarts.get(i);
+			var end = start.plus(granularity);
+			if (end.isAfter(to)) end = to;
+			starts[i] = start.toLocalTime().toNanoOfDay();
+			ends[i] = end.toLocalDate().equals(start.toLocalDate()) ?
+					end.toLocalTime().toNanoOfDay() : LocalTime.MAX.toNanoOfDay();
+		}
+
+		var reserved = new int[bucketCount + 1];
+		int first = 0;
+		while (first < bucketCount) {
+			var date = bucketStarts.get(first).toLocalDate();
+			int last = first;
+			while (last + 1 < bucketCount && bucketStarts.get(last + 1).toLocalDate().equals(date)) last++;
+
+			int low = first;
+			int high = last;
+			index.forEachReservation(date, LocalTime.ofNanoOfDay(starts[low]), LocalTime.ofNanoOfDay(ends[high]),
+					reservation -> {
+						int from = firstBucketEndingAfter(ends, low, high, reservation.getStartTime().toNanoOfDay());
+						int until = lastBucketStartingBefore(starts, low, high, reservation.getEndTime().toNanoOfDay());
+						if (from > until) return;
+						reserved[from] += reservation.getWorkplaceAmount();
+						reserved[until + 1] -= reservation.getWorkplaceAmount();
+					});
+			first = last + 1;
+		}
+
+		var free = new int[bucketCount];
+		int current = 0;
+		for (int i = 0; i < bucketCount; i++) {
+			current += reserved[i];
+			free[i] = room.getCapacity() - current;
+		}
+		return free;
+	}
+
+	/**
+	 * @return the first bucket in [low, high] whose end is at or after the given time, high + 1 if there is none.
+	 */
+	private static int firstBucketEndingAfter(long[] ends, int low, int high, long time) {
+		int result = high + 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (ends[mid] >= time) {
+				result = mid;
+				high = mid - 1;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the last bucket in [low, high] whose start is at or before the given time, low - 1 if there is none.
+	 */
+	private static int lastBucketStartingBefore(long[] starts, int low, int high, long time) {
+		int result = low - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= time) {
+				result = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -70,16 +331,145 @@ public class RoomService {
 	 * @param date       date
 	 * @param startTime  start time
 	 * @param endTime    end time
-	 * @return a {@link List} of {@link RoomAvailability}.
+	 * @return a {@link List} of {@link RoomAvailability}, which may come from the {@link AvailabilityCache}.
 	 * @see RoomAvailability
 	 */
 	public List<RoomAvailability> getWorkplaceAvailabilityAtDateTime(Long locationId, LocalDate date,
 	                                                                 LocalTime startTime, LocalTime endTime,
 																	 Integer amount,
 	                                                                 RecurrencePattern recurrencePattern) {
-		var rooms = getRoomsWithWorkplacesAvailableAtDateTime(locationId, date, startTime, endTime,
-				amount, recurrencePattern);
-		return mapToRoomAvailability(date, startTime, endTime, rooms);
+		checkReservationDateTime(date, startTime, endTime);
+		var key = new AvailabilityKey(AvailabilityKey.Query.WORKPLACES, locationId, date, startTime, endTime,
+				recurrencePattern, amount);
+		return availabilityCache.get(key, () ->
+				calculateWorkplaceAvailability(locationId, date, startTime, endTime, amount, recurrencePattern));
+	}
+
+	private List<RoomAvailability> calculateWorkplaceAvailability(Long locationId, LocalDate date,
+	                                                              LocalTime startTime, LocalTime endTime,
+	                                                              Integer amount,
+	                                                              RecurrencePattern recurrencePattern) {
+		var indexes = findOccupancyIndexes(locationId, date, date);
+		var rooms = filterRoomsWithWorkplacesAvailable(findRoomsByLocationId(locationId), indexes, date,
+				startTime, endTime, amount, recurrencePattern);
+		return mapToRoomAvailability(indexes, date, startTime, endTime, rooms);
+	}
+
+	/**
+	 * Function that suggests alternatives for a timeslot in which the requested amount of workplaces
+	 * may not be available. Every {@link Room} gets its closest fitting timeslot within two hours of the
+	 * requested one, on the same date. Suggestions are ranked by the minutes they are shifted, plus
+	 * {@value #FLOOR_PENALTY_MINUTES} minutes per floor away from the room with the most available
+	 * workplaces at the requested location, or {@value #LOCATION_PENALTY_MINUTES} minutes at another
+	 * location. The occupancy of a location is queried once and reused for every shift, for a recurring
+	 * request up to the last date so every occurrence can be checked against it. The other locations are
+	 * only searched while the {@link #SUGGESTION_BUDGET} lasts, which is checked before every room.
+	 *
+	 * @param locationId        id of the requested {@link Location}.
+	 * @param date              date of the timeslot.
+	 * @param startTime         start time of the timeslot.
+	 * @param endTime           end time of the timeslot.
+	 * @param amount            requested amount of workplaces, 1 if null.
+	 * @param recurrencePattern the pattern of {@link Recurrence} for which to check, none if null.
+	 * @return at most {@link #MAX_SUGGESTIONS} {@link RoomSuggestion suggestions}, best first.
+	 * @see RoomSuggestion
+	 */
+	public List<RoomSuggestion> suggestAlternatives(Long locationId, LocalDate date, LocalTime startTime,
+	                                                LocalTime endTime, Integer amount,
+	                                                RecurrencePattern recurrencePattern) {
+		return suggestAlternatives(locationId, date, startTime, endTime, amount, recurrencePattern, SUGGESTION_BUDGET);
+	}
+
+	/**
+	 * Function that suggests alternatives with its own budget, used for testing purposes.
+	 *
+	 * @see #suggestAlternatives(Long, LocalDate, LocalTime, LocalTime, Integer, RecurrencePattern)
+	 */
+	@SuppressWarnings("squid:S00107") // Suppresses the too many parameters warning, same as the public method.
+	List<RoomSuggestion> suggestAlternatives(Long locationId, LocalDate date, LocalTime startTime,
+	                                         LocalTime endTime, Integer amount,
+	                                         RecurrencePattern recurrencePattern, Duration budget) {
+		checkReservationDateTime(date, startTime, endTime);
+		long deadline = System.nanoTime() + budget.toNanos();
+		var pattern = recurrencePattern == null ? RecurrencePattern.NONE : recurrencePattern;
+		var request = new SuggestionRequest(date, startTime, endTime, amount == null ? 1 : amount,
+				new Recurrence(pattern != RecurrencePattern.NONE, pattern));
+		var suggestions = new PriorityQueue<>(SUGGESTION_ORDER.reversed());
+
+		var until = request.recurrence().isActive() ? LAST_DATE : date;
+		var rooms = findRoomsByLocationId(locationId);
+		var indexes = findOccupancyIndexes(locationId, date, until);
+		int referenceFloor = rooms.stream()
+				.max(Comparator.comparingInt(room -> calculateAvailable(indexes, date, startTime, endTime, room)))
+				.map(Room::getFloor)
+				.orElse(0);
+		addSuggestions(suggestions, locationId, rooms, indexes, request,
+				room -> FLOOR_PENALTY_MINUTES * Math.abs(room.getFloor() - referenceFloor), () -> false);
+
+		for (var location : locationService.getAllLocations()) {
+			if (System.nanoTime() - deadline >= 0) break;
+			if (location.getId().equals(locationId)) continue;
+
+			addSuggestions(suggestions, location.getId(), List.copyOf(location.getRooms()),
+					findOccupancyIndexes(location.getId(), date, until), request, room -> LOCATION_PENALTY_MINUTES,
+					() -> System.nanoTime() - deadline >= 0);
+		}
+
+		var result = new ArrayList<>(suggestions);
+		result.sort(SUGGESTION_ORDER);
+		return result;
+	}
+
+	/**
+	 * Helper method that offers the closest fitting timeslot of every {@link Room} to the suggestions,
+	 * which keep the best {@link #MAX_SUGGESTIONS}. Shifts are tried closest first, so a room is skipped
+	 * as soon as its score can no longer beat the worst kept suggestion. A recurring request is checked
+	 * against every occurrence with a {@link CapacitySweep} of the index of the room.
+	 *
+	 * @param suggestions the kept suggestions, worst first.
+	 * @param locationId  id of the {@link Location} of the rooms.
+	 * @param rooms       rooms
+	 * @param indexes     {@link OccupancyIndex} per room id
+	 * @param request     the requested timeslot.
+	 * @param penalty     score of a room before its timeslot is shifted.
+	 * @param expired     whether the budget is spent, checked before every room.
+	 */
+	@SuppressWarnings("squid:S00107") // Suppresses the too many parameters warning, same as suggestAlternatives.
+	private void addSuggestions(PriorityQueue<RoomSuggestion> suggestions, Long locationId, List<Room> rooms,
+	                            Map<Long, OccupancyIndex> indexes, SuggestionRequest request,
+	                            ToIntFunction<Room> penalty, BooleanSupplier expired) {
+		long requestedStart = request.startTime().toNanoOfDay();
+		long requestedEnd = request.endTime().toNanoOfDay();
+		long earliestStart = request.date().equals(LocalDate.now())
+				? Math.min(requestedStart, LocalTime.now().toNanoOfDay()) : 0;
+
+		for (var room : rooms) {
+			if (expired.getAsBoolean()) return;
+			if (room.getCapacity() < request.amount()) continue;
+
+			int roomPenalty = penalty.applyAsInt(room);
+			for (int shift : SHIFTS_MINUTES) {
+				int score = roomPenalty + Math.abs(shift);
+				if (suggestions.size() == MAX_SUGGESTIONS && score > suggestions.peek().score()) break;
+
+				long shiftNanos = Duration.ofMinutes(shift).toNanos();
+				if (requestedStart + shiftNanos < earliestStart
+						|| requestedEnd + shiftNanos > LocalTime.MAX.toNanoOfDay()) continue;
+
+				var startTime = LocalTime.ofNanoOfDay(requestedStart + shiftNanos);
+				var endTime = LocalTime.ofNanoOfDay(requestedEnd + shiftNanos);
+				int available = calculateAvailable(indexes, request.date(), startTime, endTime, room);
+				if (available < request.amount() || (request.recurrence().isActive()
+						&& CapacitySweep.exceedsCapacity(new Reservation(request.date(), startTime, endTime,
+						null, room, request.amount(), request.recurrence()), indexOf(indexes, room),
+						room.getCapacity()))) continue;
+
+				suggestions.add(new RoomSuggestion(locationId, room.getId(), room.getFloor(), room.getCapacity(),
+						startTime, endTime, available, score));
+				if (suggestions.size() > MAX_SUGGESTIONS) suggestions.poll();
+				break;
+			}
+		}
 	}
 
 	/**
@@ -94,29 +484,49 @@ public class RoomService {
 	 * the entered timeslot.
 	 * @see Room
 	 * @see Location
+	 * @see #AVAILABILITY_TIMER
 	 */
 	public List<Room> getRoomsAvailableAtDateTime(Long locationId, LocalDate date,
 	                                              LocalTime startTime, LocalTime endTime) {
-		checkReservationDateTime(date, startTime, endTime);
+		return metricsRegistry.time(AVAILABILITY_TIMER, () -> {
+			checkReservationDateTime(date, startTime, endTime);
 
-		var rooms = findRoomsByLocationId(locationId);
+			return filterAvailableRooms(findRoomsByLocationId(locationId),
+					findOccupancyIndexes(locationId, date, date), date, startTime, endTime);
+		}, "location", String.valueOf(locationId), "query", "rooms");
+	}
 
+	/**
+	 * Helper method that filters the {@link Room rooms} that have no reserved workplaces during the timeslot.
+	 *
+	 * @param rooms     rooms
+	 * @param indexes   {@link OccupancyIndex} per room id
+	 * @param date      date
+	 * @param startTime start time
+	 * @param endTime   end time
+	 * @return the fully available {@link Room rooms}
+	 */
+	private List<Room> filterAvailableRooms(List<Room> rooms, Map<Long, OccupancyIndex> indexes, LocalDate date,
+	                                        LocalTime startTime, LocalTime endTime) {
 		return rooms
 				.stream()
-				.filter(room -> isRoomAvailable(room, date, startTime, endTime)).toList();
+				.filter(room -> indexOf(indexes, room).countReservedWorkplaces(date, startTime, endTime, null) == 0)
+				.toList();
 	}
 
 	/**
 	 * Helper method that calculates the available workplaces in the given {@link Room}.
 	 *
+	 * @param indexes   {@link OccupancyIndex} per room id
 	 * @param date      date
 	 * @param startTime start time
 	 * @param endTime   end time
 	 * @param room      room
 	 * @return the amount of available workplaces in the given  {@link Room}
 	 */
-	private int calculateAvailable(LocalDate date, LocalTime startTime, LocalTime endTime, Room room) {
-		return room.getCapacity() - room.countReservedWorkplaces(date, startTime, endTime);
+	private int calculateAvailable(Map<Long, OccupancyIndex> indexes, LocalDate date, LocalTime startTime,
+	                               LocalTime endTime, Room room) {
+		return room.getCapacity() - indexOf(indexes, room).countReservedWorkplaces(date, startTime, endTime, null);
 	}
 
 	/**
@@ -135,15 +545,38 @@ public class RoomService {
 	public List<Room> getRoomsWithWorkplacesAvailableAtDateTime(Long locationId, LocalDate date,
 	                                                            LocalTime startTime, LocalTime endTime,
 																Integer amount, RecurrencePattern recurrencePattern) {
-		int finalAmount = amount == null ? 1 : amount;
 		checkReservationDateTime(date, startTime, endTime);
-		List<Room> allRooms = findRoomsByLocationId(locationId);
+
+		return filterRoomsWithWorkplacesAvailable(findRoomsByLocationId(locationId),
+				findOccupancyIndexes(locationId, date, date), date, startTime, endTime, amount, recurrencePattern);
+	}
+
+	/**
+	 * Helper method that filters the {@link Room rooms} that have the requested amount of workplaces
+	 * available during the timeslot. Only for a recurring request all reservations of a room are needed,
+	 * to check its future occurrences.
+	 *
+	 * @param rooms             rooms
+	 * @param indexes           {@link OccupancyIndex} per room id
+	 * @param date              date
+	 * @param startTime         start time
+	 * @param endTime           end time
+	 * @param amount            requested amount of workplaces, 1 if null
+	 * @param recurrencePattern the pattern of {@link Recurrence} for which to check
+	 * @return the {@link Room rooms} with enough workplaces available
+	 */
+	@SuppressWarnings("squid:S00107") // Suppresses the too many parameters warning, same as the public method.
+	private List<Room> filterRoomsWithWorkplacesAvailable(List<Room> rooms, Map<Long, OccupancyIndex> indexes,
+	                                                      LocalDate date, LocalTime startTime, LocalTime endTime,
+	                                                      Integer amount, RecurrencePattern recurrencePattern) {
+		int finalAmount = amount == null ? 1 : amount;
 		var recurrence = new Recurrence(recurrencePattern != RecurrencePattern.NONE, recurrencePattern);
 
-		return allRooms.stream()
-				.filter(room -> (room.countReservedWorkplaces(date, startTime, endTime) + finalAmount <= room.getCapacity())
-						&& (room.isWorkplaceRecurrentlyAvailable(new Reservation(date, startTime, endTime,
-						null, room, finalAmount, recurrence)))).toList();
+		return rooms.stream()
+				.filter(room -> (indexOf(indexes, room).countReservedWorkplaces(date, startTime, endTime, null)
+						+ finalAmount <= room.getCapacity())
+						&& (!recurrence.isActive() || room.isWorkplaceRecurrentlyAvailable(new Reservation(date,
+						startTime, endTime, null, room, finalAmount, recurrence)))).toList();
 	}
 
 	/**
@@ -151,7 +584,7 @@ public class RoomService {
 	 * in its entirety during the selected timeslot. It iterates through all the
 	 * {@link com.quintor.worqplace.domain.Reservation reservations} of the
 	 * {@link Room} and calls the
-	 * {@link DateTimeUtils#timeslotsOverlap(LocalDate, LocalTime, LocalTime, Recurrence, LocalDate, LocalTime, LocalTime)
+	 * {@link DateTimeUtils#timeslotsOverlap(Reservation, RecurrenceKey, LocalTime, LocalTime)
 	 * DateTimeUtils.timeslotsOverlap()} function to get whether the new timeslot overlaps
 	 * with the old one.
 	 *
@@ -166,36 +599,32 @@ public class RoomService {
 	 */
 	public boolean isRoomAvailable(Room room, LocalDate date, LocalTime startTime, LocalTime endTime) {
 		DateTimeUtils.checkReservationDateTime(date, startTime, endTime);
-		var activeReservations = room.getReservations().stream()
-				.filter(reservation -> reservation.isReservationActive(date)).toList();
-		return activeReservations
+		var key = RecurrenceKey.of(date);
+		return room.getReservations()
 				.stream()
-				.noneMatch(reservation ->
-						DateTimeUtils.timeslotsOverlap(
-								reservation.getDate(), reservation.getStartTime(),
-								reservation.getEndTime(), reservation.getRecurrence(),
-								date, startTime, endTime)
-				);
+				.noneMatch(reservation -> reservation.isReservationActive(date) &&
+						DateTimeUtils.timeslotsOverlap(reservation, key, startTime, endTime));
 	}
 
 	/**
 	 * Method that will map the date, start time, end time and rooms to a list of {@link RoomAvailability}
 	 *
+	 * @param indexes   {@link OccupancyIndex} per room id
 	 * @param date      date
 	 * @param startTime start time
 	 * @param endTime   end time
 	 * @param rooms     rooms
 	 * @return a {@link List} of {@link RoomAvailability}
 	 */
-	private List<RoomAvailability> mapToRoomAvailability(LocalDate date, LocalTime startTime,
-	                                                     LocalTime endTime, List<Room> rooms) {
+	private List<RoomAvailability> mapToRoomAvailability(Map<Long, OccupancyIndex> indexes, LocalDate date,
+	                                                     LocalTime startTime, LocalTime endTime, List<Room> rooms) {
 		return rooms.stream()
 				.map(room ->
 						new RoomAvailability(
 								room.getId(),
 								room.getFloor(),
 								room.getCapacity(),
-								calculateAvailable(date, startTime, endTime, room)
+								calculateAvailable(indexes, date, startTime, endTime, room)
 						)
 				)
 				.collect(Collectors.toList());
@@ -218,6 +647,24 @@ public class RoomService {
 				.orElseThrow(() -> new RoomNotFoundException(id));
 	}
 
+	/**
+	 * Function that gets the requested {@link Room} to book workplaces in. Its version is
+	 * incremented when the transaction commits, so concurrent bookings of the same room
+	 * cannot both be saved.
+	 *
+	 * @param id id of the requested {@link Room}.
+	 * @return the requested {@link Room}.
+	 * @throws RoomNotFoundException when there is no {@link Room} found in the database
+	 *                               with the corresponding id, this exception is thrown.
+	 * @see RoomRepository#findForBookingById(Long)
+	 * @see BookingExecutor
+	 */
+	public Room findRoomForBooking(Long id) {
+		return roomRepository
+				.findForBookingById(id)
+				.orElseThrow(() -> new RoomNotFoundException(id));
+	}
+
 	/**
 	 * Function that gets all {@link Room rooms} located in the entered {@link Location}.
 	 *
@@ -231,4 +678,41 @@ public class RoomService {
 		var location = locationService.getLocationById(locationId);
 		return List.copyOf(location.getRooms());
 	}
+
+	/**
+	 * Function that builds an {@link OccupancyIndex} per {@link Room} of the reservations at the given
+	 * {@link Location} that can occur between the two dates. Only the {@link ReservationSlot slots} are
+	 * queried, so the reservations of the rooms themselves are never loaded. Between today and the
+	 * horizon the slots are the materialized occurrences, so no recurrence has to be expanded.
+	 *
+	 * @param locationId id of the {@link Location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return the {@link OccupancyIndex} per room id, rooms without reservations are left out.
+	 * @see ReservationRepository#findSlotsByLocationBetween(Long, LocalDate, LocalDate)
+	 * @see ReservationOccurrenceService#findSlotsByLocationBetween(Long, LocalDate, LocalDate)
+	 */
+	private Map<Long, OccupancyIndex> findOccupancyIndexes(Long locationId, LocalDate from, LocalDate to) {
+		var slots = reservationOccurrenceService.isMaterialized(from, to)
+				? reservationOccurrenceService.findSlotsByLocationBetween(locationId, from, to)
+				: reservationRepository.findSlotsByLocationBetween(locationId, from, to);
+
+		var indexes = new HashMap<Long, OccupancyIndex>();
+		for (var slot : slots)
+			indexes.computeIfAbsent(slot.roomId(), id -> new OccupancyIndex(null)).add(slot.toReservation());
+		return indexes;
+	}
+
+	/**
+	 * Function that gets the {@link OccupancyIndex} of a room. A room without reservations gets a new
+	 * empty index, as an index caches its slot occupancies and can not be shared between requests.
+	 */
+	private static OccupancyIndex indexOf(Map<Long, OccupancyIndex> indexes, Room room) {
+		var index = indexes.get(room.getId());
+		return index != null ? index : new OccupancyIndex(null);
+	}
+
+	private record SuggestionRequest(LocalDate date, LocalTime startTime, LocalTime endTime, int amount,
+	                                 Recurrence recurrence) {
+	}
 }
@@ -0,0 +1,74 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.BoundedCache;
+import com.quintor.worqplace.application.util.CacheRegionStatistics;
+import com.quintor.worqplace.data.BoundedCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Service class that reports the statistics of the Hibernate second-level cache, which keeps the
+ * {@link com.quintor.worqplace.domain.Location locations}, {@link com.quintor.worqplace.domain.Room rooms},
+ * {@link com.quintor.worqplace.domain.Address addresses} and
+ * {@link com.quintor.worqplace.domain.Employee employees} that every booking and availability query
+ * looks up.
+ *
+ * @see BoundedCacheRegionFactory
+ * @see com.quintor.worqplace.presentation.CacheController CacheController
+ */
+@Service
+public class SecondLevelCacheService {
+	private final SessionFactoryImplementor sessionFactory;
+
+	/**
+	 * Constructor of the {@link SecondLevelCacheService} class.
+	 *
+	 * @param entityManagerFactory the {@link EntityManagerFactory} of the cache.
+	 */
+	public SecondLevelCacheService(EntityManagerFactory entityManagerFactory) {
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+	}
+
+	/**
+	 * Function that gets the statistics of every region of the second-level cache and of the query cache.
+	 * The hits, misses and puts are only counted when <code>hibernate.generate_statistics</code> is enabled.
+	 *
+	 * @return a list of {@link CacheRegionStatistics}, ordered by region name.
+	 */
+	public List<CacheRegionStatistics> getStatistics() {
+		var statistics = sessionFactory.getStatistics();
+
+		var queryResultsCache = sessionFactory.getCache().getDefaultQueryResultsCache();
+		var queryRegions = queryResultsCache == null
+				? Stream.<String>empty()
+				: Stream.of(queryResultsCache.getRegion().getName());
+
+		return Stream.concat(Arrays.stream(statistics.getSecondLevelCacheRegionNames()), queryRegions)
+				.distinct()
+				.sorted()
+				.map(name -> {
+					var region = statistics.getCacheRegionStatistics(name);
+					if (region == null) return null;
+
+					var cache = regionOf(name);
+					return new CacheRegionStatistics(name, region.getHitCount(), region.getMissCount(),
+							region.getPutCount(), cache.map(BoundedCache::evictionCount).orElse(0L),
+							cache.map(BoundedCache::size).orElse(0));
+				})
+				.filter(Objects::nonNull)
+				.toList();
+	}
+
+	private Optional<BoundedCache<Object, Object>> regionOf(String name) {
+		return sessionFactory.getCache().getRegionFactory() instanceof BoundedCacheRegionFactory regionFactory
+				? regionFactory.getRegion(name)
+				: Optional.empty();
+	}
+}
@@ -0,0 +1,189 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.ReservationSlot;
+import com.quintor.worqplace.data.ArchivedReservationRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.data.RoomRepository;
+import com.quintor.worqplace.data.UtilizationRollupRepository;
+import com.quintor.worqplace.data.UtilizationRollupStateRepository;
+import com.quintor.worqplace.domain.CapacitySweep;
+import com.quintor.worqplace.domain.UtilizationRollup;
+import com.quintor.worqplace.domain.UtilizationRollupState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * Scheduled job that rolls the reservation history up into {@link UtilizationRollup utilization rollups}:
+ * the workplace minutes reserved per room, date and hour. Every location is rolled up in its own fork/join
+ * task and transaction, which streams the reservations and archived reservations at the location,
+ * expands their recurrences and replaces the rollups of the processed dates.
+ * <p>
+ * Runs are incremental: a location is only rolled up from the day after its previous run up to
+ * yesterday, plus the dates its {@link UtilizationRollupState} recorded as changed since then.
+ *
+ * @see UtilizationRollup
+ * @see UtilizationService
+ */
+@Component
+public class UtilizationRollupJob {
+	private static final int MINUTES_PER_HOUR = 60;
+
+	private final LocationService locationService;
+	private final ReservationRepository reservationRepository;
+	private final ArchivedReservationRepository archivedReservationRepository;
+	private final RoomRepository roomRepository;
+	private final UtilizationRollupRepository utilizationRollupRepository;
+	private final UtilizationRollupStateRepository utilizationRollupStateRepository;
+	private final TransactionOperations transactionOperations;
+	private final int parallelism;
+
+	/**
+	 * Constructor of the {@link UtilizationRollupJob} class.
+	 *
+	 * @param locationService                  service of the locations to roll up.
+	 * @param reservationRepository            repository of the live reservations.
+	 * @param archivedReservationRepository    repository of the archived reservations.
+	 * @param roomRepository                   repository of the rooms.
+	 * @param utilizationRollupRepository      repository of the rollups.
+	 * @param utilizationRollupStateRepository repository of the rollup state per location.
+	 * @param transactionOperations            transaction in which every location is rolled up.
+	 * @param parallelism                      amount of locations rolled up at the same time, each
+	 *                                         uses a database connection.
+	 */
+	@SuppressWarnings("squid:S00107") // Suppresses the too many parameters warning, all are dependencies.
+	public UtilizationRollupJob(LocationService locationService, ReservationRepository reservationRepository,
+	                            ArchivedReservationRepository archivedReservationRepository,
+	                            RoomRepository roomRepository,
+	                            UtilizationRollupRepository utilizationRollupRepository,
+	                            UtilizationRollupStateRepository utilizationRollupStateRepository,
+	                            TransactionOperations transactionOperations,
+	                            @Value("${utilization.rollup.parallelism:4}") int parallelism) {
+		this.locationService = locationService;
+		this.reservationRepository = reservationRepository;
+		this.archivedReservationRepository = archivedReservationRepository;
+		this.roomRepository = roomRepository;
+		this.utilizationRollupRepository = utilizationRollupRepository;
+		this.utilizationRollupStateRepository = utilizationRollupStateRepository;
+		this.transactionOperations = transactionOperations;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Function that rolls up every location up to and including yesterday, forking a task per location.
+	 * A location whose task fails keeps its previous state and is retried by the next run.
+	 *
+	 * @return the amount of stored rollups.
+	 */
+	@Scheduled(cron = "${utilization.rollup.cron:0 0 4 * * *}")
+	public int rollUp() {
+		var until = LocalDate.now().minusDays(1);
+		var tasks = locationService.getAllLocations().stream()
+				.map(location -> ForkJoinTask.adapt(() -> rollUp(location.getId(), until)))
+				.toList();
+
+		var pool = new ForkJoinPool(parallelism);
+		try {
+			pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+		} finally {
+			pool.shutdown();
+		}
+		return tasks.stream().mapToInt(ForkJoinTask::join).sum();
+	}
+
+	/**
+	 * Function that rolls up a single location in one transaction. The first run starts at the first
+	 * reservation of the location, later runs at the first changed or new date.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param until      last date to roll up, inclusive.
+	 * @return the amount of stored rollups.
+	 */
+	public int rollUp(Long locationId, LocalDate until) {
+		return transactionOperations.execute(status -> {
+			var state = utilizationRollupStateRepository.findForUpdateByLocationId(locationId)
+					.orElseGet(() -> utilizationRollupStateRepository.save(new UtilizationRollupState(locationId)));
+			var rolledUpUntil = state.getRolledUpUntil();
+
+			int rollups = 0;
+			if (rolledUpUntil == null) {
+				var first = findFirstDate(locationId);
+				if (first.isPresent()) rollups += rollUpBetween(locationId, first.get(), until);
+			} else {
+				if (state.getChangedFrom() != null)
+					rollups += rollUpBetween(locationId, state.getChangedFrom(), state.getChangedUntil());
+				rollups += rollUpBetween(locationId, rolledUpUntil.plusDays(1), until);
+			}
+
+			state.rolledUp(until);
+			return rollups;
+		});
+	}
+
+	private Optional<LocalDate> findFirstDate(Long locationId) {
+		return Stream.of(reservationRepository.findFirstDateByLocationId(locationId),
+						archivedReservationRepository.findFirstDateByLocationId(locationId))
+				.flatMap(Optional::stream)
+				.min(LocalDate::compareTo);
+	}
+
+	/**
+	 * Function that replaces the rollups of a location between the two dates. Every reservation that can
+	 * occur between them is expanded into its occurrences, whose workplace minutes are added to the hours
+	 * they overlap.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return the amount of stored rollups.
+	 */
+	private int rollUpBetween(Long locationId, LocalDate from, LocalDate to) {
+		if (from.isAfter(to)) return 0;
+
+		var minutes = new HashMap<RoomDate, long[]>();
+		try (var slots = reservationRepository.streamSlotsByLocationBetween(locationId, from, to)) {
+			slots.forEach(slot -> addWorkplaceMinutes(minutes, slot, from, to));
+		}
+		try (var slots = archivedReservationRepository.streamSlotsByLocationBetween(locationId, from, to)) {
+			slots.forEach(slot -> addWorkplaceMinutes(minutes, slot, from, to));
+		}
+
+		var rollups = new ArrayList<UtilizationRollup>();
+		minutes.forEach((key, perHour) -> {
+			var room = roomRepository.getById(key.roomId());
+			for (int hour = 0; hour < perHour.length; hour++)
+				if (perHour[hour] > 0) rollups.add(new UtilizationRollup(room, key.date(), hour, perHour[hour]));
+		});
+
+		utilizationRollupRepository.deleteByLocationBetween(locationId, from, to);
+		utilizationRollupRepository.insertAll(rollups);
+		return rollups.size();
+	}
+
+	private static void addWorkplaceMinutes(Map<RoomDate, long[]> minutes, ReservationSlot slot,
+	                                        LocalDate from, LocalDate to) {
+		int start = slot.startTime().toSecondOfDay() / 60;
+		int end = slot.endTime().toSecondOfDay() / 60;
+
+		for (var date : CapacitySweep.occurrences(slot.toReservation(), from, to)) {
+			var perHour = minutes.computeIfAbsent(new RoomDate(slot.roomId(), date), key -> new long[24]);
+			for (int hour = start / MINUTES_PER_HOUR; hour * MINUTES_PER_HOUR < end; hour++) {
+				int overlap = Math.min(end, (hour + 1) * MINUTES_PER_HOUR) - Math.max(start, hour * MINUTES_PER_HOUR);
+				perHour[hour] += (long) slot.workplaceAmount() * overlap;
+			}
+		}
+	}
+
+	private record RoomDate(Long roomId, LocalDate date) {
+	}
+}
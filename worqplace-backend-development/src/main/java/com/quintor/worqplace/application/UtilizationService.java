@@ -0,0 +1,121 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.exceptions.InvalidDateRangeException;
+import com.quintor.worqplace.application.util.Utilization;
+import com.quintor.worqplace.application.util.UtilizationLevel;
+import com.quintor.worqplace.data.UtilizationRollupRepository;
+import com.quintor.worqplace.data.UtilizationRollupStateRepository;
+import com.quintor.worqplace.domain.Reservation;
+import com.quintor.worqplace.domain.Room;
+import com.quintor.worqplace.domain.UtilizationRollup;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class that reports the utilization of the rooms, floors and locations per day of the week and
+ * hour from the {@link UtilizationRollup utilization rollups}, and records the changes to reservations
+ * that have already been rolled up.
+ *
+ * @see UtilizationRollupJob
+ * @see Utilization
+ */
+@Service
+@Transactional
+@AllArgsConstructor
+public class UtilizationService {
+	private static final Comparator<Utilization> ORDER = Comparator
+			.comparing(Utilization::floor, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(Utilization::roomId, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(Utilization::dayOfWeek)
+			.thenComparingInt(Utilization::hour);
+
+	private final UtilizationRollupRepository utilizationRollupRepository;
+	private final UtilizationRollupStateRepository utilizationRollupStateRepository;
+	private final LocationService locationService;
+
+	/**
+	 * Function that gets the utilization at a location between two dates per day of the week and hour,
+	 * aggregated per room, floor or location. The utilization is the share of the workplace minutes of
+	 * the rooms in the group that were reserved on those days during that hour.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @param level      what the utilization is aggregated per.
+	 * @return a list of {@link Utilization}, hours without reservations are left out.
+	 * @throws InvalidDateRangeException when to is before from.
+	 */
+	public List<Utilization> getUtilization(Long locationId, LocalDate from, LocalDate to, UtilizationLevel level) {
+		if (to.isBefore(from))
+			throw new InvalidDateRangeException();
+
+		var rooms = new HashMap<Long, Room>();
+		var capacities = new HashMap<Group, Integer>();
+		for (var room : locationService.getLocationById(locationId).getRooms()) {
+			rooms.put(room.getId(), room);
+			capacities.merge(Group.of(room, level), room.getCapacity(), Integer::sum);
+		}
+
+		var days = new int[DayOfWeek.values().length];
+		from.datesUntil(to.plusDays(1)).forEach(date -> days[date.getDayOfWeek().ordinal()]++);
+
+		var minutes = new HashMap<Slot, Long>();
+		for (var total : utilizationRollupRepository.sumByLocationBetween(locationId, from, to)) {
+			var group = Group.of(rooms.get(total.roomId()), level);
+			minutes.merge(new Slot(group, total.dayOfWeek(), total.hourOfDay()), total.workplaceMinutes(), Long::sum);
+		}
+
+		return minutes.entrySet().stream()
+				.map(entry -> toUtilization(locationId, entry, capacities, days))
+				.sorted(ORDER)
+				.toList();
+	}
+
+	private static Utilization toUtilization(Long locationId, Map.Entry<Slot, Long> entry,
+	                                         Map<Group, Integer> capacities, int[] days) {
+		var slot = entry.getKey();
+		double available = 60.0 * capacities.get(slot.group()) * days[slot.dayOfWeek().ordinal()];
+		return new Utilization(locationId, slot.group().floor(), slot.group().roomId(), slot.dayOfWeek(),
+				slot.hour(), entry.getValue(), entry.getValue() / available);
+	}
+
+	/**
+	 * Function that records that a deleted or replaced {@link Reservation} changed the utilization of the
+	 * dates it occurred on, so the {@link UtilizationRollupJob} rolls them up again. Only past dates
+	 * can have been rolled up, a reservation starting today or later is ignored.
+	 *
+	 * @param reservation the deleted or replaced {@link Reservation}.
+	 */
+	public void markChanged(Reservation reservation) {
+		var today = LocalDate.now();
+		if (!reservation.getDate().isBefore(today)) return;
+
+		var until = reservation.getRecurrence().isActive() ? today.minusDays(1) : reservation.getDate();
+		utilizationRollupStateRepository.findForUpdateByLocationId(reservation.getRoom().getLocation().getId())
+				.ifPresent(state -> state.markChanged(reservation.getDate(), until));
+	}
+
+	/**
+	 * The room or floor the rollups are aggregated into, both are null for the whole location.
+	 */
+	private record Group(Integer floor, Long roomId) {
+		private static Group of(Room room, UtilizationLevel level) {
+			return switch (level) {
+				case ROOM -> new Group(room.getFloor(), room.getId());
+				case FLOOR -> new Group(room.getFloor(), null);
+				case LOCATION -> new Group(null, null);
+			};
+		}
+	}
+
+	private record Slot(Group group, DayOfWeek dayOfWeek, int hour) {
+	}
+}
@@ -0,0 +1,15 @@
+package com.quintor.worqplace.application.exceptions;
+
+/**
+ * Exception that is thrown if a booking kept conflicting with concurrent
+ * bookings of the same {@link com.quintor.worqplace.domain.Room room}
+ * and was given up after the maximum amount of attempts.
+ *
+ * @see com.quintor.worqplace.application.BookingExecutor BookingExecutor
+ * @see com.quintor.worqplace.application.ReservationService ReservationService
+ */
+public class BookingConflictException extends RuntimeException {
+	public BookingConflictException(int attempts) {
+		super("The booking conflicted with other bookings " + attempts + " times, please try again.");
+	}
+}
@@ -0,0 +1,14 @@
+package com.quintor.worqplace.application.exceptions;
+
+/**
+ * Exception that is thrown when a batch of
+ * {@link com.quintor.worqplace.domain.Reservation reservations} is empty
+ * or contains more reservations than can be booked at once.
+ *
+ * @see com.quintor.worqplace.application.ReservationService ReservationService
+ */
+public class InvalidBatchSizeException extends RuntimeException {
+	public InvalidBatchSizeException(int size, int maxSize) {
+		super("A batch must contain 1 to " + maxSize + " reservations, but contained " + size + ".");
+	}
+}
@@ -0,0 +1,13 @@
+package com.quintor.worqplace.application.exceptions;
+
+/**
+ * Exception that is thrown when an entered date range ends before it starts
+ * or spans too many days.
+ *
+ * @see com.quintor.worqplace.application.RoomService RoomService
+ */
+public class InvalidDateRangeException extends RuntimeException {
+	public InvalidDateRangeException() {
+		super("The date range is invalid or spans too many days.");
+	}
+}
@@ -0,0 +1,14 @@
+package com.quintor.worqplace.application.exceptions;
+
+/**
+ * Exception that is thrown when the entered granularity of an availability
+ * heatmap cannot be parsed or results in too many time buckets.
+ *
+ * @see com.quintor.worqplace.application.util.DateTimeUtils DateTimeUtils
+ * @see com.quintor.worqplace.application.RoomService RoomService
+ */
+public class InvalidGranularityException extends RuntimeException {
+	public InvalidGranularityException(String granularity) {
+		super("Granularity " + granularity + " is invalid or results in too many time buckets.");
+	}
+}
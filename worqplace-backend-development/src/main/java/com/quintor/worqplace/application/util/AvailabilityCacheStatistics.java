@@ -0,0 +1,21 @@
+package com.quintor.worqplace.application.util;
+
+/**
+ * Snapshot of the statistics of the {@link com.quintor.worqplace.application.AvailabilityCache}.
+ *
+ * @param hits          amount of queries answered from the cache.
+ * @param misses        amount of queries that had to be calculated.
+ * @param evictions     amount of entries evicted because the cache was full.
+ * @param invalidations amount of entries removed because a reservation changed them.
+ * @param size          current amount of entries.
+ */
+public record AvailabilityCacheStatistics(long hits, long misses, long evictions, long invalidations, int size) {
+
+	/**
+	 * @return the fraction of queries answered from the cache, 0 when there were no queries.
+	 */
+	public double hitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+}
@@ -0,0 +1,51 @@
+package com.quintor.worqplace.application.util;
+
+import com.quintor.worqplace.domain.Recurrence;
+import com.quintor.worqplace.domain.Reservation;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.application.AvailabilityCache} to
+ * remember which timeslots a stored or deleted {@link Reservation} changes, until its transaction commits.
+ *
+ * @param locationId id of the {@link com.quintor.worqplace.domain.Location location} of the room, null when
+ *                   it is unknown.
+ * @param date       first date of the reservation.
+ * @param startTime  start time of the reservation.
+ * @param endTime    end time of the reservation.
+ * @param recurrence {@link Recurrence} of the reservation.
+ */
+public record AvailabilityChange(Long locationId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                 Recurrence recurrence) {
+
+	/**
+	 * Function that gets the change made by storing or deleting a {@link Reservation}.
+	 *
+	 * @param reservation the {@link Reservation}.
+	 * @return the {@link AvailabilityChange}.
+	 */
+	public static AvailabilityChange of(Reservation reservation) {
+		var location = reservation.getRoom().getLocation();
+		return new AvailabilityChange(location == null ? null : location.getId(), reservation.getDate(),
+				reservation.getStartTime(), reservation.getEndTime(), reservation.getRecurrence());
+	}
+
+	/**
+	 * Function that checks if the result of a cached query can be changed by this change: the query is at
+	 * the same location, its timeslot overlaps the reservation and the reservation occurs on its date.
+	 * Recurring queries also check later dates, so those are affected by any overlapping reservation at
+	 * the location.
+	 *
+	 * @param key the {@link AvailabilityKey} of the cached query.
+	 * @return whether the cached result may be outdated.
+	 */
+	public boolean affects(AvailabilityKey key) {
+		if (locationId != null && !locationId.equals(key.locationId())) return false;
+		if (startTime.isAfter(key.endTime()) || endTime.isBefore(key.startTime())) return false;
+		if (key.isRecurring()) return true;
+
+		return !key.date().isBefore(date) && DateTimeUtils.datesOverlap(date, recurrence, key.date());
+	}
+}
@@ -0,0 +1,20 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Datatransfer / holder object used by {@link com.quintor.worqplace.application.RoomService} to transfer
+ * the free workplaces per {@link com.quintor.worqplace.domain.Room room} per time bucket to the
+ * {@link com.quintor.worqplace.presentation.LocationController}. Bucket <code>i</code> starts at
+ * <code>from + i * granularityMinutes</code>.
+ */
+public record AvailabilityHeatmap(LocalDateTime from, LocalDateTime to, long granularityMinutes,
+                                  List<RoomHeatmap> rooms) {
+
+	/**
+	 * The free workplaces of a single room, one value per time bucket.
+	 */
+	public record RoomHeatmap(Long id, int floor, int capacity, int[] free) {
+	}
+}
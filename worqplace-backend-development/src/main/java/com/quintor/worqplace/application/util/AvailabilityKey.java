@@ -0,0 +1,37 @@
+package com.quintor.worqplace.application.util;
+
+import com.quintor.worqplace.domain.RecurrencePattern;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.application.AvailabilityCache} as
+ * the key of a cached availability query of the {@link com.quintor.worqplace.application.RoomService}.
+ *
+ * @param query             the availability query.
+ * @param locationId        id of the {@link com.quintor.worqplace.domain.Location location}.
+ * @param date              date of the timeslot.
+ * @param startTime         start time of the timeslot.
+ * @param endTime           end time of the timeslot.
+ * @param recurrencePattern the requested {@link RecurrencePattern}.
+ * @param amount            the requested amount of workplaces, null for whole rooms.
+ */
+public record AvailabilityKey(Query query, Long locationId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                              RecurrencePattern recurrencePattern, Integer amount) {
+
+	/**
+	 * The availability queries that are cached.
+	 */
+	public enum Query {
+		ROOMS,
+		WORKPLACES
+	}
+
+	/**
+	 * @return whether the query also checks the future occurrences of the requested timeslot.
+	 */
+	public boolean isRecurring() {
+		return recurrencePattern != null && recurrencePattern != RecurrencePattern.NONE;
+	}
+}
@@ -0,0 +1,18 @@
+package com.quintor.worqplace.application.util;
+
+/**
+ * Determines what happens to a batch of {@link com.quintor.worqplace.domain.Reservation reservations}
+ * when some of them cannot be booked.
+ *
+ * @see com.quintor.worqplace.application.ReservationService#reserveBatch(java.util.List, BatchMode)
+ */
+public enum BatchMode {
+	/**
+	 * Nothing is booked unless every reservation in the batch can be booked.
+	 */
+	ALL_OR_NOTHING,
+	/**
+	 * Every reservation that can be booked is booked, the others are rejected.
+	 */
+	BEST_EFFORT
+}
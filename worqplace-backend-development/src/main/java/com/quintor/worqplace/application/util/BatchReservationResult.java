@@ -0,0 +1,23 @@
+package com.quintor.worqplace.application.util;
+
+import com.quintor.worqplace.domain.Reservation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Datatransfer / holder object used by {@link com.quintor.worqplace.application.ReservationService} to
+ * report the outcome of a single reservation of a batch to the
+ * {@link com.quintor.worqplace.presentation.ReservationController}.
+ *
+ * @param index       position of the reservation in the batch.
+ * @param reservation the created {@link Reservation}, null when it was not created.
+ * @param error       the reason the reservation was not created, null when it was.
+ */
+public record BatchReservationResult(int index, @Nullable Reservation reservation, @Nullable String error) {
+
+	/**
+	 * @return whether the reservation was created.
+	 */
+	public boolean isCreated() {
+		return reservation != null;
+	}
+}
@@ -0,0 +1,20 @@
+package com.quintor.worqplace.application.util;
+
+/**
+ * Snapshot of the lock-wait statistics of the {@link com.quintor.worqplace.application.BookingLockManager}.
+ *
+ * @param acquisitions          amount of acquired room locks.
+ * @param contendedAcquisitions amount of acquisitions that had to wait for another booking.
+ * @param totalWaitNanos        total time spent waiting for room locks in nanoseconds.
+ * @param maxWaitNanos          longest time spent waiting for a single room lock in nanoseconds.
+ */
+public record BookingLockStatistics(long acquisitions, long contendedAcquisitions,
+                                    long totalWaitNanos, long maxWaitNanos) {
+
+	/**
+	 * @return the average wait per contended acquisition in nanoseconds, 0 when no acquisition had to wait.
+	 */
+	public long averageWaitNanos() {
+		return contendedAcquisitions == 0 ? 0 : totalWaitNanos / contendedAcquisitions;
+	}
+}
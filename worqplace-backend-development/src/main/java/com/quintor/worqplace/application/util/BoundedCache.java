@@ -0,0 +1,333 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded in-memory cache with W-TinyLFU eviction.
+ * <p>
+ * New entries enter a small LRU window of about one percent of the maximum size. An entry
+ * leaving the window only replaces the least recently used entry of the main space when it
+ * has been requested more often, which is estimated by a {@link FrequencySketch count-min sketch}
+ * that is halved periodically so old popularity fades. The main space is a segmented LRU:
+ * entries that are hit again move from the probation to the protected segment, so a burst of
+ * one-off requests cannot push out the entries that are used all the time.
+ * <p>
+ * Entries expire a fixed duration after they were written, unless they are written with their own
+ * duration. All methods are synchronized. An optional removal listener is told about every key the
+ * cache drops on its own, because it was evicted or found expired, so an owner can keep its own index
+ * of the keys. It is called while the cache is locked and must not call back into the cache.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ * @see com.quintor.worqplace.application.AvailabilityCache AvailabilityCache
+ * @see com.quintor.worqplace.data.BoundedCacheRegionFactory BoundedCacheRegionFactory
+ */
+public class BoundedCache<K, V> {
+	private final int windowCapacity;
+	private final int mainCapacity;
+	private final int protectedCapacity;
+	private final long expireAfterWriteNanos;
+	private final LongSupplier ticker;
+	private final Consumer<K> removalListener;
+	private final FrequencySketch sketch;
+	private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>();
+	private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>();
+	private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>();
+	private long evictions;
+
+	/**
+	 * Constructor of the {@link BoundedCache} class.
+	 *
+	 * @param maximumSize      maximum amount of entries, at least 2.
+	 * @param expireAfterWrite how long an entry is kept after it was written.
+	 */
+	public BoundedCache(int maximumSize, Duration expireAfterWrite) {
+		this(maximumSize, expireAfterWrite, System::nanoTime, key -> {
+		});
+	}
+
+	/**
+	 * Constructor of the {@link BoundedCache} class with a removal listener.
+	 *
+	 * @param maximumSize      maximum amount of entries, at least 2.
+	 * @param expireAfterWrite how long an entry is kept after it was written.
+	 * @param removalListener  receives the keys that are evicted or expired.
+	 */
+	public BoundedCache(int maximumSize, Duration expireAfterWrite, Consumer<K> removalListener) {
+		this(maximumSize, expireAfterWrite, System::nanoTime, removalListener);
+	}
+
+	/**
+	 * Constructor of the {@link BoundedCache} class with its own clock, used for testing purposes.
+	 *
+	 * @param maximumSize      maximum amount of entries, at least 2.
+	 * @param expireAfterWrite how long an entry is kept after it was written.
+	 * @param ticker           source of the current time in nanoseconds.
+	 */
+	public BoundedCache(int maximumSize, Duration expireAfterWrite, LongSupplier ticker) {
+		this(maximumSize, expireAfterWrite, ticker, key -> {
+		});
+	}
+
+	/**
+	 * Constructor of the {@link BoundedCache} class with its own clock and a removal listener, used for
+	 * testing purposes.
+	 *
+	 * @param maximumSize      maximum amount of entries, at least 2.
+	 * @param expireAfterWrite how long an entry is kept after it was written.
+	 * @param ticker           source of the current time in nanoseconds.
+	 * @param removalListener  receives the keys that are evicted or expired.
+	 */
+	public BoundedCache(int maximumSize, Duration expireAfterWrite, LongSupplier ticker, Consumer<K> removalListener) {
+		if (maximumSize < 2)
+			throw new IllegalArgumentException("The maximum size must be at least 2.");
+
+		this.windowCapacity = Math.max(1, maximumSize / 100);
+		this.mainCapacity = maximumSize - windowCapacity;
+		this.protectedCapacity = mainCapacity * 4 / 5;
+		this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+		this.ticker = ticker;
+		this.removalListener = removalListener;
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	/**
+	 * Function that gets the value of a key and records the request.
+	 *
+	 * @param key the key.
+	 * @return the value, or null when the key is not cached or has expired.
+	 */
+	public synchronized V get(K key) {
+		sketch.increment(key);
+
+		Entry<V> entry;
+		if ((entry = window.remove(key)) != null) {
+			if (expire(key, entry)) return null;
+			window.put(key, entry);
+		} else if ((entry = probation.remove(key)) != null) {
+			if (expire(key, entry)) return null;
+			promote(key, entry);
+		} else if ((entry = protectedSegment.remove(key)) != null) {
+			if (expire(key, entry)) return null;
+			protectedSegment.put(key, entry);
+		} else {
+			return null;
+		}
+		return entry.value();
+	}
+
+	/**
+	 * Function that caches a value, which may evict another entry.
+	 *
+	 * @param key   the key.
+	 * @param value the value.
+	 */
+	public void put(K key, V value) {
+		put(key, value, expireAfterWriteNanos);
+	}
+
+	/**
+	 * Function that caches a value that expires after its own duration, which may evict another entry.
+	 *
+	 * @param key              the key.
+	 * @param value            the value.
+	 * @param expireAfterWrite how long this entry is kept.
+	 */
+	public void put(K key, V value, Duration expireAfterWrite) {
+		put(key, value, expireAfterWrite.toNanos());
+	}
+
+	private synchronized void put(K key, V value, long expireAfterWriteNanos) {
+		var entry = new Entry<>(value, ticker.getAsLong() + expireAfterWriteNanos);
+		if (replace(window, key, entry) || replace(probation, key, entry) || replace(protectedSegment, key, entry))
+			return;
+
+		sketch.increment(key);
+		window.put(key, entry);
+		if (window.size() > windowCapacity)
+			admit(removeEldest(window));
+	}
+
+	/**
+	 * Function that checks if a key is cached and has not expired, without recording a request.
+	 *
+	 * @param key the key.
+	 * @return whether the key is cached.
+	 */
+	public synchronized boolean containsKey(K key) {
+		var entry = window.get(key);
+		if (entry == null) entry = probation.get(key);
+		if (entry == null) entry = protectedSegment.get(key);
+		return entry != null && !isExpired(entry);
+	}
+
+	/**
+	 * Function that removes a key.
+	 *
+	 * @param key the key.
+	 * @return whether the key was cached and had not expired.
+	 */
+	public synchronized boolean remove(K key) {
+		var entry = window.remove(key);
+		if (entry == null) entry = probation.remove(key);
+		if (entry == null) entry = protectedSegment.remove(key);
+		return entry != null && !isExpired(entry);
+	}
+
+	/**
+	 * Function that removes every entry.
+	 */
+	public synchronized void clear() {
+		window.clear();
+		probation.clear();
+		protectedSegment.clear();
+	}
+
+	/**
+	 * Function that removes every entry whose key matches the predicate.
+	 *
+	 * @param predicate the predicate.
+	 * @return the amount of removed entries.
+	 */
+	public synchronized int removeIf(Predicate<K> predicate) {
+		int size = size();
+		window.keySet().removeIf(predicate);
+		probation.keySet().removeIf(predicate);
+		protectedSegment.keySet().removeIf(predicate);
+		return size - size();
+	}
+
+	/**
+	 * @return the amount of cached entries, including the expired ones that have not been removed yet.
+	 */
+	public synchronized int size() {
+		return window.size() + probation.size() + protectedSegment.size();
+	}
+
+	/**
+	 * @return the amount of entries evicted because the cache was full.
+	 */
+	public synchronized long evictionCount() {
+		return evictions;
+	}
+
+	private boolean isExpired(Entry<V> entry) {
+		return ticker.getAsLong() - entry.expiresAt() >= 0;
+	}
+
+	/**
+	 * Function that tells the removal listener about a removed entry when it has expired.
+	 *
+	 * @return whether the entry has expired.
+	 */
+	private boolean expire(K key, Entry<V> entry) {
+		if (!isExpired(entry)) return false;
+		removalListener.accept(key);
+		return true;
+	}
+
+	private void promote(K key, Entry<V> entry) {
+		protectedSegment.put(key, entry);
+		if (protectedSegment.size() > protectedCapacity) {
+			var demoted = removeEldest(protectedSegment);
+			probation.put(demoted.getKey(), demoted.getValue());
+		}
+	}
+
+	/**
+	 * Function that moves an entry leaving the window into the main space, if there is room or it has
+	 * been requested more often than the entry that would be evicted for it.
+	 */
+	private void admit(Map.Entry<K, Entry<V>> candidate) {
+		if (probation.size() + protectedSegment.size() < mainCapacity) {
+			probation.put(candidate.getKey(), candidate.getValue());
+			return;
+		}
+
+		var victims = probation.isEmpty() ? protectedSegment : probation;
+		var victim = victims.keySet().iterator().next();
+		if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+			victims.remove(victim);
+			probation.put(candidate.getKey(), candidate.getValue());
+			removalListener.accept(victim);
+		} else {
+			removalListener.accept(candidate.getKey());
+		}
+		evictions++;
+	}
+
+	private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> map) {
+		var iterator = map.entrySet().iterator();
+		var eldest = iterator.next();
+		var removed = Map.entry(eldest.getKey(), eldest.getValue());
+		iterator.remove();
+		return removed;
+	}
+
+	private static <K, V> boolean replace(Map<K, V> segment, K key, V value) {
+		return segment.replace(key, value) != null;
+	}
+
+	private record Entry<V>(V value, long expiresAt) {
+	}
+
+	/**
+	 * Count-min sketch of four rows of counters that saturate at 15, with about four counters per
+	 * entry in every row. After ten times the maximum size of increments every counter is halved.
+	 */
+	private static final class FrequencySketch {
+		private static final int[] SEEDS = {0x97cb3127, 0xb8a87e61, 0x2fc3bd35, 0x5dd26e8b};
+		private static final int MAX_COUNT = 15;
+
+		private final byte[][] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		private FrequencySketch(int maximumSize) {
+			int width = Integer.highestOneBit(Math.max(16, 4 * maximumSize - 1) << 1);
+			this.table = new byte[SEEDS.length][width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * maximumSize;
+		}
+
+		private void increment(Object key) {
+			int hash = key.hashCode();
+			boolean added = false;
+			for (int row = 0; row < SEEDS.length; row++) {
+				int index = indexOf(hash, row);
+				if (table[row][index] < MAX_COUNT) {
+					table[row][index]++;
+					added = true;
+				}
+			}
+			if (added && ++additions >= sampleSize)
+				reset();
+		}
+
+		private int frequency(Object key) {
+			int hash = key.hashCode();
+			int frequency = MAX_COUNT;
+			for (int row = 0; row < SEEDS.length; row++)
+				frequency = Math.min(frequency, table[row][indexOf(hash, row)]);
+			return frequency;
+		}
+
+		private int indexOf(int hash, int row) {
+			int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+			return (h ^ (h >>> 16)) & mask;
+		}
+
+		private void reset() {
+			for (var row : table)
+				for (int i = 0; i < row.length; i++)
+					row[i] >>= 1;
+			additions /= 2;
+		}
+	}
+}
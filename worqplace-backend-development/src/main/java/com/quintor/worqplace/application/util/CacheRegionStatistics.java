@@ -0,0 +1,23 @@
+package com.quintor.worqplace.application.util;
+
+/**
+ * Snapshot of the statistics of a region of the Hibernate second-level cache.
+ *
+ * @param region    name of the region.
+ * @param hits      amount of lookups answered from the region.
+ * @param misses    amount of lookups that had to go to the database.
+ * @param puts      amount of entries written to the region.
+ * @param evictions amount of entries evicted because the region was full.
+ * @param size      current amount of entries.
+ * @see com.quintor.worqplace.application.SecondLevelCacheService SecondLevelCacheService
+ */
+public record CacheRegionStatistics(String region, long hits, long misses, long puts, long evictions, int size) {
+
+	/**
+	 * @return the fraction of lookups answered from the region, 0 when there were no lookups.
+	 */
+	public double hitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+}
@@ -1,13 +1,15 @@
 package com.quintor.worqplace.application.util;
 
 import com.quintor.worqplace.application.exceptions.InvalidDayException;
+import com.quintor.worqplace.application.exceptions.InvalidGranularityException;
 import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
 import com.quintor.worqplace.domain.Recurrence;
 import com.quintor.worqplace.domain.Reservation;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.temporal.WeekFields;
+import java.time.format.DateTimeParseException;
 import java.util.Locale;
 
 /**
@@ -48,11 +50,10 @@ public class DateTimeUtils {
 
 	/**
 	 * Function that calculates if two timeslots overlap,
-	 * also checks for {@link Recurrence}. It starts by checking
-	 * to see if the input dates are on different days, then it checks the
-	 * {@link com.quintor.worqplace.domain.RecurrencePattern recurrence patterns}
-	 * for overlap and if no different day results from those checks it to see
-	 * if the timeslots overlap.
+	 * also checks for {@link Recurrence}. The cheapest checks go first: a reservation
+	 * without recurrence only needs its date compared, a recurring one first needs
+	 * its times to overlap before the
+	 * {@link com.quintor.worqplace.domain.RecurrencePattern recurrence pattern} is checked.
 	 *
 	 * @param existingDate      date that is already reserved.
 	 * @param existingStartTime time from which the existing reservation lasts.
@@ -67,38 +68,93 @@ public class DateTimeUtils {
 	                                       LocalTime existingEndTime, Recurrence recurrence,
 	                                       LocalDate newDate, LocalTime newStartTime,
 	                                       LocalTime newEndTime) {
-		var weekFields = WeekFields.of(Locale.getDefault());
-		int oldWeekNumber = existingDate.get(weekFields.weekOfWeekBasedYear());
-		int newWeekNumber = newDate.get(weekFields.weekOfWeekBasedYear());
-
-		if (!existingDate.equals(newDate) && !recurrence.isActive()) return false;
-
-		if (recurrence.isActive()) switch (recurrence.getRecurrencePattern()) {
-			case WEEKLY:
-				if (checkSameDate(existingDate, newDate))
-					return false;
-				break;
-			case BIWEEKLY:
-				if (checkIfBiWeekly(oldWeekNumber, newWeekNumber) ||
-						checkSameDate(existingDate, newDate))
-					return false;
-				break;
-			case MONTHLY:
-				if (existingDate.getDayOfMonth() != newDate.getDayOfMonth())
-					return false;
-				break;
-			default:
-				break;
-		}
-		return checkStartAndEndTimeOverlap(existingStartTime, existingEndTime, newStartTime, newEndTime);
+		if (!recurrence.isActive())
+			return existingDate.equals(newDate) &&
+					checkStartAndEndTimeOverlap(existingStartTime, existingEndTime, newStartTime, newEndTime);
+
+		return checkStartAndEndTimeOverlap(existingStartTime, existingEndTime, newStartTime, newEndTime) &&
+				datesOverlap(existingDate, recurrence, newDate);
+	}
+
+	/**
+	 * Function that calculates if an existing reservation overlaps a timeslot, using the cached
+	 * {@link RecurrenceKey} of the reservation and a key of the date that is calculated once per
+	 * query. Gives the same result as
+	 * {@link #timeslotsOverlap(LocalDate, LocalTime, LocalTime, Recurrence, LocalDate, LocalTime, LocalTime)}
+	 * without any date arithmetic or allocations per comparison.
+	 *
+	 * @param existing     the existing {@link Reservation}.
+	 * @param newDate      {@link RecurrenceKey} of the date to compare to.
+	 * @param newStartTime start time of the to be compared timeslot.
+	 * @param newEndTime   end time of the to be compared timeslot.
+	 * @return a boolean indicating whether the existing reservation and the timeslot overlap.
+	 */
+	public static boolean timeslotsOverlap(Reservation existing, RecurrenceKey newDate,
+	                                       LocalTime newStartTime, LocalTime newEndTime) {
+		var recurrence = existing.getRecurrence();
+		if (!recurrence.isActive())
+			return existing.getRecurrenceKey().epochDay() == newDate.epochDay() &&
+					checkStartAndEndTimeOverlap(existing.getStartTime(), existing.getEndTime(), newStartTime, newEndTime);
+
+		return checkStartAndEndTimeOverlap(existing.getStartTime(), existing.getEndTime(), newStartTime, newEndTime) &&
+				datesOverlap(existing.getRecurrenceKey(), recurrence, newDate);
+	}
+
+	/**
+	 * Function that calculates if a (recurring) date falls on a new date, without
+	 * looking at the times. Checks the same
+	 * {@link com.quintor.worqplace.domain.RecurrencePattern recurrence patterns} as
+	 * {@link #timeslotsOverlap(LocalDate, LocalTime, LocalTime, Recurrence, LocalDate, LocalTime, LocalTime)}.
+	 *
+	 * @param existingDate date that is already reserved.
+	 * @param recurrence   {@link Recurrence} of the existing reservation.
+	 * @param newDate      date to compare to the existing date.
+	 * @return a boolean indicating whether the existing date recurs on the new date.
+	 */
+	public static boolean datesOverlap(LocalDate existingDate, Recurrence recurrence, LocalDate newDate) {
+		if (!recurrence.isActive()) return existingDate.equals(newDate);
+
+		return switch (recurrence.getRecurrencePattern()) {
+			case WEEKLY -> existingDate.getDayOfWeek() == newDate.getDayOfWeek();
+			case BIWEEKLY -> existingDate.getDayOfWeek() == newDate.getDayOfWeek() &&
+					isEvenWeekDifference(existingDate.toEpochDay(), newDate.toEpochDay());
+			case MONTHLY -> existingDate.getDayOfMonth() == newDate.getDayOfMonth();
+			default -> true;
+		};
 	}
 
-	private static boolean checkIfBiWeekly(int oldWeekNumber, int newWeekNumber) {
-		return (newWeekNumber - oldWeekNumber) % 2 > 0;
+	/**
+	 * Function that calculates if a (recurring) date falls on a new date, using the {@link RecurrenceKey keys}
+	 * of both dates. Gives the same result as {@link #datesOverlap(LocalDate, Recurrence, LocalDate)}.
+	 *
+	 * @param existingDate {@link RecurrenceKey} of the date that is already reserved.
+	 * @param recurrence   {@link Recurrence} of the existing reservation.
+	 * @param newDate      {@link RecurrenceKey} of the date to compare to the existing date.
+	 * @return a boolean indicating whether the existing date recurs on the new date.
+	 */
+	public static boolean datesOverlap(RecurrenceKey existingDate, Recurrence recurrence, RecurrenceKey newDate) {
+		if (!recurrence.isActive()) return existingDate.epochDay() == newDate.epochDay();
+
+		return switch (recurrence.getRecurrencePattern()) {
+			case WEEKLY -> existingDate.dayOfWeek() == newDate.dayOfWeek();
+			case BIWEEKLY -> existingDate.dayOfWeek() == newDate.dayOfWeek() &&
+					isEvenWeekDifference(existingDate.epochDay(), newDate.epochDay());
+			case MONTHLY -> existingDate.dayOfMonth() == newDate.dayOfMonth();
+			default -> true;
+		};
 	}
 
-	private static boolean checkSameDate(LocalDate existingDate, LocalDate newDate) {
-		return !existingDate.getDayOfWeek().equals(newDate.getDayOfWeek());
+	/**
+	 * Function that checks if two dates on the same day of the week are an even amount of weeks apart.
+	 * Counting from the epoch instead of using the week of the year keeps the parity right
+	 * across years with 53 weeks, and does not depend on the locale.
+	 *
+	 * @param existingEpochDay epoch day of the existing date.
+	 * @param newEpochDay      epoch day of the new date.
+	 * @return whether the dates are an even amount of weeks apart.
+	 */
+	private static boolean isEvenWeekDifference(long existingEpochDay, long newEpochDay) {
+		return ((newEpochDay - existingEpochDay) / 7) % 2 == 0;
 	}
 
 	/**
@@ -125,8 +181,37 @@ public class DateTimeUtils {
 	 * @return if the timeslots from both reservations overlap.
 	 */
 	public static boolean timeslotsOverlap(Reservation reservation, Reservation reservation1) {
-		return timeslotsOverlap(reservation.getDate(), reservation.getStartTime(), reservation.getEndTime(),
-				reservation.getRecurrence(), reservation1.getDate(), reservation1.getStartTime(),
+		return timeslotsOverlap(reservation, reservation1.getRecurrenceKey(), reservation1.getStartTime(),
 				reservation1.getEndTime());
 	}
+
+	/**
+	 * Function that parses the granularity of an availability heatmap. Accepts minutes
+	 * (<code>15m</code>), hours (<code>1h</code>) or an ISO-8601 duration (<code>PT15M</code>).
+	 *
+	 * @param granularity the input granularity.
+	 * @return the granularity as a {@link Duration} of whole minutes.
+	 * @throws InvalidGranularityException when the granularity cannot be parsed or
+	 *                                     is not a positive amount of whole minutes.
+	 */
+	public static Duration parseGranularity(String granularity) {
+		try {
+			var value = granularity.strip().toLowerCase(Locale.ROOT);
+			Duration duration;
+			if (value.startsWith("p"))
+				duration = Duration.parse(value);
+			else if (value.endsWith("m"))
+				duration = Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+			else if (value.endsWith("h"))
+				duration = Duration.ofHours(Long.parseLong(value.substring(0, value.length() - 1)));
+			else
+				throw new InvalidGranularityException(granularity);
+
+			if (duration.isNegative() || duration.isZero() || duration.toSecondsPart() != 0 || duration.toNanosPart() != 0)
+				throw new InvalidGranularityException(granularity);
+			return duration;
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new InvalidGranularityException(granularity);
+		}
+	}
 }
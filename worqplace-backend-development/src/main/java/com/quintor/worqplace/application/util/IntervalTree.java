@@ -0,0 +1,209 @@
+package com.quintor.worqplace.application.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Augmented interval tree over closed intervals <code>[start, end]</code>, used to
+ * quickly find the values whose interval overlaps a requested interval.
+ * <p>
+ * The entries form an AVL tree ordered on their start (and on the order in which
+ * they were added, for equal starts), where every node knows the highest end of
+ * its subtree. Adding and removing a value therefore runs in <code>O(log n)</code>
+ * and a query in <code>O(log n + k)</code>, where k is the amount of overlapping
+ * entries.
+ *
+ * @param <T> type of the values stored in the tree.
+ * @see com.quintor.worqplace.domain.OccupancyIndex OccupancyIndex
+ */
+public class IntervalTree<T> {
+	private Node<T> root;
+	private int size;
+	private long sequence;
+
+	/**
+	 * Function that adds a value covering the given closed interval.
+	 *
+	 * @param start start of the interval.
+	 * @param end   end of the interval.
+	 * @param value value to store.
+	 */
+	public void add(long start, long end, T value) {
+		root = insert(root, new Node<>(start, end, value, sequence++));
+		size++;
+	}
+
+	/**
+	 * Function that removes a value from the tree, values are compared by identity.
+	 *
+	 * @param start start of the interval the value was added with.
+	 * @param value value to remove.
+	 * @return whether the value was present.
+	 */
+	public boolean remove(long start, T value) {
+		var node = find(root, start, value);
+		if (node == null) return false;
+
+		root = delete(root, node.start, node.sequence);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Function that passes every value whose interval overlaps the closed interval
+	 * <code>[start, end]</code> to the given consumer.
+	 *
+	 * @param start    start of the requested interval.
+	 * @param end      end of the requested interval.
+	 * @param consumer consumer receiving the overlapping values.
+	 */
+	public void forEachOverlapping(long start, long end, Consumer<T> consumer) {
+		forEachOverlapping(root, start, end, consumer);
+	}
+
+	/**
+	 * @return the amount of values in the tree.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return whether the tree contains no values.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the height of the tree, an empty tree has a height of 0.
+	 */
+	int height() {
+		return height(root);
+	}
+
+	private void forEachOverlapping(Node<T> node, long start, long end, Consumer<T> consumer) {
+		if (node == null || node.maxEnd < start) return;
+
+		forEachOverlapping(node.left, start, end, consumer);
+
+		if (node.start > end) return;
+		if (node.end >= start) consumer.accept(node.value);
+
+		forEachOverlapping(node.right, start, end, consumer);
+	}
+
+	/**
+	 * Function that finds the node of a value, only the nodes with the given start are compared.
+	 *
+	 * @return the node of the value or null when it is not in the tree.
+	 */
+	private Node<T> find(Node<T> node, long start, T value) {
+		if (node == null) return null;
+		if (start < node.start) return find(node.left, start, value);
+		if (start > node.start) return find(node.right, start, value);
+		if (node.value == value) return node;
+
+		var found = find(node.left, start, value);
+		return found != null ? found : find(node.right, start, value);
+	}
+
+	private Node<T> insert(Node<T> node, Node<T> inserted) {
+		if (node == null) return inserted;
+
+		if (compare(inserted.start, inserted.sequence, node) < 0) node.left = insert(node.left, inserted);
+		else node.right = insert(node.right, inserted);
+		return balance(node);
+	}
+
+	private Node<T> delete(Node<T> node, long start, long sequence) {
+		int comparison = compare(start, sequence, node);
+		if (comparison < 0) node.left = delete(node.left, start, sequence);
+		else if (comparison > 0) node.right = delete(node.right, start, sequence);
+		else {
+			if (node.left == null) return node.right;
+			if (node.right == null) return node.left;
+
+			var successor = node.right;
+			while (successor.left != null) successor = successor.left;
+			successor.right = delete(node.right, successor.start, successor.sequence);
+			successor.left = node.left;
+			node = successor;
+		}
+		return balance(node);
+	}
+
+	/**
+	 * Function that restores the AVL balance of a node whose subtrees differ at most two in height,
+	 * and recalculates the height and highest end of the nodes it moved.
+	 *
+	 * @return the new root of the subtree.
+	 */
+	private Node<T> balance(Node<T> node) {
+		update(node);
+		int balance = height(node.left) - height(node.right);
+		if (balance > 1) {
+			if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private Node<T> rotateLeft(Node<T> node) {
+		var pivot = node.right;
+		node.right = pivot.left;
+		pivot.left = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private Node<T> rotateRight(Node<T> node) {
+		var pivot = node.left;
+		node.left = pivot.right;
+		pivot.right = node;
+		update(node);
+		update(pivot);
+		return pivot;
+	}
+
+	private static <T> void update(Node<T> node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+		node.maxEnd = Math.max(node.end, Math.max(maxEnd(node.left), maxEnd(node.right)));
+	}
+
+	private static <T> int compare(long start, long sequence, Node<T> node) {
+		int comparison = Long.compare(start, node.start);
+		return comparison != 0 ? comparison : Long.compare(sequence, node.sequence);
+	}
+
+	private static <T> int height(Node<T> node) {
+		return node == null ? 0 : node.height;
+	}
+
+	private static <T> long maxEnd(Node<T> node) {
+		return node == null ? Long.MIN_VALUE : node.maxEnd;
+	}
+
+	private static final class Node<T> {
+		private final long start;
+		private final long end;
+		private final T value;
+		private final long sequence;
+		private Node<T> left;
+		private Node<T> right;
+		private int height = 1;
+		private long maxEnd;
+
+		private Node(long start, long end, T value, long sequence) {
+			this.start = start;
+			this.end = end;
+			this.value = value;
+			this.sequence = sequence;
+			this.maxEnd = end;
+		}
+	}
+}
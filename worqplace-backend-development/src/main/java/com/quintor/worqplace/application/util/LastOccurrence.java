@@ -0,0 +1,11 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.LocalDate;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.data.ReservationOccurrenceRepository}
+ * to transfer the date of the last materialized occurrence of a
+ * {@link com.quintor.worqplace.domain.Reservation}.
+ */
+public record LastOccurrence(Long reservationId, LocalDate date) {
+}
@@ -0,0 +1,92 @@
+package com.quintor.worqplace.application.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, used by the
+ * {@link com.quintor.worqplace.application.MetricsRegistry MetricsRegistry} to time the hot paths.
+ * <p>
+ * Durations are counted in buckets whose bounds grow by a factor of 2^(1/8), from one microsecond up
+ * to about 70 seconds, so a percentile is at most about nine percent above the real value. Longer
+ * durations are counted in the last bucket. Besides the buckets it keeps the count, sum and maximum.
+ */
+public class LatencyHistogram {
+	private static final long MIN_BOUND_NANOS = 1_024;
+	private static final int BUCKETS_PER_DOUBLING = 8;
+	private static final int DOUBLINGS = 26;
+	private static final int BUCKETS = BUCKETS_PER_DOUBLING * DOUBLINGS + 1;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Function that records a duration.
+	 *
+	 * @param nanos the duration in nanoseconds, negative durations are recorded as 0.
+	 */
+	public void record(long nanos) {
+		long duration = Math.max(0, nanos);
+		buckets.incrementAndGet(indexOf(duration));
+		count.increment();
+		sum.add(duration);
+		max.accumulateAndGet(duration, Math::max);
+	}
+
+	/**
+	 * @return the amount of recorded durations.
+	 */
+	public long count() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the total of the recorded durations in nanoseconds.
+	 */
+	public long sum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return the longest recorded duration in nanoseconds, 0 when nothing was recorded.
+	 */
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * Function that estimates a percentile of the recorded durations as the upper bound of the bucket
+	 * it falls in, capped by the longest recorded duration.
+	 *
+	 * @param quantile the percentile as a fraction between 0 and 1, such as 0.95.
+	 * @return the estimated percentile in nanoseconds, 0 when nothing was recorded.
+	 */
+	public long percentile(double quantile) {
+		long total = 0;
+		var counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			total += counts[i] = buckets.get(i);
+		if (total == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		int index = 0;
+		while ((seen += counts[index]) < rank)
+			index++;
+		return Math.min(upperBoundOf(index), max());
+	}
+
+	private static int indexOf(long nanos) {
+		if (nanos <= MIN_BOUND_NANOS) return 0;
+		double doublings = Math.log((double) nanos / MIN_BOUND_NANOS) / Math.log(2);
+		return (int) Math.min(BUCKETS - 1, Math.ceil(doublings * BUCKETS_PER_DOUBLING));
+	}
+
+	private static long upperBoundOf(int index) {
+		if (index == BUCKETS - 1) return Long.MAX_VALUE;
+		return (long) Math.ceil(MIN_BOUND_NANOS * Math.pow(2, (double) index / BUCKETS_PER_DOUBLING));
+	}
+}
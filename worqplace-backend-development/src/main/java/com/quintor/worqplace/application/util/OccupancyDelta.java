@@ -0,0 +1,21 @@
+package com.quintor.worqplace.application.util;
+
+import com.quintor.worqplace.domain.RecurrencePattern;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.application.OccupancyPublisher} to
+ * tell the clients of a location how the occupancy of a timeslot of a room changed.
+ *
+ * @param roomId            id of the {@link com.quintor.worqplace.domain.Room room}.
+ * @param date              first date of the changed timeslot.
+ * @param startTime         start time of the changed timeslot.
+ * @param endTime           end time of the changed timeslot.
+ * @param recurrencePattern how the timeslot recurs after its first date.
+ * @param workplaces        amount of workplaces that were reserved, negative when they were released.
+ */
+public record OccupancyDelta(Long roomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                             RecurrencePattern recurrencePattern, int workplaces) {
+}
@@ -0,0 +1,13 @@
+package com.quintor.worqplace.application.util;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.data.QueryCounter QueryCounter}
+ * to transfer the SQL statements a request prepared to the
+ * {@link com.quintor.worqplace.presentation.QueryBudgetInterceptor QueryBudgetInterceptor}.
+ *
+ * @param statements amount of SQL statements prepared by Hibernate.
+ * @param jdbcNanos  total time spent executing them in nanoseconds.
+ * @param budget     maximum amount of statements, including the statements added for the items of a batch.
+ */
+public record QueryCount(int statements, long jdbcNanos, int budget) {
+}
@@ -0,0 +1,26 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.LocalDate;
+
+/**
+ * The parts of a date that are compared to check if a {@link com.quintor.worqplace.domain.Recurrence recurring}
+ * reservation occurs on another date. Calculated once per {@link com.quintor.worqplace.domain.Reservation
+ * reservation} or requested date, so comparing two keys does not need any date arithmetic.
+ *
+ * @param epochDay   the day since 1970-01-01.
+ * @param dayOfWeek  the day of the week, from 1 (Monday) to 7 (Sunday).
+ * @param dayOfMonth the day of the month, from 1 to 31.
+ * @see DateTimeUtils#datesOverlap(RecurrenceKey, com.quintor.worqplace.domain.Recurrence, RecurrenceKey)
+ */
+public record RecurrenceKey(long epochDay, int dayOfWeek, int dayOfMonth) {
+
+	/**
+	 * Function that calculates the key of a date.
+	 *
+	 * @param date the date.
+	 * @return the {@link RecurrenceKey} of the date.
+	 */
+	public static RecurrenceKey of(LocalDate date) {
+		return new RecurrenceKey(date.toEpochDay(), date.getDayOfWeek().getValue(), date.getDayOfMonth());
+	}
+}
@@ -0,0 +1,37 @@
+package com.quintor.worqplace.application.util;
+
+import com.quintor.worqplace.domain.Recurrence;
+import com.quintor.worqplace.domain.RecurrencePattern;
+import com.quintor.worqplace.domain.Reservation;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.data.ReservationRepository} to
+ * transfer only the columns of a {@link Reservation} that are needed to calculate availability, without
+ * loading its {@link com.quintor.worqplace.domain.Employee} or {@link com.quintor.worqplace.domain.Room}.
+ */
+public record ReservationSlot(Long id, Long roomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+                              int workplaceAmount, boolean recurrenceActive, RecurrencePattern recurrencePattern) {
+
+	/**
+	 * Constructor used for a single occurrence of a reservation, which does not recur.
+	 */
+	public ReservationSlot(Long id, Long roomId, LocalDate date, LocalTime startTime, LocalTime endTime,
+	                       int workplaceAmount) {
+		this(id, roomId, date, startTime, endTime, workplaceAmount, false, RecurrencePattern.NONE);
+	}
+
+	/**
+	 * Function that turns the slot into a detached {@link Reservation} that can be added to an
+	 * {@link com.quintor.worqplace.domain.OccupancyIndex}. The date is not validated, as the slot
+	 * may belong to a recurring reservation that started in the past.
+	 *
+	 * @return the detached {@link Reservation}.
+	 */
+	public Reservation toReservation() {
+		return new Reservation(id, date, startTime, endTime, null, null, workplaceAmount,
+				new Recurrence(recurrenceActive, recurrencePattern), true);
+	}
+}
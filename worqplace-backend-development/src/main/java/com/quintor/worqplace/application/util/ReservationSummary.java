@@ -0,0 +1,28 @@
+package com.quintor.worqplace.application.util;
+
+import com.quintor.worqplace.domain.Recurrence;
+import com.quintor.worqplace.domain.RecurrencePattern;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.data.ReservationRepository} to
+ * transfer the columns of a {@link com.quintor.worqplace.domain.Reservation} that are shown to the
+ * employee who made it, without loading its {@link com.quintor.worqplace.domain.Employee} or
+ * {@link com.quintor.worqplace.domain.Room}.
+ */
+public record ReservationSummary(Long id, LocalDate date, LocalTime startTime, LocalTime endTime,
+                                 Long employeeId, Long roomId, int workplaceAmount, Recurrence recurrence) {
+
+	/**
+	 * Constructor used by the query, which cannot select the embedded {@link Recurrence} as a whole.
+	 */
+	@SuppressWarnings("squid:S00107") // One parameter per selected column.
+	public ReservationSummary(Long id, LocalDate date, LocalTime startTime, LocalTime endTime,
+	                          Long employeeId, Long roomId, int workplaceAmount,
+	                          boolean recurrenceActive, RecurrencePattern recurrencePattern) {
+		this(id, date, startTime, endTime, employeeId, roomId, workplaceAmount,
+				new Recurrence(recurrenceActive, recurrencePattern));
+	}
+}
@@ -0,0 +1,18 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Datatransfer / holder object used by {@link com.quintor.worqplace.application.RoomService} to transfer
+ * the available workplaces of a {@link com.quintor.worqplace.domain.Room room} on every requested day of
+ * a date range to the {@link com.quintor.worqplace.presentation.RoomController}.
+ */
+public record RoomRangeAvailability(Long id, int floor, int capacity, List<DayAvailability> days) {
+
+	/**
+	 * The available workplaces of the room during the requested timeslot on a single day.
+	 */
+	public record DayAvailability(LocalDate date, int available) {
+	}
+}
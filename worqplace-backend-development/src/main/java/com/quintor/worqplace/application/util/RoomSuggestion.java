@@ -0,0 +1,21 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.LocalTime;
+
+/**
+ * Datatransfer / holder object used by {@link com.quintor.worqplace.application.RoomService} to transfer
+ * an alternative for a timeslot that could not be booked to the
+ * {@link com.quintor.worqplace.presentation.RoomController}.
+ *
+ * @param locationId id of the {@link com.quintor.worqplace.domain.Location location} of the room.
+ * @param roomId     id of the {@link com.quintor.worqplace.domain.Room room}.
+ * @param floor      floor of the room.
+ * @param capacity   capacity of the room.
+ * @param startTime  start time of the suggested timeslot.
+ * @param endTime    end time of the suggested timeslot.
+ * @param available  available workplaces in the room during the suggested timeslot.
+ * @param score      distance from the requested timeslot, lower is better.
+ */
+public record RoomSuggestion(Long locationId, Long roomId, int floor, int capacity, LocalTime startTime,
+                             LocalTime endTime, int available, int score) {
+}
@@ -0,0 +1,20 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.DayOfWeek;
+
+/**
+ * Datatransfer / holder object used by {@link com.quintor.worqplace.application.UtilizationService} to
+ * transfer the utilization of a room, floor or location during an hour of a day of the week to the
+ * {@link com.quintor.worqplace.presentation.LocationController}.
+ *
+ * @param locationId       id of the {@link com.quintor.worqplace.domain.Location location}.
+ * @param floor            the floor, null when aggregated per location.
+ * @param roomId           id of the {@link com.quintor.worqplace.domain.Room room}, null unless aggregated per room.
+ * @param dayOfWeek        the day of the week.
+ * @param hour             the hour of the day.
+ * @param workplaceMinutes reserved workplace minutes, summed over every such hour in the range.
+ * @param utilization      the reserved share of the workplace minutes that were available, from 0 up to 1.
+ */
+public record Utilization(Long locationId, Integer floor, Long roomId, DayOfWeek dayOfWeek, int hour,
+                          long workplaceMinutes, double utilization) {
+}
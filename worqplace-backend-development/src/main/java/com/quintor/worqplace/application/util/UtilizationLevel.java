@@ -0,0 +1,22 @@
+package com.quintor.worqplace.application.util;
+
+/**
+ * Determines what the {@link com.quintor.worqplace.domain.UtilizationRollup utilization rollups}
+ * are aggregated per.
+ *
+ * @see com.quintor.worqplace.application.UtilizationService#getUtilization
+ */
+public enum UtilizationLevel {
+	/**
+	 * Every {@link com.quintor.worqplace.domain.Room room} separately.
+	 */
+	ROOM,
+	/**
+	 * The rooms on the same floor together.
+	 */
+	FLOOR,
+	/**
+	 * All rooms of the {@link com.quintor.worqplace.domain.Location location} together.
+	 */
+	LOCATION
+}
@@ -0,0 +1,11 @@
+package com.quintor.worqplace.application.util;
+
+import java.time.DayOfWeek;
+
+/**
+ * Datatransfer / holder object used by the {@link com.quintor.worqplace.data.UtilizationRollupRepository}
+ * to transfer the reserved workplace minutes of a {@link com.quintor.worqplace.domain.Room room} during
+ * an hour of a day of the week, summed over the dates of a range.
+ */
+public record UtilizationTotal(Long roomId, DayOfWeek dayOfWeek, int hourOfDay, long workplaceMinutes) {
+}
@@ -0,0 +1,75 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.application.util.ReservationSlot;
+import com.quintor.worqplace.domain.ArchivedReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * Repository class that connects the {@link ArchivedReservation}
+ * application to the database to store the domain.
+ *
+ * @see ArchivedReservation
+ * @see com.quintor.worqplace.application.ReservationArchiveJob ReservationArchiveJob
+ */
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, Long> {
+	/**
+	 * Function that copies the non-recurring {@link com.quintor.worqplace.domain.Reservation reservations}
+	 * before the entered date to the archive, keeping their ids.
+	 *
+	 * @param before first date that is not archived.
+	 * @return the amount of copied reservations.
+	 * @see ReservationRepository#deleteFinishedBefore(LocalDate)
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = "insert into reservation_archive "
+			+ "(id, date, start_time, end_time, active, recurrence_pattern, workplace_amount, employee_id, room_id) "
+			+ "select id, date, start_time, end_time, active, recurrence_pattern, workplace_amount, employee_id, room_id "
+			+ "from reservation "
+			+ "where date < :before and active = false")
+	int copyFinishedBefore(@Param("before") LocalDate before);
+
+	/**
+	 * Function that streams the {@link ReservationSlot slots} of the archived reservations at a
+	 * {@link com.quintor.worqplace.domain.Location location} between the two dates. Archived reservations
+	 * do not recur, so the slots only occur on their own date. The rows are fetched in chunks of 500
+	 * through a cursor, which relies on <code>useCursorFetch=true</code> in the datasource URL as explained
+	 * at {@link ReservationRepository#streamAllByLocationId(Long)}. The stream has to be consumed and
+	 * closed within a transaction.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return a stream of the {@link ReservationSlot slots} between the dates.
+	 * @see com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	@Query("select new com.quintor.worqplace.application.util.ReservationSlot(a.id, a.room.id, a.date, "
+			+ "a.startTime, a.endTime, a.workplaceAmount) "
+			+ "from ArchivedReservation a "
+			+ "where a.room.location.id = :locationId "
+			+ "and a.date between :from and :to")
+	Stream<ReservationSlot> streamSlotsByLocationBetween(@Param("locationId") Long locationId,
+	                                                     @Param("from") LocalDate from,
+	                                                     @Param("to") LocalDate to);
+
+	/**
+	 * Function that retrieves the date of the first archived reservation at a
+	 * {@link com.quintor.worqplace.domain.Location location}.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @return the first date, empty if there are no archived reservations at the location.
+	 */
+	@Query("select min(a.date) from ArchivedReservation a where a.room.location.id = :locationId")
+	Optional<LocalDate> findFirstDateByLocationId(@Param("locationId") Long locationId);
+}
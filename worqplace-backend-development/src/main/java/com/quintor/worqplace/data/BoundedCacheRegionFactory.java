@@ -0,0 +1,154 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.application.util.BoundedCache;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache that keeps every entity, collection and query results region in a local
+ * {@link BoundedCache}, so a region holds at most <code>hibernate.cache.bounded.maximum_size</code>
+ * entries and evicts the least frequently used ones. Entries expire
+ * <code>hibernate.cache.bounded.expire_after_write_seconds</code> after they were written, which bounds
+ * how long changes made by other instances can go unnoticed.
+ * <p>
+ * The update timestamps of the tables are never evicted, as a query result could otherwise be
+ * considered up to date after its table was changed.
+ *
+ * @see com.quintor.worqplace.application.SecondLevelCacheService SecondLevelCacheService
+ */
+public class BoundedCacheRegionFactory extends RegionFactoryTemplate {
+	public static final String MAXIMUM_SIZE = "hibernate.cache.bounded.maximum_size";
+	public static final String EXPIRE_AFTER_WRITE_SECONDS = "hibernate.cache.bounded.expire_after_write_seconds";
+
+	private final Map<String, BoundedCache<Object, Object>> regions = new ConcurrentHashMap<>();
+	private int maximumSize;
+	private Duration expireAfterWrite;
+
+	@Override
+	protected void prepareForUse(SessionFactoryOptions settings, @SuppressWarnings("rawtypes") Map configValues) {
+		this.maximumSize = ConfigurationHelper.getInt(MAXIMUM_SIZE, configValues, 1000);
+		this.expireAfterWrite = Duration.ofSeconds(ConfigurationHelper.getLong(EXPIRE_AFTER_WRITE_SECONDS,
+				configValues, 3600));
+	}
+
+	@Override
+	protected void releaseFromUse() {
+		regions.clear();
+	}
+
+	@Override
+	protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+	                                                                DomainDataRegionBuildingContext buildingContext) {
+		return new BoundedStorageAccess(regionOf(regionConfig.getRegionName()));
+	}
+
+	@Override
+	protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+	                                                              SessionFactoryImplementor sessionFactory) {
+		return new BoundedStorageAccess(regionOf(regionName));
+	}
+
+	@Override
+	protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+	                                                            SessionFactoryImplementor sessionFactory) {
+		return new TimestampsStorageAccess();
+	}
+
+	/**
+	 * Function that gets the {@link BoundedCache} of a region, to report its size and evictions.
+	 *
+	 * @param regionName name of the region.
+	 * @return the {@link BoundedCache} of the region, empty for the timestamps region or an unknown region.
+	 */
+	public Optional<BoundedCache<Object, Object>> getRegion(String regionName) {
+		return Optional.ofNullable(regions.get(regionName));
+	}
+
+	private BoundedCache<Object, Object> regionOf(String regionName) {
+		return regions.computeIfAbsent(regionName, name -> new BoundedCache<>(maximumSize, expireAfterWrite));
+	}
+
+	/**
+	 * {@link StorageAccess} of a region in a {@link BoundedCache}.
+	 */
+	private record BoundedStorageAccess(BoundedCache<Object, Object> cache) implements DomainDataStorageAccess {
+		@Override
+		public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+			return cache.get(key);
+		}
+
+		@Override
+		public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+			cache.put(key, value);
+		}
+
+		@Override
+		public boolean contains(Object key) {
+			return cache.containsKey(key);
+		}
+
+		@Override
+		public void evictData() {
+			cache.clear();
+		}
+
+		@Override
+		public void evictData(Object key) {
+			cache.remove(key);
+		}
+
+		@Override
+		public void release() {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * {@link StorageAccess} of the update timestamps, one entry per table that is never evicted.
+	 */
+	private static final class TimestampsStorageAccess implements StorageAccess {
+		private final Map<Object, Object> timestamps = new ConcurrentHashMap<>();
+
+		@Override
+		public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+			return timestamps.get(key);
+		}
+
+		@Override
+		public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+			timestamps.put(key, value);
+		}
+
+		@Override
+		public boolean contains(Object key) {
+			return timestamps.containsKey(key);
+		}
+
+		@Override
+		public void evictData() {
+			timestamps.clear();
+		}
+
+		@Override
+		public void evictData(Object key) {
+			timestamps.remove(key);
+		}
+
+		@Override
+		public void release() {
+			timestamps.clear();
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.quintor.worqplace.data;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Session listener that adds the time spent executing statements and batches to the {@link QueryCounter},
+ * configured with <code>hibernate.session.events.auto</code>. Hibernate creates a listener per session,
+ * which is used by a single thread at a time.
+ */
+public class JdbcTimingSessionListener extends BaseSessionEventListener {
+	private static final long serialVersionUID = 1L;
+
+	private long start;
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		start = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		QueryCounter.executed(System.nanoTime() - start);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		start = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		QueryCounter.executed(System.nanoTime() - start);
+	}
+}
@@ -2,6 +2,12 @@ package com.quintor.worqplace.data;
 
 import com.quintor.worqplace.domain.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 /**
  * Repository class that connects the {@link Location}
@@ -11,5 +17,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @see com.quintor.worqplace.application.LocationService LocationService
  */
 public interface LocationRepository extends JpaRepository<Location, Long> {
-
+	/**
+	 * Function that retrieves all {@link Location locations}. The result is kept in the query cache
+	 * until a location is changed.
+	 *
+	 * @return a list of all {@link Location locations}.
+	 */
+	@Override
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<Location> findAll();
 }
@@ -0,0 +1,107 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.application.util.QueryCount;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread and the time spent executing them,
+ * from {@link #start(int, int)} until {@link #stop()}. Statements are counted by the
+ * {@link QueryCountingStatementInspector} and timed by the {@link JdbcTimingSessionListener}, both of which
+ * Hibernate creates itself, so the count is kept in a thread local. Outside a counted request nothing is
+ * recorded. A request that continues on another thread stops the count on the first thread and
+ * {@link #resume(QueryCount) resumes} it on the next one.
+ * <p>
+ * Statements over the budget are only counted, never refused: under open-in-view they can run while the
+ * response is already being written, so the budget is compared once the request has completed.
+ *
+ * @see com.quintor.worqplace.presentation.QueryBudgetInterceptor QueryBudgetInterceptor
+ */
+public final class QueryCounter {
+	private static final ThreadLocal<Count> CURRENT = new ThreadLocal<>();
+
+	private QueryCounter() {
+	}
+
+	/**
+	 * Function that starts counting on the current thread, discarding an earlier count.
+	 *
+	 * @param budget maximum amount of statements.
+	 */
+	public static void start(int budget) {
+		start(budget, 0);
+	}
+
+	/**
+	 * Function that starts counting on the current thread for a request that can handle a batch of items,
+	 * discarding an earlier count.
+	 *
+	 * @param budget  maximum amount of statements without any items.
+	 * @param perItem amount of statements added to the budget for every item, see {@link #addItems(int)}.
+	 */
+	public static void start(int budget, int perItem) {
+		CURRENT.set(new Count(budget, perItem));
+	}
+
+	/**
+	 * Function that continues a count that was stopped on another thread, discarding an earlier count.
+	 *
+	 * @param count the {@link QueryCount} so far.
+	 */
+	public static void resume(QueryCount count) {
+		var resumed = new Count(count.budget(), 0);
+		resumed.statements = count.statements();
+		resumed.jdbcNanos = count.jdbcNanos();
+		CURRENT.set(resumed);
+	}
+
+	/**
+	 * Function that raises the budget of the current thread for the items of a batch, by the amount of
+	 * statements per item it was started with.
+	 *
+	 * @param items amount of items in the batch.
+	 */
+	public static void addItems(int items) {
+		var count = CURRENT.get();
+		if (count != null) count.budget += items * count.perItem;
+	}
+
+	/**
+	 * Function that stops counting on the current thread.
+	 *
+	 * @return the {@link QueryCount} since {@link #start(int, int)}, empty when counting was not started.
+	 */
+	public static QueryCount stop() {
+		var count = CURRENT.get();
+		CURRENT.remove();
+		return count == null ? new QueryCount(0, 0, 0) : new QueryCount(count.statements, count.jdbcNanos, count.budget);
+	}
+
+	/**
+	 * Function that counts a statement that is about to be prepared.
+	 */
+	static void statementPrepared() {
+		var count = CURRENT.get();
+		if (count != null) count.statements++;
+	}
+
+	/**
+	 * Function that adds the execution time of a statement or batch.
+	 *
+	 * @param nanos the execution time in nanoseconds.
+	 */
+	static void executed(long nanos) {
+		var count = CURRENT.get();
+		if (count != null) count.jdbcNanos += nanos;
+	}
+
+	private static final class Count {
+		private final int perItem;
+		private int budget;
+		private int statements;
+		private long jdbcNanos;
+
+		private Count(int budget, int perItem) {
+			this.budget = budget;
+			this.perItem = perItem;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package com.quintor.worqplace.data;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector} that counts every statement Hibernate prepares for the {@link QueryCounter},
+ * configured with <code>hibernate.session_factory.statement_inspector</code>. The statements are not changed.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+	@Override
+	public String inspect(String sql) {
+		QueryCounter.statementPrepared();
+		return sql;
+	}
+}
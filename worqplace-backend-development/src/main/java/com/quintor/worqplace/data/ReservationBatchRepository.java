@@ -0,0 +1,21 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.Reservation;
+
+import java.util.List;
+
+/**
+ * Repository fragment of the {@link ReservationRepository} that stores many
+ * {@link Reservation reservations} at once.
+ *
+ * @see ReservationBatchRepositoryImpl
+ */
+public interface ReservationBatchRepository {
+	/**
+	 * Function that inserts new {@link Reservation reservations} with a single JDBC batch
+	 * and sets their generated ids.
+	 *
+	 * @param reservations the new {@link Reservation reservations}.
+	 */
+	void insertAll(List<Reservation> reservations);
+}
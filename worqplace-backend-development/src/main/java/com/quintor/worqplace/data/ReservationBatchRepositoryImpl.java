@@ -0,0 +1,69 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.Reservation;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.util.List;
+
+/**
+ * JDBC implementation of the {@link ReservationBatchRepository}. Reservations use identity
+ * columns, which keeps Hibernate from batching their inserts, so the rows are inserted with
+ * a plain JDBC batch on the connection of the current transaction instead.
+ *
+ * @see ReservationRepository
+ */
+@AllArgsConstructor
+public class ReservationBatchRepositoryImpl implements ReservationBatchRepository {
+	private static final String INSERT_RESERVATION = "insert into reservation "
+			+ "(date, start_time, end_time, active, recurrence_pattern, workplace_amount, employee_id, room_id) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void insertAll(List<Reservation> reservations) {
+		if (reservations.isEmpty()) return;
+
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			try (var statement = connection.prepareStatement(INSERT_RESERVATION, Statement.RETURN_GENERATED_KEYS)) {
+				for (var reservation : reservations) {
+					setParameters(statement, reservation);
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				readGeneratedIds(statement, reservations);
+			}
+			return null;
+		});
+	}
+
+	private static void setParameters(PreparedStatement statement, Reservation reservation) throws SQLException {
+		statement.setDate(1, Date.valueOf(reservation.getDate()));
+		statement.setTime(2, Time.valueOf(reservation.getStartTime()));
+		statement.setTime(3, Time.valueOf(reservation.getEndTime()));
+		statement.setBoolean(4, reservation.getRecurrence().isActive());
+		statement.setString(5, reservation.getRecurrence().getRecurrencePattern().name());
+		statement.setInt(6, reservation.getWorkplaceAmount());
+		statement.setLong(7, reservation.getEmployee().getId());
+		statement.setLong(8, reservation.getRoom().getId());
+	}
+
+	private static void readGeneratedIds(PreparedStatement statement, List<Reservation> reservations)
+			throws SQLException {
+		try (var keys = statement.getGeneratedKeys()) {
+			for (var reservation : reservations) {
+				if (!keys.next())
+					throw new IncorrectResultSizeDataAccessException(reservations.size());
+				reservation.setId(keys.getLong(1));
+			}
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.ReservationOccurrence;
+
+import java.util.List;
+
+/**
+ * Repository fragment of the {@link ReservationOccurrenceRepository} that stores many
+ * {@link ReservationOccurrence occurrences} at once.
+ *
+ * @see ReservationOccurrenceBatchRepositoryImpl
+ */
+public interface ReservationOccurrenceBatchRepository {
+	/**
+	 * Function that inserts new {@link ReservationOccurrence occurrences} with a single JDBC batch.
+	 * Occurrences of a reservation on a date that has already been materialized are skipped.
+	 *
+	 * @param occurrences the new {@link ReservationOccurrence occurrences}.
+	 */
+	void insertAll(List<ReservationOccurrence> occurrences);
+}
@@ -0,0 +1,45 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.ReservationOccurrence;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.List;
+
+/**
+ * JDBC implementation of the {@link ReservationOccurrenceBatchRepository}. Occurrences use identity
+ * columns, which keeps Hibernate from batching their inserts, so the rows are inserted with a plain
+ * JDBC batch on the connection of the current transaction instead. The generated ids are not read,
+ * as occurrences are only ever queried.
+ * <p>
+ * A reservation occurs at most once per date, which the unique key on the reservation and the date
+ * enforces. Occurrences that already exist are skipped with <code>insert ignore</code>, so the nightly
+ * job, the job at startup and new bookings can materialize the same dates, even on several instances
+ * at once, without duplicating them.
+ *
+ * @see ReservationOccurrenceRepository
+ */
+@AllArgsConstructor
+public class ReservationOccurrenceBatchRepositoryImpl implements ReservationOccurrenceBatchRepository {
+	private static final String INSERT_OCCURRENCE = "insert ignore into reservation_occurrence "
+			+ "(reservation_id, room_id, date, start_time, end_time, workplace_amount) "
+			+ "values (?, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void insertAll(List<ReservationOccurrence> occurrences) {
+		if (occurrences.isEmpty()) return;
+
+		jdbcTemplate.batchUpdate(INSERT_OCCURRENCE, occurrences, occurrences.size(), (statement, occurrence) -> {
+			statement.setLong(1, occurrence.getReservation().getId());
+			statement.setLong(2, occurrence.getRoom().getId());
+			statement.setDate(3, Date.valueOf(occurrence.getDate()));
+			statement.setTime(4, Time.valueOf(occurrence.getStartTime()));
+			statement.setTime(5, Time.valueOf(occurrence.getEndTime()));
+			statement.setInt(6, occurrence.getWorkplaceAmount());
+		});
+	}
+}
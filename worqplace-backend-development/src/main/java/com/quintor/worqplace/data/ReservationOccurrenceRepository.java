@@ -0,0 +1,80 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.application.util.LastOccurrence;
+import com.quintor.worqplace.application.util.ReservationSlot;
+import com.quintor.worqplace.domain.ReservationOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository class that connects the {@link ReservationOccurrence}
+ * application to the database to store the domain.
+ *
+ * @see ReservationOccurrence
+ * @see com.quintor.worqplace.application.ReservationOccurrenceService ReservationOccurrenceService
+ * @see ReservationOccurrenceBatchRepository
+ */
+public interface ReservationOccurrenceRepository extends JpaRepository<ReservationOccurrence, Long>,
+		ReservationOccurrenceBatchRepository {
+	/**
+	 * Function that retrieves the {@link ReservationOccurrence occurrences} at a
+	 * {@link com.quintor.worqplace.domain.Location location} between the two dates as non-recurring
+	 * {@link ReservationSlot slots} on the date of the occurrence. Uses the <code>(room_id, date)</code>
+	 * index, so no recurrence has to be expanded to find them.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return a list of {@link ReservationSlot slots}, one per occurrence.
+	 * @see ReservationRepository#findSlotsByLocationBetween(Long, LocalDate, LocalDate)
+	 */
+	@Query("select new com.quintor.worqplace.application.util.ReservationSlot(o.reservation.id, o.room.id, "
+			+ "o.date, o.startTime, o.endTime, o.workplaceAmount) "
+			+ "from ReservationOccurrence o "
+			+ "where o.room.location.id = :locationId "
+			+ "and o.date between :from and :to")
+	List<ReservationSlot> findSlotsByLocationBetween(@Param("locationId") Long locationId,
+	                                                 @Param("from") LocalDate from,
+	                                                 @Param("to") LocalDate to);
+
+	/**
+	 * Function that retrieves the date of the last materialized occurrence of every
+	 * {@link com.quintor.worqplace.domain.Reservation reservation} that has one.
+	 *
+	 * @return a list of {@link LastOccurrence last occurrences}, one per reservation.
+	 */
+	@Query("select new com.quintor.worqplace.application.util.LastOccurrence(o.reservation.id, max(o.date)) "
+			+ "from ReservationOccurrence o "
+			+ "group by o.reservation.id")
+	List<LastOccurrence> findLastOccurrences();
+
+	/**
+	 * Function that deletes the {@link ReservationOccurrence occurrences} before the entered date.
+	 *
+	 * @param before first date that is not deleted.
+	 * @return the amount of deleted occurrences.
+	 */
+	@Modifying
+	@Query("delete from ReservationOccurrence o where o.date < :before")
+	int deleteBefore(@Param("before") LocalDate before);
+
+	/**
+	 * Function that deletes the {@link ReservationOccurrence occurrences} of the non-recurring
+	 * {@link com.quintor.worqplace.domain.Reservation reservations} before the entered date, before those
+	 * are archived. A bulk delete of the reservations does not cascade in Hibernate, so the occurrences
+	 * are not left to the foreign key.
+	 *
+	 * @param before first date that is not archived.
+	 * @return the amount of deleted occurrences.
+	 * @see ReservationRepository#deleteFinishedBefore(LocalDate)
+	 */
+	@Modifying
+	@Query("delete from ReservationOccurrence o where o.reservation.id in "
+			+ "(select r.id from Reservation r where r.date < :before and r.recurrence.active = false)")
+	int deleteOfFinishedBefore(@Param("before") LocalDate before);
+}
@@ -1,9 +1,22 @@
 package com.quintor.worqplace.data;
 
+import com.quintor.worqplace.application.util.ReservationSlot;
+import com.quintor.worqplace.application.util.ReservationSummary;
 import com.quintor.worqplace.domain.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Repository class that connects the {@link Reservation}
@@ -11,18 +24,189 @@ import java.util.List;
  *
  * @see Reservation
  * @see com.quintor.worqplace.application.ReservationService ReservationService
+ * @see ReservationBatchRepository
  */
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationBatchRepository {
+	/**
+	 * Function that retrieves every {@link Reservation} together with its employee and room, so they are
+	 * not loaded one by one when the reservations are mapped.
+	 *
+	 * @return a list of all {@link Reservation reservations}.
+	 */
+	@Override
+	@Query("select r from Reservation r left join fetch r.employee left join fetch r.room")
+	List<Reservation> findAll();
+
+	/**
+	 * Function that retrieves the {@link ReservationSummary summaries} of the {@link Reservation reservations}
+	 * made by the entered employee that are on or after the entered date or are recurring, optionally only
+	 * at the entered {@link com.quintor.worqplace.domain.Location location}. Uses the
+	 * <code>(employee_id, date)</code> index, so the cost does not grow with the employee's history.
+	 *
+	 * @param employeeId id of the {@link com.quintor.worqplace.domain.Employee employee}.
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}, null for all locations.
+	 * @param date       first date of the one-off reservations, inclusive.
+	 * @return a list of {@link ReservationSummary summaries}, ordered by date and start time.
+	 * @see ReservationSummary
+	 * @see com.quintor.worqplace.application.ReservationService ReservationService
+	 */
+	@Query("select new com.quintor.worqplace.application.util.ReservationSummary(r.id, r.date, r.startTime, "
+			+ "r.endTime, r.employee.id, r.room.id, r.workplaceAmount, r.recurrence.active, "
+			+ "r.recurrence.recurrencePattern) "
+			+ "from Reservation r "
+			+ "where r.employee.id = :employeeId "
+			+ "and (:locationId is null or r.room.location.id = :locationId) "
+			+ "and (r.date >= :date or r.recurrence.active = true) "
+			+ "order by r.date, r.startTime")
+	List<ReservationSummary> findSummariesByEmployee(@Param("employeeId") Long employeeId,
+	                                                 @Param("locationId") Long locationId,
+	                                                 @Param("date") LocalDate date);
+
+	/**
+	 * Function that retrieves the {@link ReservationSlot slots} of the {@link Reservation reservations}
+	 * at a {@link com.quintor.worqplace.domain.Location location} that can occur between the two dates:
+	 * the reservations on one of the dates and the recurring reservations that started on or before the
+	 * last date. Only the columns needed for availability are selected, so no employees, rooms or
+	 * reservation collections are loaded.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return a list of {@link ReservationSlot slots} that can overlap the dates.
+	 * @see ReservationSlot
+	 * @see com.quintor.worqplace.application.RoomService RoomService
+	 */
+	@Query("select new com.quintor.worqplace.application.util.ReservationSlot(r.id, r.room.id, r.date, "
+			+ "r.startTime, r.endTime, r.workplaceAmount, r.recurrence.active, r.recurrence.recurrencePattern) "
+			+ "from Reservation r "
+			+ "where r.room.location.id = :locationId "
+			+ "and r.date <= :to "
+			+ "and (r.date >= :from or r.recurrence.active = true)")
+	List<ReservationSlot> findSlotsByLocationBetween(@Param("locationId") Long locationId,
+	                                                 @Param("from") LocalDate from,
+	                                                 @Param("to") LocalDate to);
+
+	/**
+	 * Function that streams the {@link ReservationSlot slots} of the {@link Reservation reservations} at a
+	 * {@link com.quintor.worqplace.domain.Location location} that can occur between the two dates, the same
+	 * as {@link #findSlotsByLocationBetween(Long, LocalDate, LocalDate)}. The rows are fetched in chunks of
+	 * 500 through a cursor while the stream is consumed, like {@link #streamAllByLocationId(Long)}, so it
+	 * has to be consumed and closed within a transaction.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return a stream of the {@link ReservationSlot slots} that can overlap the dates.
+	 * @see com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	@Query("select new com.quintor.worqplace.application.util.ReservationSlot(r.id, r.room.id, r.date, "
+			+ "r.startTime, r.endTime, r.workplaceAmount, r.recurrence.active, r.recurrence.recurrencePattern) "
+			+ "from Reservation r "
+			+ "where r.room.location.id = :locationId "
+			+ "and r.date <= :to "
+			+ "and (r.date >= :from or r.recurrence.active = true)")
+	Stream<ReservationSlot> streamSlotsByLocationBetween(@Param("locationId") Long locationId,
+	                                                     @Param("from") LocalDate from,
+	                                                     @Param("to") LocalDate to);
+
+	/**
+	 * Function that retrieves the id of the {@link com.quintor.worqplace.domain.Room room} of a
+	 * {@link Reservation} from the database, also when the reservation is already loaded.
+	 *
+	 * @param id id of the {@link Reservation}.
+	 * @return the id of the room, empty if the reservation does not exist.
+	 */
+	@Query("select r.room.id from Reservation r where r.id = :id")
+	Optional<Long> findRoomIdById(@Param("id") Long id);
+
 	/**
-	 * Function that retrieves all {@link Reservation reservations} by the entered
-	 * employee id.
+	 * Function that retrieves the date of the first {@link Reservation} at a
+	 * {@link com.quintor.worqplace.domain.Location location}.
 	 *
-	 * @param id id of the {@link com.quintor.worqplace.domain.Employee employee}.
-	 * @return a list of {@link Reservation reservations} made by the
-	 * selected {@link com.quintor.worqplace.domain.Employee employee}.
-	 * @see Reservation
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @return the first date, empty if there are no reservations at the location.
+	 */
+	@Query("select min(r.date) from Reservation r where r.room.location.id = :locationId")
+	Optional<LocalDate> findFirstDateByLocationId(@Param("locationId") Long locationId);
+
+	/**
+	 * Function that retrieves the {@link Reservation reservations} at every
+	 * {@link com.quintor.worqplace.domain.Location location} that can occur between the two dates,
+	 * with their employee and room.
+	 *
+	 * @param from first date, inclusive.
+	 * @param to   last date, inclusive.
+	 * @return a list of {@link Reservation reservations} that can occur between the dates.
+	 * @see com.quintor.worqplace.application.ReservationOccurrenceService ReservationOccurrenceService
+	 */
+	@Query("select r from Reservation r join fetch r.employee join fetch r.room "
+			+ "where r.date <= :to "
+			+ "and (r.date >= :from or r.recurrence.active = true)")
+	List<Reservation> findAllOccurringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	/**
+	 * Function that retrieves all {@link Reservation reservations} at a
+	 * {@link com.quintor.worqplace.domain.Location location} together with their employee and room,
+	 * so they are not loaded room by room.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @return a list of the {@link Reservation reservations} at the location.
+	 * @see com.quintor.worqplace.application.ReservationService ReservationService
+	 */
+	@Query("select r from Reservation r join fetch r.employee join fetch r.room "
+			+ "where r.room.location.id = :locationId")
+	List<Reservation> findAllByLocationId(@Param("locationId") Long locationId);
+
+	/**
+	 * Function that retrieves a page of the {@link Reservation reservations} at a
+	 * {@link com.quintor.worqplace.domain.Location location}, ordered by id. Pages are selected on
+	 * the last id of the previous page instead of an offset, so every page costs the same
+	 * regardless of how deep it is.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param afterId    id of the last {@link Reservation} of the previous page, 0 for the first page.
+	 * @param pageable   the size of the page, its page number is ignored.
+	 * @return the {@link Reservation reservations} with an id higher than afterId.
 	 * @see com.quintor.worqplace.application.ReservationService ReservationService
-	 * @see com.quintor.worqplace.domain.Employee Employee
 	 */
-	List<Reservation> findAllByEmployeeId(Long id);
+	@Query("select r from Reservation r join fetch r.employee join fetch r.room "
+			+ "where r.room.location.id = :locationId and r.id > :afterId "
+			+ "order by r.id")
+	List<Reservation> findPageByLocationId(@Param("locationId") Long locationId,
+	                                       @Param("afterId") Long afterId,
+	                                       Pageable pageable);
+
+	/**
+	 * Function that streams all {@link Reservation reservations} at a
+	 * {@link com.quintor.worqplace.domain.Location location}, ordered by id. The rows are fetched
+	 * from the database in chunks of 500 while the stream is consumed, it has to be consumed and closed
+	 * within a transaction.
+	 * <p>
+	 * The chunks rely on <code>useCursorFetch=true</code> in the datasource URL, which makes MySQL
+	 * Connector/J read the rows through a server-side cursor with the fetch size of the query. Without it,
+	 * the driver ignores the fetch size and reads the whole result into memory before the first row.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @return a stream of the {@link Reservation reservations} at the location.
+	 * @see com.quintor.worqplace.application.ReservationService ReservationService
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	@Query("select r from Reservation r join fetch r.employee join fetch r.room "
+			+ "where r.room.location.id = :locationId "
+			+ "order by r.id")
+	Stream<Reservation> streamAllByLocationId(@Param("locationId") Long locationId);
+
+	/**
+	 * Function that deletes the non-recurring {@link Reservation reservations} before the entered date,
+	 * after they have been copied to the archive and their occurrences have been deleted.
+	 *
+	 * @param before first date that is not deleted.
+	 * @return the amount of deleted reservations.
+	 * @see ArchivedReservationRepository#copyFinishedBefore(LocalDate)
+	 * @see ReservationOccurrenceRepository#deleteOfFinishedBefore(LocalDate)
+	 */
+	@Modifying
+	@Query("delete from Reservation r where r.date < :before and r.recurrence.active = false")
+	int deleteFinishedBefore(@Param("before") LocalDate before);
 }
@@ -2,6 +2,12 @@ package com.quintor.worqplace.data;
 
 import com.quintor.worqplace.domain.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
 
 /**
  * Repository class that connects the {@link Room}
@@ -11,5 +17,16 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @see com.quintor.worqplace.application.RoomService RoomService
  */
 public interface RoomRepository extends JpaRepository<Room, Long> {
-
+	/**
+	 * Function that retrieves a {@link Room} to book workplaces in. The version of the room is
+	 * incremented when the transaction commits, so a concurrent booking of the same room that
+	 * read the same version fails with an optimistic locking exception instead of overbooking it.
+	 *
+	 * @param id id of the {@link Room}.
+	 * @return the {@link Room}, if it exists.
+	 * @see com.quintor.worqplace.application.BookingExecutor BookingExecutor
+	 */
+	@Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+	@Query("select r from Room r where r.id = :id")
+	Optional<Room> findForBookingById(@Param("id") Long id);
 }
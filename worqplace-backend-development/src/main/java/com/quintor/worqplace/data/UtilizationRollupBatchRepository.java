@@ -0,0 +1,20 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.UtilizationRollup;
+
+import java.util.List;
+
+/**
+ * Repository fragment of the {@link UtilizationRollupRepository} that stores many
+ * {@link UtilizationRollup rollups} at once.
+ *
+ * @see UtilizationRollupBatchRepositoryImpl
+ */
+public interface UtilizationRollupBatchRepository {
+	/**
+	 * Function that inserts new {@link UtilizationRollup rollups} with a single JDBC batch.
+	 *
+	 * @param rollups the new {@link UtilizationRollup rollups}.
+	 */
+	void insertAll(List<UtilizationRollup> rollups);
+}
@@ -0,0 +1,37 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.UtilizationRollup;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * JDBC implementation of the {@link UtilizationRollupBatchRepository}, for the same reason as the
+ * {@link ReservationOccurrenceBatchRepositoryImpl}: rollups use identity columns, which keeps Hibernate
+ * from batching their inserts.
+ *
+ * @see UtilizationRollupRepository
+ */
+@AllArgsConstructor
+public class UtilizationRollupBatchRepositoryImpl implements UtilizationRollupBatchRepository {
+	private static final String INSERT_ROLLUP = "insert into utilization_rollup "
+			+ "(room_id, date, day_of_week, hour_of_day, workplace_minutes) "
+			+ "values (?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void insertAll(List<UtilizationRollup> rollups) {
+		if (rollups.isEmpty()) return;
+
+		jdbcTemplate.batchUpdate(INSERT_ROLLUP, rollups, rollups.size(), (statement, rollup) -> {
+			statement.setLong(1, rollup.getRoom().getId());
+			statement.setDate(2, Date.valueOf(rollup.getDate()));
+			statement.setString(3, rollup.getDayOfWeek().name());
+			statement.setInt(4, rollup.getHourOfDay());
+			statement.setLong(5, rollup.getWorkplaceMinutes());
+		});
+	}
+}
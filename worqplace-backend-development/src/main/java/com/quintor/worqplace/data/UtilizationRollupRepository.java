@@ -0,0 +1,60 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.application.util.UtilizationTotal;
+import com.quintor.worqplace.domain.UtilizationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository class that connects the {@link UtilizationRollup}
+ * application to the database to store the domain.
+ *
+ * @see UtilizationRollup
+ * @see com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob
+ * @see UtilizationRollupBatchRepository
+ */
+public interface UtilizationRollupRepository extends JpaRepository<UtilizationRollup, Long>,
+		UtilizationRollupBatchRepository {
+	/**
+	 * Function that sums the {@link UtilizationRollup rollups} of the rooms at a
+	 * {@link com.quintor.worqplace.domain.Location location} between the two dates per room, day of the
+	 * week and hour.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return a list of {@link UtilizationTotal totals}, hours without reservations are left out.
+	 */
+	@Query("select new com.quintor.worqplace.application.util.UtilizationTotal(u.room.id, u.dayOfWeek, "
+			+ "u.hourOfDay, sum(u.workplaceMinutes)) "
+			+ "from UtilizationRollup u "
+			+ "where u.room.location.id = :locationId "
+			+ "and u.date between :from and :to "
+			+ "group by u.room.id, u.dayOfWeek, u.hourOfDay")
+	List<UtilizationTotal> sumByLocationBetween(@Param("locationId") Long locationId,
+	                                            @Param("from") LocalDate from,
+	                                            @Param("to") LocalDate to);
+
+	/**
+	 * Function that deletes the {@link UtilizationRollup rollups} of the rooms at a
+	 * {@link com.quintor.worqplace.domain.Location location} between the two dates, before they are
+	 * rolled up again.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @param from       first date, inclusive.
+	 * @param to         last date, inclusive.
+	 * @return the amount of deleted rollups.
+	 */
+	@Modifying
+	@Query("delete from UtilizationRollup u "
+			+ "where u.date between :from and :to "
+			+ "and u.room.id in (select r.id from Room r where r.location.id = :locationId)")
+	int deleteByLocationBetween(@Param("locationId") Long locationId,
+	                            @Param("from") LocalDate from,
+	                            @Param("to") LocalDate to);
+}
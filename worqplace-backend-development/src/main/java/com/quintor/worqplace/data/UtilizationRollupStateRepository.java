@@ -0,0 +1,31 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.domain.UtilizationRollupState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+/**
+ * Repository class that connects the {@link UtilizationRollupState}
+ * application to the database to store the domain.
+ *
+ * @see UtilizationRollupState
+ * @see com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob
+ */
+public interface UtilizationRollupStateRepository extends JpaRepository<UtilizationRollupState, Long> {
+	/**
+	 * Function that retrieves the {@link UtilizationRollupState} of a location and locks it until the
+	 * transaction ends. A change that is recorded while the location is being rolled up waits for the run,
+	 * so it cannot be cleared by the run that may not have seen it.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location location}.
+	 * @return the {@link UtilizationRollupState}, if the location has been rolled up before.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from UtilizationRollupState s where s.locationId = :locationId")
+	Optional<UtilizationRollupState> findForUpdateByLocationId(@Param("locationId") Long locationId);
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -20,6 +22,8 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Entity
 @Table(name = "address")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Address {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
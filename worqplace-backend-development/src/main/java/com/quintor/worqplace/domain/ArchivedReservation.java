@@ -0,0 +1,54 @@
+package com.quintor.worqplace.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A finished, non-recurring {@link Reservation} that was moved out of the reservation table,
+ * so the reservations of a {@link Room} only contain the ones that can still affect its availability.
+ * Keeps the id of the original reservation.
+ *
+ * @see Reservation
+ * @see com.quintor.worqplace.application.ReservationArchiveJob ReservationArchiveJob
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "reservation_archive", indexes = {
+		@Index(name = "idx_reservation_archive_employee_date", columnList = "employee_id, date")
+})
+public class ArchivedReservation {
+	@Id
+	private Long id;
+
+	private LocalDate date;
+	private LocalTime startTime;
+	private LocalTime endTime;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "employee_id")
+	private Employee employee;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "room_id")
+	private Room room;
+
+	private int workplaceAmount;
+
+	@Embedded
+	private Recurrence recurrence;
+
+	/**
+	 * Function that turns the archived reservation back into a {@link Reservation}, without
+	 * validating its date as it lies in the past.
+	 *
+	 * @return the {@link Reservation} with the id of the archived reservation.
+	 */
+	public Reservation toReservation() {
+		return new Reservation(id, date, startTime, endTime, employee, room, workplaceAmount, recurrence, true);
+	}
+}
@@ -0,0 +1,195 @@
+package com.quintor.worqplace.domain;
+
+import com.quintor.worqplace.application.util.DateTimeUtils;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Sweep-line capacity check for (recurring) {@link Reservation reservations}.
+ * <p>
+ * The occurrences of the requested reservation are expanded over a bounded
+ * {@link #HORIZON horizon}, and beyond it to the dates of the reservations that only start
+ * after the horizon. For every occurrence the overlapping reservations are
+ * taken from the {@link OccupancyIndex} of the room and turned into start and end
+ * events. The events are sorted once and swept to find the highest amount of
+ * workplaces that are in use at the same moment during any occurrence.
+ * <p>
+ * When the requested times are on slot boundaries, the peak of an occurrence is read
+ * from the cached {@link SlotOccupancy} of its date instead. The sweep is the exact
+ * fallback for occurrences where that is not possible.
+ * <p>
+ * A one-off reservation is checked on its own date, however far ahead it is. Two recurring
+ * reservations are checked up to a {@link #HORIZON horizon} after the later of their starts, as
+ * their patterns have overlapped by then if they ever do. Recurrences do not end, so checking every
+ * occurrence is not possible.
+ *
+ * @see Room
+ * @see OccupancyIndex
+ * @see SlotOccupancy
+ */
+public class CapacitySweep {
+	/**
+	 * How far after the later start of two recurring reservations their occurrences are checked.
+	 */
+	public static final Period HORIZON = Period.ofYears(1);
+
+	private CapacitySweep() {
+	}
+
+	/**
+	 * Function that checks if the requested reservation does not fit in the room during
+	 * one of its occurrences.
+	 *
+	 * @param requested the requested {@link Reservation}, is ignored if it is already in the index.
+	 * @param index     {@link OccupancyIndex} of the room.
+	 * @param capacity  capacity of the room.
+	 * @return whether the requested amount exceeds the available amount of workplaces.
+	 */
+	public static boolean exceedsCapacity(Reservation requested, OccupancyIndex index, int capacity) {
+		return peakReservedWorkplaces(requested, index) + requested.getWorkplaceAmount() > capacity;
+	}
+
+	/**
+	 * Function that calculates the highest amount of workplaces reserved at the same moment during
+	 * any occurrence of the requested reservation.
+	 *
+	 * @param requested the requested {@link Reservation}, is ignored if it is already in the index.
+	 * @param index     {@link OccupancyIndex} of the room.
+	 * @return the peak amount of reserved workplaces.
+	 */
+	public static int peakReservedWorkplaces(Reservation requested, OccupancyIndex index) {
+		long start = requested.getStartTime().toNanoOfDay();
+		long end = requested.getEndTime().toNanoOfDay();
+		var dates = occurrences(requested, index);
+		var events = new ArrayList<Event>();
+		boolean slotsUsable = SlotOccupancy.isAligned(requested.getStartTime())
+				&& SlotOccupancy.isAligned(requested.getEndTime())
+				&& !index.contains(requested);
+		int slotPeak = 0;
+
+		for (int day = 0; day < dates.size(); day++) {
+			if (slotsUsable) {
+				var slots = index.getSlotOccupancy(dates.get(day));
+				if (slots.isExact()) {
+					slotPeak = Math.max(slotPeak, slots.peak(requested.getStartTime(), requested.getEndTime()));
+					continue;
+				}
+			}
+
+			int occurrence = day;
+			index.forEachReservation(dates.get(day), requested.getStartTime(), requested.getEndTime(),
+					reservation -> {
+						if (reservation == requested) return;
+						int amount = reservation.getWorkplaceAmount();
+						events.add(new Event(occurrence, Math.max(start, reservation.getStartTime().toNanoOfDay()),
+								false, amount));
+						events.add(new Event(occurrence, Math.min(end, reservation.getEndTime().toNanoOfDay()),
+								true, amount));
+					});
+		}
+
+		// Timeslots are inclusive, so at the same moment starts go before ends.
+		events.sort(Comparator.comparingInt(Event::occurrence)
+				.thenComparingLong(Event::time)
+				.thenComparing(Event::end));
+
+		int current = 0;
+		int peak = slotPeak;
+		for (var event : events) {
+			if (event.end()) {
+				current -= event.amount();
+			} else {
+				current += event.amount();
+				peak = Math.max(peak, current);
+			}
+		}
+		return peak;
+	}
+
+	/**
+	 * Function that expands a reservation into the dates it occurs on, from its own date up to
+	 * the {@link #HORIZON horizon}.
+	 *
+	 * @param reservation the {@link Reservation}.
+	 * @return the dates on which the reservation occurs, in order.
+	 */
+	public static List<LocalDate> occurrences(Reservation reservation) {
+		return occurrences(reservation, reservation.getDate(), reservation.getDate().plus(HORIZON));
+	}
+
+	/**
+	 * Function that expands a reservation into the dates on which it can collide with the reservations
+	 * in the index: the dates up to the {@link #HORIZON horizon}, and for every reservation starting
+	 * after it, the dates up to the horizon after its start or only its own date when it does not recur.
+	 *
+	 * @param reservation the {@link Reservation}.
+	 * @param index       {@link OccupancyIndex} of the room.
+	 * @return the dates on which the reservation can collide, in order.
+	 */
+	public static List<LocalDate> occurrences(Reservation reservation, OccupancyIndex index) {
+		var until = reservation.getDate().plus(HORIZON);
+		var dates = occurrences(reservation);
+		if (!reservation.getRecurrence().isActive() || !index.getLatestDate().isAfter(until))
+			return dates;
+
+		var later = new TreeSet<LocalDate>();
+		index.forEachStartingAfter(until, other -> {
+			var start = other.getDate();
+			boolean recurring = other.getRecurrence() != null && other.getRecurrence().isActive();
+			later.addAll(occurrences(reservation, start, recurring ? start.plus(HORIZON) : start));
+		});
+		dates = new ArrayList<>(dates);
+		dates.addAll(later);
+		return dates;
+	}
+
+	/**
+	 * Function that expands a reservation into the dates it occurs on between the two dates. The
+	 * occurrences before the first date are skipped without being expanded.
+	 *
+	 * @param reservation the {@link Reservation}.
+	 * @param from        first date, inclusive.
+	 * @param to          last date, inclusive.
+	 * @return the dates between the two dates on which the reservation occurs, in order.
+	 */
+	public static List<LocalDate> occurrences(Reservation reservation, LocalDate from, LocalDate to) {
+		var first = reservation.getDate();
+		var recurrence = reservation.getRecurrence();
+		if (!recurrence.isActive())
+			return first.isBefore(from) || first.isAfter(to) ? List.of() : List.of(first);
+
+		var pattern = recurrence.getRecurrencePattern();
+		var dates = new ArrayList<LocalDate>();
+		for (long i = from.isAfter(first) ? stepsBetween(pattern, first, from) : 0; ; i++) {
+			var date = step(pattern, first, i);
+			if (date.isAfter(to)) break;
+			if (!date.isBefore(from) && DateTimeUtils.datesOverlap(first, recurrence, date)) dates.add(date);
+		}
+		return dates;
+	}
+
+	private static LocalDate step(RecurrencePattern pattern, LocalDate first, long steps) {
+		return switch (pattern) {
+			case WEEKLY, BIWEEKLY -> first.plusWeeks(steps);
+			case MONTHLY -> first.plusMonths(steps);
+			default -> first.plusDays(steps);
+		};
+	}
+
+	private static long stepsBetween(RecurrencePattern pattern, LocalDate first, LocalDate date) {
+		return switch (pattern) {
+			case WEEKLY, BIWEEKLY -> ChronoUnit.WEEKS.between(first, date);
+			case MONTHLY -> ChronoUnit.MONTHS.between(first, date);
+			default -> ChronoUnit.DAYS.between(first, date);
+		};
+	}
+
+	private record Event(int occurrence, long time, boolean end, int amount) {
+	}
+}
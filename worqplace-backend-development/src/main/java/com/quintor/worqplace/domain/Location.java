@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.List;
@@ -22,6 +24,8 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Table(name = "location")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Location {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,6 +38,7 @@ public class Location {
 
 	@OneToMany(cascade = CascadeType.ALL)
 	@JoinColumn(name = "location_id")
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	private List<Room> rooms;
 
 	/**
@@ -0,0 +1,212 @@
+package com.quintor.worqplace.domain;
+
+import com.quintor.worqplace.application.util.DateTimeUtils;
+import com.quintor.worqplace.application.util.IntervalTree;
+import com.quintor.worqplace.application.util.RecurrenceKey;
+import org.springframework.lang.Nullable;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Occupancy index of the {@link Reservation reservations} of a single {@link Room}.
+ * <p>
+ * Reservations are divided into buckets per {@link RecurrencePattern}: one-off
+ * reservations per date, daily reservations together, weekly and biweekly
+ * reservations per day of the week and monthly reservations per day of the month.
+ * Every bucket is an {@link IntervalTree} on the time of day, so counting the
+ * reserved workplaces of a timeslot only visits the reservations that can
+ * actually overlap it instead of the whole reservation history of the room.
+ * <p>
+ * For peak checks the index also keeps a {@link SlotOccupancy} per date, which is
+ * built on first use and discarded on every change to the index.
+ *
+ * @see Room
+ * @see IntervalTree
+ * @see SlotOccupancy
+ */
+public class OccupancyIndex {
+	private final Map<LocalDate, IntervalTree<Reservation>> oneOff = new HashMap<>();
+	private final IntervalTree<Reservation> daily = new IntervalTree<>();
+	private final Map<DayOfWeek, IntervalTree<Reservation>> weekly = new EnumMap<>(DayOfWeek.class);
+	private final Map<DayOfWeek, IntervalTree<Reservation>> biweekly = new EnumMap<>(DayOfWeek.class);
+	private final Map<Integer, IntervalTree<Reservation>> monthly = new HashMap<>();
+	private final Set<Reservation> indexed = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Map<LocalDate, SlotOccupancy> slotOccupancies = new HashMap<>();
+	private LocalDate latestDate;
+
+	/**
+	 * Constructor of the {@link OccupancyIndex} class.
+	 *
+	 * @param reservations the reservations to index, may be null.
+	 */
+	public OccupancyIndex(@Nullable Iterable<Reservation> reservations) {
+		if (reservations != null)
+			reservations.forEach(this::add);
+	}
+
+	/**
+	 * Function that adds a reservation to the index.
+	 *
+	 * @param reservation the {@link Reservation} to add.
+	 */
+	public void add(Reservation reservation) {
+		bucketOf(reservation).add(reservation.getStartTime().toNanoOfDay(),
+				reservation.getEndTime().toNanoOfDay(), reservation);
+		indexed.add(reservation);
+		slotOccupancies.clear();
+		if (latestDate != null && reservation.getDate().isAfter(latestDate))
+			latestDate = reservation.getDate();
+	}
+
+	/**
+	 * Function that removes a reservation from the index.
+	 *
+	 * @param reservation the {@link Reservation} to remove.
+	 */
+	public void remove(Reservation reservation) {
+		bucketOf(reservation).remove(reservation.getStartTime().toNanoOfDay(), reservation);
+		indexed.remove(reservation);
+		slotOccupancies.clear();
+		latestDate = null;
+	}
+
+	/**
+	 * Function that checks if the given reservation itself is in the index, reservations are compared by identity.
+	 *
+	 * @param reservation the {@link Reservation}.
+	 * @return whether the reservation is in the index.
+	 */
+	public boolean contains(Reservation reservation) {
+		return indexed.contains(reservation);
+	}
+
+	/**
+	 * Function that gets the date of the reservation in the index that starts last, which is
+	 * determined on first use.
+	 *
+	 * @return the latest date, or {@link LocalDate#MIN} when the index is empty.
+	 */
+	public LocalDate getLatestDate() {
+		if (latestDate == null)
+			latestDate = indexed.stream().map(Reservation::getDate).max(LocalDate::compareTo).orElse(LocalDate.MIN);
+		return latestDate;
+	}
+
+	/**
+	 * Function that passes every reservation in the index that starts after the given date to the consumer.
+	 *
+	 * @param date     the date.
+	 * @param consumer consumer receiving the reservations.
+	 */
+	public void forEachStartingAfter(LocalDate date, Consumer<Reservation> consumer) {
+		if (!getLatestDate().isAfter(date)) return;
+
+		for (var reservation : indexed)
+			if (reservation.getDate().isAfter(date)) consumer.accept(reservation);
+	}
+
+	/**
+	 * Function that gets the {@link SlotOccupancy} of the reservations occurring on the given date,
+	 * which is built from the index on first use.
+	 *
+	 * @param date the date.
+	 * @return the {@link SlotOccupancy} of the date, may be inexact.
+	 */
+	public SlotOccupancy getSlotOccupancy(LocalDate date) {
+		return slotOccupancies.computeIfAbsent(date, key -> {
+			var occupancy = new SlotOccupancy();
+			forEachReservation(date, LocalTime.MIN, LocalTime.MAX, reservation ->
+					occupancy.add(reservation.getStartTime(), reservation.getEndTime(),
+							reservation.getWorkplaceAmount()));
+			return occupancy;
+		});
+	}
+
+	/**
+	 * Function that counts the amount of reserved workplaces during a specific timeslot at a given date.
+	 * Gives the same result as evaluating
+	 * {@link DateTimeUtils#timeslotsOverlap(LocalDate, LocalTime, LocalTime, Recurrence, LocalDate, LocalTime, LocalTime)}
+	 * for every active reservation that started on or before the given date.
+	 *
+	 * @param date                date to check the reserved workplaces on.
+	 * @param startTime           start time of the timeslot.
+	 * @param endTime             end time of the timeslot.
+	 * @param excludedReservation {@link Reservation} that needs to be excluded, can be null.
+	 * @return the amount of reserved workplaces.
+	 */
+	public int countReservedWorkplaces(LocalDate date, LocalTime startTime, LocalTime endTime,
+	                                   @Nullable Reservation excludedReservation) {
+		var excludedId = excludedReservation == null ? null : excludedReservation.getId();
+		int[] total = {0};
+
+		forEachReservation(date, startTime, endTime, reservation -> {
+			if (excludedId == null || !excludedId.equals(reservation.getId()))
+				total[0] += reservation.getWorkplaceAmount();
+		});
+		return total[0];
+	}
+
+	/**
+	 * Function that passes every reservation that started on or before the given date, occurs on it
+	 * and overlaps the given timeslot to the consumer.
+	 *
+	 * @param date      date of the timeslot.
+	 * @param startTime start time of the timeslot.
+	 * @param endTime   end time of the timeslot.
+	 * @param consumer  consumer receiving the overlapping reservations.
+	 */
+	public void forEachReservation(LocalDate date, LocalTime startTime, LocalTime endTime,
+	                               Consumer<Reservation> consumer) {
+		long start = startTime.toNanoOfDay();
+		long end = endTime.toNanoOfDay();
+		var key = RecurrenceKey.of(date);
+		Consumer<Reservation> started = reservation -> {
+			if (!date.isBefore(reservation.getDate())) consumer.accept(reservation);
+		};
+
+		forEachOverlapping(oneOff.get(date), start, end, consumer);
+		forEachOverlapping(daily, start, end, started);
+		forEachOverlapping(weekly.get(date.getDayOfWeek()), start, end, started);
+		forEachOverlapping(biweekly.get(date.getDayOfWeek()), start, end, reservation -> {
+			if (DateTimeUtils.datesOverlap(reservation.getRecurrenceKey(), reservation.getRecurrence(), key))
+				started.accept(reservation);
+		});
+		forEachOverlapping(monthly.get(date.getDayOfMonth()), start, end, started);
+	}
+
+	private static void forEachOverlapping(@Nullable IntervalTree<Reservation> bucket, long start, long end,
+	                                       Consumer<Reservation> consumer) {
+		if (bucket != null) bucket.forEachOverlapping(start, end, consumer);
+	}
+
+	/**
+	 * Function that gets the bucket a reservation belongs in. A reservation with an inactive
+	 * {@link Recurrence} only occurs on its own date, an active recurrence without a known pattern
+	 * occurs daily, the same as in {@link DateTimeUtils}.
+	 *
+	 * @param reservation the {@link Reservation}.
+	 * @return the {@link IntervalTree} of the bucket.
+	 */
+	private IntervalTree<Reservation> bucketOf(Reservation reservation) {
+		var recurrence = reservation.getRecurrence();
+		var date = reservation.getDate();
+		if (recurrence == null || !recurrence.isActive())
+			return oneOff.computeIfAbsent(date, key -> new IntervalTree<>());
+
+		return switch (recurrence.getRecurrencePattern()) {
+			case WEEKLY -> weekly.computeIfAbsent(date.getDayOfWeek(), key -> new IntervalTree<>());
+			case BIWEEKLY -> biweekly.computeIfAbsent(date.getDayOfWeek(), key -> new IntervalTree<>());
+			case MONTHLY -> monthly.computeIfAbsent(date.getDayOfMonth(), key -> new IntervalTree<>());
+			default -> daily;
+		};
+	}
+}
@@ -2,6 +2,8 @@ package com.quintor.worqplace.domain;
 
 import com.quintor.worqplace.application.exceptions.InvalidDayException;
 import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
+import com.quintor.worqplace.application.util.RecurrenceKey;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -22,7 +24,10 @@ import java.time.LocalTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "reservation")
+@Table(name = "reservation", indexes = {
+		@Index(name = "idx_reservation_employee_date", columnList = "employee_id, date"),
+		@Index(name = "idx_reservation_room_date", columnList = "room_id, date")
+})
 public class Reservation {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -45,6 +50,11 @@ public class Reservation {
 	@Embedded
 	private Recurrence recurrence;
 
+	@Transient
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private RecurrenceKey recurrenceKey;
+
 	/**
 	 * Constructor of the {@link Reservation} class, used for testing purposes and
 	 * by Spring, calls
@@ -138,6 +148,80 @@ public class Reservation {
 			throw new InvalidDayException();
 
 		this.date = date;
+		this.recurrenceKey = null;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Sets the start time of the {@link Reservation}.
+	 *
+	 * @param startTime start time of the reservation.
+	 */
+	public void setStartTime(LocalTime startTime) {
+		this.startTime = startTime;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Sets the end time of the {@link Reservation}.
+	 *
+	 * @param endTime end time of the reservation.
+	 */
+	public void setEndTime(LocalTime endTime) {
+		this.endTime = endTime;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Sets the amount of workplaces of the {@link Reservation}.
+	 *
+	 * @param workplaceAmount amount of workplaces that is being reserved.
+	 */
+	public void setWorkplaceAmount(int workplaceAmount) {
+		this.workplaceAmount = workplaceAmount;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Sets the {@link Recurrence} of the {@link Reservation}.
+	 *
+	 * @param recurrence the recurrence of the reservation.
+	 */
+	public void setRecurrence(Recurrence recurrence) {
+		this.recurrence = recurrence;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Sets the {@link Room} of the {@link Reservation}, the occupancy of both the old and the new room changes.
+	 *
+	 * @param room room that is being reserved.
+	 */
+	public void setRoom(Room room) {
+		invalidateOccupancyIndex();
+		this.room = room;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Function that discards the {@link OccupancyIndex} of the room, as it may have indexed
+	 * this reservation with its old values.
+	 */
+	private void invalidateOccupancyIndex() {
+		if (this.room != null)
+			this.room.invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Function that gets the {@link RecurrenceKey} of the date of this reservation. It is calculated
+	 * once, after the reservation is created or loaded, and reset when the date changes.
+	 *
+	 * @return the {@link RecurrenceKey} of the date.
+	 */
+	public RecurrenceKey getRecurrenceKey() {
+		if (this.recurrenceKey == null)
+			this.recurrenceKey = RecurrenceKey.of(this.date);
+		return this.recurrenceKey;
 	}
 
 	/**
@@ -0,0 +1,64 @@
+package com.quintor.worqplace.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A single date on which a {@link Reservation} occurs. The occurrences of every reservation are
+ * materialized up to a rolling horizon, so the reserved workplaces of a {@link Room} on a date can be
+ * queried directly instead of expanding the {@link Recurrence} of every reservation. A reservation
+ * occurs at most once per date. Occurrences are deleted together with their reservation.
+ *
+ * @see Reservation
+ * @see com.quintor.worqplace.application.ReservationOccurrenceService ReservationOccurrenceService
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "reservation_occurrence", indexes = {
+		@Index(name = "idx_reservation_occurrence_room_date", columnList = "room_id, date")
+}, uniqueConstraints = {
+		@UniqueConstraint(name = "uk_reservation_occurrence_reservation_date",
+				columnNames = {"reservation_id", "date"})
+})
+public class ReservationOccurrence {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "reservation_id",
+			foreignKey = @ForeignKey(name = "fk_reservation_occurrence_reservation"))
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	private Reservation reservation;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "room_id", foreignKey = @ForeignKey(name = "fk_reservation_occurrence_room"))
+	private Room room;
+
+	private LocalDate date;
+	private LocalTime startTime;
+	private LocalTime endTime;
+	private int workplaceAmount;
+
+	/**
+	 * Constructor of the {@link ReservationOccurrence} class.
+	 *
+	 * @param reservation the {@link Reservation} that occurs.
+	 * @param date        date of the occurrence.
+	 */
+	public ReservationOccurrence(Reservation reservation, LocalDate date) {
+		this.reservation = reservation;
+		this.room = reservation.getRoom();
+		this.date = date;
+		this.startTime = reservation.getStartTime();
+		this.endTime = reservation.getEndTime();
+		this.workplaceAmount = reservation.getWorkplaceAmount();
+	}
+}
@@ -1,29 +1,35 @@
 package com.quintor.worqplace.domain;
 
 import com.quintor.worqplace.application.exceptions.WorkplacesNotAvailableException;
-import com.quintor.worqplace.application.util.DateTimeUtils;
 import com.quintor.worqplace.domain.exceptions.RoomNotAvailableException;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.lang.Nullable;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Room class, contains data regarding capacity and location.
+ * <p>
+ * Rooms are kept in the second-level cache, bookings load the room with a query so its
+ * version is always read from the database.
  *
  * @see Location
  * @see Reservation
  */
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Table(name = "room")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Room {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,9 +42,85 @@ public class Room {
 
 	private int capacity;
 
+	@Version
+	@Setter(AccessLevel.NONE)
+	private long version;
+
 	@OneToMany(mappedBy = "room")
+	@Getter(AccessLevel.NONE)
 	private List<Reservation> reservations;
 
+	@Transient
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private OccupancyIndex occupancyIndex;
+
+	@Transient
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private List<Reservation> indexedReservations;
+
+	/**
+	 * Constructor of the {@link Room} class.
+	 *
+	 * @param id           id of the room.
+	 * @param floor        floor the room is on.
+	 * @param location     {@link Location} of the room.
+	 * @param capacity     amount of workplaces in the room.
+	 * @param reservations {@link Reservation reservations} made for the room.
+	 */
+	public Room(Long id, int floor, Location location, int capacity, List<Reservation> reservations) {
+		this.id = id;
+		this.floor = floor;
+		this.location = location;
+		this.capacity = capacity;
+		this.reservations = reservations;
+	}
+
+	/**
+	 * Gets the reservations of the {@link Room}. The list can not be modified, reservations are
+	 * added with {@link #addReservation(Reservation)} and replaced with
+	 * {@link #updateReservation(Reservation, Reservation)} so the {@link OccupancyIndex} stays current.
+	 *
+	 * @return an unmodifiable view of the {@link Reservation reservations} made for the room.
+	 */
+	public List<Reservation> getReservations() {
+		return this.reservations == null ? null : Collections.unmodifiableList(this.reservations);
+	}
+
+	/**
+	 * Sets the reservations of the {@link Room} and discards the {@link OccupancyIndex} of the old ones.
+	 *
+	 * @param reservations {@link Reservation reservations} made for the room.
+	 */
+	public void setReservations(List<Reservation> reservations) {
+		this.reservations = reservations;
+		invalidateOccupancyIndex();
+	}
+
+	/**
+	 * Function that gets the {@link OccupancyIndex} of the reservations of this room. The index is
+	 * built lazily and rebuilt after it has been invalidated, or when the list of reservations has been
+	 * replaced without going through {@link #setReservations(List)}, like Hibernate does when it loads the room.
+	 *
+	 * @return the {@link OccupancyIndex} of this room.
+	 */
+	public OccupancyIndex getOccupancyIndex() {
+		if (this.occupancyIndex == null || this.indexedReservations != this.reservations) {
+			this.occupancyIndex = new OccupancyIndex(this.reservations);
+			this.indexedReservations = this.reservations;
+		}
+		return this.occupancyIndex;
+	}
+
+	/**
+	 * Function that discards the {@link OccupancyIndex} of this room, so it is rebuilt on its next use.
+	 * Called by every change of the reservations, including the setters of an indexed {@link Reservation}.
+	 */
+	void invalidateOccupancyIndex() {
+		this.occupancyIndex = null;
+	}
+
 	/**
 	 * Function that counts the amount of reserved workplaces during a specific timeslot.
 	 *
@@ -66,19 +148,7 @@ public class Room {
 	 * @return the amount of reserved workplaces.
 	 */
 	public int countReservedWorkplaces(LocalDate date, LocalTime startTime, LocalTime endTime, @Nullable Reservation excludedReservation) {
-		// If there are no reservations that need to be excluded it will just use the reservations.
-		var usedReservations = excludedReservation == null ? this.getReservations() :
-				this.getReservations().stream().filter(reservation ->
-						!reservation.getId().equals(excludedReservation.getId())).toList();
-
-		return usedReservations.stream().filter(reservation ->
-				reservation.isReservationActive(date) &&
-				(date.isAfter(reservation.getDate()) ||
-						date.isEqual(reservation.getDate())) &&
-						DateTimeUtils.timeslotsOverlap(reservation.getDate(),
-								reservation.getStartTime(), reservation.getEndTime(),
-								reservation.getRecurrence(), date, startTime, endTime))
-				.mapToInt(Reservation::getWorkplaceAmount).sum();
+		return getOccupancyIndex().countReservedWorkplaces(date, startTime, endTime, excludedReservation);
 	}
 
 	/**
@@ -93,40 +163,15 @@ public class Room {
 
 	/**
 	 * Function that checks if the requested amount of workplaces is available. Can also exclude reservations when given one.
+	 * Every occurrence of the reservation is checked with a {@link CapacitySweep}.
 	 *
 	 * @param oldReservation {@link Reservation} for which to check the availability if newReservation is null.
 	 * @param newReservation Reservation for which to check the availability.
 	 * @return a boolean indicating the availability.
 	 */
 	public boolean isWorkplaceRecurrentlyAvailable(Reservation oldReservation, @Nullable Reservation newReservation) {
-		var reservationsClone = new ArrayList<>(this.getReservations());
 		var reservationUsed = newReservation != null ? newReservation : oldReservation;
-		reservationsClone.remove(reservationUsed);
-		return !requestedAmountExceedsAvailableAmount(reservationUsed, reservationsClone);
-	}
-
-	/**
-	 * Function that gets all the overlapping reservations and then adds the workplaces to calculate how many free
-	 * ones are left. Bases on this returns if the requested amount exceeds the available amount.
-	 *
-	 * @param reservationUsed   {@link Reservation}
-	 * @param reservationsClone {@link Reservation}
-	 * @return if the requested amount exceeds the available amount of workplaces in that specific room.
-	 */
-	private boolean requestedAmountExceedsAvailableAmount(Reservation reservationUsed, ArrayList<Reservation> reservationsClone) {
-		var total = 0;
-
-		for (Reservation existingReservation : reservationsClone) {
-			if (!existingReservation.isReservationActive(reservationUsed.getDate())) continue;
-			var overlappingReservations = this.getReservationsThatOverlap(existingReservation, reservationsClone);
-
-			for (Reservation reservation : overlappingReservations)
-				total += DateTimeUtils.timeslotsOverlap(reservationUsed, reservation) ? reservation.getWorkplaceAmount() : 0;
-
-			if ((total + reservationUsed.getWorkplaceAmount()) > this.capacity) return true;
-			total = 0;
-		}
-		return false;
+		return !CapacitySweep.exceedsCapacity(reservationUsed, getOccupancyIndex(), this.capacity);
 	}
 
 	/**
@@ -143,9 +188,13 @@ public class Room {
 		if (!isWorkplaceRecurrentlyAvailable(reservation))
 			throw new RoomNotAvailableException();
 
+		var index = getOccupancyIndex();
 		var reservationsClone = new ArrayList<>(this.reservations);
 		reservationsClone.add(reservation);
-		this.setReservations(reservationsClone);
+		this.reservations = reservationsClone;
+
+		index.add(reservation);
+		this.indexedReservations = reservationsClone;
 	}
 
 	/**
@@ -161,45 +210,13 @@ public class Room {
 		if (wanted > available) throw new WorkplacesNotAvailableException(wanted, available);
 		if (!isWorkplaceRecurrentlyAvailable(oldReservation, newReservation)) throw new RoomNotAvailableException();
 
+		var index = getOccupancyIndex();
 		var reservationsClone = new ArrayList<>(this.reservations);
-		reservationsClone.remove(oldReservation);
+		if (reservationsClone.remove(oldReservation)) index.remove(oldReservation);
 		reservationsClone.add(newReservation);
-		this.setReservations(reservationsClone);
-	}
-
-	/**
-	 * Function that gets all reservations that overlap at the given date and between the given times.
-	 *
-	 * @param date         Date at which the overlapping reservations should be given.
-	 * @param startTime    start time of the timeslot at which overlapping reservations should be given.
-	 * @param endTime      end time of the timeslot at which overlapping reservations should be given.
-	 * @param reservations {@link Nullable} list of reservations is a certain list of reservations should be used, instead of the {@link Room#reservations} from the room.
-	 * @return List of reservations that are overlapping at the given date and times.
-	 */
-	public List<Reservation> getReservationsThatOverlap(LocalDate date,
-	                                                    LocalTime startTime, LocalTime endTime, @Nullable List<Reservation> reservations) {
-		var reservationList = reservations != null ? reservations : this.reservations;
-
-		return reservationList.stream()
-				.filter(reservation ->
-						DateTimeUtils.timeslotsOverlap(reservation.getDate(),
-								reservation.getStartTime(), reservation.getEndTime(),
-								reservation.getRecurrence(), date,
-								startTime, endTime)).toList();
-	}
-
-	/**
-	 * Function that gets all reservations that overlap with the given reservation.
-	 *
-	 * @param reservation  {@link Reservation} for finding already existing overlapping reservations with.
-	 * @param reservations {@link Nullable} List of reservations if a certain list of reservations should be used,
-	 *                     instead of the {@link Room#reservations} from the room.
-	 * @return List of reservations that are overlapping with the given reservation.
-	 */
-	public List<Reservation> getReservationsThatOverlap(Reservation reservation, @Nullable List<Reservation> reservations) {
-		List<Reservation> reservationList = reservations != null ? reservations : this.reservations;
+		this.reservations = reservationsClone;
 
-		return this.getReservationsThatOverlap(reservation.getDate(), reservation.getStartTime(),
-				reservation.getEndTime(), reservationList);
+		index.add(newReservation);
+		this.indexedReservations = reservationsClone;
 	}
 }
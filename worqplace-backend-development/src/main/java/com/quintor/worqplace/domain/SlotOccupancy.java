@@ -0,0 +1,100 @@
+package com.quintor.worqplace.domain;
+
+import java.time.LocalTime;
+
+/**
+ * Compact seat occupancy of a single {@link Room} on a single date.
+ * <p>
+ * The day is divided into {@link #SLOTS_PER_DAY} slots of {@link #SLOT_MINUTES} minutes.
+ * Because timeslots are inclusive, a reservation that ends at 10:00 and one that starts
+ * at 10:00 are in use at the same moment. The counters therefore alternate between the
+ * boundaries of the slots and the slots themselves: counter <code>2 * i</code> is the
+ * moment slot <code>i</code> starts and counter <code>2 * i + 1</code> is the inside of
+ * slot <code>i</code>. The reserved workplaces of a reservation are added to every counter
+ * it covers, so the peak during a timeslot is the highest counter in its range.
+ * <p>
+ * Only times on a slot boundary can be represented. An occupancy built from a reservation
+ * that does not fit is marked inexact and has to be replaced by an exact calculation,
+ * see {@link CapacitySweep}.
+ *
+ * @see OccupancyIndex
+ * @see CapacitySweep
+ */
+public class SlotOccupancy {
+	/**
+	 * Length of a slot in minutes.
+	 */
+	public static final int SLOT_MINUTES = 15;
+
+	/**
+	 * Amount of slots in a day.
+	 */
+	public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+	private final short[] counters = new short[2 * SLOTS_PER_DAY];
+	private boolean exact = true;
+
+	/**
+	 * Function that checks if a time is on a slot boundary.
+	 *
+	 * @param time the time to check.
+	 * @return whether the time can be represented by a {@link SlotOccupancy}.
+	 */
+	public static boolean isAligned(LocalTime time) {
+		return time.getMinute() % SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+	}
+
+	/**
+	 * Function that adds the reserved workplaces of a reservation to the occupancy. Marks the occupancy
+	 * as inexact when the times of the reservation are not on a slot boundary or the amount does not fit.
+	 *
+	 * @param startTime start time of the reservation.
+	 * @param endTime   end time of the reservation.
+	 * @param amount    amount of reserved workplaces.
+	 */
+	public void add(LocalTime startTime, LocalTime endTime, int amount) {
+		if (!exact) return;
+		if (!isAligned(startTime) || !isAligned(endTime)) {
+			exact = false;
+			return;
+		}
+
+		int last = counterOf(endTime);
+		for (int i = counterOf(startTime); i <= last; i++) {
+			int total = counters[i] + amount;
+			if (total > Short.MAX_VALUE) {
+				exact = false;
+				return;
+			}
+			counters[i] = (short) total;
+		}
+	}
+
+	/**
+	 * Function that gets the highest amount of workplaces reserved at the same moment during a timeslot.
+	 * Only gives the right result when the occupancy {@link #isExact() is exact} and both times are
+	 * {@link #isAligned(LocalTime) aligned}.
+	 *
+	 * @param startTime start time of the timeslot.
+	 * @param endTime   end time of the timeslot.
+	 * @return the peak amount of reserved workplaces.
+	 */
+	public int peak(LocalTime startTime, LocalTime endTime) {
+		int last = counterOf(endTime);
+		int peak = 0;
+		for (int i = counterOf(startTime); i <= last; i++)
+			peak = Math.max(peak, counters[i]);
+		return peak;
+	}
+
+	/**
+	 * @return whether every reservation added to the occupancy could be represented.
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+
+	private static int counterOf(LocalTime time) {
+		return 2 * (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+	}
+}
@@ -0,0 +1,56 @@
+package com.quintor.worqplace.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * The workplace minutes reserved in a {@link Room} during one hour of a past date, summed over every
+ * {@link Reservation} occurring in that hour. Rollups are only stored for hours in which something
+ * was reserved and are aggregated per room, floor or {@link Location} for capacity planning.
+ *
+ * @see com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob
+ * @see com.quintor.worqplace.application.UtilizationService UtilizationService
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "utilization_rollup", indexes = {
+		@Index(name = "idx_utilization_rollup_room_date", columnList = "room_id, date")
+})
+public class UtilizationRollup {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "room_id", foreignKey = @ForeignKey(name = "fk_utilization_rollup_room"))
+	private Room room;
+
+	private LocalDate date;
+
+	@Enumerated(EnumType.STRING)
+	private DayOfWeek dayOfWeek;
+
+	private int hourOfDay;
+	private long workplaceMinutes;
+
+	/**
+	 * Constructor of the {@link UtilizationRollup} class.
+	 *
+	 * @param room             the {@link Room}.
+	 * @param date             the date.
+	 * @param hourOfDay        the hour of the day, from 0 up to 23.
+	 * @param workplaceMinutes the reserved workplaces times the minutes they were reserved in the hour.
+	 */
+	public UtilizationRollup(Room room, LocalDate date, int hourOfDay, long workplaceMinutes) {
+		this.room = room;
+		this.date = date;
+		this.dayOfWeek = date.getDayOfWeek();
+		this.hourOfDay = hourOfDay;
+		this.workplaceMinutes = workplaceMinutes;
+	}
+}
@@ -0,0 +1,63 @@
+package com.quintor.worqplace.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDate;
+
+/**
+ * How far the {@link UtilizationRollup utilization rollups} of a {@link Location} are up to date. Every run
+ * rolls up the dates after the last rolled up date, plus the dates that changed since the last run.
+ *
+ * @see com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "utilization_rollup_state")
+public class UtilizationRollupState {
+	@Id
+	private Long locationId;
+
+	private LocalDate rolledUpUntil;
+	private LocalDate changedFrom;
+	private LocalDate changedUntil;
+
+	/**
+	 * Constructor of the {@link UtilizationRollupState} class, for a location that has not been rolled up.
+	 *
+	 * @param locationId id of the {@link Location}.
+	 */
+	public UtilizationRollupState(Long locationId) {
+		this.locationId = locationId;
+	}
+
+	/**
+	 * Function that records that the reservations between the two dates changed. Only dates that
+	 * have already been rolled up are recorded, later dates are rolled up by the next run anyway.
+	 *
+	 * @param from  first changed date, inclusive.
+	 * @param until last changed date, inclusive.
+	 */
+	public void markChanged(LocalDate from, LocalDate until) {
+		if (rolledUpUntil == null || from.isAfter(rolledUpUntil)) return;
+
+		var last = until.isAfter(rolledUpUntil) ? rolledUpUntil : until;
+		if (changedFrom == null || from.isBefore(changedFrom)) changedFrom = from;
+		if (changedUntil == null || last.isAfter(changedUntil)) changedUntil = last;
+	}
+
+	/**
+	 * Function that records a finished run, after which no rolled up date has changed.
+	 *
+	 * @param until last rolled up date.
+	 */
+	public void rolledUp(LocalDate until) {
+		this.rolledUpUntil = until;
+		this.changedFrom = null;
+		this.changedUntil = null;
+	}
+}
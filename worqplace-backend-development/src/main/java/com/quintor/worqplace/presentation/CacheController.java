@@ -0,0 +1,38 @@
+package com.quintor.worqplace.presentation;
+
+import com.quintor.worqplace.application.SecondLevelCacheService;
+import com.quintor.worqplace.application.util.CacheRegionStatistics;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.security.RolesAllowed;
+import java.util.List;
+
+/**
+ * Controller for the caches of the application, contains logic to get the statistics
+ * of the Hibernate second-level cache.
+ *
+ * @see SecondLevelCacheService
+ */
+@RestController
+@RequestMapping("/cache")
+@AllArgsConstructor
+public class CacheController {
+	private final SecondLevelCacheService secondLevelCacheService;
+
+	/**
+	 * Function that calls to the {@link SecondLevelCacheService} to get the statistics of every region
+	 * of the second-level cache.
+	 *
+	 * @return a ResponseEntity containing a list of {@link CacheRegionStatistics}.
+	 */
+	@RolesAllowed("ROLE_ADMIN")
+	@GetMapping("/statistics")
+	public ResponseEntity<List<CacheRegionStatistics>> getSecondLevelCacheStatistics() {
+		return new ResponseEntity<>(secondLevelCacheService.getStatistics(), HttpStatus.OK);
+	}
+}
@@ -1,23 +1,44 @@
 package com.quintor.worqplace.presentation;
 
 import com.quintor.worqplace.application.LocationService;
+import com.quintor.worqplace.application.OccupancyPublisher;
+import com.quintor.worqplace.application.RoomService;
+import com.quintor.worqplace.application.UtilizationService;
+import com.quintor.worqplace.application.exceptions.InvalidDateRangeException;
+import com.quintor.worqplace.application.exceptions.InvalidGranularityException;
+import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
+import com.quintor.worqplace.application.exceptions.LocationNotFoundException;
+import com.quintor.worqplace.application.util.DateTimeUtils;
+import com.quintor.worqplace.application.util.UtilizationLevel;
 import com.quintor.worqplace.presentation.dto.location.LocationDTO;
 import com.quintor.worqplace.presentation.dto.location.LocationMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.annotation.security.RolesAllowed;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Controller for {@link com.quintor.worqplace.domain.Location locations}, contains logic
- * to get all locations.
+ * to get all locations, the availability heatmap of a location, to follow its occupancy
+ * and to report its utilization.
  *
  * @see LocationService
+ * @see RoomService
+ * @see OccupancyPublisher
+ * @see UtilizationService
  * @see com.quintor.worqplace.domain.Location Location
  */
 @RestController
@@ -26,6 +47,9 @@ import java.util.stream.Collectors;
 public class LocationController {
 	private final LocationService locationService;
 	private final LocationMapper locationMapper;
+	private final RoomService roomService;
+	private final OccupancyPublisher occupancyPublisher;
+	private final UtilizationService utilizationService;
 
 	/**
 	 * Function that calls to the {@link LocationService} to get all
@@ -47,4 +71,80 @@ public class LocationController {
 				HttpStatus.OK
 		);
 	}
+
+	/**
+	 * Function that calls to the {@link RoomService} to get the amount of free workplaces
+	 * per {@link com.quintor.worqplace.domain.Room Room} at the given location, for every
+	 * time bucket of the given granularity between from and to.
+	 *
+	 * @param id          id of the location.
+	 * @param from        start of the heatmap.
+	 * @param to          end of the heatmap.
+	 * @param granularity length of a time bucket, e.g. 15m, 1h or PT30M.
+	 * @return a ResponseEntity containing an
+	 * {@link com.quintor.worqplace.application.util.AvailabilityHeatmap AvailabilityHeatmap}.
+	 */
+	@GetMapping("/{id}/heatmap")
+	public ResponseEntity<?> getAvailabilityHeatmap(
+			@PathVariable Long id,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(value = "granularity", defaultValue = "15m") String granularity) {
+		try {
+			return new ResponseEntity<>(roomService.getAvailabilityHeatmap(id, from, to,
+					DateTimeUtils.parseGranularity(granularity)), HttpStatus.OK);
+		} catch (InvalidStartAndEndTimeException | InvalidGranularityException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		}
+	}
+
+	/**
+	 * Function that lets the client follow the occupancy changes of a location as Server-Sent Events.
+	 * The stream starts with a <code>resync</code> event, after which the client loads the availability,
+	 * followed by <code>occupancy</code> events with the
+	 * {@link com.quintor.worqplace.application.util.OccupancyDelta deltas} of the changed timeslots.
+	 *
+	 * @param id id of the location.
+	 * @return a ResponseEntity containing the {@link SseEmitter} of the stream, or status 404 when the
+	 * location does not exist.
+	 * @see OccupancyPublisher
+	 */
+	@GetMapping(value = "/{id}/occupancy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamOccupancy(@PathVariable Long id) {
+		try {
+			locationService.getLocationById(id);
+			return new ResponseEntity<>(occupancyPublisher.subscribe(id), HttpStatus.OK);
+		} catch (LocationNotFoundException e) {
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		}
+	}
+
+	/**
+	 * Function that calls to the {@link UtilizationService} to get the utilization of a location
+	 * between two dates per day of the week and hour, as rolled up by the
+	 * {@link com.quintor.worqplace.application.UtilizationRollupJob UtilizationRollupJob}.
+	 *
+	 * @param id    id of the location.
+	 * @param from  first date, inclusive.
+	 * @param to    last date, inclusive.
+	 * @param level whether the utilization is aggregated per room, floor or location.
+	 * @return a ResponseEntity containing a list of
+	 * {@link com.quintor.worqplace.application.util.Utilization Utilizations}, or status 404 when
+	 * the location does not exist.
+	 */
+	@RolesAllowed("ROLE_ADMIN")
+	@GetMapping("/{id}/utilization")
+	public ResponseEntity<?> getUtilization(
+			@PathVariable Long id,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(value = "level", defaultValue = "ROOM") UtilizationLevel level) {
+		try {
+			return new ResponseEntity<>(utilizationService.getUtilization(id, from, to, level), HttpStatus.OK);
+		} catch (InvalidDateRangeException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		} catch (LocationNotFoundException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+		}
+	}
 }
@@ -0,0 +1,42 @@
+package com.quintor.worqplace.presentation;
+
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.security.filter.MetricsScrapeFilter;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.security.RolesAllowed;
+
+/**
+ * Controller for the metrics of the application, contains logic to scrape the timers,
+ * counters and gauges of the {@link MetricsRegistry} in the Prometheus text format. Only the
+ * Prometheus scraper can call it, with the credential of the {@link MetricsScrapeFilter}.
+ *
+ * @see MetricsRegistry
+ */
+@RestController
+@RequestMapping("/metrics")
+@AllArgsConstructor
+public class MetricsController {
+	/**
+	 * Content type of the Prometheus text format.
+	 */
+	public static final String PROMETHEUS_CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+	private final MetricsRegistry metricsRegistry;
+
+	/**
+	 * Function that calls to the {@link MetricsRegistry} to render every meter in the Prometheus text format.
+	 *
+	 * @return a ResponseEntity containing the rendered meters.
+	 */
+	@RolesAllowed(MetricsScrapeFilter.METRICS_ROLE)
+	@GetMapping(value = "/prometheus", produces = PROMETHEUS_CONTENT_TYPE)
+	public ResponseEntity<String> scrape() {
+		return new ResponseEntity<>(metricsRegistry.scrape(), HttpStatus.OK);
+	}
+}
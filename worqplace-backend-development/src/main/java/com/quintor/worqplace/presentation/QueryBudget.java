@@ -0,0 +1,31 @@
+package com.quintor.worqplace.presentation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum amount of SQL statements a request to the annotated endpoint may prepare, checked by the
+ * {@link QueryBudgetInterceptor}. Endpoints without this annotation get the default budget. An endpoint that
+ * handles a batch reports the size of the batch with
+ * {@link com.quintor.worqplace.data.QueryCounter#addItems(int) QueryCounter.addItems}, which raises its budget
+ * by {@link #perItem()} statements for every item.
+ *
+ * @see QueryBudgetInterceptor
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+	/**
+	 * @return the maximum amount of statements.
+	 */
+	int value();
+
+	/**
+	 * @return the amount of statements added to the budget for every item of a batch.
+	 */
+	int perItem() default 0;
+}
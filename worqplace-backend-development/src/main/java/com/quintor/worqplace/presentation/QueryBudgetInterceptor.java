@@ -0,0 +1,154 @@
+package com.quintor.worqplace.presentation;
+
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.application.util.QueryCount;
+import com.quintor.worqplace.data.QueryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor that counts the SQL statements and JDBC time of every request to a controller with the
+ * {@link QueryCounter}, and compares the statements with the {@link QueryBudget} of the endpoint once the
+ * request has completed. A request over its budget is logged, counted by the {@link MetricsRegistry} and
+ * kept per endpoint, so the integration tests can fail on an N+1 select without a broken response.
+ * <p>
+ * Asynchronous requests are counted across their threads. The count is stopped before the callable is
+ * submitted and kept in a request attribute. It is resumed in preProcess, on the thread that produces the
+ * response, as this interceptor is also registered as {@link CallableProcessingInterceptor}. It is resumed
+ * again for the dispatch that completes the request.
+ * <p>
+ * The count of the last request to every endpoint is kept as well, so tests can assert on it.
+ *
+ * @see QueryBudget
+ * @see QueryCounter
+ */
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+	/**
+	 * Name of the counter of the requests over their budget, tagged by endpoint.
+	 */
+	public static final String EXCEEDED_COUNTER = "worqplace.query.budget.exceeded";
+
+	private static final String COUNT_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".count";
+
+	private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+	private final MetricsRegistry metricsRegistry;
+	private final int defaultBudget;
+	private final ConcurrentMap<String, QueryCount> lastQueryCounts = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, QueryCount> exceededQueryCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor of the {@link QueryBudgetInterceptor} class.
+	 *
+	 * @param metricsRegistry registry of the counter of the requests over their budget.
+	 * @param defaultBudget   budget of the endpoints without a {@link QueryBudget}.
+	 */
+	public QueryBudgetInterceptor(MetricsRegistry metricsRegistry,
+	                              @Value("${query.budget.default-statements:10}") int defaultBudget) {
+		this.metricsRegistry = metricsRegistry;
+		this.defaultBudget = defaultBudget;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod method)) return true;
+
+		if (request.getAttribute(COUNT_ATTRIBUTE) instanceof QueryCount count) {
+			QueryCounter.resume(count);
+		} else {
+			var budget = method.getMethodAnnotation(QueryBudget.class);
+			if (budget == null) QueryCounter.start(defaultBudget);
+			else QueryCounter.start(budget.value(), budget.perItem());
+		}
+		return true;
+	}
+
+	@Override
+	public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+		request.setAttribute(COUNT_ATTRIBUTE, QueryCounter.stop(), RequestAttributes.SCOPE_REQUEST);
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+	                                           Object handler) {
+		if (handler instanceof HandlerMethod && request.getAttribute(COUNT_ATTRIBUTE) == null)
+			request.setAttribute(COUNT_ATTRIBUTE, QueryCounter.stop());
+	}
+
+	@Override
+	public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+		if (request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof QueryCount count)
+			QueryCounter.resume(count);
+	}
+
+	@Override
+	public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+		if (request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null)
+			request.setAttribute(COUNT_ATTRIBUTE, QueryCounter.stop(), RequestAttributes.SCOPE_REQUEST);
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+	                            Exception ex) {
+		if (!(handler instanceof HandlerMethod)) return;
+
+		var count = QueryCounter.stop();
+		request.removeAttribute(COUNT_ATTRIBUTE);
+		var endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		lastQueryCounts.put(endpoint, count);
+
+		int budget = count.budget();
+		if (count.statements() > budget) {
+			exceededQueryCounts.put(endpoint, count);
+			metricsRegistry.increment(EXCEEDED_COUNTER, "endpoint", endpoint);
+			log.warn("{} prepared {} SQL statements in {} ms, its budget is {}", endpoint, count.statements(),
+					TimeUnit.NANOSECONDS.toMillis(count.jdbcNanos()), budget);
+		}
+	}
+
+	/**
+	 * Function that gets the {@link QueryCount} of the last completed request to an endpoint.
+	 *
+	 * @param endpoint the HTTP method and path pattern, such as <code>GET /rooms/{id}</code>.
+	 * @return the {@link QueryCount}, empty when the endpoint has not been requested.
+	 */
+	public Optional<QueryCount> getLastQueryCount(String endpoint) {
+		return Optional.ofNullable(lastQueryCounts.get(endpoint));
+	}
+
+	/**
+	 * Function that gets the {@link QueryCount} of the last request over its budget, per endpoint.
+	 *
+	 * @return the {@link QueryCount counts} by HTTP method and path pattern, empty when no request
+	 * exceeded its budget since the counts were last cleared.
+	 */
+	public Map<String, QueryCount> getExceededQueryCounts() {
+		return Map.copyOf(exceededQueryCounts);
+	}
+
+	/**
+	 * Function that clears the kept {@link QueryCount counts} of every endpoint.
+	 */
+	public void clearQueryCounts() {
+		lastQueryCounts.clear();
+		exceededQueryCounts.clear();
+	}
+}
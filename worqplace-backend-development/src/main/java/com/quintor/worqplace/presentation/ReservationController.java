@@ -1,41 +1,48 @@
 package com.quintor.worqplace.presentation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quintor.worqplace.application.ReservationService;
+import com.quintor.worqplace.application.exceptions.BookingConflictException;
+import com.quintor.worqplace.application.exceptions.InvalidBatchSizeException;
 import com.quintor.worqplace.application.exceptions.InvalidDayException;
 import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
 import com.quintor.worqplace.application.exceptions.ReservationNotFoundException;
 import com.quintor.worqplace.application.exceptions.WorkplacesNotAvailableException;
+import com.quintor.worqplace.application.util.BatchMode;
+import com.quintor.worqplace.application.util.BatchReservationResult;
+import com.quintor.worqplace.data.QueryCounter;
 import com.quintor.worqplace.domain.exceptions.RoomNotAvailableException;
 import com.quintor.worqplace.presentation.dto.reservation.AdminReservationDTO;
 import com.quintor.worqplace.presentation.dto.reservation.AdminReservationMapper;
+import com.quintor.worqplace.presentation.dto.reservation.AdminReservationPageDTO;
+import com.quintor.worqplace.presentation.dto.reservation.BatchReservationDTO;
+import com.quintor.worqplace.presentation.dto.reservation.BatchReservationResultMapper;
 import com.quintor.worqplace.presentation.dto.reservation.ReservationDTO;
 import com.quintor.worqplace.presentation.dto.reservation.ReservationMapper;
+import com.quintor.worqplace.security.data.UserProfile;
 import com.quintor.worqplace.security.data.UserRoles;
 import lombok.AllArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.security.RolesAllowed;
-import javax.servlet.FilterChain;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.Objects.requireNonNull;
-
 /**
  * Controller for {@link com.quintor.worqplace.domain.Reservation reservations}, contains
  * logic for getting all/specific reservations and reserving
@@ -51,30 +58,13 @@ import static java.util.Objects.requireNonNull;
 // methods with a catch clause need generic wildcard return type as it can be the DTO or en error message e.g.
 @SuppressWarnings("java:S1452")
 public class ReservationController {
+	private static final String NDJSON = "application/x-ndjson";
+
 	private final ReservationService reservationService;
 	private final ReservationMapper reservationMapper;
 	private final AdminReservationMapper adminReservationMapper;
-
-	/**
-	 * Function that takes the subject from the jwt token.
-	 * The subject is the employeeId as set in de {@link com.quintor.worqplace.security.filter.JwtAuthenticationFilter#successfulAuthentication(HttpServletRequest, HttpServletResponse, FilterChain, Authentication)}
-	 *
-	 * @param token JW token with "Bearer " still in front of it.
-	 * @return Employee ID of that is embedded in the token.
-	 */
-	private static long extractIdFromToken(String token) {
-		//Strip the "Bearer "
-		var bearToken = token.split(" ")[1].split("\\.");
-
-		var decoder = Base64.getDecoder();
-
-		//header would be: jwChunks[0]
-		var payload = new String(decoder.decode(bearToken[1]));
-
-		var employeeId = payload.substring(payload.indexOf("sub\":") + 6).split("\"")[0];
-
-		return Long.decode(employeeId);
-	}
+	private final BatchReservationResultMapper batchReservationResultMapper;
+	private final ObjectMapper objectMapper;
 
 	/**
 	 * Function that retrieves all Authorities (c.q. roles) from the current user.
@@ -96,6 +86,7 @@ public class ReservationController {
 	 * @return a ResponseEntity containing a list of
 	 * {@link com.quintor.worqplace.presentation.dto.reservation.ReservationDTO ReservationDTOs}.
 	 */
+	@QueryBudget(3)
 	@GetMapping
 	public ResponseEntity<List<ReservationDTO>> getAllReservations(@RequestParam(required = false) boolean includeOld) {
 		return new ResponseEntity<>(
@@ -119,6 +110,7 @@ public class ReservationController {
 	 * @see ReservationService
 	 * @see com.quintor.worqplace.domain.Reservation Reservation
 	 */
+	@QueryBudget(3)
 	@GetMapping("/{id}")
 	public ResponseEntity<?> getReservationById(@PathVariable long id) {
 		try {
@@ -138,15 +130,17 @@ public class ReservationController {
 	 * room} and then maps the return value to a {@link ReservationDTO}.
 	 *
 	 * @param reservationDTO DTO containing information about the reservation.
+	 * @param user           the {@link UserProfile} of the current user, carries the employee id.
 	 * @return a ResponseEntity containing a {@link ReservationDTO}.
 	 * @see ReservationService
 	 * @see com.quintor.worqplace.domain.Reservation Reservation
 	 */
+	@QueryBudget(6)
 	@PostMapping("/workplaces")
-	public ResponseEntity<?> reserveWorkplaces(@RequestBody ReservationDTO reservationDTO) {
+	public ResponseEntity<?> reserveWorkplaces(@RequestBody ReservationDTO reservationDTO,
+	                                           @AuthenticationPrincipal UserProfile user) {
 		try {
-			String jwt = getAuthorization();
-			reservationDTO.setEmployeeId(extractIdFromToken(jwt));
+			reservationDTO.setEmployeeId(user.getEmployeeId());
 
 			return new ResponseEntity<>(
 					reservationMapper.toReservationDTO(reservationService.reserveWorkplaces(reservationDTO)),
@@ -155,6 +149,8 @@ public class ReservationController {
 		} catch (WorkplacesNotAvailableException | RoomNotAvailableException |
 				InvalidStartAndEndTimeException | InvalidDayException e) {
 			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		} catch (BookingConflictException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
 		}
 	}
 
@@ -165,16 +161,18 @@ public class ReservationController {
 	 * return value to a {@link ReservationDTO}.
 	 *
 	 * @param reservationDTO DTO containing information about the reservation.
+	 * @param user           the {@link UserProfile} of the current user, carries the employee id.
 	 * @return a ResponseEntity containing a {@link ReservationDTO}.
 	 * @see ReservationService
 	 * @see com.quintor.worqplace.domain.Reservation Reservation
 	 * @see com.quintor.worqplace.domain.Room Room
 	 */
+	@QueryBudget(6)
 	@PostMapping("/rooms")
-	public ResponseEntity<?> reserveRoom(@RequestBody ReservationDTO reservationDTO) {
+	public ResponseEntity<?> reserveRoom(@RequestBody ReservationDTO reservationDTO,
+	                                     @AuthenticationPrincipal UserProfile user) {
 		try {
-			String jwt = getAuthorization();
-			reservationDTO.setEmployeeId(extractIdFromToken(jwt));
+			reservationDTO.setEmployeeId(user.getEmployeeId());
 
 			return new ResponseEntity<>(
 					reservationMapper.toReservationDTO(reservationService.reserveRoom(reservationDTO)),
@@ -183,6 +181,60 @@ public class ReservationController {
 		} catch (RoomNotAvailableException | WorkplacesNotAvailableException |
 				InvalidStartAndEndTimeException | InvalidDayException e) {
 			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		} catch (BookingConflictException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+
+	/**
+	 * Function that calls to the {@link ReservationService} to create a batch of
+	 * {@link com.quintor.worqplace.domain.Reservation reservations} at once, for example for
+	 * a whole team or a series of dates. Reservations without an employee id are made for the
+	 * current user, only admins may make reservations for other employees. The {@link QueryBudget} grows
+	 * with the size of the batch, as every item can name another employee and room.
+	 *
+	 * @param batchReservationDTO DTO containing the reservations and the {@link BatchMode}.
+	 * @param user                the {@link UserProfile} of the current user, carries the employee id.
+	 * @return a ResponseEntity containing the outcome of every reservation, with status 201 when
+	 * all reservations were created, 207 when some were and 422 when none were. Status 403 when
+	 * a user who is not an admin makes a reservation for another employee.
+	 * @see ReservationService#reserveBatch(List, BatchMode)
+	 */
+	@QueryBudget(value = 4, perItem = 2)
+	@PostMapping("/batch")
+	public ResponseEntity<?> reserveBatch(@RequestBody BatchReservationDTO batchReservationDTO,
+	                                      @AuthenticationPrincipal UserProfile user) {
+		try {
+			var employeeId = user.getEmployeeId();
+			var reservations = Objects.requireNonNullElse(batchReservationDTO.getReservations(),
+					List.<ReservationDTO>of());
+			var mode = Objects.requireNonNullElse(batchReservationDTO.getMode(), BatchMode.ALL_OR_NOTHING);
+			QueryCounter.addItems(reservations.size());
+			if (!isAdmin() && reservations.stream().anyMatch(reservationDTO ->
+					reservationDTO.getEmployeeId() != null && !reservationDTO.getEmployeeId().equals(employeeId)))
+				return new ResponseEntity<>("You cannot make reservations for others.", HttpStatus.FORBIDDEN);
+
+			reservations.stream()
+					.filter(reservationDTO -> reservationDTO.getEmployeeId() == null)
+					.forEach(reservationDTO -> reservationDTO.setEmployeeId(employeeId));
+
+			var results = reservationService.reserveBatch(reservations, mode);
+			long created = results.stream().filter(BatchReservationResult::isCreated).count();
+			HttpStatus status;
+			if (created == results.size()) status = HttpStatus.CREATED;
+			else if (created == 0) status = HttpStatus.UNPROCESSABLE_ENTITY;
+			else status = HttpStatus.MULTI_STATUS;
+
+			return new ResponseEntity<>(
+					results.stream()
+							.map(batchReservationResultMapper::toBatchReservationResultDTO)
+							.toList(),
+					status
+			);
+		} catch (InvalidBatchSizeException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		} catch (BookingConflictException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
 		}
 	}
 
@@ -193,22 +245,23 @@ public class ReservationController {
 	 * {@link com.quintor.worqplace.presentation.dto.reservation.ReservationDTO
 	 * ReservationDTOs}.
 	 *
+	 * @param user the {@link UserProfile} of the current user, carries the employee id.
 	 * @return a ResponseEntity containing a list of
 	 * {@link com.quintor.worqplace.presentation.dto.reservation.ReservationDTO
 	 * ReservationDTOs}.
 	 */
+	@QueryBudget(3)
 	@GetMapping("/all")
-	public ResponseEntity<List<ReservationDTO>> getAllMyReservations(@RequestParam(required = false) Long location,
+	public ResponseEntity<List<ReservationDTO>> getAllMyReservations(@AuthenticationPrincipal UserProfile user,
+	                                                                 @RequestParam(required = false) Long location,
 	                                                                 @RequestParam(required = false)
 	                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
 			                                                                 LocalDate date) {
-		String jwt = getAuthorization();
-		var id = extractIdFromToken(jwt);
 		return new ResponseEntity<>(
 				reservationService
-						.getAllMyReservations(id, location, date)
+						.getAllMyReservations(user.getEmployeeId(), location, date)
 						.stream()
-						.map(reservationMapper::toReservationDTO)
+						.map(reservationMapper::summaryToReservationDTO)
 						.collect(Collectors.toList()),
 				HttpStatus.OK
 		);
@@ -221,6 +274,7 @@ public class ReservationController {
 	 * @return List of {@link ReservationDTO}
 	 */
 	@RolesAllowed("ROLE_ADMIN")
+	@QueryBudget(3)
 	@GetMapping("/location/{id}")
 	public ResponseEntity<List<AdminReservationDTO>> getAllByLocation(@PathVariable long id) {
 		return new ResponseEntity<>(
@@ -233,18 +287,73 @@ public class ReservationController {
 		);
 	}
 
+	/**
+	 * Function that retrieves a page of the reservations at the given location, ordered by id.
+	 * The next page is requested with the nextAfter value of the current page.
+	 *
+	 * @param id    locationId
+	 * @param after id of the last reservation of the previous page, leave out for the first page.
+	 * @param size  maximum amount of reservations in the page.
+	 * @return an {@link AdminReservationPageDTO} with the reservations and the cursor of the next page,
+	 * the cursor is null on the last page.
+	 * @see ReservationService#getPageByLocation(Long, Long, int)
+	 */
+	@RolesAllowed("ROLE_ADMIN")
+	@QueryBudget(3)
+	@GetMapping("/location/{id}/page")
+	public ResponseEntity<AdminReservationPageDTO> getPageByLocation(@PathVariable long id,
+	                                                                 @RequestParam(required = false) Long after,
+	                                                                 @RequestParam(defaultValue = "100") int size) {
+		var reservations = reservationService.getPageByLocation(id, after, size).stream()
+				.map(adminReservationMapper::toAdminReservationDTO)
+				.toList();
+		var nextAfter = reservations.size() < ReservationService.pageSizeOf(size)
+				? null
+				: reservations.get(reservations.size() - 1).getId();
+
+		return new ResponseEntity<>(new AdminReservationPageDTO(reservations, nextAfter), HttpStatus.OK);
+	}
+
+	/**
+	 * Function that streams all reservations at the given location as newline delimited JSON, one
+	 * {@link AdminReservationDTO} per line, ordered by id. The reservations are written while they are
+	 * read from the database, so the memory use does not depend on the amount of reservations. The
+	 * statements of the streaming body count towards the {@link QueryBudget} of the request.
+	 *
+	 * @param id locationId
+	 * @return a ResponseEntity writing the reservations to the response body.
+	 * @see ReservationService#streamAllByLocation(Long, java.util.function.Consumer)
+	 */
+	@RolesAllowed("ROLE_ADMIN")
+	@QueryBudget(2)
+	@GetMapping(value = "/location/{id}/stream", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> streamAllByLocation(@PathVariable long id) {
+		StreamingResponseBody body = outputStream -> reservationService.streamAllByLocation(id, reservation -> {
+			try {
+				outputStream.write(objectMapper.writeValueAsBytes(adminReservationMapper.toAdminReservationDTO(reservation)));
+				outputStream.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+	}
+
 	/**
 	 * Function that deletes a singular reservation by calling to the {@link ReservationService} to delete
 	 * {@link com.quintor.worqplace.domain.Reservation reservation} by id
 	 *
+	 * @param id   id of the reservation.
+	 * @param user the {@link UserProfile} of the current user, carries the employee id.
 	 * @return a ResponseEntity containing the id of the deleted
 	 * {@link com.quintor.worqplace.domain.Reservation reservation}
 	 */
+	@QueryBudget(5)
 	@PostMapping("/delete/{id}")
-	public ResponseEntity<?> deleteById(@PathVariable long id) {
+	public ResponseEntity<?> deleteById(@PathVariable long id, @AuthenticationPrincipal UserProfile user) {
 		try {
-			var jwt = getAuthorization();
-			var employeeId = extractIdFromToken(jwt);
+			var employeeId = user.getEmployeeId();
 
 			if (!reservationService.reservationFromEmployee(id, employeeId))
 				return new ResponseEntity<>("Reservation was not made by this employee", HttpStatus.FORBIDDEN);
@@ -262,13 +371,15 @@ public class ReservationController {
 	 * change reservations of others.
 	 *
 	 * @param reservationDTO {@link ReservationDTO}
+	 * @param user           the {@link UserProfile} of the current user, carries the employee id.
 	 * @return Whether the update could be performed successfully, if not, a small explanation will be given.
 	 */
+	@QueryBudget(10)
 	@PostMapping("/update")
-	public ResponseEntity<?> updateReservation(@RequestBody ReservationDTO reservationDTO) {
+	public ResponseEntity<?> updateReservation(@RequestBody ReservationDTO reservationDTO,
+	                                           @AuthenticationPrincipal UserProfile user) {
 		try {
-			var jwt = getAuthorization();
-			var employeeId = extractIdFromToken(jwt);
+			var employeeId = user.getEmployeeId();
 
 			if (!isAdmin() && !reservationService.reservationFromEmployee(reservationDTO.getId(), employeeId))
 				return new ResponseEntity<>("You cannot alter the reservation of others.",
@@ -283,16 +394,6 @@ public class ReservationController {
 		}
 	}
 
-	/**
-	 * Function that gets the authorization header from the received request.
-	 *
-	 * @return Bearer token.
-	 */
-	private String getAuthorization() {
-		return ((ServletRequestAttributes) requireNonNull(RequestContextHolder.getRequestAttributes()))
-				.getRequest().getHeader("Authorization");
-	}
-
 	/**
 	 * Function that checks if the current user is an admin.
 	 *
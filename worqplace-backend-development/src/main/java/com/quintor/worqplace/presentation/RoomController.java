@@ -1,6 +1,7 @@
 package com.quintor.worqplace.presentation;
 
 import com.quintor.worqplace.application.RoomService;
+import com.quintor.worqplace.application.exceptions.InvalidDateRangeException;
 import com.quintor.worqplace.application.exceptions.InvalidDayException;
 import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
 import com.quintor.worqplace.domain.RecurrencePattern;
@@ -13,8 +14,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Set;
 
 /**
  * Controller for {@link com.quintor.worqplace.domain.Room rooms}, contains
@@ -43,6 +46,7 @@ public class RoomController {
 	 * @return a ResponseEntity containing a
 	 * {@link com.quintor.worqplace.application.util.RoomAvailability}.
 	 */
+	@QueryBudget(3)
 	@GetMapping("/availability")
 	public ResponseEntity<?> getRoomsAvailability(
 			@RequestParam("locationId") Long locationId,
@@ -70,6 +74,7 @@ public class RoomController {
 	 * @return a ResponseEntity containing a
 	 * {@link com.quintor.worqplace.application.util.RoomAvailability}.
 	 */
+	@QueryBudget(3)
 	@GetMapping("/availability/workplaces")
 	public ResponseEntity<?> getWorkplacesAvailability(
 			@RequestParam("locationId") Long locationId,
@@ -87,4 +92,68 @@ public class RoomController {
 			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
 		}
 	}
+
+	/**
+	 * Function that calls to the {@link RoomService} to get the available workplaces per room
+	 * during a timeslot, for every day of a date range at once.
+	 *
+	 * @param locationId id of the {@link com.quintor.worqplace.domain.Location Location}.
+	 * @param from       first date of the range.
+	 * @param to         last date of the range.
+	 * @param startTime  start time on every day.
+	 * @param endTime    end time on every day.
+	 * @param weekdays   the days of the week to include, all days if absent.
+	 * @return a ResponseEntity containing a list of
+	 * {@link com.quintor.worqplace.application.util.RoomRangeAvailability RoomRangeAvailabilities}.
+	 */
+	@QueryBudget(3)
+	@GetMapping("/availability/range")
+	public ResponseEntity<?> getWorkplacesAvailabilityBetween(
+			@RequestParam("locationId") Long locationId,
+			@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+			@RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+			@RequestParam(value = "weekdays", required = false) Set<DayOfWeek> weekdays) {
+		try {
+			return new ResponseEntity<>(
+					roomService.getWorkplaceAvailabilityBetween(locationId, from, to, startTime, endTime, weekdays),
+					HttpStatus.OK
+			);
+		} catch (InvalidDayException | InvalidStartAndEndTimeException | InvalidDateRangeException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		}
+	}
+
+	/**
+	 * Function that calls to the {@link RoomService} to suggest alternatives for a timeslot,
+	 * at other times, on other floors or at other locations.
+	 *
+	 * @param locationId        id of the {@link com.quintor.worqplace.domain.Location Location}.
+	 * @param date              date of the timeslot.
+	 * @param startTime         start time on the chosen date.
+	 * @param endTime           end time on the chosen date.
+	 * @param amount            requested amount of workplaces.
+	 * @param recurrencePattern requested {@link RecurrencePattern}.
+	 * @return a ResponseEntity containing a list of
+	 * {@link com.quintor.worqplace.application.util.RoomSuggestion RoomSuggestions}, best first.
+	 */
+	@QueryBudget(30)
+	@GetMapping("/availability/suggestions")
+	public ResponseEntity<?> getSuggestions(
+			@RequestParam("locationId") Long locationId,
+			@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			@RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+			@RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+			@RequestParam(value = "amount", required = false) Integer amount,
+			@RequestParam(value = "recurrencePattern", required = false) RecurrencePattern recurrencePattern) {
+		try {
+			return new ResponseEntity<>(
+					roomService.suggestAlternatives(locationId, date, startTime, endTime, amount, recurrencePattern),
+					HttpStatus.OK
+			);
+		} catch (InvalidDayException | InvalidStartAndEndTimeException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+		}
+	}
 }
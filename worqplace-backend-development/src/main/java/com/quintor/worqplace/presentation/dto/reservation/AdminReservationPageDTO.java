@@ -0,0 +1,19 @@
+package com.quintor.worqplace.presentation.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminReservationPageDTO {
+	private List<AdminReservationDTO> reservations;
+	@Nullable
+	private Long nextAfter;
+}
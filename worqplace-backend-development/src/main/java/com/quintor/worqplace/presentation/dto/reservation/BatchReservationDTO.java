@@ -0,0 +1,15 @@
+package com.quintor.worqplace.presentation.dto.reservation;
+
+import com.quintor.worqplace.application.util.BatchMode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchReservationDTO {
+	private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+	private List<ReservationDTO> reservations = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.quintor.worqplace.presentation.dto.reservation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.lang.Nullable;
+
+@Getter
+@Setter
+public class BatchReservationResultDTO {
+	private int index;
+	private boolean created;
+	@Nullable
+	private ReservationDTO reservation;
+	@Nullable
+	private String error;
+}
@@ -0,0 +1,18 @@
+package com.quintor.worqplace.presentation.dto.reservation;
+
+import com.quintor.worqplace.application.util.BatchReservationResult;
+import com.quintor.worqplace.domain.Reservation;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(componentModel = "spring")
+public interface BatchReservationResultMapper {
+	BatchReservationResultMapper INSTANCE = Mappers.getMapper(BatchReservationResultMapper.class);
+
+	BatchReservationResultDTO toBatchReservationResultDTO(BatchReservationResult result);
+
+	@Mapping(source = "employee.id", target = "employeeId")
+	@Mapping(source = "room.id", target = "roomId")
+	ReservationDTO toReservationDTO(Reservation reservation);
+}
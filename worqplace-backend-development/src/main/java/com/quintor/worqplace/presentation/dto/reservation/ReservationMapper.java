@@ -1,5 +1,6 @@
 package com.quintor.worqplace.presentation.dto.reservation;
 
+import com.quintor.worqplace.application.util.ReservationSummary;
 import com.quintor.worqplace.domain.Reservation;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -12,4 +13,6 @@ public interface ReservationMapper {
 	@Mapping(source = "employee.id", target = "employeeId")
 	@Mapping(source = "room.id", target = "roomId")
 	ReservationDTO toReservationDTO(Reservation reservation);
+
+	ReservationDTO summaryToReservationDTO(ReservationSummary reservationSummary);
 }
@@ -1,7 +1,9 @@
 package com.quintor.worqplace.security;
 
+import com.quintor.worqplace.application.MetricsRegistry;
 import com.quintor.worqplace.security.filter.JwtAuthenticationFilter;
 import com.quintor.worqplace.security.filter.JwtAuthorizationFilter;
+import com.quintor.worqplace.security.filter.MetricsScrapeFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpMethod;
@@ -13,16 +15,20 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
+
 /**
  * This class configures authentication and authorisation
  * for the application.
  * <p>
  * The configure method
  * - permits all POSTs to the registration and login endpoints
+ * - only lets the Prometheus scraper, with its own credential, read the metrics
  * - requires all requests other URLs to be authenticated
  * - sets up JWT-based authentication and authorisation
  * - enforces sessions to be stateless (see: REST)
@@ -34,6 +40,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(securedEnabled = true)
 public class SpringSecurityConfiguration extends WebSecurityConfigurerAdapter {
+	private static final String SCRAPE_PATH = "/metrics/prometheus";
+
 	@Value("${uri.login-path}")
 	public String loginPath;
 	@Value("${uri.register-path}")
@@ -45,6 +53,26 @@ public class SpringSecurityConfiguration extends WebSecurityConfigurerAdapter {
 	@Value("${security.jwt.expiration-in-ms}")
 	private Integer jwtExpirationInMs;
 
+	@Value("${security.jwt.cache.maximum-size:10000}")
+	private Integer jwtCacheMaximumSize;
+
+	@Value("${metrics.prometheus.username:prometheus}")
+	private String scrapeUsername;
+
+	@Value("${metrics.prometheus.password:}")
+	private String scrapePassword;
+
+	private final MetricsRegistry metricsRegistry;
+
+	/**
+	 * Constructor of the {@link SpringSecurityConfiguration} class.
+	 *
+	 * @param metricsRegistry registry the {@link JwtAuthorizationFilter} records its verifications in.
+	 */
+	public SpringSecurityConfiguration(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
 	/**
 	 * Configure authorization for endpoints.
 	 *
@@ -59,6 +87,7 @@ public class SpringSecurityConfiguration extends WebSecurityConfigurerAdapter {
 				.antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 				.antMatchers(HttpMethod.POST, registerPath).permitAll()
 				.antMatchers(HttpMethod.POST, loginPath).permitAll()
+				.antMatchers(SCRAPE_PATH).hasAuthority(MetricsScrapeFilter.METRICS_ROLE)
 				.anyRequest().authenticated()
 				.and()
 				.addFilterBefore(
@@ -70,7 +99,11 @@ public class SpringSecurityConfiguration extends WebSecurityConfigurerAdapter {
 						),
 						UsernamePasswordAuthenticationFilter.class
 				)
-				.addFilter(new JwtAuthorizationFilter(this.jwtSecret, this.authenticationManager()))
+				.addFilter(new JwtAuthorizationFilter(this.jwtSecret, this.jwtCacheMaximumSize,
+						Duration.ofMillis(this.jwtExpirationInMs), this.authenticationManager(),
+						this.metricsRegistry))
+				.addFilterBefore(new MetricsScrapeFilter(SCRAPE_PATH, this.scrapeUsername, this.scrapePassword),
+						BasicAuthenticationFilter.class)
 				.sessionManagement()
 				.sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
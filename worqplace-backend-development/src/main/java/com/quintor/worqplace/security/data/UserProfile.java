@@ -11,14 +11,18 @@ import lombok.Getter;
  */
 @Getter
 public class UserProfile {
-	private String username;
+	private final String username;
+	private final Long employeeId;
 
 	/**
 	 * Constructor of the {@link UserProfile} class.
 	 *
-	 * @param username username
+	 * @param username   username
+	 * @param employeeId id of the {@link com.quintor.worqplace.domain.Employee employee} the verified token
+	 *                   was issued to.
 	 */
-	public UserProfile(String username) {
+	public UserProfile(String username, Long employeeId) {
 		this.username = username;
+		this.employeeId = employeeId;
 	}
 }
@@ -1,9 +1,10 @@
 package com.quintor.worqplace.security.filter;
 
 
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.application.util.BoundedCache;
 import com.quintor.worqplace.security.data.UserProfile;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,31 +19,65 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.List;
 
 /**
  * Tries to authorize a user, based on the Bearer token (JWT) from
  * the Authorization header of the incoming request.
+ * <p>
+ * The parser and signing key are built once. The principal and authorities of verified tokens are
+ * cached by the SHA-256 hash of the token until it expires, so a client polling with the same token is
+ * only verified once. Every request gets a new {@link UsernamePasswordAuthenticationToken}. Verifications
+ * are timed by the {@link MetricsRegistry}, requests answered from the cache are counted.
  */
 public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
-	private final String secret;
+	private static final String BEARER = "Bearer ";
+
+	/**
+	 * Name of the timer of the token verifications, tagged by outcome.
+	 */
+	public static final String VERIFICATION_TIMER = "worqplace.jwt.verification";
+
+	/**
+	 * Name of the counter of the tokens found in the cache.
+	 */
+	public static final String CACHED_COUNTER = "worqplace.jwt.cached";
+
+	private final JwtParser jwtParser;
+	private final Duration maxTokenLifetime;
+	private final BoundedCache<ByteBuffer, VerifiedToken> verifiedTokens;
+	private final MetricsRegistry metricsRegistry;
 
 	/**
 	 * Constructor of the {@link JwtAuthorizationFilter} class that extends {@link BasicAuthenticationFilter}.
 	 *
 	 * @param secret                Secret.
+	 * @param cacheSize             maximum amount of cached tokens.
+	 * @param maxTokenLifetime      longest time a token is cached.
 	 * @param authenticationManager {@link AuthenticationManager} object.
+	 * @param metricsRegistry       registry of the verification timer.
 	 */
-	public JwtAuthorizationFilter(String secret, AuthenticationManager authenticationManager) {
+	public JwtAuthorizationFilter(String secret, int cacheSize, Duration maxTokenLifetime,
+	                              AuthenticationManager authenticationManager, MetricsRegistry metricsRegistry) {
 		super(authenticationManager);
-		this.secret = secret;
+		this.jwtParser = Jwts.parserBuilder()
+				.setSigningKey(secret.getBytes())
+				.build();
+		this.maxTokenLifetime = maxTokenLifetime;
+		this.verifiedTokens = new BoundedCache<>(cacheSize, maxTokenLifetime);
+		this.metricsRegistry = metricsRegistry;
 	}
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
 	                                FilterChain filterChain) throws IOException, ServletException {
 
-		Authentication authentication = this.getAuthentication(request);
+		Authentication authentication = this.getAuthentication(request.getHeader("Authorization"));
 
 		if (authentication != null)
 			SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -51,32 +86,36 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 	}
 
 	/**
-	 * Authentication getter that verifies the token, creates a key and parses the JWT.
-	 * Then creates an {@link UsernamePasswordAuthenticationToken} with the verified and given credentials.
+	 * Authentication getter that gets the verified token from the cache, or verifies and parses the JWT.
+	 * Then creates an {@link UsernamePasswordAuthenticationToken} with the verified and given credentials,
+	 * which is cached until the token expires.
 	 *
-	 * @param request {@link HttpServletRequest}.
+	 * @param header the Authorization header of the request.
 	 * @return {@link Authentication} object.
 	 */
-	private Authentication getAuthentication(HttpServletRequest request) {
-		String token = request.getHeader("Authorization");
-
-		if (token == null || token.isEmpty() || !token.startsWith("Bearer "))
+	public Authentication getAuthentication(String header) {
+		if (header == null || !header.startsWith(BEARER))
 			return null;
 
-		byte[] signingKey = this.secret.getBytes();
+		String token = header.substring(BEARER.length());
+		var key = ByteBuffer.wrap(hash(token));
+		var cached = verifiedTokens.get(key);
+		if (cached != null) {
+			metricsRegistry.increment(CACHED_COUNTER);
+			return cached.toAuthentication();
+		}
 
-		JwtParser jwtParser = Jwts.parserBuilder()
-				.setSigningKey(signingKey)
-				.build();
+		return metricsRegistry.time(VERIFICATION_TIMER, () -> verify(token, key));
+	}
 
-		Jws<Claims> parsedToken = jwtParser
-				.parseClaimsJws(token.replace("Bearer ", ""));
+	private Authentication verify(String token, ByteBuffer key) {
+		Claims claims = jwtParser
+				.parseClaimsJws(token)
+				.getBody();
 
-		var username = parsedToken
-				.getBody()
-				.getSubject();
+		var username = claims.getSubject();
 
-		var authorities = ((List<?>) parsedToken.getBody().get("role"))
+		var authorities = ((List<?>) claims.get("role"))
 				.stream()
 				.map(authority -> new SimpleGrantedAuthority((String) authority))
 				.toList();
@@ -84,8 +123,32 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 		if (username.isEmpty())
 			return null;
 
-		UserProfile principal = new UserProfile(username);
+		// The subject is the employee id, as set by the JwtAuthenticationFilter
+		var verified = new VerifiedToken(new UserProfile(username, Long.valueOf(username)), authorities);
+
+		if (claims.getExpiration() != null) {
+			var lifetime = Duration.ofMillis(claims.getExpiration().getTime() - System.currentTimeMillis());
+			verifiedTokens.put(key, verified,
+					lifetime.compareTo(maxTokenLifetime) < 0 ? lifetime : maxTokenLifetime);
+		}
+		return verified.toAuthentication();
+	}
+
+	private static byte[] hash(String token) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available.", e);
+		}
+	}
 
-		return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+	/**
+	 * The immutable result of verifying a token. Every request gets its own
+	 * {@link UsernamePasswordAuthenticationToken}, which is mutable and must not be shared.
+	 */
+	private record VerifiedToken(UserProfile principal, List<SimpleGrantedAuthority> authorities) {
+		private Authentication toAuthentication() {
+			return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+		}
 	}
 }
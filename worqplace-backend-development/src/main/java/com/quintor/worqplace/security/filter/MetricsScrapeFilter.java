@@ -0,0 +1,94 @@
+package com.quintor.worqplace.security.filter;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Authenticates the Prometheus scraper with its own credential, taken from the Basic Authorization
+ * header of the requests to the scrape path. The scraper gets the {@link #METRICS_ROLE} only, so it cannot
+ * call any other endpoint, and the scrape path does not accept the JWT of a user.
+ * <p>
+ * The credential is compared in constant time. Without a configured password the filter does nothing, so
+ * the scrape path cannot be reached at all.
+ *
+ * @see com.quintor.worqplace.presentation.MetricsController MetricsController
+ */
+public class MetricsScrapeFilter extends OncePerRequestFilter {
+	private static final String BASIC = "Basic ";
+
+	/**
+	 * Role of the Prometheus scraper.
+	 */
+	public static final String METRICS_ROLE = "ROLE_METRICS";
+
+	private final String scrapePath;
+	private final byte[] credential;
+
+	/**
+	 * Constructor of the {@link MetricsScrapeFilter} class.
+	 *
+	 * @param scrapePath path of the scrape endpoint.
+	 * @param username   username of the scraper.
+	 * @param password   password of the scraper, the filter is disabled when it is empty.
+	 */
+	public MetricsScrapeFilter(String scrapePath, String username, String password) {
+		this.scrapePath = scrapePath;
+		this.credential = password.isEmpty() ? null
+				: (username + ":" + password).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return credential == null || !scrapePath.equals(request.getServletPath());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+	                                FilterChain filterChain) throws IOException, ServletException {
+		Authentication authentication = this.getAuthentication(request.getHeader("Authorization"));
+
+		if (authentication != null)
+			SecurityContextHolder.getContext().setAuthentication(authentication);
+
+		filterChain.doFilter(request, response);
+	}
+
+	/**
+	 * Authentication getter that compares the Basic credential of the header with the one of the scraper.
+	 *
+	 * @param header the Authorization header of the request.
+	 * @return {@link Authentication} object with the {@link #METRICS_ROLE}, or null when the credential
+	 * is missing or does not match.
+	 */
+	public Authentication getAuthentication(String header) {
+		if (credential == null || header == null || !header.startsWith(BASIC))
+			return null;
+
+		byte[] given;
+		try {
+			given = Base64.getDecoder().decode(header.substring(BASIC.length()));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+
+		if (!MessageDigest.isEqual(credential, given))
+			return null;
+
+		var username = new String(given, StandardCharsets.UTF_8);
+		return new UsernamePasswordAuthenticationToken(username.substring(0, username.indexOf(':')), null,
+				List.of(new SimpleGrantedAuthority(METRICS_ROLE)));
+	}
+}
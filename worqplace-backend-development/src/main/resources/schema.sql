@@ -39,6 +39,7 @@ create table room
     capacity    int    not null,
     floor       int    not null,
     location_id bigint null,
+    version     bigint not null default 0,
     constraint FKrqejnp96gs9ldf7o6fciylxkt
         foreign key (location_id) references location (id)
 );
@@ -61,6 +62,79 @@ create table reservation
         foreign key (employee_id) references employee (id)
 );
 
+create index idx_reservation_employee_date
+    on reservation (employee_id, date);
+
+create index idx_reservation_room_date
+    on reservation (room_id, date);
+
+create table reservation_archive
+(
+    id                 bigint       not null
+        primary key,
+    date               date         null,
+    end_time           time         null,
+    active             bit          not null,
+    recurrence_pattern varchar(255) not null,
+    start_time         time         null,
+    workplace_amount   int          not null,
+    employee_id        bigint       null,
+    room_id            bigint       null,
+    constraint fk_reservation_archive_room
+        foreign key (room_id) references room (id),
+    constraint fk_reservation_archive_employee
+        foreign key (employee_id) references employee (id)
+);
+
+create index idx_reservation_archive_employee_date
+    on reservation_archive (employee_id, date);
+
+create table reservation_occurrence
+(
+    id               bigint auto_increment
+        primary key,
+    date             date   null,
+    end_time         time   null,
+    start_time       time   null,
+    workplace_amount int    not null,
+    reservation_id   bigint null,
+    room_id          bigint null,
+    constraint uk_reservation_occurrence_reservation_date
+        unique (reservation_id, date),
+    constraint fk_reservation_occurrence_reservation
+        foreign key (reservation_id) references reservation (id) on delete cascade,
+    constraint fk_reservation_occurrence_room
+        foreign key (room_id) references room (id)
+);
+
+create index idx_reservation_occurrence_room_date
+    on reservation_occurrence (room_id, date);
+
+create table utilization_rollup
+(
+    id                bigint auto_increment
+        primary key,
+    date              date         null,
+    day_of_week       varchar(255) null,
+    hour_of_day       int          not null,
+    workplace_minutes bigint       not null,
+    room_id           bigint       null,
+    constraint fk_utilization_rollup_room
+        foreign key (room_id) references room (id)
+);
+
+create index idx_utilization_rollup_room_date
+    on utilization_rollup (room_id, date);
+
+create table utilization_rollup_state
+(
+    location_id     bigint not null
+        primary key,
+    changed_from    date   null,
+    changed_until   date   null,
+    rolled_up_until date   null
+);
+
 create table users
 (
     id          bigint       not null
@@ -0,0 +1,36 @@
+package com.quintor.worqplace;
+
+import com.quintor.worqplace.presentation.QueryBudgetInterceptor;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Extension for the integration tests that call the endpoints. Before every test it evicts the
+ * second-level cache and clears the kept query counts, so the counts do not depend on the tests that
+ * ran before. After every test it fails when a request prepared more statements than its query budget.
+ *
+ * @see QueryBudgetInterceptor
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+	@Override
+	public void beforeEach(ExtensionContext context) {
+		var applicationContext = SpringExtension.getApplicationContext(context);
+		applicationContext.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+				.getCache().evictAllRegions();
+		applicationContext.getBean(QueryBudgetInterceptor.class).clearQueryCounts();
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		var exceeded = SpringExtension.getApplicationContext(context).getBean(QueryBudgetInterceptor.class)
+				.getExceededQueryCounts();
+		assertTrue(exceeded.isEmpty(), () -> "Requests over their query budget: " + exceeded);
+	}
+}
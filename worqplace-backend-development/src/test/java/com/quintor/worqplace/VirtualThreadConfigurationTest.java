@@ -0,0 +1,98 @@
+package com.quintor.worqplace;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class VirtualThreadConfigurationTest {
+	@AfterEach
+	void tearDown() {
+		System.clearProperty(VirtualThreadConfiguration.PARALLELISM_PROPERTY);
+	}
+
+	@Test
+	@DisplayName("configureCarrierThreads() should keep the processors as carrier threads for a smaller pool")
+	void configureCarrierThreadsShouldKeepProcessorsForSmallerPool() {
+		var properties = new Properties();
+
+		assertEquals(16, VirtualThreadConfiguration.configureCarrierThreads(properties, 10, 16));
+		assertEquals("16", properties.getProperty(VirtualThreadConfiguration.PARALLELISM_PROPERTY));
+	}
+
+	@Test
+	@DisplayName("configureCarrierThreads() should raise the carrier threads above a pool that can pin them all")
+	void configureCarrierThreadsShouldRaiseParallelismAbovePool() {
+		var properties = new Properties();
+
+		assertEquals(17, VirtualThreadConfiguration.configureCarrierThreads(properties, 16, 16));
+		assertEquals("17", properties.getProperty(VirtualThreadConfiguration.PARALLELISM_PROPERTY));
+	}
+
+	@Test
+	@DisplayName("configureCarrierThreads() should keep a configured parallelism above the pool size")
+	void configureCarrierThreadsShouldKeepConfiguredParallelism() {
+		var properties = new Properties();
+		properties.setProperty(VirtualThreadConfiguration.PARALLELISM_PROPERTY, "32");
+
+		assertEquals(32, VirtualThreadConfiguration.configureCarrierThreads(properties, 10, 4));
+	}
+
+	@Test
+	@DisplayName("configureCarrierThreads() should fail when the pool can pin every configured carrier thread")
+	void configureCarrierThreadsShouldFailForConfiguredParallelismWithinPool() {
+		var properties = new Properties();
+		properties.setProperty(VirtualThreadConfiguration.PARALLELISM_PROPERTY, "16");
+
+		assertThrows(IllegalStateException.class,
+				() -> VirtualThreadConfiguration.configureCarrierThreads(properties, 16, 32));
+	}
+
+	@Test
+	@DisplayName("constructor should fail with a pool larger than the carrier threads can be")
+	void constructorShouldFailWithTooLargePool() {
+		assertThrows(IllegalStateException.class, () -> new VirtualThreadConfiguration(Integer.MAX_VALUE));
+		assertNull(System.getProperty(VirtualThreadConfiguration.PARALLELISM_PROPERTY));
+	}
+
+	@Test
+	@DisplayName("newVirtualThreadExecutor() should fail before Java 21")
+	void newVirtualThreadExecutorShouldFailBeforeJava21() {
+		assumeTrue(Runtime.version().feature() < 21);
+
+		assertThrows(IllegalStateException.class, VirtualThreadConfiguration::newVirtualThreadExecutor);
+	}
+
+	@Test
+	@DisplayName("applicationTaskExecutor() should run tasks from Java 21")
+	void applicationTaskExecutorShouldRunTasksFromJava21() throws Exception {
+		assumeTrue(Runtime.version().feature() >= 21);
+		var configuration = new VirtualThreadConfiguration(0);
+
+		assertEquals(1, configuration.applicationTaskExecutor().submit(() -> 1).get());
+	}
+
+	@Test
+	@DisplayName("virtualThreadProtocolHandlerCustomizer() should set the executor of Tomcat")
+	@SuppressWarnings("unchecked")
+	void protocolHandlerCustomizerShouldSetExecutor() {
+		var configuration = new VirtualThreadConfiguration(0);
+		var executor = mock(Executor.class);
+		var protocolHandler = mock(ProtocolHandler.class);
+
+		var customizer = (TomcatProtocolHandlerCustomizer<ProtocolHandler>)
+				configuration.virtualThreadProtocolHandlerCustomizer(executor);
+		customizer.customize(protocolHandler);
+
+		verify(protocolHandler).setExecutor(executor);
+	}
+}
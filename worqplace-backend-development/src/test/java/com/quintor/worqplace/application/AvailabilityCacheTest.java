@@ -0,0 +1,146 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.AvailabilityChange;
+import com.quintor.worqplace.application.util.AvailabilityKey;
+import com.quintor.worqplace.application.util.RoomAvailability;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCacheTest {
+	private static final LocalDate DATE = LocalDate.now().plusDays(7);
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static final LocalTime TEN = LocalTime.of(10, 0);
+
+	private AvailabilityCache availabilityCache;
+	private Room room;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void initialize() {
+		this.availabilityCache = new AvailabilityCache(100, 60);
+		var location = new Location(1L, "QuintorTest", null, List.of());
+		this.room = new Room(1L, 1, location, 15, Collections.emptyList());
+		this.loads = new AtomicInteger();
+	}
+
+	@Test
+	@DisplayName("get should only calculate a query once and count hits and misses")
+	void getShouldCalculateQueryOnce() {
+		var key = key(1L, DATE, NINE, TEN, RecurrencePattern.NONE);
+
+		get(key);
+		var result = get(key);
+
+		assertEquals(1, loads.get());
+		assertEquals(1, result.size());
+		assertThrows(UnsupportedOperationException.class, () -> result.add(result.get(0)));
+		var statistics = availabilityCache.getStatistics();
+		assertEquals(1, statistics.hits());
+		assertEquals(1, statistics.misses());
+		assertEquals(0.5, statistics.hitRate());
+	}
+
+	@Test
+	@DisplayName("invalidateAfterCommit should only remove the queries the reservation changes")
+	void invalidateShouldOnlyRemoveAffectedQueries() {
+		var affected = key(1L, DATE, LocalTime.of(9, 30), LocalTime.of(11, 0), RecurrencePattern.NONE);
+		var otherDate = key(1L, DATE.plusDays(1), NINE, TEN, RecurrencePattern.NONE);
+		var otherTime = key(1L, DATE, LocalTime.of(11, 0), LocalTime.of(12, 0), RecurrencePattern.NONE);
+		var otherLocation = key(2L, DATE, NINE, TEN, RecurrencePattern.NONE);
+		var recurring = key(1L, DATE.minusDays(3), NINE, TEN, RecurrencePattern.WEEKLY);
+		List.of(affected, otherDate, otherTime, otherLocation, recurring).forEach(this::get);
+
+		availabilityCache.invalidateAfterCommit(reservation(DATE, new Recurrence(false, RecurrencePattern.NONE)));
+		List.of(affected, otherDate, otherTime, otherLocation, recurring).forEach(this::get);
+
+		assertEquals(7, loads.get());
+		assertEquals(2, availabilityCache.getStatistics().invalidations());
+	}
+
+	@Test
+	@DisplayName("invalidateAfterCommit should remove the later occurrences of a recurring reservation")
+	void invalidateShouldRemoveLaterOccurrencesOfRecurringReservation() {
+		var nextWeek = key(1L, DATE.plusWeeks(1), NINE, TEN, RecurrencePattern.NONE);
+		var weekBefore = key(1L, DATE.minusWeeks(1), NINE, TEN, RecurrencePattern.NONE);
+		var otherDay = key(1L, DATE.plusDays(1), NINE, TEN, RecurrencePattern.NONE);
+		List.of(nextWeek, weekBefore, otherDay).forEach(this::get);
+
+		availabilityCache.invalidateAfterCommit(reservation(DATE, new Recurrence(true, RecurrencePattern.WEEKLY)));
+
+		assertEquals(1, availabilityCache.getStatistics().invalidations());
+		assertEquals(2, availabilityCache.getStatistics().size());
+	}
+
+	@Test
+	@DisplayName("get should not cache a result calculated while the location was invalidated")
+	void getShouldNotCacheResultCalculatedDuringInvalidation() {
+		var key = key(1L, DATE, NINE, TEN, RecurrencePattern.NONE);
+
+		availabilityCache.get(key, () -> {
+			availabilityCache.invalidate(AvailabilityChange.of(reservation(DATE.plusDays(1),
+					new Recurrence(false, RecurrencePattern.NONE))));
+			return List.of();
+		});
+
+		assertEquals(0, availabilityCache.getStatistics().size());
+	}
+
+	@Test
+	@DisplayName("invalidate should remove the affected queries of every location when the location is unknown")
+	void invalidateShouldRemoveQueriesOfEveryLocationWhenLocationIsUnknown() {
+		var first = key(1L, DATE, NINE, TEN, RecurrencePattern.NONE);
+		var second = key(2L, DATE, NINE, TEN, RecurrencePattern.NONE);
+		var otherDate = key(2L, DATE.plusDays(1), NINE, TEN, RecurrencePattern.NONE);
+		List.of(first, second, otherDate).forEach(this::get);
+
+		availabilityCache.invalidate(new AvailabilityChange(null, DATE, NINE, TEN,
+				new Recurrence(false, RecurrencePattern.NONE)));
+
+		assertEquals(2, availabilityCache.getStatistics().invalidations());
+		assertEquals(1, availabilityCache.getStatistics().size());
+	}
+
+	@Test
+	@DisplayName("invalidate should only count the queries that were still cached")
+	void invalidateShouldOnlyCountCachedQueries() {
+		var smallCache = new AvailabilityCache(10, 60);
+		for (int hour = 0; hour < 20; hour++) {
+			var key = key(1L, DATE, LocalTime.of(hour, 0), LocalTime.of(hour, 30), RecurrencePattern.NONE);
+			smallCache.get(key, List::of);
+		}
+		int cached = smallCache.getStatistics().size();
+
+		smallCache.invalidate(new AvailabilityChange(1L, DATE, LocalTime.MIN, LocalTime.MAX,
+				new Recurrence(false, RecurrencePattern.NONE)));
+
+		assertEquals(cached, smallCache.getStatistics().invalidations());
+		assertEquals(0, smallCache.getStatistics().size());
+	}
+
+	private List<RoomAvailability> get(AvailabilityKey key) {
+		return availabilityCache.get(key, () -> {
+			loads.incrementAndGet();
+			return List.of(new RoomAvailability(1L, 1, 15, 15));
+		});
+	}
+
+	private Reservation reservation(LocalDate date, Recurrence recurrence) {
+		return new Reservation(1L, date, NINE, TEN, null, room, 1, recurrence, true);
+	}
+
+	private static AvailabilityKey key(Long locationId, LocalDate date, LocalTime startTime, LocalTime endTime,
+	                                   RecurrencePattern recurrencePattern) {
+		return new AvailabilityKey(AvailabilityKey.Query.WORKPLACES, locationId, date, startTime, endTime,
+				recurrencePattern, 1);
+	}
+}
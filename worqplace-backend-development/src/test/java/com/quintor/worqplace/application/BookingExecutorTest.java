@@ -0,0 +1,100 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.exceptions.BookingConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingExecutorTest {
+	private BookingExecutor bookingExecutor;
+	private AtomicInteger attempts;
+
+	@BeforeEach
+	void initialize() {
+		this.bookingExecutor = new BookingExecutor(TransactionOperations.withoutTransaction(), 3, 1, 2);
+		this.attempts = new AtomicInteger();
+	}
+
+	@AfterEach
+	void clearInterrupt() {
+		Thread.interrupted();
+	}
+
+	@Test
+	@DisplayName("execute() should return the result of the booking")
+	void executeShouldReturnResult() {
+		assertEquals("booked", bookingExecutor.execute(() -> {
+			attempts.incrementAndGet();
+			return "booked";
+		}));
+		assertEquals(1, attempts.get());
+	}
+
+	@Test
+	@DisplayName("execute() should retry the booking when it conflicts")
+	void executeShouldRetryOnConflict() {
+		var result = bookingExecutor.execute(() -> {
+			if (attempts.incrementAndGet() == 1)
+				throw new ObjectOptimisticLockingFailureException("Room", 1L);
+			if (attempts.get() == 2)
+				throw new OptimisticLockException();
+			return attempts.get();
+		});
+
+		assertEquals(3, result);
+	}
+
+	@Test
+	@DisplayName("execute() should throw BookingConflictException when every attempt conflicts")
+	void executeShouldThrowWhenAttemptsAreExhausted() {
+		assertThrows(BookingConflictException.class, () -> bookingExecutor.execute(() -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockException();
+		}));
+		assertEquals(3, attempts.get());
+	}
+
+	@Test
+	@DisplayName("execute() should not retry other exceptions")
+	void executeShouldNotRetryOtherExceptions() {
+		assertThrows(IllegalStateException.class, () -> bookingExecutor.execute(() -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException();
+		}));
+		assertEquals(1, attempts.get());
+	}
+
+	@Test
+	@DisplayName("execute() should stop retrying when the thread is interrupted")
+	void executeShouldStopWhenInterrupted() {
+		Thread.currentThread().interrupt();
+
+		assertThrows(BookingConflictException.class, () -> bookingExecutor.execute(() -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockException();
+		}));
+		assertEquals(1, attempts.get());
+		assertTrue(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	@DisplayName("execute() should not wait without a backoff")
+	void executeShouldNotWaitWithoutBackoff() {
+		var executor = new BookingExecutor(TransactionOperations.withoutTransaction(), 2, 0, 0);
+		Thread.currentThread().interrupt();
+
+		assertThrows(BookingConflictException.class, () -> executor.execute(() -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockException();
+		}));
+		assertEquals(2, attempts.get());
+	}
+}
@@ -0,0 +1,145 @@
+package com.quintor.worqplace.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingLockManagerTest {
+	private BookingLockManager lockManager;
+
+	@BeforeEach
+	void initialize() {
+		this.lockManager = new BookingLockManager(1024);
+	}
+
+	@Test
+	@DisplayName("BookingLockManager should not accept a non-positive amount of stripes")
+	void constructorShouldThrowWithoutStripes() {
+		assertThrows(IllegalArgumentException.class, () -> new BookingLockManager(0));
+	}
+
+	@Test
+	@DisplayName("withRoomLocks() should return the result of the booking")
+	void withRoomLocksShouldReturnResult() {
+		assertEquals("booked", lockManager.withRoomLocks(() -> "booked", 1L));
+		assertEquals(1, lockManager.getStatistics().acquisitions());
+		assertEquals(0, lockManager.getStatistics().contendedAcquisitions());
+	}
+
+	@Test
+	@DisplayName("withRoomLocks() should lock a stripe once when rooms share it")
+	void withRoomLocksShouldLockSharedStripeOnce() {
+		var single = new BookingLockManager(1);
+
+		assertEquals(1, single.withRoomLocks(() -> 1, 1L, 2L, null));
+		assertEquals(1, single.getStatistics().acquisitions());
+	}
+
+	@Test
+	@DisplayName("withRoomLocks() should release the locks when the booking fails")
+	void withRoomLocksShouldReleaseOnException() throws Exception {
+		assertThrows(IllegalStateException.class, () -> lockManager.withRoomLocks(() -> {
+			throw new IllegalStateException();
+		}, 1L));
+
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			assertEquals(1, executor.submit(() -> lockManager.withRoomLocks(() -> 1, 1L)).get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("withRoomLocks() should serialize bookings of the same room and record the waits")
+	void withRoomLocksShouldSerializeSameRoom() throws Exception {
+		var active = new AtomicInteger();
+		var maxActive = new AtomicInteger();
+
+		runConcurrently(16, 50, i -> lockManager.withRoomLocks(() -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			Thread.onSpinWait();
+			return active.decrementAndGet();
+		}, 7L));
+
+		var statistics = lockManager.getStatistics();
+		assertEquals(1, maxActive.get());
+		assertEquals(800, statistics.acquisitions());
+		assertTrue(statistics.maxWaitNanos() <= statistics.totalWaitNanos());
+		assertTrue(statistics.averageWaitNanos() <= statistics.maxWaitNanos());
+	}
+
+	@Test
+	@DisplayName("withRoomLocks() should run bookings of different rooms in parallel")
+	void withRoomLocksShouldNotBlockOtherRooms() throws Exception {
+		var inside = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var executor = Executors.newSingleThreadExecutor();
+
+		try {
+			var holder = executor.submit(() -> lockManager.withRoomLocks(() -> {
+				inside.countDown();
+				return await(release);
+			}, 1L));
+			assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+			assertNotEquals(lockManager.stripeOf(1L), lockManager.stripeOf(2L));
+			assertEquals(2, lockManager.withRoomLocks(() -> 2, 2L));
+
+			release.countDown();
+			assertTrue(holder.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("withRoomLocks() should not deadlock when rooms are locked in a different order")
+	void withRoomLocksShouldNotDeadlock() throws Exception {
+		runConcurrently(8, 200, i -> i % 2 == 0
+				? lockManager.withRoomLocks(() -> i, 1L, 2L)
+				: lockManager.withRoomLocks(() -> i, 2L, 1L));
+
+		assertEquals(8 * 200 * 2, lockManager.getStatistics().acquisitions());
+	}
+
+	@Test
+	@DisplayName("averageWaitNanos() should be 0 without contention")
+	void averageWaitShouldBeZeroWithoutContention() {
+		assertEquals(0, lockManager.getStatistics().averageWaitNanos());
+	}
+
+	private void runConcurrently(int threads, int bookingsPerThread, IntFunction<?> booking) throws Exception {
+		var executor = Executors.newFixedThreadPool(threads);
+		var futures = new ArrayList<Future<?>>();
+
+		try {
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < bookingsPerThread; i++)
+						booking.apply(i);
+				}));
+			}
+			for (var future : futures)
+				future.get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static boolean await(CountDownLatch latch) {
+		try {
+			return latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.domain.exceptions.RoomNotAvailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+	private MetricsRegistry metricsRegistry;
+
+	@BeforeEach
+	void initialize() {
+		this.metricsRegistry = new MetricsRegistry();
+	}
+
+	@Test
+	@DisplayName("time should tag the timer with the outcome of the action")
+	void timeShouldTagOutcome() {
+		assertEquals("result", metricsRegistry.time("booking", () -> "result", "location", "5"));
+		assertThrows(RoomNotAvailableException.class, () -> metricsRegistry.time("booking", () -> {
+			throw new RoomNotAvailableException();
+		}, "location", "5"));
+
+		assertEquals(1, metricsRegistry.timer("booking", "location", "5", MetricsRegistry.OUTCOME,
+				MetricsRegistry.ACCEPTED).count());
+		assertEquals(1, metricsRegistry.timer("booking", "location", "5", MetricsRegistry.OUTCOME,
+				"RoomNotAvailableException").count());
+	}
+
+	@Test
+	@DisplayName("scrape should render timers as summaries with percentiles in seconds")
+	void scrapeShouldRenderTimersAsSummaries() {
+		metricsRegistry.describe("worqplace.booking", "Bookings.");
+		metricsRegistry.timer("worqplace.booking", "location", "5").record(2_000_000_000L);
+
+		var scrape = metricsRegistry.scrape();
+
+		assertTrue(scrape.contains("# HELP worqplace_booking_seconds Bookings.\n"));
+		assertTrue(scrape.contains("# TYPE worqplace_booking_seconds summary\n"));
+		assertTrue(scrape.contains("worqplace_booking_seconds{location=\"5\",quantile=\"0.99\"} 2\n"));
+		assertTrue(scrape.contains("worqplace_booking_seconds_count{location=\"5\"} 1\n"));
+		assertTrue(scrape.contains("worqplace_booking_seconds_sum{location=\"5\"} 2\n"));
+		assertTrue(scrape.contains("# TYPE worqplace_booking_seconds_max gauge\n"));
+		assertTrue(scrape.contains("worqplace_booking_seconds_max{location=\"5\"} 2\n"));
+	}
+
+	@Test
+	@DisplayName("scrape should render counters with a total suffix and gauges with their current value")
+	void scrapeShouldRenderCountersAndGauges() {
+		metricsRegistry.time("jwt", () -> { }, "path", "a\"b");
+		metricsRegistry.increment("jwt.cached");
+		metricsRegistry.increment("jwt.cached");
+		metricsRegistry.functionCounter("hibernate.statements", () -> 7);
+		metricsRegistry.gauge("cache.size", () -> 0.25);
+
+		var scrape = metricsRegistry.scrape();
+
+		assertTrue(scrape.contains("# TYPE jwt_cached_total counter\njwt_cached_total 2\n"));
+		assertTrue(scrape.contains("hibernate_statements_total 7\n"));
+		assertTrue(scrape.contains("# TYPE cache_size gauge\ncache_size 0.25\n"));
+		assertTrue(scrape.contains("jwt_seconds_count{path=\"a\\\"b\",outcome=\"accepted\"} 1\n"));
+	}
+
+	@Test
+	@DisplayName("meters should reject a key without value and a name that is used by another type")
+	void metersShouldRejectInvalidRegistrations() {
+		metricsRegistry.increment("bookings");
+
+		assertThrows(IllegalArgumentException.class, () -> metricsRegistry.increment("bookings", "location"));
+		assertThrows(IllegalArgumentException.class, () -> metricsRegistry.timer("bookings"));
+		assertThrows(IllegalArgumentException.class, () -> metricsRegistry.functionCounter("bookings", () -> 1));
+	}
+}
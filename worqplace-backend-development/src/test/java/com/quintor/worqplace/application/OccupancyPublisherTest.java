@@ -0,0 +1,195 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.OccupancyDelta;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OccupancyPublisherTest {
+	private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+	private List<Runnable> tasks;
+	private OccupancyPublisher publisher;
+	private Room room;
+	private SseEmitter emitter;
+
+	@BeforeEach
+	void initialize() {
+		this.tasks = new ArrayList<>();
+		this.publisher = new OccupancyPublisher(tasks::add, 2, 1000);
+		this.room = new Room(1L, 1, new Location(5L, "Quintor", null, List.of()), 10, List.of());
+		this.emitter = mock(SseEmitter.class);
+		publisher.subscribe(5L, emitter);
+	}
+
+	@Test
+	@DisplayName("subscribe() should start the stream with a resync event")
+	void subscribeShouldStartWithResync() throws IOException {
+		assertEquals(List.of(OccupancyPublisher.RESYNC_EVENT), flushEvents());
+		assertEquals(List.of(), flushEvents());
+	}
+
+	@Test
+	@DisplayName("flush() should coalesce the changes of the same timeslot into one delta")
+	void flushShouldCoalesceChangesOfSameTimeslot() throws IOException {
+		flushEvents();
+
+		publisher.reservedAfterCommit(reservation(LocalTime.of(9, 0), 2));
+		publisher.reservedAfterCommit(reservation(LocalTime.of(9, 0), 3));
+		publisher.reservedAfterCommit(reservation(LocalTime.of(11, 0), 1));
+		publisher.releasedAfterCommit(reservation(LocalTime.of(11, 0), 1));
+
+		var deltas = flushDeltas();
+		assertEquals(List.of(new OccupancyDelta(1L, DATE, LocalTime.of(9, 0), LocalTime.of(10, 0),
+				RecurrencePattern.NONE, 5)), deltas);
+	}
+
+	@Test
+	@DisplayName("flush() should not send changes of other locations")
+	void flushShouldNotSendOtherLocations() throws IOException {
+		flushEvents();
+		room.setLocation(new Location(6L, "Other", null, List.of()));
+
+		publisher.reservedAfterCommit(reservation(LocalTime.of(9, 0), 2));
+		room.setLocation(null);
+		publisher.reservedAfterCommit(reservation(LocalTime.of(9, 0), 2));
+
+		assertEquals(List.of(), flushEvents());
+	}
+
+	@Test
+	@DisplayName("flush() should replace too many pending changes by a resync event")
+	void flushShouldResyncWhenTooManyChangesArePending() throws IOException {
+		flushEvents();
+
+		for (int hour = 8; hour < 12; hour++)
+			publisher.reservedAfterCommit(reservation(LocalTime.of(hour, 0), 1));
+
+		assertEquals(List.of(OccupancyPublisher.RESYNC_EVENT), flushEvents());
+	}
+
+	@Test
+	@DisplayName("flush() should keep coalescing while the previous event of a client is still being sent")
+	void flushShouldWaitForPreviousEvent() throws IOException {
+		publisher.flush();
+		publisher.reservedAfterCommit(reservation(LocalTime.of(9, 0), 1));
+		publisher.flush();
+		assertEquals(1, tasks.size());
+
+		tasks.remove(0).run();
+		publisher.flush();
+		tasks.remove(0).run();
+
+		verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+	}
+
+	@Test
+	@DisplayName("flush() should drop a client it cannot write to")
+	void flushShouldDropClientThatFails() throws IOException {
+		doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+		assertEquals(1, publisher.getSubscriberCount());
+
+		publisher.flush();
+		tasks.remove(0).run();
+
+		assertEquals(0, publisher.getSubscriberCount());
+		verify(emitter, never()).completeWithError(any());
+	}
+
+	@Test
+	@DisplayName("subscribe() should drop a client once its request has completed")
+	void subscribeShouldDropCompletedClient() {
+		var completion = ArgumentCaptor.forClass(Runnable.class);
+		verify(emitter).onCompletion(completion.capture());
+
+		completion.getValue().run();
+
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	@Test
+	@DisplayName("subscribe() should drop a client once its request has timed out or failed")
+	void subscribeShouldDropTimedOutAndFailedClients() {
+		var timeout = ArgumentCaptor.forClass(Runnable.class);
+		verify(emitter).onTimeout(timeout.capture());
+		var failing = mock(SseEmitter.class);
+		publisher.subscribe(5L, failing);
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Consumer<Throwable>> error = ArgumentCaptor.forClass(Consumer.class);
+		verify(failing).onError(error.capture());
+
+		timeout.getValue().run();
+		error.getValue().accept(new IOException("Broken pipe"));
+
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	@Test
+	@DisplayName("reservedAfterCommit() should only publish once the transaction has committed")
+	void reservedAfterCommitShouldWaitForCommit() throws IOException {
+		flushEvents();
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			publisher.reservedAfterCommit(reservation(LocalTime.of(9, 0), 1));
+			assertEquals(List.of(), flushEvents());
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(1, flushDeltas().size());
+	}
+
+	private Reservation reservation(LocalTime start, int workplaces) {
+		return new Reservation(DATE, start, start.plusHours(1), null, room, workplaces,
+				new Recurrence(false, RecurrencePattern.NONE));
+	}
+
+	private List<String> flushEvents() throws IOException {
+		return flush().stream()
+				.map(event -> event.build().iterator().next().getData().toString())
+				.map(line -> line.substring("event:".length(), line.indexOf('\n')))
+				.collect(Collectors.toList());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<OccupancyDelta> flushDeltas() throws IOException {
+		var events = flush();
+		assertEquals(1, events.size());
+		return events.get(0).build().stream()
+				.map(SseEmitter.DataWithMediaType::getData)
+				.filter(List.class::isInstance)
+				.map(data -> (List<OccupancyDelta>) data)
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private List<SseEmitter.SseEventBuilder> flush() throws IOException {
+		clearInvocations(emitter);
+		publisher.flush();
+		tasks.forEach(Runnable::run);
+		tasks.clear();
+
+		var captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+		verify(emitter, atLeast(0)).send(captor.capture());
+		return captor.getAllValues();
+	}
+}
@@ -0,0 +1,105 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.data.ArchivedReservationRepository;
+import com.quintor.worqplace.data.EmployeeRepository;
+import com.quintor.worqplace.data.ReservationOccurrenceRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.data.RoomRepository;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+class ReservationArchiveJobIntegrationTest {
+	@Autowired
+	private ReservationArchiveJob archiveJob;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private ReservationOccurrenceRepository reservationOccurrenceRepository;
+
+	@Autowired
+	private ArchivedReservationRepository archivedReservationRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAll();
+		archivedReservationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("archiveFinishedReservations() should only move finished non-recurring reservations to the archive")
+	void archiveShouldOnlyMoveFinishedNonRecurringReservations() {
+		var finished = save(LocalDate.now().minusDays(60), new Recurrence(false, RecurrencePattern.NONE));
+		var recurring = save(LocalDate.now().minusDays(60), new Recurrence(true, RecurrencePattern.WEEKLY));
+		var recent = save(LocalDate.now().minusDays(2), new Recurrence(false, RecurrencePattern.NONE));
+
+		assertEquals(1, archiveJob.archiveFinishedReservations());
+
+		assertFalse(reservationRepository.existsById(finished.getId()));
+		assertTrue(archivedReservationRepository.existsById(finished.getId()));
+		assertTrue(reservationRepository.existsById(recurring.getId()));
+		assertTrue(reservationRepository.existsById(recent.getId()));
+	}
+
+	@Test
+	@DisplayName("archiveFinishedReservations() should delete the occurrences of the archived reservations")
+	void archiveShouldDeleteOccurrencesOfArchivedReservations() {
+		var finished = save(LocalDate.now().minusDays(60), new Recurrence(false, RecurrencePattern.NONE));
+		var recent = save(LocalDate.now().minusDays(2), new Recurrence(false, RecurrencePattern.NONE));
+		reservationOccurrenceRepository.save(new ReservationOccurrence(finished, finished.getDate()));
+		var kept = reservationOccurrenceRepository.save(new ReservationOccurrence(recent, recent.getDate()));
+
+		archiveJob.archiveFinishedReservations();
+
+		assertEquals(1, reservationOccurrenceRepository.count());
+		assertTrue(reservationOccurrenceRepository.existsById(kept.getId()));
+	}
+
+	@Test
+	@DisplayName("getAllReservations() should include archived reservations when includeOld is true")
+	void getAllReservationsShouldIncludeArchivedReservations() {
+		var finished = save(LocalDate.now().minusDays(60), new Recurrence(false, RecurrencePattern.NONE));
+		archiveJob.archiveFinishedReservations();
+
+		var all = reservationService.getAllReservations(true);
+
+		assertEquals(1, all.size());
+		assertEquals(finished.getId(), all.get(0).getId());
+		assertEquals(finished.getDate(), all.get(0).getDate());
+		assertEquals(2L, all.get(0).getRoom().getId());
+		assertTrue(reservationService.getAllReservations(false).isEmpty());
+	}
+
+	private Reservation save(LocalDate date, Recurrence recurrence) {
+		var employee = employeeRepository.findById(9L).orElseThrow();
+		var room = roomRepository.findById(2L).orElseThrow();
+
+		return reservationRepository.save(new Reservation(null, date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+				employee, room, 1, recurrence, true));
+	}
+}
@@ -0,0 +1,65 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.data.ArchivedReservationRepository;
+import com.quintor.worqplace.data.ReservationOccurrenceRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class ReservationArchiveJobTest {
+	private ReservationRepository reservationRepository;
+	private ReservationOccurrenceRepository reservationOccurrenceRepository;
+	private ArchivedReservationRepository archivedReservationRepository;
+	private ReservationArchiveJob archiveJob;
+
+	@BeforeEach
+	void initialize() {
+		this.reservationRepository = mock(ReservationRepository.class);
+		this.reservationOccurrenceRepository = mock(ReservationOccurrenceRepository.class);
+		this.archivedReservationRepository = mock(ArchivedReservationRepository.class);
+		this.archiveJob = new ReservationArchiveJob(reservationRepository, reservationOccurrenceRepository,
+				archivedReservationRepository, 30);
+	}
+
+	@Test
+	@DisplayName("archiveFinishedReservations() should move the reservations older than the configured days")
+	void archiveShouldMoveReservationsOlderThanConfiguredDays() {
+		var before = LocalDate.now().minusDays(30);
+		when(archivedReservationRepository.copyFinishedBefore(before)).thenReturn(4);
+		when(reservationRepository.deleteFinishedBefore(before)).thenReturn(4);
+
+		assertEquals(4, archiveJob.archiveFinishedReservations());
+		verify(archivedReservationRepository).copyFinishedBefore(before);
+		verify(reservationRepository).deleteFinishedBefore(before);
+	}
+
+	@Test
+	@DisplayName("archiveFinishedReservations() should delete the occurrences before the reservations")
+	void archiveShouldDeleteOccurrencesBeforeReservations() {
+		var before = LocalDate.now().minusDays(30);
+		when(archivedReservationRepository.copyFinishedBefore(before)).thenReturn(2);
+		when(reservationRepository.deleteFinishedBefore(before)).thenReturn(2);
+
+		archiveJob.archiveFinishedReservations();
+
+		var order = inOrder(reservationOccurrenceRepository, reservationRepository);
+		order.verify(reservationOccurrenceRepository).deleteOfFinishedBefore(before);
+		order.verify(reservationRepository).deleteFinishedBefore(before);
+	}
+
+	@Test
+	@DisplayName("archiveFinishedReservations() should throw when the copied and deleted amounts differ")
+	void archiveShouldThrowWhenAmountsDiffer() {
+		when(archivedReservationRepository.copyFinishedBefore(any())).thenReturn(4);
+		when(reservationRepository.deleteFinishedBefore(any())).thenReturn(3);
+
+		assertThrows(IllegalStateException.class, () -> archiveJob.archiveFinishedReservations());
+	}
+}
@@ -0,0 +1,109 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.data.ReservationOccurrenceRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.domain.Recurrence;
+import com.quintor.worqplace.domain.RecurrencePattern;
+import com.quintor.worqplace.presentation.dto.reservation.ReservationDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+class ReservationOccurrenceServiceIntegrationTest {
+	private static final long ROOM_ID = 2L;
+	private static final long LOCATION_ID = 5L;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationOccurrenceService reservationOccurrenceService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private ReservationOccurrenceRepository reservationOccurrenceRepository;
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("reserveWorkplaces() should materialize the occurrences read by the availability")
+	void reserveWorkplacesShouldMaterializeOccurrences() {
+		var date = LocalDate.now().plusDays(1);
+		reservationService.reserveWorkplaces(toReservationDTO(date, new Recurrence(true, RecurrencePattern.WEEKLY)));
+		var nextWeek = date.plusWeeks(1);
+
+		assertTrue(reservationOccurrenceService.isMaterialized(nextWeek, nextWeek));
+		assertEquals(1, reservationOccurrenceRepository.findSlotsByLocationBetween(LOCATION_ID, nextWeek, nextWeek)
+				.size());
+		assertEquals(4, availableInRoom(nextWeek));
+		assertEquals(6, availableInRoom(nextWeek.plusDays(1)));
+	}
+
+	@Test
+	@DisplayName("deleting a reservation should delete its occurrences")
+	void deletingReservationShouldDeleteOccurrences() {
+		var reservation = reservationService.reserveWorkplaces(toReservationDTO(LocalDate.now().plusDays(1),
+				new Recurrence(true, RecurrencePattern.DAILY)));
+		assertTrue(reservationOccurrenceRepository.count() > 0);
+
+		reservationService.deleteReservation(reservation.getId());
+
+		assertEquals(0, reservationOccurrenceRepository.count());
+	}
+
+	@Test
+	@DisplayName("materializeAll() should not duplicate occurrences that already exist")
+	void materializeAllShouldSkipExistingOccurrences() {
+		var reservation = reservationService.reserveWorkplaces(toReservationDTO(LocalDate.now().plusDays(1),
+				new Recurrence(true, RecurrencePattern.DAILY)));
+		var occurrences = reservationOccurrenceRepository.count();
+
+		reservationOccurrenceService.materializeAll(List.of(reservation));
+		reservationOccurrenceService.onApplicationReady();
+
+		assertEquals(occurrences, reservationOccurrenceRepository.count());
+	}
+
+	private int availableInRoom(LocalDate date) {
+		return roomService.getWorkplaceAvailabilityAtDateTime(LOCATION_ID, date, LocalTime.of(9, 0),
+						LocalTime.of(10, 0), 1, RecurrencePattern.NONE).stream()
+				.filter(availability -> availability.id() == ROOM_ID)
+				.findFirst()
+				.orElseThrow()
+				.available();
+	}
+
+	private ReservationDTO toReservationDTO(LocalDate date, Recurrence recurrence) {
+		var reservationDTO = new ReservationDTO();
+		reservationDTO.setDate(date);
+		reservationDTO.setStartTime(LocalTime.of(9, 0));
+		reservationDTO.setEndTime(LocalTime.of(10, 0));
+		reservationDTO.setEmployeeId(9L);
+		reservationDTO.setWorkplaceAmount(2);
+		reservationDTO.setRoomId(ROOM_ID);
+		reservationDTO.setRecurrence(recurrence);
+		return reservationDTO;
+	}
+}
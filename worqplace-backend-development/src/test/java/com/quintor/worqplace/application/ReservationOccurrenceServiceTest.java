@@ -0,0 +1,92 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.util.LastOccurrence;
+import com.quintor.worqplace.data.ReservationOccurrenceRepository;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReservationOccurrenceServiceTest {
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private ReservationOccurrenceRepository reservationOccurrenceRepository;
+	private ReservationRepository reservationRepository;
+	private ReservationOccurrenceService reservationOccurrenceService;
+
+	private Reservation weekly;
+	private Reservation oneOff;
+
+	@BeforeEach
+	void initialize() {
+		this.reservationOccurrenceRepository = mock(ReservationOccurrenceRepository.class);
+		this.reservationRepository = mock(ReservationRepository.class);
+		this.reservationOccurrenceService = new ReservationOccurrenceService(reservationOccurrenceRepository,
+				reservationRepository, 26);
+
+		var room = new Room(1L, 1, null, 15, Collections.emptyList());
+		var employee = new Employee(1L, "Firstname", "Lastname");
+		this.weekly = new Reservation(1L, TODAY, LocalTime.of(9, 0), LocalTime.of(10, 0), employee, room, 2,
+				new Recurrence(true, RecurrencePattern.WEEKLY));
+		this.oneOff = new Reservation(2L, TODAY.plusDays(3), LocalTime.of(9, 0), LocalTime.of(10, 0), employee,
+				room, 1, new Recurrence(false, RecurrencePattern.NONE));
+	}
+
+	@Test
+	@DisplayName("materialize() should store every occurrence of a reservation up to the horizon")
+	void materializeShouldStoreOccurrencesUpToHorizon() {
+		reservationOccurrenceService.materialize(weekly);
+
+		var occurrences = capturedOccurrences();
+		assertEquals(27, occurrences.size());
+		assertEquals(TODAY, occurrences.get(0).getDate());
+		assertEquals(TODAY.plusWeeks(26), occurrences.get(26).getDate());
+		assertEquals(2, occurrences.get(0).getWorkplaceAmount());
+		assertEquals(1L, occurrences.get(0).getRoom().getId());
+	}
+
+	@Test
+	@DisplayName("extendHorizon() should prune old occurrences and continue after the last materialized one")
+	void extendHorizonShouldContinueAfterLastOccurrence() {
+		var until = TODAY.plusWeeks(26);
+		when(reservationOccurrenceRepository.findLastOccurrences())
+				.thenReturn(List.of(new LastOccurrence(1L, TODAY.plusWeeks(25))));
+		when(reservationRepository.findAllOccurringBetween(TODAY, until)).thenReturn(List.of(weekly, oneOff));
+
+		assertEquals(2, reservationOccurrenceService.extendHorizon());
+
+		verify(reservationOccurrenceRepository).deleteBefore(TODAY);
+		var occurrences = capturedOccurrences();
+		assertEquals(until, occurrences.get(0).getDate());
+		assertEquals(oneOff.getDate(), occurrences.get(1).getDate());
+	}
+
+	@Test
+	@DisplayName("isMaterialized() should only be true between today and the horizon after it was extended")
+	void isMaterializedShouldOnlyBeTrueWithinHorizon() {
+		assertFalse(reservationOccurrenceService.isMaterialized(TODAY, TODAY));
+
+		reservationOccurrenceService.extendHorizon();
+
+		assertTrue(reservationOccurrenceService.isMaterialized(TODAY, TODAY.plusWeeks(26)));
+		assertFalse(reservationOccurrenceService.isMaterialized(TODAY.minusDays(1), TODAY));
+		assertFalse(reservationOccurrenceService.isMaterialized(TODAY, TODAY.plusWeeks(26).plusDays(1)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ReservationOccurrence> capturedOccurrences() {
+		ArgumentCaptor<List<ReservationOccurrence>> captor = ArgumentCaptor.forClass(List.class);
+		verify(reservationOccurrenceRepository).insertAll(captor.capture());
+		return captor.getValue();
+	}
+}
@@ -0,0 +1,105 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.application.exceptions.BookingConflictException;
+import com.quintor.worqplace.application.exceptions.WorkplacesNotAvailableException;
+import com.quintor.worqplace.data.ReservationRepository;
+import com.quintor.worqplace.domain.Recurrence;
+import com.quintor.worqplace.domain.RecurrencePattern;
+import com.quintor.worqplace.domain.Reservation;
+import com.quintor.worqplace.domain.exceptions.RoomNotAvailableException;
+import com.quintor.worqplace.presentation.dto.reservation.ReservationDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+class ReservationServiceConcurrencyTest {
+	private static final long ROOM_ID = 2L;
+	private static final long LOCATION_ID = 5L;
+	private static final int ROOM_CAPACITY = 6;
+	private static final int BOOKINGS = 500;
+	private static final int THREADS = 32;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	private final List<Reservation> booked = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void removeBookings() {
+		booked.forEach(reservation -> reservationRepository.deleteById(reservation.getId()));
+	}
+
+	@Test
+	@DisplayName("reserveWorkplaces() should never overbook a room under concurrent bookings")
+	void reserveWorkplacesShouldNotOverbookConcurrently() throws Exception {
+		var date = LocalDate.now().plusYears(5);
+		var startTime = LocalTime.of(6, 0);
+		var endTime = LocalTime.of(7, 0);
+		var executor = Executors.newFixedThreadPool(THREADS);
+		var start = new CountDownLatch(1);
+		var futures = new ArrayList<Future<Reservation>>();
+
+		try {
+			for (int i = 0; i < BOOKINGS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return reservationService.reserveWorkplaces(toReservationDTO(date, startTime, endTime));
+				}));
+			}
+			start.countDown();
+
+			for (var future : futures) {
+				try {
+					booked.add(future.get(60, TimeUnit.SECONDS));
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof WorkplacesNotAvailableException
+									|| e.getCause() instanceof RoomNotAvailableException
+									|| e.getCause() instanceof BookingConflictException,
+							() -> "Unexpected exception: " + e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		int reserved = reservationRepository.findSlotsByLocationBetween(LOCATION_ID, date, date).stream()
+				.filter(slot -> slot.roomId().equals(ROOM_ID))
+				.filter(slot -> slot.date().equals(date) && slot.startTime().equals(startTime))
+				.mapToInt(slot -> slot.workplaceAmount())
+				.sum();
+
+		assertEquals(ROOM_CAPACITY, booked.size());
+		assertEquals(ROOM_CAPACITY, reserved);
+	}
+
+	private ReservationDTO toReservationDTO(LocalDate date, LocalTime startTime, LocalTime endTime) {
+		var reservationDTO = new ReservationDTO();
+		reservationDTO.setDate(date);
+		reservationDTO.setStartTime(startTime);
+		reservationDTO.setEndTime(endTime);
+		reservationDTO.setEmployeeId(9L);
+		reservationDTO.setWorkplaceAmount(1);
+		reservationDTO.setRoomId(ROOM_ID);
+		reservationDTO.setRecurrence(new Recurrence(false, RecurrencePattern.NONE));
+		return reservationDTO;
+	}
+}
@@ -1,6 +1,10 @@
 package com.quintor.worqplace.application;
 
 import com.quintor.worqplace.application.exceptions.*;
+import com.quintor.worqplace.application.util.BatchMode;
+import com.quintor.worqplace.application.util.BatchReservationResult;
+import com.quintor.worqplace.application.util.ReservationSummary;
+import com.quintor.worqplace.data.ArchivedReservationRepository;
 import com.quintor.worqplace.data.EmployeeRepository;
 import com.quintor.worqplace.data.LocationRepository;
 import com.quintor.worqplace.data.ReservationRepository;
@@ -10,16 +14,23 @@ import com.quintor.worqplace.presentation.dto.reservation.ReservationDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class ReservationServiceTest {
 	private ReservationService reservationService;
@@ -28,6 +39,12 @@ class ReservationServiceTest {
 	private LocationRepository locationRepository;
 	private EmployeeRepository employeeRepository;
 	private ReservationRepository reservationRepository;
+	private EntityManager entityManager;
+	private ArchivedReservationRepository archivedReservationRepository;
+	private ReservationOccurrenceService reservationOccurrenceService;
+	private OccupancyPublisher occupancyPublisher;
+	private UtilizationService utilizationService;
+	private MetricsRegistry metricsRegistry;
 
 	private Room room;
 	private Room room1;
@@ -48,11 +65,22 @@ class ReservationServiceTest {
 		this.employeeRepository = mock(EmployeeRepository.class);
 		this.locationRepository = mock(LocationRepository.class);
 		this.reservationRepository = mock(ReservationRepository.class);
+		this.entityManager = mock(EntityManager.class);
+		this.archivedReservationRepository = mock(ArchivedReservationRepository.class);
+		this.reservationOccurrenceService = mock(ReservationOccurrenceService.class);
 
 		EmployeeService employeeService = new EmployeeService(employeeRepository);
 		LocationService locationService = new LocationService(locationRepository);
-		RoomService roomService = new RoomService(roomRepository, locationService);
-		this.reservationService = new ReservationService(employeeService, roomService, reservationRepository);
+		AvailabilityCache availabilityCache = new AvailabilityCache(100, 60);
+		this.metricsRegistry = new MetricsRegistry();
+		RoomService roomService = new RoomService(roomRepository, reservationRepository, locationService,
+				reservationOccurrenceService, availabilityCache, metricsRegistry);
+		BookingExecutor bookingExecutor = new BookingExecutor(TransactionOperations.withoutTransaction(), 3, 0, 0);
+		this.occupancyPublisher = new OccupancyPublisher(Runnable::run, 100, 1000);
+		this.utilizationService = mock(UtilizationService.class);
+		this.reservationService = new ReservationService(employeeService, roomService, reservationRepository, bookingExecutor,
+				new BookingLockManager(16), entityManager, archivedReservationRepository, reservationOccurrenceService,
+				availabilityCache, occupancyPublisher, utilizationService, metricsRegistry);
 
 		this.employee = new Employee(1L, "QFirstname", "QLastname");
 		Address address = new Address(12, "", "TestStreet", "2098GS", "QuintorCity");
@@ -89,6 +117,17 @@ class ReservationServiceTest {
 		assertEquals(List.of(reservation, reservation1), reservationService.getAllReservations(false));
 	}
 
+	@Test
+	@DisplayName("getAllReservations() should include archived reservations when includeOld is true")
+	void getAllReservationsShouldIncludeArchivedReservations() {
+		var archived = mock(ArchivedReservation.class);
+		when(archived.toReservation()).thenReturn(reservation2);
+		when(archivedReservationRepository.findAll()).thenReturn(List.of(archived));
+
+		assertEquals(List.of(reservation, reservation1, reservation5, reservation2), reservationService.getAllReservations(true));
+		assertEquals(List.of(reservation, reservation1), reservationService.getAllReservations(false));
+	}
+
 	@Test
 	@DisplayName("getReservationById() should return a reservations if it exists")
 	void getReservationByIdShouldReturnReservation() {
@@ -119,6 +158,28 @@ class ReservationServiceTest {
 		assertThrows(WorkplacesNotAvailableException.class, () -> reservationService.reserveWorkplaces(reservationDTO));
 	}
 
+	@Test
+	@DisplayName("reserveWorkplaces() should time the bookings and capacity checks by outcome")
+	void reserveWorkplacesShouldTimeBookingsByOutcome() {
+		ReservationDTO reservationDTO = new ReservationDTO();
+		reservationDTO.setDate(reservation.getDate());
+		reservationDTO.setStartTime(reservation.getStartTime());
+		reservationDTO.setEndTime(reservation.getEndTime());
+		reservationDTO.setEmployeeId(employee.getId());
+		reservationDTO.setWorkplaceAmount(15);
+		reservationDTO.setRoomId(1L);
+		reservationDTO.setRecurrence(this.noRecurrence);
+		reservationService.reserveWorkplaces(reservationDTO);
+		assertThrows(WorkplacesNotAvailableException.class, () -> reservationService.reserveWorkplaces(reservationDTO));
+
+		for (var outcome : List.of(MetricsRegistry.ACCEPTED, "WorkplacesNotAvailableException")) {
+			assertEquals(1, metricsRegistry.timer(ReservationService.BOOKING_TIMER,
+					"operation", "reserve_workplaces", MetricsRegistry.OUTCOME, outcome).count());
+			assertEquals(1, metricsRegistry.timer(ReservationService.ROOM_TIMER,
+					"location", "1", "operation", "add", MetricsRegistry.OUTCOME, outcome).count());
+		}
+	}
+
 	@Test
 	@DisplayName("reserveWorkplace() should throw InvalidStartAndEndTimeException when End time is after Begin time")
 	void reserveWorkplaceShouldThrowWhenEndTimeIsAfterBeginTime() {
@@ -225,10 +286,21 @@ class ReservationServiceTest {
 		assertEquals(3, reservationService.getAllMyReservations(this.employee.getId(), null, null).size());
 	}
 
+	@Test
+	@DisplayName("getAllMyReservations should filter on the given location and date")
+	void getAllMyReservationsFiltersOnLocationAndDate() {
+		var date = LocalDate.now().plusWeeks(2);
+
+		reservationService.getAllMyReservations(this.employee.getId(), location.getId(), date);
+
+		verify(reservationRepository).findSummariesByEmployee(this.employee.getId(), location.getId(), date);
+	}
+
 	@Test
 	@DisplayName("getAllByLocation should return all reservations for a location")
 	void getAllByLocation() {
 		assertEquals(2, reservationService.getAllByLocation(location1.getId()).size());
+		verify(reservationRepository).findAllByLocationId(location1.getId());
 	}
 
 	@Test
@@ -240,18 +312,191 @@ class ReservationServiceTest {
 				() -> reservationService.getReservationById(reservationId));
 	}
 
+	@Test
+	@DisplayName("deleteReservation should publish the released workplaces to the location of the room")
+	void deleteReservationShouldPublishReleasedWorkplaces() throws IOException {
+		var emitter = mock(SseEmitter.class);
+		var otherEmitter = mock(SseEmitter.class);
+		occupancyPublisher.subscribe(location.getId(), emitter);
+		occupancyPublisher.subscribe(location1.getId(), otherEmitter);
+		occupancyPublisher.flush();
+		reservation.setRoom(room);
+
+		reservationService.deleteReservation(reservation.getId());
+		occupancyPublisher.flush();
+
+		verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+		verify(otherEmitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+		verify(utilizationService, times(1)).markChanged(reservation);
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should store the available reservations in best-effort mode")
+	void reserveBatchShouldStoreAvailableReservationsInBestEffortMode() {
+		var results = reservationService.reserveBatch(List.of(
+				batchItem(1L, 1L, 10), batchItem(1L, 1L, 10), batchItem(1L, 99L, 1), batchItem(null, 1L, 1)
+		), BatchMode.BEST_EFFORT);
+
+		assertTrue(results.get(0).isCreated());
+		assertFalse(results.get(1).isCreated());
+		assertEquals("Requested 10 workplaces but only 5 available.", results.get(1).error());
+		assertEquals("Room 99 not found", results.get(2).error());
+		assertEquals("Employee null not found", results.get(3).error());
+		verify(reservationRepository).insertAll(List.of(results.get(0).reservation()));
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should store nothing in all-or-nothing mode if one reservation is rejected")
+	void reserveBatchShouldStoreNothingInAllOrNothingModeIfOneIsRejected() {
+		var results = reservationService.reserveBatch(List.of(
+				batchItem(1L, 1L, 10), batchItem(1L, 1L, 10)
+		), BatchMode.ALL_OR_NOTHING);
+
+		assertTrue(results.stream().noneMatch(BatchReservationResult::isCreated));
+		assertNotNull(results.get(0).error());
+		verify(reservationRepository, never()).insertAll(any());
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should store every reservation in all-or-nothing mode if all are available")
+	void reserveBatchShouldStoreEverythingInAllOrNothingModeIfAllAreAvailable() {
+		var results = reservationService.reserveBatch(List.of(
+				batchItem(1L, 1L, 10), batchItem(1L, 2L, 15)
+		), BatchMode.ALL_OR_NOTHING);
+
+		assertTrue(results.stream().allMatch(BatchReservationResult::isCreated));
+		verify(reservationRepository).insertAll(List.of(results.get(0).reservation(), results.get(1).reservation()));
+		verify(reservationOccurrenceService).materializeAll(List.of(results.get(0).reservation(),
+				results.get(1).reservation()));
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should throw InvalidBatchSizeException if the batch is empty or too large")
+	void reserveBatchShouldThrowIfSizeIsInvalid() {
+		var tooLarge = Collections.nCopies(ReservationService.MAX_BATCH_SIZE + 1, batchItem(1L, 1L, 1));
+
+		assertThrows(InvalidBatchSizeException.class,
+				() -> reservationService.reserveBatch(List.of(), BatchMode.BEST_EFFORT));
+		assertThrows(InvalidBatchSizeException.class,
+				() -> reservationService.reserveBatch(tooLarge, BatchMode.BEST_EFFORT));
+	}
+
+	@Test
+	@DisplayName("getPageByLocation() should start at the first reservation and limit the page size")
+	void getPageByLocationShouldLimitPageSize() {
+		reservationService.getPageByLocation(location.getId(), null, 5000);
+		reservationService.getPageByLocation(location.getId(), 7L, 0);
+
+		verify(reservationRepository).findPageByLocationId(location.getId(), 0L,
+				PageRequest.of(0, ReservationService.MAX_PAGE_SIZE));
+		verify(reservationRepository).findPageByLocationId(location.getId(), 7L, PageRequest.of(0, 1));
+	}
+
+	@Test
+	@DisplayName("streamAllByLocation() should pass every reservation and clear the persistence context periodically")
+	void streamAllByLocationShouldClearPeriodically() {
+		var amount = 2 * ReservationService.STREAM_CLEAR_INTERVAL + 1;
+		when(reservationRepository.streamAllByLocationId(location.getId()))
+				.thenReturn(Collections.nCopies(amount, reservation1).stream());
+		var received = new ArrayList<Reservation>();
+
+		reservationService.streamAllByLocation(location.getId(), received::add);
+
+		assertEquals(amount, received.size());
+		verify(entityManager, times(2)).clear();
+	}
+
+	private ReservationDTO batchItem(Long employeeId, Long roomId, int workplaceAmount) {
+		ReservationDTO reservationDTO = new ReservationDTO();
+		reservationDTO.setDate(LocalDate.now().plusDays(1));
+		reservationDTO.setStartTime(LocalTime.of(9, 0));
+		reservationDTO.setEndTime(LocalTime.of(10, 0));
+		reservationDTO.setEmployeeId(employeeId);
+		reservationDTO.setRoomId(roomId);
+		reservationDTO.setWorkplaceAmount(workplaceAmount);
+		reservationDTO.setRecurrence(this.noRecurrence);
+		return reservationDTO;
+	}
+
+	private static ReservationSummary toSummary(Reservation reservation) {
+		return new ReservationSummary(reservation.getId(), reservation.getDate(), reservation.getStartTime(),
+				reservation.getEndTime(), reservation.getEmployee().getId(), null, reservation.getWorkplaceAmount(),
+				reservation.getRecurrence().isActive(), reservation.getRecurrence().getRecurrencePattern());
+	}
+
 	/**
 	 * Sets mock behaviour for repositories used in this test file
 	 */
+	@Test
+	@DisplayName("updateReservation() should start again with the locks of the room the reservation was moved to")
+	void updateReservationShouldStartAgainWhenRoomChanged() {
+		when(reservationRepository.findById(reservation1.getId())).thenReturn(Optional.of(reservation1));
+		when(reservationRepository.findRoomIdById(reservation1.getId())).thenReturn(Optional.of(room.getId()),
+				Optional.of(room1.getId()));
+		doAnswer(invocation -> {
+			reservation1.setRoom(room1);
+			return null;
+		}).when(entityManager).refresh(reservation1);
+
+		var updated = reservationService.updateReservation(toUpdateDTO(reservation1, room1.getId()));
+
+		assertEquals(room1, updated.getRoom());
+		verify(entityManager, times(2)).refresh(reservation1);
+		verify(roomRepository, never()).findForBookingById(room.getId());
+		verify(roomRepository, atLeastOnce()).findForBookingById(room1.getId());
+	}
+
+	@Test
+	@DisplayName("updateReservation() should throw BookingConflictException when the reservation keeps moving")
+	void updateReservationShouldThrowWhenRoomKeepsChanging() {
+		when(reservationRepository.findById(reservation1.getId())).thenReturn(Optional.of(reservation1));
+		when(reservationRepository.findRoomIdById(reservation1.getId())).thenReturn(Optional.of(room.getId()));
+		doAnswer(invocation -> {
+			reservation1.setRoom(room1);
+			return null;
+		}).when(entityManager).refresh(reservation1);
+		var reservationDTO = toUpdateDTO(reservation1, room1.getId());
+
+		assertThrows(BookingConflictException.class, () -> reservationService.updateReservation(reservationDTO));
+		verify(roomRepository, never()).findForBookingById(any());
+	}
+
+	@Test
+	@DisplayName("updateReservation() should throw ReservationNotFoundException when the reservation was deleted")
+	void updateReservationShouldThrowWhenReservationWasDeleted() {
+		when(reservationRepository.findById(reservation1.getId())).thenReturn(Optional.of(reservation1));
+		when(reservationRepository.findRoomIdById(reservation1.getId())).thenReturn(Optional.of(room.getId()));
+		doThrow(new EntityNotFoundException()).when(entityManager).refresh(reservation1);
+		var deletedDTO = toUpdateDTO(reservation1, room.getId());
+		var unknownDTO = toUpdateDTO(reservation4, room.getId());
+
+		assertThrows(ReservationNotFoundException.class, () -> reservationService.updateReservation(deletedDTO));
+		assertThrows(ReservationNotFoundException.class, () -> reservationService.updateReservation(unknownDTO));
+	}
+
+	private ReservationDTO toUpdateDTO(Reservation reservation, Long roomId) {
+		ReservationDTO reservationDTO = new ReservationDTO();
+		reservationDTO.setId(reservation.getId());
+		reservationDTO.setDate(reservation.getDate());
+		reservationDTO.setStartTime(reservation.getStartTime());
+		reservationDTO.setEndTime(reservation.getEndTime());
+		reservationDTO.setEmployeeId(employee.getId());
+		reservationDTO.setWorkplaceAmount(1);
+		reservationDTO.setRoomId(roomId);
+		reservationDTO.setRecurrence(this.noRecurrence);
+		return reservationDTO;
+	}
+
 	private void setRepositoryBehaviour() {
 //		Reservation repository
 		when(reservationRepository.findById(3L)).thenReturn(Optional.empty());
 		when(reservationRepository.save(reservation)).thenReturn(reservation);
 		when(reservationRepository.findAll()).thenReturn(List.of(reservation, reservation1, reservation5));
 		when(reservationRepository.findById(reservation.getId())).thenReturn(java.util.Optional.ofNullable(reservation));
-		when(reservationRepository.findAllByEmployeeId(employee.getId()))
-				.thenReturn(List.of(reservation, reservation1, reservation2));
+		when(reservationRepository.findSummariesByEmployee(employee.getId(), null, LocalDate.now()))
+				.thenReturn(List.of(toSummary(reservation), toSummary(reservation1), toSummary(reservation2)));
 		when(reservationRepository.findById(reservation4.getId())).thenReturn(Optional.empty());
+		when(reservationRepository.findAllByLocationId(location1.getId())).thenReturn(List.of(reservation2, reservation3));
 
 //		Employee repository
 		when(employeeRepository.findById(1L)).thenReturn(Optional.ofNullable(employee));
@@ -259,6 +504,8 @@ class ReservationServiceTest {
 //		Room repository
 		when(roomRepository.findById(room.getId())).thenReturn(Optional.ofNullable(room));
 		when(roomRepository.findById(room1.getId())).thenReturn(Optional.ofNullable(room1));
+		when(roomRepository.findForBookingById(room.getId())).thenReturn(Optional.ofNullable(room));
+		when(roomRepository.findForBookingById(room1.getId())).thenReturn(Optional.ofNullable(room1));
 
 //		Location repository
 		when(locationRepository.findById(location.getId())).thenReturn(Optional.ofNullable(location));
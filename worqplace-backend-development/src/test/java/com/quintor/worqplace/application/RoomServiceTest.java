@@ -1,9 +1,14 @@
 package com.quintor.worqplace.application;
 
+import com.quintor.worqplace.application.exceptions.InvalidDateRangeException;
 import com.quintor.worqplace.application.exceptions.InvalidDayException;
+import com.quintor.worqplace.application.exceptions.InvalidGranularityException;
 import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
 import com.quintor.worqplace.application.exceptions.RoomNotFoundException;
+import com.quintor.worqplace.application.util.ReservationSlot;
 import com.quintor.worqplace.application.util.RoomAvailability;
+import com.quintor.worqplace.application.util.RoomRangeAvailability;
+import com.quintor.worqplace.application.util.RoomSuggestion;
 import com.quintor.worqplace.data.EmployeeRepository;
 import com.quintor.worqplace.data.LocationRepository;
 import com.quintor.worqplace.data.ReservationRepository;
@@ -13,19 +18,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 class RoomServiceTest {
 	private RoomRepository roomRepository;
 	private LocationRepository locationRepository;
+	private ReservationRepository reservationRepository;
+	private ReservationOccurrenceService reservationOccurrenceService;
+	private MetricsRegistry metricsRegistry;
 
 	private RoomService roomService;
 
@@ -38,11 +53,14 @@ class RoomServiceTest {
 		this.roomRepository = mock(RoomRepository.class);
 		EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
 		this.locationRepository = mock(LocationRepository.class);
-		ReservationRepository reservationRepository = mock(ReservationRepository.class);
+		this.reservationRepository = mock(ReservationRepository.class);
+		this.reservationOccurrenceService = mock(ReservationOccurrenceService.class);
+		this.metricsRegistry = new MetricsRegistry();
 
 		LocationService locationService = new LocationService(locationRepository);
 		EmployeeService employeeService = new EmployeeService(employeeRepository);
-		this.roomService = new RoomService(roomRepository, locationService);
+		this.roomService = new RoomService(roomRepository, reservationRepository, locationService,
+				reservationOccurrenceService, new AvailabilityCache(100, 60), metricsRegistry);
 
 		this.room = new Room(1L, 1, null, 15, Collections.emptyList());
 		Address address = new Address(1L, 12, "", "QuintorStreet", "1454LJ", "QuintorCity");
@@ -93,6 +111,8 @@ class RoomServiceTest {
 
 		assertThrows(InvalidDayException.class,
 				() -> roomService.getRoomsAvailableAtDateTime(locationId, reservationDate, startTime, endTime));
+		assertEquals(1, metricsRegistry.timer(RoomService.AVAILABILITY_TIMER, "location", "1", "query", "rooms",
+				MetricsRegistry.OUTCOME, "InvalidDayException").count());
 	}
 
 	@Test
@@ -197,6 +217,266 @@ class RoomServiceTest {
 				roomService.getWorkplaceAvailabilityAtDateTime(locationId, date, startTime, endTime, 1, RecurrencePattern.NONE));
 	}
 
+	@Test
+	@DisplayName("getAvailabilityHeatmap() should subtract overlapping reservations per bucket")
+	void getAvailabilityHeatmapShouldSubtractReservationsPerBucket() {
+		var date = LocalDate.now().plusDays(1);
+		var from = date.atTime(9, 0);
+		var to = date.atTime(11, 0);
+		room.addReservation(new Reservation(1L, date, LocalTime.of(9, 40), LocalTime.of(10, 10), null,
+				room, 5, new Recurrence(false, RecurrencePattern.NONE)));
+		room.addReservation(new Reservation(2L, date.minusDays(1), LocalTime.of(10, 31), LocalTime.of(12, 0), null,
+				room, 2, new Recurrence(true, RecurrencePattern.DAILY)));
+
+		var heatmap = roomService.getAvailabilityHeatmap(location.getId(), from, to, Duration.ofMinutes(30));
+
+		assertEquals(30, heatmap.granularityMinutes());
+		assertEquals(1, heatmap.rooms().size());
+		assertArrayEquals(new int[]{15, 10, 10, 13}, heatmap.rooms().get(0).free());
+	}
+
+	@Test
+	@DisplayName("getAvailabilityHeatmap() should match countReservedWorkplaces() for every bucket")
+	void getAvailabilityHeatmapShouldMatchAvailabilityPerBucket() {
+		var date = LocalDate.now().plusDays(1);
+		var from = date.atTime(22, 0);
+		var to = date.plusDays(1).atTime(2, 0);
+		var granularity = Duration.ofHours(1);
+		room.addReservation(new Reservation(1L, date, LocalTime.of(22, 30), LocalTime.of(23, 59), null,
+				room, 4, new Recurrence(false, RecurrencePattern.NONE)));
+		room.addReservation(new Reservation(2L, date, LocalTime.of(0, 0), LocalTime.of(1, 0), null,
+				room, 3, new Recurrence(true, RecurrencePattern.DAILY)));
+
+		var free = roomService.getAvailabilityHeatmap(location.getId(), from, to, granularity).rooms().get(0).free();
+
+		int bucket = 0;
+		for (var start = from; start.isBefore(to); start = start.plus(granularity), bucket++) {
+			var end = start.plus(granularity);
+			var endTime = end.toLocalDate().equals(start.toLocalDate()) ? end.toLocalTime() : LocalTime.MAX;
+			var reserved = room.countReservedWorkplaces(start.toLocalDate(), start.toLocalTime(), endTime);
+			assertEquals(room.getCapacity() - reserved, free[bucket]);
+		}
+	}
+
+	@Test
+	@DisplayName("getAvailabilityHeatmap() should throw InvalidStartAndEndTimeException if from is not before to")
+	void getAvailabilityHeatmapShouldThrowIfRangeIsInvalid() {
+		var locationId = location.getId();
+		var from = LocalDateTime.now();
+		var granularity = Duration.ofMinutes(15);
+
+		assertThrows(InvalidStartAndEndTimeException.class,
+				() -> roomService.getAvailabilityHeatmap(locationId, from, from, granularity));
+	}
+
+	@Test
+	@DisplayName("getAvailabilityHeatmap() should throw InvalidGranularityException if there are too many buckets")
+	void getAvailabilityHeatmapShouldThrowIfTooManyBuckets() {
+		var locationId = location.getId();
+		var from = LocalDateTime.now();
+		var to = from.plusYears(1);
+		var granularity = Duration.ofMinutes(15);
+
+		assertThrows(InvalidGranularityException.class,
+				() -> roomService.getAvailabilityHeatmap(locationId, from, to, granularity));
+	}
+
+	@Test
+	@DisplayName("getWorkplaceAvailabilityAtDateTime should calculate availability from the queried slots")
+	void getWorkplaceAvailabilityAtDateTimeShouldUseQueriedSlots() {
+		var date = LocalDate.now().plusDays(2);
+		var startTime = LocalTime.of(9, 0);
+		var endTime = LocalTime.of(10, 0);
+		when(reservationRepository.findSlotsByLocationBetween(1L, date, date)).thenReturn(List.of(
+				new ReservationSlot(7L, room.getId(), date.minusDays(7), LocalTime.of(8, 0), LocalTime.of(9, 30),
+						4, true, RecurrencePattern.WEEKLY)));
+
+		var availability = roomService.getWorkplaceAvailabilityAtDateTime(1L, date, startTime, endTime, 1,
+				RecurrencePattern.NONE);
+
+		assertEquals(List.of(new RoomAvailability(room.getId(), room.getFloor(), room.getCapacity(),
+				room.getCapacity() - 4)), availability);
+		verify(reservationRepository, times(1)).findSlotsByLocationBetween(1L, date, date);
+	}
+
+	@Test
+	@DisplayName("getWorkplaceAvailabilityAtDateTime should use the materialized occurrences within the horizon")
+	void getWorkplaceAvailabilityAtDateTimeShouldUseMaterializedOccurrences() {
+		var date = LocalDate.now().plusDays(2);
+		var startTime = LocalTime.of(9, 0);
+		var endTime = LocalTime.of(10, 0);
+		when(reservationOccurrenceService.isMaterialized(date, date)).thenReturn(true);
+		when(reservationOccurrenceService.findSlotsByLocationBetween(1L, date, date)).thenReturn(List.of(
+				new ReservationSlot(7L, room.getId(), date, LocalTime.of(8, 0), LocalTime.of(9, 30),
+						6, false, RecurrencePattern.NONE)));
+
+		var availability = roomService.getWorkplaceAvailabilityAtDateTime(1L, date, startTime, endTime, 1,
+				RecurrencePattern.NONE);
+
+		assertEquals(List.of(new RoomAvailability(room.getId(), room.getFloor(), room.getCapacity(),
+				room.getCapacity() - 6)), availability);
+		verify(reservationRepository, never()).findSlotsByLocationBetween(anyLong(), any(), any());
+	}
+
+	@Test
+	@DisplayName("getRoomsAvailabilityAtDateTime should answer a repeated query from the cache")
+	void getRoomsAvailabilityAtDateTimeShouldAnswerRepeatedQueryFromCache() {
+		var date = LocalDate.now().plusDays(2);
+		var startTime = LocalTime.of(9, 0);
+		var endTime = LocalTime.of(10, 0);
+
+		var first = roomService.getRoomsAvailabilityAtDateTime(1L, date, startTime, endTime, RecurrencePattern.NONE);
+		var second = roomService.getRoomsAvailabilityAtDateTime(1L, date, startTime, endTime, RecurrencePattern.NONE);
+
+		assertEquals(first, second);
+		verify(reservationRepository, times(1)).findSlotsByLocationBetween(1L, date, date);
+	}
+
+	@Test
+	@DisplayName("getWorkplaceAvailabilityBetween() should return the availability per weekday from a single query")
+	void getWorkplaceAvailabilityBetweenShouldReturnAvailabilityPerDay() {
+		var monday = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+		var startTime = LocalTime.of(9, 0);
+		var endTime = LocalTime.of(10, 0);
+		when(reservationRepository.findSlotsByLocationBetween(1L, monday, monday.plusDays(9))).thenReturn(List.of(
+				new ReservationSlot(7L, room.getId(), monday, LocalTime.of(8, 0), LocalTime.of(9, 30),
+						4, true, RecurrencePattern.WEEKLY)));
+
+		var availability = roomService.getWorkplaceAvailabilityBetween(1L, monday, monday.plusDays(10),
+				startTime, endTime, Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY));
+
+		assertEquals(List.of(new RoomRangeAvailability(room.getId(), room.getFloor(), room.getCapacity(), List.of(
+				new RoomRangeAvailability.DayAvailability(monday, 11),
+				new RoomRangeAvailability.DayAvailability(monday.plusDays(2), 15),
+				new RoomRangeAvailability.DayAvailability(monday.plusDays(7), 11),
+				new RoomRangeAvailability.DayAvailability(monday.plusDays(9), 15)))), availability);
+		verify(reservationRepository, times(1)).findSlotsByLocationBetween(anyLong(), any(), any());
+	}
+
+	@Test
+	@DisplayName("getWorkplaceAvailabilityBetween() should not query reservations if no day matches the weekdays")
+	void getWorkplaceAvailabilityBetweenShouldSkipQueryWithoutDays() {
+		var monday = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+		var availability = roomService.getWorkplaceAvailabilityBetween(1L, monday, monday.plusDays(4),
+				LocalTime.of(9, 0), LocalTime.of(10, 0), Set.of(DayOfWeek.SUNDAY));
+
+		assertEquals(List.of(new RoomRangeAvailability(room.getId(), room.getFloor(), room.getCapacity(),
+				List.of())), availability);
+		verify(reservationRepository, never()).findSlotsByLocationBetween(anyLong(), any(), any());
+	}
+
+	@Test
+	@DisplayName("getWorkplaceAvailabilityBetween() should throw InvalidDateRangeException if the range is invalid")
+	void getWorkplaceAvailabilityBetweenShouldThrowIfRangeIsInvalid() {
+		var from = LocalDate.now().plusDays(2);
+		var before = from.minusDays(1);
+		var tooLate = from.plusDays(RoomService.MAX_RANGE_DAYS);
+		var startTime = LocalTime.of(9, 0);
+		var endTime = LocalTime.of(10, 0);
+
+		assertThrows(InvalidDateRangeException.class,
+				() -> roomService.getWorkplaceAvailabilityBetween(1L, from, before, startTime, endTime, null));
+		assertThrows(InvalidDateRangeException.class,
+				() -> roomService.getWorkplaceAvailabilityBetween(1L, from, tooLate, startTime, endTime, null));
+		assertDoesNotThrow(() -> roomService.getWorkplaceAvailabilityBetween(1L, from, tooLate.minusDays(1),
+				startTime, endTime, null));
+	}
+
+	@Test
+	@DisplayName("suggestAlternatives() should shift the timeslot to the closest time the room is available")
+	void suggestAlternativesShouldShiftTimeslot() {
+		var date = LocalDate.now().plusDays(2);
+		when(reservationRepository.findSlotsByLocationBetween(1L, date, date)).thenReturn(List.of(
+				new ReservationSlot(7L, room.getId(), date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+						room.getCapacity(), false, RecurrencePattern.NONE)));
+
+		var suggestions = roomService.suggestAlternatives(1L, date, LocalTime.of(9, 30), LocalTime.of(10, 30),
+				1, RecurrencePattern.NONE);
+
+		assertEquals(List.of(new RoomSuggestion(1L, room.getId(), room.getFloor(), room.getCapacity(),
+				LocalTime.of(10, 15), LocalTime.of(11, 15), room.getCapacity(), 45)), suggestions);
+	}
+
+	@Test
+	@DisplayName("suggestAlternatives() should shift a recurring timeslot away from a later occurrence that is full")
+	void suggestAlternativesShouldCheckEveryOccurrenceOfRecurringRequest() {
+		var date = LocalDate.now().plusDays(2);
+		var lastDate = LocalDate.of(9999, 12, 31);
+		when(reservationRepository.findSlotsByLocationBetween(1L, date, lastDate)).thenReturn(List.of(
+				new ReservationSlot(7L, room.getId(), date.plusWeeks(60), LocalTime.of(9, 0), LocalTime.of(10, 0),
+						room.getCapacity(), false, RecurrencePattern.NONE)));
+
+		var suggestions = roomService.suggestAlternatives(1L, date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+				1, RecurrencePattern.WEEKLY);
+
+		assertEquals(List.of(new RoomSuggestion(1L, room.getId(), room.getFloor(), room.getCapacity(),
+				LocalTime.of(7, 45), LocalTime.of(8, 45), room.getCapacity(), 75)), suggestions);
+		verify(reservationRepository).findSlotsByLocationBetween(1L, date, lastDate);
+	}
+
+	@Test
+	@DisplayName("suggestAlternatives() should rank other floors and locations after the requested timeslot")
+	void suggestAlternativesShouldRankFloorsAndLocations() {
+		var date = LocalDate.now().plusDays(2);
+		var otherFloor = new Room(3L, 3, location, 4, Collections.emptyList());
+		var siblingRoom = new Room(4L, 0, null, 8, Collections.emptyList());
+		var sibling = new Location(2L, "QuintorSibling", location.getAddress(), List.of(siblingRoom));
+		location.setRooms(List.of(room, otherFloor));
+		when(locationRepository.findById(2L)).thenReturn(Optional.of(sibling));
+		when(locationRepository.findAll()).thenReturn(List.of(location, sibling));
+
+		var suggestions = roomService.suggestAlternatives(1L, date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+				2, RecurrencePattern.NONE);
+
+		assertEquals(List.of(
+				new RoomSuggestion(1L, room.getId(), 1, 15, LocalTime.of(9, 0), LocalTime.of(10, 0), 15, 0),
+				new RoomSuggestion(1L, otherFloor.getId(), 3, 4, LocalTime.of(9, 0), LocalTime.of(10, 0), 4, 30),
+				new RoomSuggestion(2L, siblingRoom.getId(), 0, 8, LocalTime.of(9, 0), LocalTime.of(10, 0), 8, 60)
+		), suggestions);
+	}
+
+	@Test
+	@DisplayName("suggestAlternatives() should not search other locations once the budget is spent")
+	void suggestAlternativesShouldStopWhenBudgetIsSpent() {
+		var date = LocalDate.now().plusDays(2);
+		var sibling = new Location(2L, "QuintorSibling", location.getAddress(),
+				List.of(new Room(4L, 0, null, 8, Collections.emptyList())));
+		when(locationRepository.findAll()).thenReturn(List.of(location, sibling));
+
+		var suggestions = roomService.suggestAlternatives(1L, date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+				1, RecurrencePattern.NONE, Duration.ZERO);
+
+		assertEquals(List.of(1L), suggestions.stream().map(RoomSuggestion::locationId).toList());
+		verify(reservationRepository, never()).findSlotsByLocationBetween(eq(2L), any(), any());
+	}
+
+	@Test
+	@DisplayName("suggestAlternatives() should skip rooms that are too small and keep at most the maximum")
+	void suggestAlternativesShouldKeepBestSuggestions() {
+		var date = LocalDate.now().plusDays(2);
+		var rooms = new java.util.ArrayList<Room>();
+		for (long id = 10; id < 20; id++)
+			rooms.add(new Room(id, (int) id, location, id < 12 ? 1 : 10, Collections.emptyList()));
+		location.setRooms(rooms);
+
+		var suggestions = roomService.suggestAlternatives(1L, date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+				2, null);
+
+		assertEquals(List.of(12L, 13L, 14L, 15L, 16L), suggestions.stream().map(RoomSuggestion::roomId).toList());
+	}
+
+	@Test
+	@DisplayName("suggestAlternatives() should throw InvalidStartAndEndTimeException if times are invalid")
+	void suggestAlternativesShouldThrowIfTimesAreInvalid() {
+		var date = LocalDate.now().plusDays(2);
+		var startTime = LocalTime.of(10, 0);
+		var endTime = LocalTime.of(9, 0);
+
+		assertThrows(InvalidStartAndEndTimeException.class,
+				() -> roomService.suggestAlternatives(1L, date, startTime, endTime, 1, RecurrencePattern.NONE));
+	}
+
 	/**
 	 * Sets mock behaviour for repositories used in this test file
 	 */
@@ -207,5 +487,20 @@ class RoomServiceTest {
 
 //		Location repository
 		when(locationRepository.findById(1L)).thenReturn(java.util.Optional.ofNullable(location));
+
+//		Reservation repository, answers with the slots of the reservations of the rooms at the location
+		when(reservationRepository.findSlotsByLocationBetween(anyLong(), any(), any())).thenAnswer(invocation -> {
+			LocalDate from = invocation.getArgument(1);
+			LocalDate to = invocation.getArgument(2);
+			return locationRepository.findById(invocation.getArgument(0)).orElseThrow().getRooms().stream()
+					.flatMap(room -> room.getReservations().stream()
+							.filter(reservation -> !reservation.getDate().isAfter(to)
+									&& (!reservation.getDate().isBefore(from) || reservation.getRecurrence().isActive()))
+							.map(reservation -> new ReservationSlot(reservation.getId(), room.getId(),
+									reservation.getDate(), reservation.getStartTime(), reservation.getEndTime(),
+									reservation.getWorkplaceAmount(), reservation.getRecurrence().isActive(),
+									reservation.getRecurrence().getRecurrencePattern())))
+					.toList();
+		});
 	}
 }
@@ -0,0 +1,84 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.application.util.CacheRegionStatistics;
+import com.quintor.worqplace.domain.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+class SecondLevelCacheServiceIntegrationTest {
+	private static final String EMPLOYEE_REGION = "com.quintor.worqplace.domain.Employee";
+	private static final String QUERY_REGION = "default-query-results-region";
+	private static final long ADMIN_ID = 9L;
+
+	@Autowired
+	private SecondLevelCacheService secondLevelCacheService;
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private LocationService locationService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@DisplayName("getEmployeeById() should be answered from the second-level cache after the first lookup")
+	void getEmployeeByIdShouldBeCached() {
+		var cache = entityManagerFactory.getCache();
+		cache.evict(Employee.class, ADMIN_ID);
+		assertFalse(cache.contains(Employee.class, ADMIN_ID));
+
+		employeeService.getEmployeeById(ADMIN_ID);
+		assertTrue(cache.contains(Employee.class, ADMIN_ID));
+		var before = statisticsOf(EMPLOYEE_REGION);
+
+		employeeService.getEmployeeById(ADMIN_ID);
+		var after = statisticsOf(EMPLOYEE_REGION);
+
+		assertEquals(before.hits() + 1, after.hits());
+		assertEquals(before.misses(), after.misses());
+		assertTrue(after.size() > 0);
+		assertTrue(after.hitRate() > 0);
+	}
+
+	@Test
+	@DisplayName("getAllLocations() should be answered from the query cache after the first lookup")
+	void getAllLocationsShouldBeCached() {
+		var locations = locationService.getAllLocations();
+		var before = statisticsOf(QUERY_REGION);
+
+		assertEquals(locations.size(), locationService.getAllLocations().size());
+		assertEquals(before.hits() + 1, statisticsOf(QUERY_REGION).hits());
+	}
+
+	@Test
+	@DisplayName("evictAll() should empty the entity regions")
+	void evictAllShouldEmptyEntityRegions() {
+		employeeService.getEmployeeById(ADMIN_ID);
+		assertTrue(statisticsOf(EMPLOYEE_REGION).size() > 0);
+
+		entityManagerFactory.getCache().evictAll();
+
+		assertEquals(0, statisticsOf(EMPLOYEE_REGION).size());
+	}
+
+	private CacheRegionStatistics statisticsOf(String region) {
+		return secondLevelCacheService.getStatistics().stream()
+				.filter(statistics -> statistics.region().equals(region))
+				.findFirst()
+				.orElseThrow();
+	}
+}
@@ -0,0 +1,116 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.application.util.Utilization;
+import com.quintor.worqplace.application.util.UtilizationLevel;
+import com.quintor.worqplace.data.*;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+class UtilizationRollupJobIntegrationTest {
+	private static final Long LOCATION_ID = 5L;
+
+	@Autowired
+	private UtilizationRollupJob rollupJob;
+
+	@Autowired
+	private UtilizationService utilizationService;
+
+	@Autowired
+	private ReservationArchiveJob archiveJob;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private ArchivedReservationRepository archivedReservationRepository;
+
+	@Autowired
+	private UtilizationRollupRepository utilizationRollupRepository;
+
+	@Autowired
+	private UtilizationRollupStateRepository utilizationRollupStateRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private EmployeeRepository employeeRepository;
+
+	@AfterEach
+	void tearDown() {
+		reservationRepository.deleteAll();
+		archivedReservationRepository.deleteAll();
+		utilizationRollupRepository.deleteAll();
+		utilizationRollupStateRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("rollUp() should roll up live, recurring and archived reservations per hour")
+	void rollUpShouldRollUpReservationsPerHour() {
+		var today = LocalDate.now();
+		save(today.minusDays(10), LocalTime.of(9, 30), LocalTime.of(11, 0), 2, RecurrencePattern.NONE);
+		save(today.minusDays(21), LocalTime.of(14, 0), LocalTime.of(15, 0), 1, RecurrencePattern.WEEKLY);
+		save(today.minusDays(60), LocalTime.of(8, 0), LocalTime.of(9, 0), 4, RecurrencePattern.NONE);
+		archiveJob.archiveFinishedReservations();
+
+		assertEquals(6, rollupJob.rollUp());
+
+		var utilization = utilizationService.getUtilization(LOCATION_ID, today.minusDays(10), today.minusDays(10),
+				UtilizationLevel.ROOM);
+		var dayOfWeek = today.minusDays(10).getDayOfWeek();
+		assertEquals(List.of(
+				new Utilization(LOCATION_ID, -1, 2L, dayOfWeek, 9, 60, 60 / 360.0),
+				new Utilization(LOCATION_ID, -1, 2L, dayOfWeek, 10, 120, 120 / 360.0)
+		), utilization);
+		assertEquals(1, utilizationService.getUtilization(LOCATION_ID, today.minusDays(60), today.minusDays(60),
+				UtilizationLevel.LOCATION).size());
+	}
+
+	@Test
+	@DisplayName("rollUp() should only roll up the dates that changed since the last run")
+	void rollUpShouldOnlyRollUpChangedDates() {
+		var today = LocalDate.now();
+		var oneOff = save(today.minusDays(10), LocalTime.of(9, 0), LocalTime.of(10, 0), 2, RecurrencePattern.NONE);
+		save(today.minusDays(7), LocalTime.of(14, 0), LocalTime.of(15, 0), 1, RecurrencePattern.DAILY);
+		assertEquals(8, rollupJob.rollUp());
+
+		assertEquals(0, rollupJob.rollUp());
+
+		reservationService.deleteReservation(oneOff.getId());
+		var state = utilizationRollupStateRepository.findById(LOCATION_ID).orElseThrow();
+		assertEquals(today.minusDays(10), state.getChangedFrom());
+		assertEquals(today.minusDays(10), state.getChangedUntil());
+
+		assertEquals(0, rollupJob.rollUp());
+		assertEquals(7, utilizationRollupRepository.count());
+		assertNull(utilizationRollupStateRepository.findById(LOCATION_ID).orElseThrow().getChangedFrom());
+	}
+
+	private Reservation save(LocalDate date, LocalTime startTime, LocalTime endTime, int amount,
+	                         RecurrencePattern pattern) {
+		var employee = employeeRepository.findById(9L).orElseThrow();
+		var room = roomRepository.findById(2L).orElseThrow();
+
+		return reservationRepository.save(new Reservation(null, date, startTime, endTime, employee, room, amount,
+				new Recurrence(pattern != RecurrencePattern.NONE, pattern), true));
+	}
+}
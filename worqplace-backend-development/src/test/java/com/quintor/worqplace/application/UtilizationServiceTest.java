@@ -0,0 +1,128 @@
+package com.quintor.worqplace.application;
+
+import com.quintor.worqplace.application.exceptions.InvalidDateRangeException;
+import com.quintor.worqplace.application.util.Utilization;
+import com.quintor.worqplace.application.util.UtilizationLevel;
+import com.quintor.worqplace.application.util.UtilizationTotal;
+import com.quintor.worqplace.data.LocationRepository;
+import com.quintor.worqplace.data.UtilizationRollupRepository;
+import com.quintor.worqplace.data.UtilizationRollupStateRepository;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class UtilizationServiceTest {
+	private static final LocalDate MONDAY = LocalDate.of(2021, 1, 4);
+
+	private UtilizationRollupRepository utilizationRollupRepository;
+	private UtilizationRollupStateRepository utilizationRollupStateRepository;
+	private UtilizationService utilizationService;
+	private Room room;
+
+	@BeforeEach
+	void initialize() {
+		this.utilizationRollupRepository = mock(UtilizationRollupRepository.class);
+		this.utilizationRollupStateRepository = mock(UtilizationRollupStateRepository.class);
+		var locationRepository = mock(LocationRepository.class);
+		this.utilizationService = new UtilizationService(utilizationRollupRepository,
+				utilizationRollupStateRepository, new LocationService(locationRepository));
+
+		this.room = new Room(1L, 1, null, 10, Collections.emptyList());
+		var otherRoom = new Room(2L, 1, null, 5, Collections.emptyList());
+		var basement = new Room(3L, -1, null, 5, Collections.emptyList());
+		var location = new Location(1L, "QuintorTest", null, List.of(room, otherRoom, basement));
+		room.setLocation(location);
+		when(locationRepository.findById(1L)).thenReturn(Optional.of(location));
+
+		when(utilizationRollupRepository.sumByLocationBetween(1L, MONDAY, MONDAY.plusDays(13))).thenReturn(List.of(
+				new UtilizationTotal(1L, DayOfWeek.MONDAY, 9, 600),
+				new UtilizationTotal(2L, DayOfWeek.MONDAY, 9, 300),
+				new UtilizationTotal(3L, DayOfWeek.TUESDAY, 14, 60)));
+	}
+
+	@Test
+	@DisplayName("getUtilization() should divide the reserved minutes per room by the minutes available on those days")
+	void getUtilizationShouldAggregatePerRoom() {
+		var utilization = utilizationService.getUtilization(1L, MONDAY, MONDAY.plusDays(13), UtilizationLevel.ROOM);
+
+		assertEquals(List.of(
+				new Utilization(1L, -1, 3L, DayOfWeek.TUESDAY, 14, 60, 60 / 600.0),
+				new Utilization(1L, 1, 1L, DayOfWeek.MONDAY, 9, 600, 600 / 1200.0),
+				new Utilization(1L, 1, 2L, DayOfWeek.MONDAY, 9, 300, 300 / 600.0)
+		), utilization);
+	}
+
+	@Test
+	@DisplayName("getUtilization() should add up the rooms per floor and per location")
+	void getUtilizationShouldAggregatePerFloorAndLocation() {
+		assertEquals(List.of(
+				new Utilization(1L, -1, null, DayOfWeek.TUESDAY, 14, 60, 60 / 600.0),
+				new Utilization(1L, 1, null, DayOfWeek.MONDAY, 9, 900, 900 / 1800.0)
+		), utilizationService.getUtilization(1L, MONDAY, MONDAY.plusDays(13), UtilizationLevel.FLOOR));
+
+		assertEquals(List.of(
+				new Utilization(1L, null, null, DayOfWeek.MONDAY, 9, 900, 900 / 2400.0),
+				new Utilization(1L, null, null, DayOfWeek.TUESDAY, 14, 60, 60 / 2400.0)
+		), utilizationService.getUtilization(1L, MONDAY, MONDAY.plusDays(13), UtilizationLevel.LOCATION));
+	}
+
+	@Test
+	@DisplayName("getUtilization() should throw InvalidDateRangeException if the range ends before it starts")
+	void getUtilizationShouldThrowIfRangeIsInvalid() {
+		var to = MONDAY.minusDays(1);
+
+		assertThrows(InvalidDateRangeException.class,
+				() -> utilizationService.getUtilization(1L, MONDAY, to, UtilizationLevel.ROOM));
+	}
+
+	@Test
+	@DisplayName("markChanged() should record the rolled up dates a deleted recurring reservation occurred on")
+	void markChangedShouldRecordRolledUpDates() {
+		var today = LocalDate.now();
+		var state = new UtilizationRollupState(1L);
+		state.rolledUp(today.minusDays(3));
+		when(utilizationRollupStateRepository.findForUpdateByLocationId(1L)).thenReturn(Optional.of(state));
+
+		utilizationService.markChanged(reservation(today.minusDays(10), RecurrencePattern.WEEKLY));
+
+		assertEquals(today.minusDays(10), state.getChangedFrom());
+		assertEquals(today.minusDays(3), state.getChangedUntil());
+
+		utilizationService.markChanged(reservation(today.minusDays(12), RecurrencePattern.NONE));
+
+		assertEquals(today.minusDays(12), state.getChangedFrom());
+		assertEquals(today.minusDays(3), state.getChangedUntil());
+	}
+
+	@Test
+	@DisplayName("markChanged() should ignore reservations that have not been rolled up")
+	void markChangedShouldIgnoreDatesNotRolledUp() {
+		var today = LocalDate.now();
+		var state = new UtilizationRollupState(1L);
+		state.rolledUp(today.minusDays(3));
+		when(utilizationRollupStateRepository.findForUpdateByLocationId(1L)).thenReturn(Optional.of(state));
+
+		utilizationService.markChanged(reservation(today.minusDays(2), RecurrencePattern.NONE));
+		utilizationService.markChanged(reservation(today, RecurrencePattern.DAILY));
+
+		assertNull(state.getChangedFrom());
+		verify(utilizationRollupStateRepository, times(1)).findForUpdateByLocationId(anyLong());
+	}
+
+	private Reservation reservation(LocalDate date, RecurrencePattern pattern) {
+		return new Reservation(1L, date, LocalTime.of(9, 0), LocalTime.of(10, 0), null, room, 1,
+				new Recurrence(pattern != RecurrencePattern.NONE, pattern), true);
+	}
+}
@@ -0,0 +1,149 @@
+package com.quintor.worqplace.application.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+	private AtomicLong time;
+	private BoundedCache<Integer, String> cache;
+
+	@BeforeEach
+	void initialize() {
+		this.time = new AtomicLong();
+		this.cache = new BoundedCache<>(100, Duration.ofSeconds(60), time::get);
+	}
+
+	@Test
+	@DisplayName("get should give the cached value until it expires")
+	void getShouldGiveCachedValueUntilItExpires() {
+		cache.put(1, "one");
+		assertEquals("one", cache.get(1));
+		assertNull(cache.get(2));
+
+		time.addAndGet(Duration.ofSeconds(60).toNanos());
+
+		assertNull(cache.get(1));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	@DisplayName("put should let an entry with its own duration expire at that duration")
+	void putShouldUseDurationOfEntry() {
+		cache.put(1, "short", Duration.ofSeconds(5));
+		cache.put(2, "default");
+
+		time.addAndGet(Duration.ofSeconds(5).toNanos());
+
+		assertNull(cache.get(1));
+		assertEquals("default", cache.get(2));
+	}
+
+	@Test
+	@DisplayName("containsKey should only find entries that have not expired")
+	void containsKeyShouldOnlyFindEntriesThatHaveNotExpired() {
+		cache.put(1, "one");
+		cache.get(1);
+
+		assertTrue(cache.containsKey(1));
+		assertFalse(cache.containsKey(2));
+
+		time.addAndGet(Duration.ofSeconds(60).toNanos());
+
+		assertFalse(cache.containsKey(1));
+	}
+
+	@Test
+	@DisplayName("remove and clear should remove the entries from every segment")
+	void removeAndClearShouldRemoveEntries() {
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, String.valueOf(i));
+			cache.get(i % 10);
+		}
+
+		cache.remove(1);
+		cache.remove(49);
+		cache.remove(100);
+
+		assertNull(cache.get(1));
+		assertNull(cache.get(49));
+		assertEquals(48, cache.size());
+
+		cache.clear();
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	@DisplayName("put should never grow the cache beyond its maximum size")
+	void putShouldNeverExceedMaximumSize() {
+		for (int i = 0; i < 1_000; i++)
+			cache.put(i, "value");
+
+		assertEquals(100, cache.size());
+		assertEquals(900, cache.evictionCount());
+	}
+
+	@Test
+	@DisplayName("put should keep frequently requested entries when one-off entries flood the cache")
+	void putShouldKeepFrequentlyRequestedEntries() {
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, "popular");
+			for (int hit = 0; hit < 5; hit++)
+				cache.get(i);
+		}
+
+		for (int i = 1_000; i < 1_500; i++)
+			cache.put(i, "one-off");
+
+		for (int i = 0; i < 50; i++)
+			assertEquals("popular", cache.get(i));
+	}
+
+	@Test
+	@DisplayName("removeIf should only remove the matching entries")
+	void removeIfShouldOnlyRemoveMatchingEntries() {
+		for (int i = 0; i < 10; i++)
+			cache.put(i, "value");
+		cache.get(2);
+
+		assertEquals(5, cache.removeIf(key -> key % 2 == 0));
+
+		assertNull(cache.get(2));
+		assertEquals("value", cache.get(3));
+		assertEquals(5, cache.size());
+	}
+
+	@Test
+	@DisplayName("constructor should reject a maximum size below 2")
+	void constructorShouldRejectTooSmallMaximumSize() {
+		var expireAfterWrite = Duration.ofSeconds(1);
+		assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, expireAfterWrite));
+	}
+
+	@Test
+	@DisplayName("the removal listener should be told about every evicted and expired key")
+	void removalListenerShouldReceiveEvictedAndExpiredKeys() {
+		var keys = new HashSet<Integer>();
+		var listenedCache = new BoundedCache<Integer, String>(10, Duration.ofSeconds(60), time::get, keys::remove);
+
+		for (int i = 0; i < 50; i++) {
+			listenedCache.put(i, "value");
+			keys.add(i);
+		}
+
+		assertEquals(10, keys.size());
+		keys.forEach(key -> assertTrue(listenedCache.containsKey(key)));
+
+		time.addAndGet(Duration.ofSeconds(60).toNanos());
+		new HashSet<>(keys).forEach(listenedCache::get);
+
+		assertTrue(keys.isEmpty());
+	}
+}
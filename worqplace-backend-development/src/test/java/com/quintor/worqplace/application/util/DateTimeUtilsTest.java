@@ -1,16 +1,22 @@
 package com.quintor.worqplace.application.util;
 
 import com.quintor.worqplace.application.exceptions.InvalidDayException;
+import com.quintor.worqplace.application.exceptions.InvalidGranularityException;
 import com.quintor.worqplace.application.exceptions.InvalidStartAndEndTimeException;
 import com.quintor.worqplace.domain.Recurrence;
 import com.quintor.worqplace.domain.RecurrencePattern;
+import com.quintor.worqplace.domain.Reservation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.WeekFields;
 
 import static com.quintor.worqplace.application.util.DateTimeUtils.checkReservationDateTime;
+import static com.quintor.worqplace.application.util.DateTimeUtils.datesOverlap;
+import static com.quintor.worqplace.application.util.DateTimeUtils.parseGranularity;
 import static com.quintor.worqplace.application.util.DateTimeUtils.timeslotsOverlap;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -164,4 +170,101 @@ class DateTimeUtilsTest {
 	void shouldReturnFalseWhenDifferentDatesWithMonthlyRecurrence() {
 		assertFalse(timeslotsOverlap(TOMORROW, ONE, FOUR, MONTHLY_RECURRENCE, TODAY, ONE, FOUR));
 	}
+
+	@Test
+	@DisplayName("parseGranularity() should accept minutes, hours and ISO durations")
+	void parseGranularityShouldAcceptSupportedFormats() {
+		assertEquals(Duration.ofMinutes(15), parseGranularity("15m"));
+		assertEquals(Duration.ofHours(1), parseGranularity("1H"));
+		assertEquals(Duration.ofMinutes(30), parseGranularity("PT30M"));
+	}
+
+	@Test
+	@DisplayName("parseGranularity() should throw InvalidGranularityException on invalid input")
+	void parseGranularityShouldThrowOnInvalidInput() {
+		assertThrows(InvalidGranularityException.class, () -> parseGranularity("abc"));
+		assertThrows(InvalidGranularityException.class, () -> parseGranularity("0m"));
+		assertThrows(InvalidGranularityException.class, () -> parseGranularity("PT30S"));
+		assertThrows(InvalidGranularityException.class, () -> parseGranularity("-5m"));
+	}
+
+	@Test
+	@DisplayName("should keep the bi weekly parity across a year with 53 weeks")
+	void shouldKeepBiWeeklyParityAcrossYears() {
+		// 2020 has 53 ISO weeks, so week 53 and week 1 of 2021 are one week apart but both odd.
+		var existing = LocalDate.of(2020, 12, 28);
+		assertFalse(datesOverlap(existing, BIWEEKLY_RECURRENCE, LocalDate.of(2021, 1, 4)));
+		assertTrue(datesOverlap(existing, BIWEEKLY_RECURRENCE, LocalDate.of(2021, 1, 11)));
+		assertFalse(datesOverlap(existing, BIWEEKLY_RECURRENCE, LocalDate.of(2020, 12, 21)));
+		assertTrue(datesOverlap(existing, BIWEEKLY_RECURRENCE, LocalDate.of(2020, 12, 14)));
+	}
+
+	@Test
+	@DisplayName("should give the same result with recurrence keys as with dates")
+	void shouldGiveSameResultWithRecurrenceKeys() {
+		var recurrences = new Recurrence[]{NO_RECURRENCE, DAILY_RECURRENCE, WEEKLY_RECURRENCE,
+				BIWEEKLY_RECURRENCE, MONTHLY_RECURRENCE};
+		var existingDate = LocalDate.of(2021, 11, 3);
+
+		for (var recurrence : recurrences) {
+			var existing = new Reservation(1L, existingDate, NINE, TWELVE, null, null, 1, recurrence, true);
+			for (int day = -40; day <= 120; day++) {
+				var newDate = existingDate.plusDays(day);
+				var key = RecurrenceKey.of(newDate);
+
+				assertEquals(datesOverlap(existingDate, recurrence, newDate),
+						datesOverlap(existing.getRecurrenceKey(), recurrence, key));
+				assertEquals(timeslotsOverlap(existingDate, NINE, TWELVE, recurrence, newDate, TWELVE, ONE),
+						timeslotsOverlap(existing, key, TWELVE, ONE));
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("datesOverlap should match the week number check it replaced for series within one year")
+	void datesOverlapShouldMatchWeekNumberCheckWithinOneYear() {
+		var recurrences = new Recurrence[]{WEEKLY_RECURRENCE, BIWEEKLY_RECURRENCE, MONTHLY_RECURRENCE};
+		var weekBasedYear = WeekFields.ISO.weekBasedYear();
+
+		for (var existing = LocalDate.of(2027, 1, 4); existing.getYear() == 2027; existing = existing.plusDays(3)) {
+			for (var newDate = existing; newDate.get(weekBasedYear) == existing.get(weekBasedYear); newDate = newDate.plusDays(1)) {
+				for (var recurrence : recurrences)
+					assertEquals(datesOverlapByWeekNumber(existing, recurrence, newDate),
+							datesOverlap(existing, recurrence, newDate), existing + " " + newDate);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("datesOverlap should deliberately differ from the week number check across years and for earlier dates")
+	void datesOverlapShouldDifferFromWeekNumberCheckAcrossYears() {
+		// Three weeks apart, but week 1 and week 51 have the same parity.
+		var existing = LocalDate.of(2026, 12, 14);
+		var threeWeeksLater = LocalDate.of(2027, 1, 4);
+		assertTrue(datesOverlapByWeekNumber(existing, BIWEEKLY_RECURRENCE, threeWeeksLater));
+		assertFalse(datesOverlap(existing, BIWEEKLY_RECURRENCE, threeWeeksLater));
+
+		// A negative odd difference was never rejected, as its remainder is -1.
+		var weekBefore = LocalDate.of(2027, 3, 8);
+		existing = LocalDate.of(2027, 3, 15);
+		assertTrue(datesOverlapByWeekNumber(existing, BIWEEKLY_RECURRENCE, weekBefore));
+		assertFalse(datesOverlap(existing, BIWEEKLY_RECURRENCE, weekBefore));
+	}
+
+	/**
+	 * The date check of the bi weekly, weekly and monthly recurrence before the epoch week parity, with the
+	 * ISO week numbers instead of those of the default locale.
+	 */
+	private static boolean datesOverlapByWeekNumber(LocalDate existingDate, Recurrence recurrence, LocalDate newDate) {
+		var weekOfYear = WeekFields.ISO.weekOfWeekBasedYear();
+		int difference = newDate.get(weekOfYear) - existingDate.get(weekOfYear);
+		boolean sameDayOfWeek = existingDate.getDayOfWeek() == newDate.getDayOfWeek();
+
+		return switch (recurrence.getRecurrencePattern()) {
+			case WEEKLY -> sameDayOfWeek;
+			case BIWEEKLY -> sameDayOfWeek && difference % 2 <= 0;
+			case MONTHLY -> existingDate.getDayOfMonth() == newDate.getDayOfMonth();
+			default -> true;
+		};
+	}
 }
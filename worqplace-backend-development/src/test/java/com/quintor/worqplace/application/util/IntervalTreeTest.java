@@ -0,0 +1,169 @@
+package com.quintor.worqplace.application.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+	private IntervalTree<String> tree;
+
+	@BeforeEach
+	void initialize() {
+		this.tree = new IntervalTree<>();
+		tree.add(9, 12, "morning");
+		tree.add(13, 17, "afternoon");
+		tree.add(8, 18, "day");
+	}
+
+	@Test
+	@DisplayName("forEachOverlapping should only give the overlapping values")
+	void forEachOverlappingShouldOnlyGiveOverlappingValues() {
+		var found = new ArrayList<String>();
+		tree.forEachOverlapping(10, 11, found::add);
+
+		assertEquals(2, found.size());
+		assertTrue(found.containsAll(List.of("morning", "day")));
+	}
+
+	@Test
+	@DisplayName("forEachOverlapping should treat touching intervals as overlapping")
+	void forEachOverlappingShouldTreatTouchingIntervalsAsOverlapping() {
+		var found = new ArrayList<String>();
+		tree.forEachOverlapping(12, 13, found::add);
+
+		assertEquals(3, found.size());
+	}
+
+	@Test
+	@DisplayName("forEachOverlapping should give nothing when nothing overlaps")
+	void forEachOverlappingShouldGiveNothingWhenNothingOverlaps() {
+		var found = new ArrayList<String>();
+		tree.forEachOverlapping(19, 20, found::add);
+
+		assertTrue(found.isEmpty());
+	}
+
+	@Test
+	@DisplayName("remove should remove the value by identity")
+	void removeShouldRemoveValue() {
+		assertTrue(tree.remove(9, "morning"));
+		assertFalse(tree.remove(9, "morning"));
+		assertFalse(tree.remove(13, "day"));
+		assertEquals(2, tree.size());
+
+		var found = new ArrayList<String>();
+		tree.forEachOverlapping(10, 11, found::add);
+		assertEquals(List.of("day"), found);
+	}
+
+	@Test
+	@DisplayName("isEmpty should return true for a new tree")
+	void isEmptyShouldReturnTrueForNewTree() {
+		assertTrue(new IntervalTree<String>().isEmpty());
+		assertFalse(tree.isEmpty());
+	}
+
+	@Test
+	@DisplayName("forEachOverlapping should give the same result as checking every interval")
+	void forEachOverlappingShouldMatchCheckingEveryInterval() {
+		var random = new Random(42);
+		var intervals = new ArrayList<long[]>();
+		var randomTree = new IntervalTree<long[]>();
+
+		for (int i = 0; i < 500; i++) {
+			long start = random.nextInt(1000);
+			long[] interval = {start, start + random.nextInt(100)};
+			intervals.add(interval);
+			randomTree.add(interval[0], interval[1], interval);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			long start = random.nextInt(1100);
+			long end = start + random.nextInt(50);
+			long expected = intervals.stream()
+					.filter(interval -> interval[0] <= end && interval[1] >= start)
+					.count();
+
+			var found = new ArrayList<long[]>();
+			randomTree.forEachOverlapping(start, end, found::add);
+			assertEquals(expected, found.size());
+		}
+	}
+
+	@Test
+	@DisplayName("add should keep the tree balanced when values are added in order")
+	void addShouldKeepTreeBalanced() {
+		var orderedTree = new IntervalTree<String>();
+		var values = new ArrayList<String>();
+		for (int i = 0; i < 1024; i++) {
+			values.add("value-" + i);
+			orderedTree.add(i, i + 1, values.get(i));
+		}
+
+		assertEquals(1024, orderedTree.size());
+		assertTrue(orderedTree.height() <= 15);
+
+		for (int i = 0; i < 1000; i++)
+			assertTrue(orderedTree.remove(i, values.get(i)));
+
+		assertEquals(24, orderedTree.size());
+		assertTrue(orderedTree.height() <= 7);
+	}
+
+	@Test
+	@DisplayName("remove should find the value among values with the same start")
+	void removeShouldFindValueAmongEqualStarts() {
+		var equalTree = new IntervalTree<String>();
+		var values = new ArrayList<String>();
+		for (int i = 0; i < 20; i++) {
+			var value = "value-" + i;
+			values.add(value);
+			equalTree.add(5, 5 + i, value);
+		}
+
+		assertFalse(equalTree.remove(5, new String("value-3")));
+		assertTrue(equalTree.remove(5, values.get(3)));
+		assertTrue(equalTree.remove(5, values.get(17)));
+
+		var found = new ArrayList<String>();
+		equalTree.forEachOverlapping(18, 30, found::add);
+		assertEquals(List.of("value-13", "value-14", "value-15", "value-16", "value-18", "value-19"), found);
+	}
+
+	@Test
+	@DisplayName("forEachOverlapping should match checking every interval after adding and removing values")
+	void forEachOverlappingShouldMatchAfterRemovals() {
+		var random = new Random(7);
+		var intervals = new ArrayList<long[]>();
+		var randomTree = new IntervalTree<long[]>();
+
+		for (int i = 0; i < 2000; i++) {
+			if (!intervals.isEmpty() && random.nextInt(3) == 0) {
+				var removed = intervals.remove(random.nextInt(intervals.size()));
+				assertTrue(randomTree.remove(removed[0], removed));
+			} else {
+				long start = random.nextInt(200);
+				long[] interval = {start, start + random.nextInt(30)};
+				intervals.add(interval);
+				randomTree.add(interval[0], interval[1], interval);
+			}
+
+			long start = random.nextInt(230);
+			long end = start + random.nextInt(20);
+			long expected = intervals.stream()
+					.filter(interval -> interval[0] <= end && interval[1] >= start)
+					.count();
+
+			var found = new ArrayList<long[]>();
+			randomTree.forEachOverlapping(start, end, found::add);
+			assertEquals(expected, found.size());
+			assertEquals(intervals.size(), randomTree.size());
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.quintor.worqplace.application.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+	private LatencyHistogram histogram;
+
+	@BeforeEach
+	void initialize() {
+		this.histogram = new LatencyHistogram();
+	}
+
+	@Test
+	@DisplayName("percentile should be 0 when nothing was recorded")
+	void percentileShouldBeZeroWithoutRecordings() {
+		assertEquals(0, histogram.percentile(0.99));
+		assertEquals(0, histogram.count());
+		assertEquals(0, histogram.max());
+	}
+
+	@Test
+	@DisplayName("percentile should be within ten percent of the recorded durations")
+	void percentileShouldBeCloseToRecordedDurations() {
+		for (int millis = 1; millis <= 100; millis++)
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(50), histogram.percentile(0.5), TimeUnit.MILLISECONDS.toNanos(5));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(95), histogram.percentile(0.95), TimeUnit.MILLISECONDS.toNanos(9));
+		assertTrue(histogram.percentile(0.5) >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), histogram.percentile(1));
+	}
+
+	@Test
+	@DisplayName("record should keep the count, sum and maximum")
+	void recordShouldKeepCountSumAndMax() {
+		histogram.record(-5);
+		histogram.record(500);
+		histogram.record(3_000);
+
+		assertEquals(3, histogram.count());
+		assertEquals(3_500, histogram.sum());
+		assertEquals(3_000, histogram.max());
+		assertEquals(1_024, histogram.percentile(0.5));
+	}
+
+	@Test
+	@DisplayName("percentile should be capped by the maximum for durations beyond the last bucket")
+	void percentileShouldBeCappedByMaximum() {
+		var duration = TimeUnit.MINUTES.toNanos(10);
+		histogram.record(duration);
+
+		assertEquals(duration, histogram.percentile(0.99));
+	}
+}
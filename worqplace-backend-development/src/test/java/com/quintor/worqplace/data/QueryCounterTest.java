@@ -0,0 +1,84 @@
+package com.quintor.worqplace.data;
+
+import com.quintor.worqplace.application.util.QueryCount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCounterTest {
+	private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+	private final JdbcTimingSessionListener listener = new JdbcTimingSessionListener();
+
+	@AfterEach
+	void tearDown() {
+		QueryCounter.stop();
+	}
+
+	@Test
+	@DisplayName("stop should give the statements and JDBC time since start")
+	void stopShouldGiveCountSinceStart() {
+		QueryCounter.start(10);
+		assertEquals("select 1", inspector.inspect("select 1"));
+		listener.jdbcExecuteStatementStart();
+		listener.jdbcExecuteStatementEnd();
+		inspector.inspect("insert into room values (?)");
+		listener.jdbcExecuteBatchStart();
+		listener.jdbcExecuteBatchEnd();
+
+		var count = QueryCounter.stop();
+
+		assertEquals(2, count.statements());
+		assertTrue(count.jdbcNanos() >= 0);
+		assertEquals(new QueryCount(0, 0, 0), QueryCounter.stop());
+	}
+
+	@Test
+	@DisplayName("statements should not be counted outside a request")
+	void statementsShouldNotBeCountedWithoutStart() {
+		inspector.inspect("select 1");
+		listener.jdbcExecuteStatementStart();
+		listener.jdbcExecuteStatementEnd();
+
+		assertEquals(new QueryCount(0, 0, 0), QueryCounter.stop());
+	}
+
+	@Test
+	@DisplayName("a statement over the budget should be counted instead of refused")
+	void statementOverBudgetShouldOnlyBeCounted() {
+		QueryCounter.start(1);
+		inspector.inspect("select 1");
+		assertEquals("select 2", inspector.inspect("select 2"));
+
+		var count = QueryCounter.stop();
+		assertEquals(2, count.statements());
+		assertEquals(1, count.budget());
+	}
+
+	@Test
+	@DisplayName("addItems should raise the budget by the statements per item")
+	void addItemsShouldRaiseBudget() {
+		QueryCounter.start(1, 2);
+		QueryCounter.addItems(3);
+		for (int i = 0; i < 8; i++)
+			inspector.inspect("select " + i);
+
+		var count = QueryCounter.stop();
+		assertEquals(8, count.statements());
+		assertEquals(7, count.budget());
+	}
+
+	@Test
+	@DisplayName("resume should continue a count that was stopped on another thread")
+	void resumeShouldContinueCount() {
+		QueryCounter.resume(new QueryCount(2, 5, 3));
+		inspector.inspect("select 1");
+		inspector.inspect("select 2");
+
+		var count = QueryCounter.stop();
+		assertEquals(4, count.statements());
+		assertEquals(5, count.jdbcNanos());
+		assertEquals(3, count.budget());
+	}
+}
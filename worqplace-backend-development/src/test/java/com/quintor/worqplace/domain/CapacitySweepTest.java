@@ -0,0 +1,221 @@
+package com.quintor.worqplace.domain;
+
+import com.quintor.worqplace.application.util.DateTimeUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacitySweepTest {
+	private static final LocalDate TODAY = LocalDate.now();
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static final LocalTime TEN = LocalTime.of(10, 0);
+	private static final LocalTime ELEVEN = LocalTime.of(11, 0);
+	private static final LocalTime TWELVE = LocalTime.of(12, 0);
+	private static final Recurrence NO_RECURRENCE = new Recurrence(false, RecurrencePattern.NONE);
+	private static final Recurrence WEEKLY_RECURRENCE = new Recurrence(true, RecurrencePattern.WEEKLY);
+	private static final Recurrence BIWEEKLY_RECURRENCE = new Recurrence(true, RecurrencePattern.BIWEEKLY);
+
+	@Test
+	@DisplayName("peakReservedWorkplaces should only count reservations that are in use at the same moment")
+	void peakReservedWorkplacesShouldOnlyCountConcurrentReservations() {
+		var morning = new Reservation(1L, TODAY, NINE, TEN, null, null, 2, NO_RECURRENCE);
+		var noon = new Reservation(2L, TODAY, ELEVEN, TWELVE, null, null, 3, NO_RECURRENCE);
+		var requested = new Reservation(3L, TODAY, NINE, TWELVE, null, null, 1, NO_RECURRENCE);
+		var index = new OccupancyIndex(List.of(morning, noon));
+
+		assertEquals(3, CapacitySweep.peakReservedWorkplaces(requested, index));
+		assertFalse(CapacitySweep.exceedsCapacity(requested, index, 4));
+		assertTrue(CapacitySweep.exceedsCapacity(requested, index, 3));
+	}
+
+	@Test
+	@DisplayName("peakReservedWorkplaces should treat reservations that touch as concurrent")
+	void peakReservedWorkplacesShouldTreatTouchingReservationsAsConcurrent() {
+		var morning = new Reservation(1L, TODAY, NINE, TEN, null, null, 2, NO_RECURRENCE);
+		var later = new Reservation(2L, TODAY, TEN, TWELVE, null, null, 3, NO_RECURRENCE);
+		var requested = new Reservation(3L, TODAY, NINE, TWELVE, null, null, 1, NO_RECURRENCE);
+
+		assertEquals(5, CapacitySweep.peakReservedWorkplaces(requested, new OccupancyIndex(List.of(morning, later))));
+	}
+
+	@Test
+	@DisplayName("peakReservedWorkplaces should ignore the requested reservation itself")
+	void peakReservedWorkplacesShouldIgnoreRequestedReservation() {
+		var requested = new Reservation(1L, TODAY, NINE, TEN, null, null, 4, WEEKLY_RECURRENCE);
+
+		assertEquals(0, CapacitySweep.peakReservedWorkplaces(requested, new OccupancyIndex(List.of(requested))));
+	}
+
+	@Test
+	@DisplayName("exceedsCapacity should find conflicts in later occurrences")
+	void exceedsCapacityShouldFindConflictsInLaterOccurrences() {
+		var biweekly = new Reservation(1L, TODAY, NINE, TEN, null, null, 15, BIWEEKLY_RECURRENCE);
+		var requested = new Reservation(2L, TODAY.plusWeeks(1), NINE, TEN, null, null, 1, WEEKLY_RECURRENCE);
+		var oneOff = new Reservation(3L, TODAY.plusWeeks(1), NINE, TEN, null, null, 1, NO_RECURRENCE);
+		var index = new OccupancyIndex(List.of(biweekly));
+
+		assertTrue(CapacitySweep.exceedsCapacity(requested, index, 15));
+		assertFalse(CapacitySweep.exceedsCapacity(oneOff, index, 15));
+	}
+
+	@Test
+	@DisplayName("exceedsCapacity should find conflicts with reservations that start after the horizon")
+	void exceedsCapacityShouldFindConflictsAfterHorizon() {
+		var requested = new Reservation(1L, TODAY, NINE, TEN, null, null, 1, WEEKLY_RECURRENCE);
+		var oneOff = new Reservation(2L, TODAY.plusWeeks(57), NINE, TEN, null, null, 15, NO_RECURRENCE);
+		var biweekly = new Reservation(3L, TODAY.plusWeeks(80), NINE, TEN, null, null, 15, BIWEEKLY_RECURRENCE);
+
+		assertTrue(CapacitySweep.exceedsCapacity(requested, new OccupancyIndex(List.of(oneOff)), 15));
+		assertTrue(CapacitySweep.exceedsCapacity(requested, new OccupancyIndex(List.of(biweekly)), 15));
+		assertFalse(CapacitySweep.exceedsCapacity(requested, new OccupancyIndex(List.of(oneOff)), 16));
+
+		var dates = new ArrayList<>(CapacitySweep.occurrences(requested));
+		dates.add(oneOff.getDate());
+		assertEquals(dates, CapacitySweep.occurrences(requested, new OccupancyIndex(List.of(oneOff))));
+	}
+
+	@Test
+	@DisplayName("occurrences should expand a recurring reservation up to the horizon")
+	void occurrencesShouldExpandUpToHorizon() {
+		var daily = new Reservation(1L, TODAY, NINE, TEN, null, null, 1, new Recurrence(true, RecurrencePattern.DAILY));
+		var weekly = new Reservation(2L, TODAY, NINE, TEN, null, null, 1, WEEKLY_RECURRENCE);
+		var monthly = new Reservation(3L, TODAY, NINE, TEN, null, null, 1, new Recurrence(true, RecurrencePattern.MONTHLY));
+		var oneOff = new Reservation(4L, TODAY, NINE, TEN, null, null, 1, NO_RECURRENCE);
+		var last = TODAY.plus(CapacitySweep.HORIZON);
+
+		var dailyOccurrences = CapacitySweep.occurrences(daily);
+		assertEquals(TODAY, dailyOccurrences.get(0));
+		assertEquals(last, dailyOccurrences.get(dailyOccurrences.size() - 1));
+		assertTrue(CapacitySweep.occurrences(weekly).stream()
+				.allMatch(date -> date.getDayOfWeek() == TODAY.getDayOfWeek()));
+		assertTrue(CapacitySweep.occurrences(monthly).stream()
+				.allMatch(date -> date.getDayOfMonth() == TODAY.getDayOfMonth()));
+		assertEquals(List.of(TODAY), CapacitySweep.occurrences(oneOff));
+	}
+
+	@Test
+	@DisplayName("occurrences should only expand a reservation between the requested dates")
+	void occurrencesShouldOnlyExpandBetweenDates() {
+		var started = TODAY.minusWeeks(10);
+		var weekly = new Reservation(1L, started, NINE, TEN, null, null, 1, WEEKLY_RECURRENCE, true);
+		var biweekly = new Reservation(2L, started, NINE, TEN, null, null, 1, BIWEEKLY_RECURRENCE, true);
+		var oneOff = new Reservation(3L, TODAY.plusDays(3), NINE, TEN, null, null, 1, NO_RECURRENCE);
+
+		assertEquals(List.of(started.plusWeeks(10), started.plusWeeks(11)),
+				CapacitySweep.occurrences(weekly, TODAY, TODAY.plusDays(13)));
+		assertEquals(List.of(started.plusWeeks(10)), CapacitySweep.occurrences(biweekly, TODAY, TODAY.plusDays(13)));
+		assertEquals(List.of(TODAY.plusDays(3)), CapacitySweep.occurrences(oneOff, TODAY, TODAY.plusDays(3)));
+		assertEquals(List.of(), CapacitySweep.occurrences(oneOff, TODAY.plusDays(4), TODAY.plusDays(5)));
+	}
+
+	@Test
+	@DisplayName("peakReservedWorkplaces should give the same result from slots as from the exact sweep")
+	void peakReservedWorkplacesShouldMatchExactSweep() {
+		var random = new Random(11);
+		var patterns = RecurrencePattern.values();
+		var reservations = new ArrayList<Reservation>();
+
+		for (long id = 1; id <= 300; id++) {
+			var date = TODAY.plusDays(random.nextInt(60));
+			var start = LocalTime.of(7 + random.nextInt(10), random.nextInt(4) * 15);
+			var end = start.plusMinutes(15L * random.nextInt(16));
+			var pattern = patterns[random.nextInt(patterns.length)];
+			reservations.add(new Reservation(id, date, start, end, null, null, 1 + random.nextInt(4),
+					new Recurrence(pattern != RecurrencePattern.NONE, pattern)));
+		}
+
+		for (int i = 0; i < 100; i++) {
+			var start = LocalTime.of(7 + random.nextInt(10), random.nextInt(4) * 15);
+			var end = start.plusMinutes(15L * random.nextInt(16));
+			var pattern = patterns[random.nextInt(patterns.length)];
+			var requested = new Reservation(1000L + i, TODAY.plusDays(random.nextInt(60)), start, end, null, null, 1,
+					new Recurrence(pattern != RecurrencePattern.NONE, pattern));
+
+			// The requested reservation is skipped by the sweep, but having it in the index disables the slots.
+			var withRequested = new ArrayList<>(reservations);
+			withRequested.add(requested);
+
+			assertEquals(CapacitySweep.peakReservedWorkplaces(requested, new OccupancyIndex(withRequested)),
+					CapacitySweep.peakReservedWorkplaces(requested, new OccupancyIndex(reservations)));
+		}
+	}
+
+	@Test
+	@DisplayName("peakReservedWorkplaces should fall back to the exact sweep for unaligned reservations")
+	void peakReservedWorkplacesShouldFallBackForUnalignedReservations() {
+		var unaligned = new Reservation(1L, TODAY, LocalTime.of(9, 5), LocalTime.of(9, 55), null, null, 2, NO_RECURRENCE);
+		var aligned = new Reservation(2L, TODAY, TEN, ELEVEN, null, null, 3, NO_RECURRENCE);
+		var requested = new Reservation(3L, TODAY, NINE, TWELVE, null, null, 1, NO_RECURRENCE);
+		var index = new OccupancyIndex(List.of(unaligned, aligned));
+
+		assertEquals(3, CapacitySweep.peakReservedWorkplaces(requested, index));
+		assertFalse(index.getSlotOccupancy(TODAY).isExact());
+	}
+
+	@Test
+	@DisplayName("peakReservedWorkplaces should match checking every day of biweekly and monthly series starting in different weeks")
+	void peakReservedWorkplacesShouldMatchCheckingEveryDay() {
+		var random = new Random(23);
+		var patterns = new RecurrencePattern[]{RecurrencePattern.BIWEEKLY, RecurrencePattern.MONTHLY,
+				RecurrencePattern.WEEKLY, RecurrencePattern.NONE};
+		var reservations = new ArrayList<Reservation>();
+
+		for (long id = 1; id <= 80; id++) {
+			var pattern = patterns[random.nextInt(patterns.length)];
+			reservations.add(new Reservation(id, TODAY.plusDays(random.nextInt(70)), LocalTime.of(8 + random.nextInt(4), 0),
+					LocalTime.of(12 + random.nextInt(4), random.nextInt(2) * 30), null, null, 1 + random.nextInt(3),
+					new Recurrence(pattern != RecurrencePattern.NONE, pattern)));
+		}
+		var index = new OccupancyIndex(reservations);
+
+		for (int week = 0; week < 6; week++) {
+			for (var pattern : List.of(RecurrencePattern.BIWEEKLY, RecurrencePattern.MONTHLY)) {
+				var requested = new Reservation(1000L + week, TODAY.plusWeeks(week).plusDays(random.nextInt(7)),
+						LocalTime.of(9 + random.nextInt(3), 15), LocalTime.of(13, 45), null, null, 1,
+						new Recurrence(true, pattern));
+
+				assertEquals(peakCheckingEveryDay(requested, reservations),
+						CapacitySweep.peakReservedWorkplaces(requested, index));
+			}
+		}
+	}
+
+	/**
+	 * Reference for the sweep: walks every day up to the horizon and, on the days the requested reservation
+	 * occurs, counts the reservations in use at the start of every reservation within the requested timeslot.
+	 */
+	private static int peakCheckingEveryDay(Reservation requested, List<Reservation> reservations) {
+		int peak = 0;
+		var last = requested.getDate().plus(CapacitySweep.HORIZON);
+		for (var date = requested.getDate(); !date.isAfter(last); date = date.plusDays(1)) {
+			if (!DateTimeUtils.datesOverlap(requested.getDate(), requested.getRecurrence(), date)) continue;
+
+			var day = date;
+			var occurring = reservations.stream()
+					.filter(reservation -> !day.isBefore(reservation.getDate()))
+					.filter(reservation -> DateTimeUtils.timeslotsOverlap(reservation.getDate(), reservation.getStartTime(),
+							reservation.getEndTime(), reservation.getRecurrence(), day, requested.getStartTime(),
+							requested.getEndTime()))
+					.toList();
+
+			for (var candidate : occurring) {
+				var moment = candidate.getStartTime().isAfter(requested.getStartTime())
+						? candidate.getStartTime() : requested.getStartTime();
+				int inUse = occurring.stream()
+						.filter(reservation -> !reservation.getStartTime().isAfter(moment)
+								&& !reservation.getEndTime().isBefore(moment))
+						.mapToInt(Reservation::getWorkplaceAmount)
+						.sum();
+				peak = Math.max(peak, inUse);
+			}
+		}
+		return peak;
+	}
+}
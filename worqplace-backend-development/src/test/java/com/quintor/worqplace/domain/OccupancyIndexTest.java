@@ -0,0 +1,111 @@
+package com.quintor.worqplace.domain;
+
+import com.quintor.worqplace.application.util.DateTimeUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OccupancyIndexTest {
+	private static final LocalDate TODAY = LocalDate.now();
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static final LocalTime TWELVE = LocalTime.of(12, 0);
+
+	@Test
+	@DisplayName("countReservedWorkplaces should count a reservation on its own date")
+	void countReservedWorkplacesShouldCountReservationOnItsDate() {
+		var reservation = new Reservation(1L, TODAY, NINE, TWELVE, null, null, 3,
+				new Recurrence(false, RecurrencePattern.NONE));
+		var index = new OccupancyIndex(List.of(reservation));
+
+		assertEquals(3, index.countReservedWorkplaces(TODAY, TWELVE, TWELVE, null));
+		assertEquals(0, index.countReservedWorkplaces(TODAY.plusDays(1), NINE, TWELVE, null));
+		assertEquals(0, index.countReservedWorkplaces(TODAY, NINE, TWELVE, reservation));
+	}
+
+	@Test
+	@DisplayName("countReservedWorkplaces should not count removed reservations")
+	void countReservedWorkplacesShouldNotCountRemovedReservations() {
+		var reservation = new Reservation(1L, TODAY, NINE, TWELVE, null, null, 3,
+				new Recurrence(true, RecurrencePattern.WEEKLY));
+		var index = new OccupancyIndex(null);
+		index.add(reservation);
+		index.remove(reservation);
+
+		assertEquals(0, index.countReservedWorkplaces(TODAY.plusWeeks(1), NINE, TWELVE, null));
+	}
+
+	@Test
+	@DisplayName("getLatestDate should follow the reservations that are added and removed")
+	void getLatestDateShouldFollowChanges() {
+		var today = new Reservation(1L, TODAY, NINE, TWELVE, null, null, 3,
+				new Recurrence(false, RecurrencePattern.NONE));
+		var later = new Reservation(2L, TODAY.plusYears(2), NINE, TWELVE, null, null, 3,
+				new Recurrence(true, RecurrencePattern.WEEKLY));
+		var index = new OccupancyIndex(null);
+		assertEquals(LocalDate.MIN, index.getLatestDate());
+
+		index.add(today);
+		index.add(later);
+		assertEquals(later.getDate(), index.getLatestDate());
+
+		var startingAfter = new ArrayList<Reservation>();
+		index.forEachStartingAfter(TODAY, startingAfter::add);
+		assertEquals(List.of(later), startingAfter);
+
+		index.remove(later);
+		assertEquals(TODAY, index.getLatestDate());
+	}
+
+	@Test
+	@DisplayName("countReservedWorkplaces should give the same result as checking every reservation")
+	void countReservedWorkplacesShouldMatchCheckingEveryReservation() {
+		var random = new Random(7);
+		var patterns = RecurrencePattern.values();
+		var reservations = new ArrayList<Reservation>();
+
+		for (long id = 1; id <= 400; id++) {
+			var date = TODAY.plusDays(random.nextInt(120) - 60L);
+			var start = LocalTime.of(7 + random.nextInt(10), random.nextInt(4) * 15);
+			var end = start.plusMinutes(15L + random.nextInt(240));
+			if (end.isBefore(start)) end = LocalTime.MAX;
+			var pattern = patterns[random.nextInt(patterns.length)];
+			reservations.add(new Reservation(id, date, start, end, null, null, 1 + random.nextInt(4),
+					new Recurrence(pattern != RecurrencePattern.NONE, pattern), true));
+		}
+
+		var index = new OccupancyIndex(reservations);
+
+		for (int i = 0; i < 300; i++) {
+			var date = TODAY.plusDays(random.nextInt(120) - 30L);
+			var start = LocalTime.of(6 + random.nextInt(12), random.nextInt(60));
+			var end = start.plusMinutes(random.nextInt(180));
+			if (end.isBefore(start)) end = LocalTime.MAX;
+			var excluded = reservations.get(random.nextInt(reservations.size()));
+
+			assertEquals(countByCheckingEveryReservation(reservations, date, start, end, excluded),
+					index.countReservedWorkplaces(date, start, end, excluded));
+		}
+	}
+
+	/**
+	 * Counts the reserved workplaces by checking every reservation, which is how {@link Room} did it
+	 * before the {@link OccupancyIndex} was introduced.
+	 */
+	private static int countByCheckingEveryReservation(List<Reservation> reservations, LocalDate date,
+	                                                   LocalTime startTime, LocalTime endTime, Reservation excluded) {
+		return reservations.stream()
+				.filter(reservation -> !reservation.getId().equals(excluded.getId()))
+				.filter(reservation -> reservation.isReservationActive(date) &&
+						!date.isBefore(reservation.getDate()) &&
+						DateTimeUtils.timeslotsOverlap(reservation.getDate(), reservation.getStartTime(),
+								reservation.getEndTime(), reservation.getRecurrence(), date, startTime, endTime))
+				.mapToInt(Reservation::getWorkplaceAmount).sum();
+	}
+}
@@ -129,4 +129,36 @@ class RoomTest {
 
 		assertTrue(room.isWorkplaceRecurrentlyAvailable(reservation1));
 	}
+
+	@Test
+	@DisplayName("getReservations should not allow the reservations to be modified")
+	void getReservationsShouldBeUnmodifiable() {
+		var room = new Room(id, floor, location, 15, new ArrayList<>());
+		var reservation = new Reservation(TODAY, ELEVEN, TWELVE, null, room, 1, new Recurrence(false, RecurrencePattern.NONE));
+
+		assertThrows(UnsupportedOperationException.class, () -> room.getReservations().add(reservation));
+		assertNull(new Room(id, floor, location, 15, null).getReservations());
+	}
+
+	@Test
+	@DisplayName("countReservedWorkplaces should see changes to a reservation that is already indexed")
+	void countReservedWorkplacesShouldSeeChangedReservation() {
+		var room = new Room(id, floor, location, 15, new ArrayList<>());
+		var reservation = new Reservation(TODAY, ELEVEN, TWELVE, null, room, 2, new Recurrence(false, RecurrencePattern.NONE));
+		room.addReservation(reservation);
+		assertEquals(2, room.countReservedWorkplaces(TODAY, ELEVEN, TWELVE));
+
+		reservation.setWorkplaceAmount(5);
+		assertEquals(5, room.countReservedWorkplaces(TODAY, ELEVEN, TWELVE));
+
+		reservation.setDate(NEXT_WEEK);
+		assertEquals(0, room.countReservedWorkplaces(TODAY, ELEVEN, TWELVE));
+
+		reservation.setRecurrence(new Recurrence(true, RecurrencePattern.DAILY));
+		assertEquals(5, room.countReservedWorkplaces(NEXT_WEEK.plusDays(1), ELEVEN, TWELVE));
+
+		reservation.setStartTime(TWELVE.plusHours(1));
+		reservation.setEndTime(TWELVE.plusHours(2));
+		assertEquals(0, room.countReservedWorkplaces(NEXT_WEEK, ELEVEN, TWELVE.minusMinutes(1)));
+	}
 }
@@ -0,0 +1,57 @@
+package com.quintor.worqplace.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotOccupancyTest {
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static final LocalTime TEN = LocalTime.of(10, 0);
+	private static final LocalTime ELEVEN = LocalTime.of(11, 0);
+
+	@Test
+	@DisplayName("isAligned should only accept times on a slot boundary")
+	void isAlignedShouldOnlyAcceptSlotBoundaries() {
+		assertTrue(SlotOccupancy.isAligned(LocalTime.of(9, 45)));
+		assertFalse(SlotOccupancy.isAligned(LocalTime.of(9, 40)));
+		assertFalse(SlotOccupancy.isAligned(LocalTime.of(9, 45, 30)));
+		assertFalse(SlotOccupancy.isAligned(LocalTime.MAX));
+	}
+
+	@Test
+	@DisplayName("peak should treat reservations that touch as concurrent")
+	void peakShouldTreatTouchingReservationsAsConcurrent() {
+		var occupancy = new SlotOccupancy();
+		occupancy.add(NINE, TEN, 2);
+		occupancy.add(TEN, ELEVEN, 3);
+
+		assertTrue(occupancy.isExact());
+		assertEquals(5, occupancy.peak(NINE, ELEVEN));
+		assertEquals(3, occupancy.peak(LocalTime.of(10, 15), ELEVEN));
+		assertEquals(2, occupancy.peak(LocalTime.of(9, 15), LocalTime.of(9, 45)));
+		assertEquals(0, occupancy.peak(LocalTime.of(11, 15), LocalTime.NOON));
+	}
+
+	@Test
+	@DisplayName("add should mark the occupancy as inexact for times that are not on a slot boundary")
+	void addShouldMarkUnalignedReservationsAsInexact() {
+		var occupancy = new SlotOccupancy();
+		occupancy.add(NINE, LocalTime.of(9, 10), 1);
+
+		assertFalse(occupancy.isExact());
+	}
+
+	@Test
+	@DisplayName("add should mark the occupancy as inexact when the amount does not fit")
+	void addShouldMarkOverflowAsInexact() {
+		var occupancy = new SlotOccupancy();
+		occupancy.add(NINE, TEN, Short.MAX_VALUE);
+		occupancy.add(NINE, TEN, 1);
+		occupancy.add(NINE, TEN, 1);
+
+		assertFalse(occupancy.isExact());
+	}
+}
@@ -0,0 +1,60 @@
+package com.quintor.worqplace.presentation;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.QueryBudgetExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+@ExtendWith(QueryBudgetExtension.class)
+class CacheControllerIntegrationTest {
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	@DisplayName("getSecondLevelCacheStatistics should give the statistics of the regions to an admin")
+	void getSecondLevelCacheStatisticsShouldGiveStatisticsToAdmin() {
+		var headers = new HttpHeaders();
+		headers.set("Authorization", login("admin@quintor.nl"));
+
+		var result = restTemplate.exchange("http://localhost:" + port + "/cache/statistics", HttpMethod.GET,
+				new HttpEntity<>(headers), String.class);
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		assertTrue(result.getBody().contains("\"region\":\"com.quintor.worqplace.domain.Employee\""));
+	}
+
+	@Test
+	@DisplayName("getSecondLevelCacheStatistics should not be accessible without logging in")
+	void getSecondLevelCacheStatisticsShouldRequireLogin() {
+		var result = restTemplate.getForEntity("http://localhost:" + port + "/cache/statistics", String.class);
+
+		assertNotEquals(HttpStatus.OK, result.getStatusCode());
+	}
+
+	private String login(String username) {
+		var result = restTemplate.postForEntity("http://localhost:" + port + "/login",
+				Map.of("username", username, "password", "Kaasje"), String.class);
+		return result.getHeaders().getFirst("Authorization");
+	}
+}
@@ -1,6 +1,7 @@
 package com.quintor.worqplace.presentation;
 
 import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.QueryBudgetExtension;
 import com.quintor.worqplace.domain.Address;
 import com.quintor.worqplace.domain.Location;
 import com.quintor.worqplace.presentation.dto.location.LocationDTO;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -20,6 +22,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,10 +34,12 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("ci")
 @Import(CiTestConfiguration.class)
+@ExtendWith(QueryBudgetExtension.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class LocationControllerIntegrationTest {
 
@@ -76,6 +84,98 @@ class LocationControllerIntegrationTest {
 		assertEquals(formattedResponse, this.restTemplate.exchange(request, String.class).getBody());
 	}
 
+	@Test
+	@DisplayName("getAvailabilityHeatmap() should return a bucket per granularity for every room")
+	void getAvailabilityHeatmapShouldReturnHeatmap() {
+		var request = RequestEntity.get(URI.create("http://localhost:" + port
+						+ "/locations/5/heatmap?from=2100-01-04T09:00:00&to=2100-01-04T11:00:00&granularity=1h"))
+				.header("Authorization", this.bearer)
+				.build();
+
+		var response = this.restTemplate.exchange(request, String.class);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(Objects.requireNonNull(response.getBody()).contains("\"granularityMinutes\":60"));
+		assertTrue(response.getBody().contains("\"id\":1,\"floor\":3,\"capacity\":24,\"free\":[24,24]"));
+	}
+
+	@Test
+	@DisplayName("getAvailabilityHeatmap() should return 422 on an invalid granularity")
+	void getAvailabilityHeatmapShouldRejectInvalidGranularity() {
+		var request = RequestEntity.get(URI.create("http://localhost:" + port
+						+ "/locations/5/heatmap?from=2100-01-04T09:00:00&to=2100-01-04T11:00:00&granularity=soon"))
+				.header("Authorization", this.bearer)
+				.build();
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, this.restTemplate.exchange(request, String.class).getStatusCode());
+	}
+
+	@Test
+	@DisplayName("streamOccupancy() should start the stream of a location with a resync event")
+	void streamOccupancyShouldStartWithResync() throws Exception {
+		var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/locations/5/occupancy/stream"))
+				.header("Authorization", this.bearer)
+				.header("Accept", "text/event-stream")
+				.timeout(Duration.ofSeconds(10))
+				.build();
+
+		var response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+		try (var lines = response.body()) {
+			assertEquals(HttpStatus.OK.value(), response.statusCode());
+			assertEquals("event:resync", lines.findFirst().orElseThrow());
+		}
+	}
+
+	@Test
+	@DisplayName("streamOccupancy() should return 404 for an unknown location")
+	void streamOccupancyShouldReturnNotFoundForUnknownLocation() {
+		var request = RequestEntity.get(URI.create("http://localhost:" + port + "/locations/999/occupancy/stream"))
+				.header("Authorization", this.bearer)
+				.build();
+
+		assertEquals(HttpStatus.NOT_FOUND, this.restTemplate.exchange(request, String.class).getStatusCode());
+	}
+
+	@Test
+	@DisplayName("getUtilization() should give the utilization of a location to an admin")
+	void getUtilizationShouldGiveUtilizationToAdmin() {
+		var response = getUtilization(loginAsAdmin(), 5L, "from=2020-01-01&to=2020-01-31&level=FLOOR");
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("[]", response.getBody());
+	}
+
+	@Test
+	@DisplayName("getUtilization() should return 422 when the range ends before it starts")
+	void getUtilizationShouldRejectInvalidRange() {
+		var response = getUtilization(loginAsAdmin(), 5L, "from=2020-01-31&to=2020-01-01");
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+	}
+
+	@Test
+	@DisplayName("getUtilization() should return 404 for an unknown location")
+	void getUtilizationShouldReturnNotFoundForUnknownLocation() {
+		var response = getUtilization(loginAsAdmin(), 999L, "from=2020-01-01&to=2020-01-31");
+
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+	}
+
+	private ResponseEntity<String> getUtilization(String bearer, Long locationId, String query) {
+		var request = RequestEntity.get(URI.create("http://localhost:" + port
+						+ "/locations/" + locationId + "/utilization?" + query))
+				.header("Authorization", bearer)
+				.build();
+
+		return this.restTemplate.exchange(request, String.class);
+	}
+
+	private String loginAsAdmin() {
+		return restTemplate.postForEntity("http://localhost:" + port + "/login",
+				Map.of("username", "admin@quintor.nl", "password", "Kaasje"), String.class)
+				.getHeaders().getFirst("Authorization");
+	}
+
 	private void setupBearerToken() {
 		try {
 			Map<String, String> map1 = new HashMap<>();
@@ -0,0 +1,105 @@
+package com.quintor.worqplace.presentation;
+
+import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.QueryBudgetExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ci")
+@Import(CiTestConfiguration.class)
+@ExtendWith(QueryBudgetExtension.class)
+class MetricsControllerIntegrationTest {
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	@DisplayName("scrape should give the timers and bound statistics in the Prometheus text format")
+	void scrapeShouldGiveMetricsInPrometheusFormat() {
+		var headers = new HttpHeaders();
+		headers.set("Authorization", login("admin@quintor.nl"));
+		var entity = new HttpEntity<>(headers);
+
+		restTemplate.exchange("http://localhost:" + port + "/rooms/availability?locationId=5&date="
+				+ LocalDate.now().plusDays(1) + "&start=09:00&end=10:00", HttpMethod.GET, entity, String.class);
+		var result = scrape(basic("prometheus", "scrape-secret"));
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		assertTrue(result.getHeaders().getContentType().toString().startsWith("text/plain"));
+		var body = result.getBody();
+		assertTrue(body.contains("# TYPE worqplace_room_availability_seconds summary"));
+		assertTrue(body.contains(
+				"worqplace_room_availability_seconds_count{location=\"5\",query=\"availability\",outcome=\"accepted\"}"));
+		assertTrue(body.contains("quantile=\"0.95\""));
+		assertTrue(body.contains("worqplace_jwt_verification_seconds_count{outcome=\"accepted\"}"));
+		assertTrue(body.contains("# TYPE hibernate_statements_total counter"));
+		assertTrue(body.contains("worqplace_availability_cache_requests_total{result=\"miss\"}"));
+	}
+
+	@Test
+	@DisplayName("scrape should not be accessible without the scrape credential")
+	void scrapeShouldRequireScrapeCredential() {
+		var result = restTemplate.getForEntity("http://localhost:" + port + "/metrics/prometheus", String.class);
+
+		assertNotEquals(HttpStatus.OK, result.getStatusCode());
+		assertNotEquals(HttpStatus.OK, scrape(basic("prometheus", "wrong")).getStatusCode());
+	}
+
+	@Test
+	@DisplayName("scrape should not accept the token of a user, not even of an admin")
+	void scrapeShouldRejectUserToken() {
+		assertEquals(HttpStatus.FORBIDDEN, scrape(login("admin@quintor.nl")).getStatusCode());
+	}
+
+	@Test
+	@DisplayName("the scrape credential should not give access to other endpoints")
+	void scrapeCredentialShouldOnlyGiveAccessToMetrics() {
+		var headers = new HttpHeaders();
+		headers.set("Authorization", basic("prometheus", "scrape-secret"));
+
+		var result = restTemplate.exchange("http://localhost:" + port + "/locations", HttpMethod.GET,
+				new HttpEntity<>(headers), String.class);
+
+		assertNotEquals(HttpStatus.OK, result.getStatusCode());
+	}
+
+	private ResponseEntity<String> scrape(String authorization) {
+		var headers = new HttpHeaders();
+		headers.set("Authorization", authorization);
+		return restTemplate.exchange("http://localhost:" + port + "/metrics/prometheus", HttpMethod.GET,
+				new HttpEntity<>(headers), String.class);
+	}
+
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder()
+				.encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String login(String username) {
+		var result = restTemplate.postForEntity("http://localhost:" + port + "/login",
+				Map.of("username", username, "password", "Kaasje"), String.class);
+		return result.getHeaders().getFirst("Authorization");
+	}
+}
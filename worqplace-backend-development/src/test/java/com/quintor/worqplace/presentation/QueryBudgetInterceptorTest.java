@@ -0,0 +1,143 @@
+package com.quintor.worqplace.presentation;
+
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.data.QueryCounter;
+import com.quintor.worqplace.data.QueryCountingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetInterceptorTest {
+	private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+	private MetricsRegistry metricsRegistry;
+	private QueryBudgetInterceptor interceptor;
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	void initialize() {
+		this.metricsRegistry = new MetricsRegistry();
+		this.interceptor = new QueryBudgetInterceptor(metricsRegistry, 1);
+		this.request = new MockHttpServletRequest("GET", "/budgeted");
+		this.response = new MockHttpServletResponse();
+	}
+
+	@Test
+	@DisplayName("afterCompletion should keep the count and count the requests over the budget of the endpoint")
+	void afterCompletionShouldCountRequestsOverBudget() throws NoSuchMethodException {
+		var handler = new HandlerMethod(this, getClass().getDeclaredMethod("budgeted"));
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/budgeted");
+
+		assertTrue(interceptor.preHandle(request, response, handler));
+		inspector.inspect("select 1");
+		inspector.inspect("select 2");
+		interceptor.afterCompletion(request, response, handler, null);
+
+		assertEquals(2, interceptor.getLastQueryCount("GET /budgeted").orElseThrow().statements());
+		assertFalse(metricsRegistry.scrape().contains(QueryBudgetInterceptor.EXCEEDED_COUNTER.replace('.', '_')));
+		assertTrue(interceptor.getExceededQueryCounts().isEmpty());
+
+		interceptor.preHandle(request, response, handler);
+		inspector.inspect("select 1");
+		inspector.inspect("select 2");
+		inspector.inspect("select 3");
+		interceptor.afterCompletion(request, response, handler, null);
+
+		assertTrue(metricsRegistry.scrape().contains("worqplace_query_budget_exceeded_total{endpoint=\"GET /budgeted\"} 1"));
+		assertEquals(3, interceptor.getExceededQueryCounts().get("GET /budgeted").statements());
+
+		interceptor.clearQueryCounts();
+		assertTrue(interceptor.getExceededQueryCounts().isEmpty());
+		assertTrue(interceptor.getLastQueryCount("GET /budgeted").isEmpty());
+	}
+
+	@Test
+	@DisplayName("the default budget should apply to endpoints without a budget, requests without a handler method are ignored")
+	void defaultBudgetShouldApplyWithoutAnnotation() throws NoSuchMethodException {
+		var handler = new HandlerMethod(this, getClass().getDeclaredMethod("unbudgeted"));
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/unbudgeted");
+
+		interceptor.preHandle(request, response, handler);
+		interceptor.afterConcurrentHandlingStarted(request, response, handler);
+		interceptor.preHandle(request, response, handler);
+		inspector.inspect("select 1");
+		inspector.inspect("select 2");
+		interceptor.afterCompletion(request, response, handler, null);
+		interceptor.afterCompletion(request, response, new Object(), null);
+
+		assertEquals(2, interceptor.getLastQueryCount("GET /unbudgeted").orElseThrow().statements());
+		assertTrue(metricsRegistry.scrape().contains("{endpoint=\"GET /unbudgeted\"} 1"));
+		assertTrue(interceptor.getLastQueryCount("GET /other").isEmpty());
+	}
+
+	@Test
+	@DisplayName("a request that continues on another thread should be counted on every thread, even when that thread finishes before the request thread is released")
+	void asyncRequestShouldBeCountedOnEveryThread() throws Exception {
+		var handler = new HandlerMethod(this, getClass().getDeclaredMethod("budgeted"));
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/budgeted");
+		var webRequest = new ServletWebRequest(request);
+		Callable<Void> task = () -> null;
+
+		interceptor.preHandle(request, response, handler);
+		inspector.inspect("select 1");
+		interceptor.beforeConcurrentHandling(webRequest, task);
+
+		var streamed = Executors.newSingleThreadExecutor();
+		try {
+			streamed.submit(() -> {
+				interceptor.preProcess(webRequest, task);
+				inspector.inspect("select 2");
+				interceptor.postProcess(webRequest, task, null);
+				return null;
+			}).get();
+		} finally {
+			streamed.shutdown();
+		}
+		interceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+		interceptor.preHandle(request, response, handler);
+		inspector.inspect("select 3");
+		interceptor.afterCompletion(request, response, handler, null);
+
+		var count = interceptor.getLastQueryCount("GET /budgeted").orElseThrow();
+		assertEquals(3, count.statements());
+		assertEquals(2, count.budget());
+	}
+
+	@Test
+	@DisplayName("the budget of a batch endpoint should grow with the items of the batch")
+	void budgetShouldGrowWithItems() throws NoSuchMethodException {
+		var handler = new HandlerMethod(this, getClass().getDeclaredMethod("batch"));
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/batch");
+
+		interceptor.preHandle(request, response, handler);
+		QueryCounter.addItems(4);
+		interceptor.afterCompletion(request, response, handler, null);
+
+		assertEquals(9, interceptor.getLastQueryCount("GET /batch").orElseThrow().budget());
+	}
+
+	@QueryBudget(value = 1, perItem = 2)
+	void batch() {
+		// Handler method with a budget of 1 statement and 2 per item
+	}
+
+	@QueryBudget(2)
+	void budgeted() {
+		// Handler method with a budget of 2 statements
+	}
+
+	void unbudgeted() {
+		// Handler method with the default budget
+	}
+}
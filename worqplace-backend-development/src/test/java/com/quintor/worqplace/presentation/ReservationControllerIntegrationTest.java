@@ -1,11 +1,15 @@
 package com.quintor.worqplace.presentation;
 
 import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.QueryBudgetExtension;
+import com.quintor.worqplace.application.util.BatchMode;
 import com.quintor.worqplace.data.LocationRepository;
 import com.quintor.worqplace.data.ReservationRepository;
 import com.quintor.worqplace.domain.*;
+import com.quintor.worqplace.presentation.dto.reservation.BatchReservationDTO;
 import com.quintor.worqplace.presentation.dto.reservation.ReservationDTO;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -15,6 +19,7 @@ import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 
+import javax.persistence.EntityManagerFactory;
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -24,6 +29,7 @@ import java.time.LocalTime;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("ci")
 @Import(CiTestConfiguration.class)
+@ExtendWith(QueryBudgetExtension.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class ReservationControllerIntegrationTest {
 	@LocalServerPort
@@ -48,6 +55,12 @@ class ReservationControllerIntegrationTest {
 	@Autowired
 	private LocationRepository locationRepository;
 
+	@Autowired
+	private QueryBudgetInterceptor queryBudgetInterceptor;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	private Employee employee;
 
 	private Room room;
@@ -197,6 +210,54 @@ class ReservationControllerIntegrationTest {
 		assertEquals(HttpStatus.CREATED, this.restTemplate.postForEntity(String.format("http://localhost:%s/reservations/workplaces", port), request, String.class).getStatusCode());
 	}
 
+	@Test
+	@DisplayName("reserveWorkplaces() should not load the reservations of the room one by one")
+	void reserveWorkplacesShouldStayWithinQueryBudget() {
+		ReservationDTO reservationDTO = new ReservationDTO();
+		reservationDTO.setDate(LocalDate.now().plusDays(1));
+		reservationDTO.setStartTime(LocalTime.of(9, 0));
+		reservationDTO.setEndTime(LocalTime.of(19, 0));
+		reservationDTO.setEmployeeId(employee.getId());
+		reservationDTO.setRoomId(room.getId());
+		reservationDTO.setWorkplaceAmount(1);
+		reservationDTO.setRecurrence(weeklyRecurrence1);
+
+		var headers = new HttpHeaders();
+		headers.set("Authorization", this.bearer);
+		var request = new HttpEntity<>(reservationDTO, headers);
+		for (int i = 0; i < 3; i++)
+			assertEquals(HttpStatus.CREATED, this.restTemplate.postForEntity(String.format("http://localhost:%s/reservations/workplaces", port), request, String.class).getStatusCode());
+
+		var count = queryBudgetInterceptor.getLastQueryCount("POST /reservations/workplaces").orElseThrow();
+		assertTrue(count.statements() <= 5, count.statements() + " statements");
+	}
+
+	@Test
+	@DisplayName("getAllReservations() with old reservations should not load the employees and rooms one by one")
+	void getAllReservationsWithOldShouldStayWithinQueryBudget() {
+		reservationRepository.saveAll(List.of(reservation, reservation1, reservation3));
+		entityManagerFactory.getCache().evictAll();
+
+		ResponseEntity<String> result = getRequest("/reservations?includeOld=true");
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		var count = queryBudgetInterceptor.getLastQueryCount("GET /reservations").orElseThrow();
+		assertEquals(3, count.budget());
+		assertTrue(count.statements() <= 2, count.statements() + " statements");
+	}
+
+	@Test
+	@DisplayName("getAllReservations() should not load the employees and rooms one by one")
+	void getAllReservationsShouldStayWithinQueryBudget() {
+		reservationRepository.saveAll(List.of(reservation, reservation1, reservation3));
+
+		ResponseEntity<String> result = getRequest("/reservations/all");
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		var count = queryBudgetInterceptor.getLastQueryCount("GET /reservations/all").orElseThrow();
+		assertTrue(count.statements() <= 2, count.statements() + " statements");
+	}
+
 	@Test
 	@DisplayName("reserveWorkplaces() should return reservation info if reservation went successful")
 	void reserveWorkplacesShouldReturnReservationInfo() {
@@ -392,6 +453,27 @@ class ReservationControllerIntegrationTest {
 				result.getBody().contains(String.format("\"date\":\"%s\",\"startTime\":\"09:00:00\",\"endTime\":\"19:00:00\",\"employeeId\":%s,\"roomId\":1,\"workplaceAmount\":2,\"recurrence\":{\"active\":true,\"recurrencePattern\":\"MONTHLY\"}}]", reservation1.getDate(), employee.getId())));
 	}
 
+	@Test
+	@DisplayName("getAllMyReservations() should only return reservations at the given location")
+	void getAllMyReservationsShouldFilterOnLocation() {
+		reservationRepository.save(reservation);
+
+		assertEquals(Collections.emptyList().toString(), getRequest("/reservations/all?location=4").getBody());
+		assertTrue(requireNonNull(getRequest("/reservations/all?location=5").getBody()).contains("\"workplaceAmount\":1,"));
+	}
+
+	@Test
+	@DisplayName("getAllMyReservations() should only return recurring reservations before the given date")
+	void getAllMyReservationsShouldFilterOnDate() {
+		reservationRepository.save(reservation);
+		reservationRepository.save(reservation3);
+
+		var result = getRequest("/reservations/all?date=" + LocalDate.now().plusYears(1)).getBody();
+
+		assertTrue(requireNonNull(result).contains("\"workplaceAmount\":1,"));
+		assertFalse(result.contains("\"workplaceAmount\":8,"));
+	}
+
 	@Test
 	@DisplayName("getAllMyReservations() should return empty list if there are none")
 	void getAllMyReservationsShouldReturnEmptyList() {
@@ -565,6 +647,139 @@ class ReservationControllerIntegrationTest {
 		assertEquals(HttpStatus.CONFLICT, result.getStatusCode());
 	}
 
+	@Test
+	@DisplayName("getPageByLocation should return the reservations by location page by page")
+	void getPageByLocationShouldReturnPages() {
+		reservationRepository.save(reservation);
+		var secondId = reservationRepository.save(reservation1).getId();
+		reservationRepository.save(reservation3);
+
+		login("admin@quintor.nl");
+
+		var first = getRequest("/reservations/location/5/page?size=2").getBody();
+		var last = getRequest("/reservations/location/5/page?size=2&after=" + secondId).getBody();
+		login();
+
+		assertTrue(requireNonNull(first).contains("\"nextAfter\":" + secondId));
+		assertTrue(first.contains("\"workplaceAmount\":1,") && first.contains("\"workplaceAmount\":2,"));
+		assertTrue(requireNonNull(last).contains("\"workplaceAmount\":8,"));
+		assertTrue(last.contains("\"nextAfter\":null"));
+	}
+
+	@Test
+	@DisplayName("streamAllByLocation should stream every reservation by location as a line of JSON")
+	void streamAllByLocationShouldReturnNdjson() {
+		reservationRepository.save(reservation);
+		reservationRepository.save(reservation1);
+		var lastId = reservationRepository.save(reservation3).getId();
+
+		login("admin@quintor.nl");
+
+		var result = getRequest("/reservations/location/5/stream");
+		login();
+		var lines = requireNonNull(result.getBody()).split("\n");
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		assertEquals(MediaType.parseMediaType("application/x-ndjson"), result.getHeaders().getContentType());
+		assertEquals(3, lines.length);
+		assertTrue(lines[2].startsWith("{\"id\":" + lastId + ","));
+
+		var count = queryBudgetInterceptor.getLastQueryCount("GET /reservations/location/{id}/stream").orElseThrow();
+		assertEquals(2, count.budget());
+		assertTrue(count.statements() >= 1 && count.statements() <= count.budget(), count.statements() + " statements");
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should return 201 and store every reservation if all are available")
+	void reserveBatchShouldReturn201IfAllAreAvailable() {
+		var result = postBatch(BatchMode.ALL_OR_NOTHING, batchItem(2), batchItem(4));
+
+		assertEquals(HttpStatus.CREATED, result.getStatusCode());
+		assertEquals(2, reservationRepository.count());
+		assertTrue(requireNonNull(result.getBody()).contains("\"index\":1,\"created\":true"));
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should return 207 and store the available reservations in best-effort mode")
+	void reserveBatchShouldReturn207IfSomeAreAvailableInBestEffortMode() {
+		var result = postBatch(BatchMode.BEST_EFFORT, batchItem(4), batchItem(4));
+
+		assertEquals(HttpStatus.MULTI_STATUS, result.getStatusCode());
+		assertEquals(1, reservationRepository.count());
+		assertTrue(requireNonNull(result.getBody()).contains("\"index\":1,\"created\":false,\"reservation\":null"));
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should return 422 and store nothing in all-or-nothing mode if one is not available")
+	void reserveBatchShouldReturn422IfOneIsNotAvailableInAllOrNothingMode() {
+		var result = postBatch(BatchMode.ALL_OR_NOTHING, batchItem(4), batchItem(4));
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getStatusCode());
+		assertEquals(0, reservationRepository.count());
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should return 422 if the batch is empty")
+	void reserveBatchShouldReturn422IfEmpty() {
+		var result = postBatch(BatchMode.BEST_EFFORT);
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getStatusCode());
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should return 403 and store nothing if a user reserves for another employee")
+	void reserveBatchShouldReturn403ForOtherEmployee() {
+		var own = batchItem(1);
+		own.setEmployeeId(extractIdFromToken(this.bearer));
+		var foreign = batchItem(1);
+		foreign.setEmployeeId(9L);
+
+		var result = postBatch(BatchMode.BEST_EFFORT, own, foreign);
+
+		assertEquals(HttpStatus.FORBIDDEN, result.getStatusCode());
+		assertEquals(0, reservationRepository.count());
+	}
+
+	@Test
+	@DisplayName("reserveBatch() should stay within a query budget that grows with the batch")
+	void reserveBatchShouldStayWithinQueryBudget() {
+		var items = new ReservationDTO[6];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = batchItem(1);
+			items[i].setRoomId(1L + i % 2);
+			items[i].setDate(LocalDate.now().plusDays(3 + i));
+		}
+
+		var result = postBatch(BatchMode.ALL_OR_NOTHING, items);
+
+		assertEquals(HttpStatus.CREATED, result.getStatusCode());
+		var count = queryBudgetInterceptor.getLastQueryCount("POST /reservations/batch").orElseThrow();
+		assertEquals(4 + 2 * items.length, count.budget());
+		assertTrue(count.statements() <= count.budget(), count.statements() + " statements");
+	}
+
+	private ReservationDTO batchItem(int workplaceAmount) {
+		var reservationDTO = new ReservationDTO();
+		reservationDTO.setDate(LocalDate.now().plusDays(3));
+		reservationDTO.setStartTime(LocalTime.of(9, 0));
+		reservationDTO.setEndTime(LocalTime.of(17, 0));
+		reservationDTO.setRoomId(2L);
+		reservationDTO.setWorkplaceAmount(workplaceAmount);
+		reservationDTO.setRecurrence(weeklyRecurrence1);
+		return reservationDTO;
+	}
+
+	private ResponseEntity<String> postBatch(BatchMode mode, ReservationDTO... reservations) {
+		var batchReservationDTO = new BatchReservationDTO();
+		batchReservationDTO.setMode(mode);
+		batchReservationDTO.setReservations(List.of(reservations));
+
+		var headers = new HttpHeaders();
+		headers.set("Authorization", this.bearer);
+		var request = new HttpEntity<>(batchReservationDTO, headers);
+
+		return this.restTemplate.postForEntity(String.format("http://localhost:%s/reservations/batch", port), request, String.class);
+	}
 
 	/**
 	 * Function that uses the {@link TestRestTemplate} to send a GET request
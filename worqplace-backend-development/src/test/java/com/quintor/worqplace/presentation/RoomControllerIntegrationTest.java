@@ -1,7 +1,9 @@
 package com.quintor.worqplace.presentation;
 
 import com.quintor.worqplace.CiTestConfiguration;
+import com.quintor.worqplace.QueryBudgetExtension;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -17,17 +19,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("ci")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @Import(CiTestConfiguration.class)
+@ExtendWith(QueryBudgetExtension.class)
 class RoomControllerIntegrationTest {
 
 	@LocalServerPort
 	private int port;
 	@Autowired
 	private TestRestTemplate restTemplate;
+	@Autowired
+	private QueryBudgetInterceptor queryBudgetInterceptor;
 
 	private String bearer;
 
@@ -153,6 +159,105 @@ class RoomControllerIntegrationTest {
 		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getStatusCode());
 	}
 
+	@Test
+	@DisplayName("getWorkplacesAvailabilityBetween() should return the availability of every requested weekday")
+	void getWorkplacesAvailabilityBetweenShouldReturnDays() {
+		String urlPart = "/rooms/availability/range?";
+		urlPart += "locationId=5&";
+		urlPart += "from=6000-01-03&";
+		urlPart += "to=6000-01-09&";
+		urlPart += "start=14:00&";
+		urlPart += "end=15:00&";
+		urlPart += "weekdays=MONDAY,FRIDAY";
+
+		ResponseEntity<String> result = getRequest(urlPart);
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		assertTrue(result.getBody().startsWith("[{\"id\":1,\"floor\":3,\"capacity\":24,\"days\":["
+				+ "{\"date\":\"6000-01-03\",\"available\":24},{\"date\":\"6000-01-07\",\"available\":24}]}"));
+	}
+
+	@Test
+	@DisplayName("Test if a date range that ends before it starts returns an error.")
+	void invalidDateRangeReturnsError() {
+		String urlPart = "/rooms/availability/range?";
+		urlPart += "locationId=5&";
+		urlPart += "from=6000-01-09&";
+		urlPart += "to=6000-01-03&";
+		urlPart += "start=14:00&";
+		urlPart += "end=15:00";
+
+		ResponseEntity<String> result = getRequest(urlPart);
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getStatusCode());
+	}
+
+	@Test
+	@DisplayName("getSuggestions() should rank the requested location and timeslot first")
+	void getSuggestionsShouldRankRequestedTimeslotFirst() {
+		String urlPart = "/rooms/availability/suggestions?";
+		urlPart += "locationId=5&";
+		urlPart += "date=6000-01-01&";
+		urlPart += "start=14:00&";
+		urlPart += "end=15:00&";
+		urlPart += "amount=2";
+
+		ResponseEntity<String> result = getRequest(urlPart);
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		assertTrue(result.getBody().startsWith("[{\"locationId\":5,\"roomId\":1,\"floor\":3,\"capacity\":24,"
+				+ "\"startTime\":\"14:00:00\",\"endTime\":\"15:00:00\",\"available\":24,\"score\":0}"));
+	}
+
+	@Test
+	@DisplayName("Test if asking for suggestions in the past returns an error.")
+	void pastSuggestionsReturnsError() {
+		String urlPart = "/rooms/availability/suggestions?";
+		urlPart += "locationId=5&";
+		urlPart += "date=2010-01-01&";
+		urlPart += "start=14:00&";
+		urlPart += "end=15:00";
+
+		ResponseEntity<String> result = getRequest(urlPart);
+
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, result.getStatusCode());
+	}
+
+	@Test
+	@DisplayName("Test if the availability of a location is calculated with a single query per kind of data.")
+	void availabilityStaysWithinQueryBudget() {
+		String urlPart = "/rooms/availability/workplaces?";
+		urlPart += "locationId=5&";
+		urlPart += "date=6000-02-01&";
+		urlPart += "start=14:00&";
+		urlPart += "end=15:00";
+
+		ResponseEntity<String> result = getRequest(urlPart);
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		var count = queryBudgetInterceptor.getLastQueryCount("GET /rooms/availability/workplaces").orElseThrow();
+		assertEquals(3, count.budget());
+		assertTrue(count.statements() <= count.budget(), count.statements() + " statements");
+	}
+
+	@Test
+	@DisplayName("Test if the availability of a date range does not query every day separately.")
+	void rangeAvailabilityStaysWithinQueryBudget() {
+		String urlPart = "/rooms/availability/range?";
+		urlPart += "locationId=5&";
+		urlPart += "from=6000-03-01&";
+		urlPart += "to=6000-03-31&";
+		urlPart += "start=14:00&";
+		urlPart += "end=15:00";
+
+		ResponseEntity<String> result = getRequest(urlPart);
+
+		assertEquals(HttpStatus.OK, result.getStatusCode());
+		var count = queryBudgetInterceptor.getLastQueryCount("GET /rooms/availability/range").orElseThrow();
+		assertEquals(3, count.budget());
+		assertTrue(count.statements() <= count.budget(), count.statements() + " statements");
+	}
+
 	/**
 	 * Function that uses the {@link TestRestTemplate} to send a GET request
 	 * to the Back-End for testing during Continuous Integration.
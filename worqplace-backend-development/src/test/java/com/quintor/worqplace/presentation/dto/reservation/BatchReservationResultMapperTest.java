@@ -0,0 +1,52 @@
+package com.quintor.worqplace.presentation.dto.reservation;
+
+import com.quintor.worqplace.application.util.BatchReservationResult;
+import com.quintor.worqplace.domain.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchReservationResultMapperTest {
+
+	private static final Employee EMPLOYEE = new Employee(1L, "Lola", "Hoeing");
+	private static final Room ROOM = new Room(1L, 3, null, 4, Collections.emptyList());
+	private static final Recurrence RECURRENCE = new Recurrence(false, RecurrencePattern.NONE);
+	private static final Reservation RESERVATION = new Reservation(1L, LocalDate.now(), LocalTime.of(9, 0),
+			LocalTime.of(17, 0), EMPLOYEE, ROOM, 1, RECURRENCE);
+
+	@Test
+	@DisplayName("batchReservationResultDTO should contain the created reservation")
+	void batchReservationResultDtoShouldContainCreatedReservation() {
+		var dto = BatchReservationResultMapper.INSTANCE
+				.toBatchReservationResultDTO(new BatchReservationResult(3, RESERVATION, null));
+
+		assertEquals(3, dto.getIndex());
+		assertTrue(dto.isCreated());
+		assertEquals(RESERVATION.getId(), dto.getReservation().getId());
+		assertEquals(EMPLOYEE.getId(), dto.getReservation().getEmployeeId());
+		assertEquals(ROOM.getId(), dto.getReservation().getRoomId());
+		assertNull(dto.getError());
+	}
+
+	@Test
+	@DisplayName("batchReservationResultDTO should contain the error of a rejected reservation")
+	void batchReservationResultDtoShouldContainError() {
+		var dto = BatchReservationResultMapper.INSTANCE
+				.toBatchReservationResultDTO(new BatchReservationResult(0, null, "Room 1 not found"));
+
+		assertFalse(dto.isCreated());
+		assertNull(dto.getReservation());
+		assertEquals("Room 1 not found", dto.getError());
+	}
+
+	@Test
+	@DisplayName("batchReservationResultDTO should return null when result is null")
+	void batchReservationResultDtoShouldReturnNullWhenResultIsNull() {
+		assertNull(BatchReservationResultMapper.INSTANCE.toBatchReservationResultDTO(null));
+	}
+}
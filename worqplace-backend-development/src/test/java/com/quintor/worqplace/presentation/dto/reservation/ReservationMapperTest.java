@@ -1,5 +1,6 @@
 package com.quintor.worqplace.presentation.dto.reservation;
 
+import com.quintor.worqplace.application.util.ReservationSummary;
 import com.quintor.worqplace.domain.*;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -83,6 +84,26 @@ class ReservationMapperTest {
 		assertEquals(RESERVATION.getRecurrence(), dto.getRecurrence());
 	}
 
+	@Test
+	@DisplayName("reservationDTO should have the fields of a reservation summary")
+	void reservationDtoShouldHaveFieldsOfSummary() {
+		var summary = new ReservationSummary(1L, TODAY, STARTTME, ENDTIME, EMPLOYEE.getId(), ROOM.getId(), 1,
+				RECURRENCE.isActive(), RECURRENCE.getRecurrencePattern());
+		var dto = ReservationMapper.INSTANCE.summaryToReservationDTO(summary);
+
+		assertEquals(summary.id(), dto.getId());
+		assertEquals(summary.date(), dto.getDate());
+		assertEquals(summary.employeeId(), dto.getEmployeeId());
+		assertEquals(summary.roomId(), dto.getRoomId());
+		assertEquals(RECURRENCE, dto.getRecurrence());
+	}
+
+	@Test
+	@DisplayName("reservationDTO should return null when the summary is null")
+	void reservationDtoShouldReturnNullWhenSummaryIsNull() {
+		assertNull(ReservationMapper.INSTANCE.summaryToReservationDTO(null));
+	}
+
 	@Test
 	@DisplayName("reservationDTO should return null when location is null")
 	void reservationDtoShouldReturnNullWhenLocationIsNull() {
@@ -0,0 +1,56 @@
+package com.quintor.worqplace.security.filter;
+
+import com.quintor.worqplace.application.MetricsRegistry;
+import com.quintor.worqplace.security.data.UserProfile;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthorizationFilterTest {
+	private static final String SECRET = "this-is-a-512-bit-key-used-for-signing-jwt-tokens-that-should-be-changed-in-production";
+
+	private JwtAuthorizationFilter filter;
+	private String header;
+
+	@BeforeEach
+	void initialize() {
+		this.filter = new JwtAuthorizationFilter(SECRET, 100, Duration.ofHours(1), authentication -> authentication,
+				new MetricsRegistry());
+		this.header = "Bearer " + Jwts.builder()
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+				.setSubject("7")
+				.setExpiration(new Date(System.currentTimeMillis() + Duration.ofMinutes(30).toMillis()))
+				.claim("role", List.of("ROLE_USER"))
+				.compact();
+	}
+
+	@Test
+	@DisplayName("getAuthentication should give every request its own authentication for a cached token")
+	void getAuthenticationShouldNotShareAuthentications() {
+		var first = filter.getAuthentication(header);
+		first.setAuthenticated(false);
+
+		var second = filter.getAuthentication(header);
+
+		assertNotSame(first, second);
+		assertTrue(second.isAuthenticated());
+		assertEquals(7L, ((UserProfile) second.getPrincipal()).getEmployeeId());
+		assertEquals("ROLE_USER", second.getAuthorities().iterator().next().getAuthority());
+	}
+
+	@Test
+	@DisplayName("getAuthentication should ignore headers without a bearer token")
+	void getAuthenticationShouldIgnoreOtherHeaders() {
+		assertNull(filter.getAuthentication(null));
+		assertNull(filter.getAuthentication("Basic abc"));
+	}
+}
@@ -0,0 +1,45 @@
+package com.quintor.worqplace.security.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsScrapeFilterTest {
+	private final MetricsScrapeFilter filter = new MetricsScrapeFilter("/metrics/prometheus", "prometheus", "secret");
+
+	@Test
+	@DisplayName("getAuthentication should give the scraper only the metrics role")
+	void getAuthenticationShouldGiveMetricsRole() {
+		var authentication = filter.getAuthentication(basic("prometheus:secret"));
+
+		assertEquals("prometheus", authentication.getPrincipal());
+		assertEquals(MetricsScrapeFilter.METRICS_ROLE, authentication.getAuthorities().iterator().next().getAuthority());
+		assertEquals(1, authentication.getAuthorities().size());
+	}
+
+	@Test
+	@DisplayName("getAuthentication should ignore wrong credentials and other headers")
+	void getAuthenticationShouldIgnoreWrongCredentials() {
+		assertNull(filter.getAuthentication(basic("prometheus:wrong")));
+		assertNull(filter.getAuthentication(basic("admin:secret")));
+		assertNull(filter.getAuthentication("Basic not-base64!"));
+		assertNull(filter.getAuthentication("Bearer abc"));
+		assertNull(filter.getAuthentication(null));
+	}
+
+	@Test
+	@DisplayName("getAuthentication should accept nothing when no password is configured")
+	void getAuthenticationShouldBeDisabledWithoutPassword() {
+		var disabled = new MetricsScrapeFilter("/metrics/prometheus", "prometheus", "");
+
+		assertNull(disabled.getAuthentication(basic("prometheus:")));
+	}
+
+	private static String basic(String credential) {
+		return "Basic " + Base64.getEncoder().encodeToString(credential.getBytes(StandardCharsets.UTF_8));
+	}
+}